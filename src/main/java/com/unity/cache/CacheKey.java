@@ -0,0 +1,183 @@
+package com.unity.cache;
+
+import com.unity.cache.utils.ConsistentHashUtil;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * CacheKey wraps a key together with its routing hash and its encoded form.
+ * <p>
+ * The hash and the encoded form are computed at most once per instance, so a single operation hashes
+ * the key exactly once and callers that reuse a CacheKey pay no hashing cost at all.
+ * Two CacheKeys are equal if the wrapped keys are equal.
+ * A String key may carry a hash tag in braces, only the tag decides the node of the key.
+ * Every key is routed as its encoded String, the form remote caches store it under, so a key listed back as a String
+ * by such a cache is routed exactly as it was written. Keys of other types should have a toString consistent with equals.
+ * </p>
+ * e.g.
+ * CacheKey key = CacheKey.of("user:1");
+ * distributedCache.put(key, value);
+ * distributedCache.get(key);
+ */
+@EqualsAndHashCode(of = "key")
+public final class CacheKey implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    //The original key, used by connectors which store keys as objects
+    @Getter
+    private final Serializable key;
+
+    //Routing hash in range [0, 1), published by the volatile flag
+    private transient double hash;
+    private transient volatile boolean hashed;
+
+    //Encoded form used by connectors which store keys as strings or bytes
+    private transient String encoded;
+    private transient byte[] encodedBytes;
+
+    private CacheKey(Serializable key) {
+        this.key = key;
+    }
+
+    private CacheKey(Serializable key, double hash) {
+        this.key = key;
+        this.hash = hash;
+        this.hashed = true;
+    }
+
+    /**
+     * Wrap a key. If the key is already a CacheKey, it is returned as it is.
+     *
+     * @param key key to be wrapped
+     * @return CacheKey of the key
+     * @throws IllegalArgumentException if key is null
+     */
+    public static CacheKey of(Serializable key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Key can't be null.");
+        }
+        return (key instanceof CacheKey) ? (CacheKey) key : new CacheKey(key);
+    }
+
+    /**
+     * Wrap a numeric key. The key is hashed from the primitive value without building its string,
+     * it is equal to and routed the same as the boxed Long key and its decimal String.
+     * The key is boxed into a Long once, as the wrapped key of the CacheKey.
+     *
+     * @param key key to be wrapped
+     * @return CacheKey of the key
+     * @see ConsistentHashUtil#myHashDecimal(long)
+     */
+    public static CacheKey of(long key) {
+        return new CacheKey(key, ConsistentHashUtil.myHashDecimal(key));
+    }
+
+    /**
+     * Wrap a numeric key. The key is hashed from the primitive value without building its string,
+     * it is equal to and routed the same as the boxed Integer key and its decimal String.
+     *
+     * @param key key to be wrapped
+     * @return CacheKey of the key
+     * @see ConsistentHashUtil#myHashDecimal(long)
+     */
+    public static CacheKey of(int key) {
+        return new CacheKey(key, ConsistentHashUtil.myHashDecimal(key));
+    }
+
+    /**
+     * Get the routing hash of the key, it is in range [0, 1)
+     * The key is routed as its encoded String, see {@link #getEncoded()}. A key with a hash tag is routed by its tag only,
+     * see {@link #hashTagStart(String)}. Long and Integer keys are hashed from their value without building the string.
+     *
+     * @see ConsistentHashUtil#myHash(String)
+     */
+    public double getHash() {
+        if (!hashed) {
+            if (key instanceof Long || key instanceof Integer) {
+                hash = ConsistentHashUtil.myHashDecimal(((Number) key).longValue());
+            } else {
+                String string = getEncoded();
+                int tagStart = hashTagStart(string);
+                hash = tagStart < 0 ? ConsistentHashUtil.myHash(string) : ConsistentHashUtil.myHash(string, tagStart, string.indexOf('}', tagStart));
+            }
+            hashed = true;
+        }
+        return hash;
+    }
+
+    /**
+     * Find the hash tag of a key, as Redis Cluster does: the part between the first '{' and the first '}' after it,
+     * if it is not empty. Keys with the same tag are routed to the same node, e.g. "{user:1}:profile" and
+     * "{user:1}:sessions" are both routed by "user:1", so they can be read with one multi-get from one node.
+     *
+     * @param key String key
+     * @return index of the first char of the tag, -1 if the key has no hash tag
+     */
+    public static int hashTagStart(String key) {
+        int open = key.indexOf('{');
+        if (open < 0) {
+            return -1;
+        }
+        int close = key.indexOf('}', open + 1);
+        return close > open + 1 ? open + 1 : -1;
+    }
+
+    /**
+     * Get the string form of the key which is used as the key in remote caches
+     */
+    public String getEncoded() {
+        String result = encoded;
+        if (result == null) {
+            result = key.toString();
+            encoded = result;
+        }
+        return result;
+    }
+
+    /**
+     * Get the UTF-8 bytes of the encoded key
+     * Numeric keys are written as ASCII digits directly, without building the string first
+     */
+    public byte[] getEncodedBytes() {
+        byte[] result = encodedBytes;
+        if (result == null) {
+            if (key instanceof Long || key instanceof Integer) {
+                result = encodeDecimal(((Number) key).longValue());
+            } else {
+                result = getEncoded().getBytes(StandardCharsets.UTF_8);
+            }
+            encodedBytes = result;
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return getEncoded();
+    }
+
+    private static byte[] encodeDecimal(long value) {
+        if (value == Long.MIN_VALUE) {
+            return Long.toString(value).getBytes(StandardCharsets.US_ASCII);
+        }
+        boolean negative = value < 0;
+        long remaining = negative ? -value : value;
+        int length = negative ? 2 : 1;
+        for (long rest = remaining / 10; rest > 0; rest /= 10) {
+            length++;
+        }
+        byte[] digits = new byte[length];
+        for (int i = length - 1; i >= (negative ? 1 : 0); i--) {
+            digits[i] = (byte) ('0' + remaining % 10);
+            remaining /= 10;
+        }
+        if (negative) {
+            digits[0] = '-';
+        }
+        return digits;
+    }
+}
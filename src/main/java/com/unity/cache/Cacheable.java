@@ -1,5 +1,7 @@
 package com.unity.cache;
 
+import com.unity.cache.exceptions.DeadlineExceededException;
+
 import java.io.Serializable;
 import java.util.Optional;
 
@@ -12,6 +14,19 @@ public interface Cacheable {
      */
     Optional<Object> get(Serializable key);
 
+    /**
+     * Get the value of the key from cache within the deadline
+     *
+     * @param key      the key
+     * @param deadline deadline of the request
+     * @return the value of the key
+     * @throws DeadlineExceededException if the deadline passes before the value is read
+     */
+    default Optional<Object> get(Serializable key, Deadline deadline) {
+        deadline.check();
+        return get(key);
+    }
+
     /**
      * Put the key-value pair into cache
      *
@@ -20,10 +35,35 @@ public interface Cacheable {
      */
     void put(Serializable key, Object value);
 
+    /**
+     * Put the key-value pair into cache within the deadline
+     *
+     * @param key      the key
+     * @param value    the value
+     * @param deadline deadline of the request
+     * @throws DeadlineExceededException if the deadline passes before the write is done
+     */
+    default void put(Serializable key, Object value, Deadline deadline) {
+        deadline.check();
+        put(key, value);
+    }
+
     /**
      * Remove the key from cache
      *
      * @param key the key
      */
     void remove(Serializable key);
+
+    /**
+     * Remove the key from cache within the deadline
+     *
+     * @param key      the key
+     * @param deadline deadline of the request
+     * @throws DeadlineExceededException if the deadline passes before the remove is done
+     */
+    default void remove(Serializable key, Deadline deadline) {
+        deadline.check();
+        remove(key);
+    }
 }
@@ -0,0 +1,93 @@
+package com.unity.cache;
+
+import com.unity.cache.exceptions.DeadlineExceededException;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deadline is the point in time by which a request should be answered.
+ * <p>
+ * It is created once per request and passed down to the connectors, which check it before sending anything
+ * and bound their waits for replies by the remaining time. It is based on {@link System#nanoTime()},
+ * so it is only meaningful within one JVM.
+ * </p>
+ * e.g.
+ * Deadline deadline = Deadline.after(50, TimeUnit.MILLISECONDS);
+ * distributedCache.get(key, deadline);
+ */
+public final class Deadline {
+
+    private static final Deadline NONE = new Deadline(0, false);
+
+    private final long deadlineNanos;
+    private final boolean bounded;
+
+    private Deadline(long deadlineNanos, boolean bounded) {
+        this.deadlineNanos = deadlineNanos;
+        this.bounded = bounded;
+    }
+
+    /**
+     * Deadline after the duration from now
+     *
+     * @throws IllegalArgumentException if the duration is negative or the unit is null
+     */
+    public static Deadline after(long duration, TimeUnit unit) {
+        if (duration < 0 || unit == null) {
+            throw new IllegalArgumentException("Duration can't be negative and unit can't be null.");
+        }
+        return new Deadline(System.nanoTime() + unit.toNanos(duration), true);
+    }
+
+    /**
+     * Deadline which never passes, requests use the timeouts of the connectors only
+     */
+    public static Deadline none() {
+        return NONE;
+    }
+
+    public boolean isBounded() {
+        return bounded;
+    }
+
+    public boolean isExpired() {
+        return bounded && deadlineNanos - System.nanoTime() <= 0;
+    }
+
+    /**
+     * Time left in nanoseconds, 0 if the deadline has passed and Long.MAX_VALUE if it is not bounded
+     */
+    public long remainingNanos() {
+        if (!bounded) {
+            return Long.MAX_VALUE;
+        }
+        return Math.max(0, deadlineNanos - System.nanoTime());
+    }
+
+    /**
+     * The shorter of the timeout and the time left
+     *
+     * @param timeout timeout of the connector
+     * @param unit    unit of the timeout and of the result
+     */
+    public long bound(long timeout, TimeUnit unit) {
+        return bounded ? Math.min(timeout, unit.convert(remainingNanos(), TimeUnit.NANOSECONDS)) : timeout;
+    }
+
+    /**
+     * Check the deadline before a request is sent
+     *
+     * @throws DeadlineExceededException if the deadline has passed
+     */
+    public void check() {
+        if (isExpired()) {
+            throw new DeadlineExceededException("Deadline exceeded by "
+                    + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - deadlineNanos) + " ms, request is not sent");
+        }
+    }
+
+    @Override
+    public String toString() {
+        return bounded ? "Deadline(remainingNanos=" + remainingNanos() + ")" : "Deadline(none)";
+    }
+}
@@ -1,10 +1,24 @@
 package com.unity.cache;
 
+import com.unity.cache.concurrent.CacheExecutors;
+import com.unity.cache.concurrent.ScatterGather;
+import com.unity.cache.connector.CacheableConnector;
+import com.unity.cache.exceptions.DeadlineExceededException;
 import com.unity.cache.exceptions.InternalException;
+import com.unity.cache.node.Node;
 import com.unity.cache.node.NodeManager;
 
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * DistributedCache is a distributed caching mechanism using a consistent hashing algorithm.
@@ -18,13 +32,25 @@ import java.util.Optional;
  * nodeManager.init();
  * DistributedCache distributedCache = new DistributedCache(nodeManager);
  * distributedCache.put("key1", "value1");
+ * distributedCache.get("key1", Deadline.after(50, TimeUnit.MILLISECONDS));
  */
 public class DistributedCache implements Cacheable {
 
+    //Number of entries read from a node per page of a scan
+    public static final int DEFAULT_SCAN_PAGE_SIZE = 1000;
+
     private final NodeManager nodeManager;
 
+    //Executor to fan out multi-key operations across nodes
+    private final Executor fanOutExecutor;
+
     public DistributedCache(NodeManager nodeManager) {
+        this(nodeManager, CacheExecutors.fanOut());
+    }
+
+    public DistributedCache(NodeManager nodeManager, Executor fanOutExecutor) {
         this.nodeManager = nodeManager;
+        this.fanOutExecutor = fanOutExecutor;
     }
 
     /**
@@ -34,12 +60,127 @@ public class DistributedCache implements Cacheable {
      * @return value value of the key. It can be null.
      * @throws IllegalArgumentException if key is null or key is not in the cache
      * @throws InternalException        if cache is not initialized for the node
-     * @see NodeManager#nodeGet(Serializable)
+     * @see NodeManager#nodeGet(CacheKey)
      */
     @Override
     public Optional<Object> get(Serializable key) {
-        validate(key);
-        return nodeManager.nodeGet(key).getCache().getFromCache(key);
+        return get(CacheKey.of(key));
+    }
+
+    /**
+     * Get the value of the pre-hashed key from the node where the key is stored.
+     * While a topology change is running, a miss on the new owner is retried on the previous owner.
+     *
+     * @param key pre-hashed key of the value
+     * @return value value of the key. It can be null.
+     * @throws IllegalArgumentException if key is null or key is not in the cache
+     * @throws InternalException        if cache is not initialized for the node
+     * @see NodeManager#nodeGet(CacheKey)
+     */
+    public Optional<Object> get(CacheKey key) {
+        return get(key, Deadline.none());
+    }
+
+    /**
+     * Get the value of the key within the deadline. A request whose deadline has passed is not sent.
+     *
+     * @param key      key of the value. It should be serializable.
+     * @param deadline deadline of the request
+     * @return value value of the key. It can be null.
+     * @throws IllegalArgumentException  if key or deadline is null
+     * @throws DeadlineExceededException if the deadline passes before the value is read
+     * @throws InternalException         if cache is not initialized for the node
+     * @see #get(CacheKey, Deadline)
+     */
+    @Override
+    public Optional<Object> get(Serializable key, Deadline deadline) {
+        return get(CacheKey.of(key), deadline);
+    }
+
+    /**
+     * Get the value of the pre-hashed key within the deadline. The deadline is passed to the connectors,
+     * which check it before sending and bound their waits for replies by the time left.
+     *
+     * @param key      pre-hashed key of the value
+     * @param deadline deadline of the request
+     * @return value value of the key. It can be null.
+     * @throws IllegalArgumentException  if key or deadline is null
+     * @throws DeadlineExceededException if the deadline passes before the value is read
+     * @throws InternalException         if cache is not initialized for the node
+     */
+    public Optional<Object> get(CacheKey key, Deadline deadline) {
+        validateDeadline(deadline);
+        long topologyVersion = nodeManager.getTopologyVersion();
+        Optional<Object> value = read(validateAndRoute(key), key, deadline);
+        if (value.isPresent() || !isTopologyChanging(topologyVersion)) {
+            return value;
+        }
+        Node previous = nodeManager.previousNodeGet(key);
+        if (previous != null) {
+            value = read(previous, key, deadline);
+        }
+        //Entries are written to the new owner before they are removed from the previous one, so a miss on both means it moved in between
+        return value.isPresent() ? value : read(validateAndRoute(key), key, deadline);
+    }
+
+    /**
+     * Get the values of multiple keys. Keys are grouped by node and each node is queried
+     * with one multi-get call, all nodes concurrently.
+     * While a topology change is running, the missed keys are retried on their previous owners.
+     *
+     * @param keys keys of the values. They should be serializable.
+     * @return values of the keys which are found in the cache
+     * @throws IllegalArgumentException if any key is null or key is not in the cache
+     * @throws InternalException        if cache is not initialized for the node
+     * @see CacheableConnector#multiGetFromCache(Collection)
+     */
+    public Map<Serializable, Object> getAll(Collection<? extends Serializable> keys) {
+        return getAll(keys, Deadline.none());
+    }
+
+    /**
+     * Get the values of multiple keys within the deadline, every node is queried with the same deadline.
+     *
+     * @param keys     keys of the values. They should be serializable.
+     * @param deadline deadline of the request
+     * @return values of the keys which are found in the cache
+     * @throws IllegalArgumentException  if any key or the deadline is null
+     * @throws DeadlineExceededException if the deadline passes before the values of any node are read
+     * @throws InternalException         if cache is not initialized for the node
+     * @see #getAll(Collection)
+     */
+    public Map<Serializable, Object> getAll(Collection<? extends Serializable> keys, Deadline deadline) {
+        validateDeadline(deadline);
+        long topologyVersion = nodeManager.getTopologyVersion();
+        Map<Node, List<CacheKey>> keysByNode = new LinkedHashMap<>();
+        List<CacheKey> cacheKeys = new ArrayList<>(keys.size());
+        for (Serializable key : keys) {
+            CacheKey cacheKey = CacheKey.of(key);
+            cacheKeys.add(cacheKey);
+            keysByNode.computeIfAbsent(validateAndRoute(cacheKey), node -> new ArrayList<>()).add(cacheKey);
+        }
+        Map<Serializable, Object> result = new HashMap<>();
+        multiGet(keysByNode, result, deadline);
+        if (result.size() < cacheKeys.size() && isTopologyChanging(topologyVersion)) {
+            //Retry the missed keys on their previous owners, then on their current owners,
+            //as entries are written to the new owner before they are removed from the previous one
+            Map<Node, List<CacheKey>> previousKeysByNode = new LinkedHashMap<>();
+            for (CacheKey key : cacheKeys) {
+                Node previous = result.containsKey(key.getKey()) ? null : nodeManager.previousNodeGet(key);
+                if (previous != null) {
+                    previousKeysByNode.computeIfAbsent(previous, node -> new ArrayList<>()).add(key);
+                }
+            }
+            multiGet(previousKeysByNode, result, deadline);
+            Map<Node, List<CacheKey>> missedKeysByNode = new LinkedHashMap<>();
+            for (CacheKey key : cacheKeys) {
+                if (!result.containsKey(key.getKey())) {
+                    missedKeysByNode.computeIfAbsent(validateAndRoute(key), node -> new ArrayList<>()).add(key);
+                }
+            }
+            multiGet(missedKeysByNode, result, deadline);
+        }
+        return result;
     }
 
     /**
@@ -49,15 +190,167 @@ public class DistributedCache implements Cacheable {
      * @param value value of the key. It can not be null
      * @throws IllegalArgumentException if key is null or key is not in the cache or value is null
      * @throws InternalException        if cache is not initialized for the node
-     * @see NodeManager#nodeGet(Serializable)
+     * @see NodeManager#nodeGet(CacheKey)
      */
     @Override
     public void put(Serializable key, Object value) {
-        validate(key);
+        put(CacheKey.of(key), value);
+    }
+
+    /**
+     * Put the key-value pair with a pre-hashed key to contributed cache
+     * The key is fenced first, so a running migration never replaces the value with an older one.
+     * If a topology change starts while the value is written, it is written again to the new owner.
+     *
+     * @param key   pre-hashed key of the value
+     * @param value value of the key. It can not be null
+     * @throws IllegalArgumentException if key is null or key is not in the cache or value is null
+     * @throws InternalException        if cache is not initialized for the node
+     * @see NodeManager#nodeGet(CacheKey)
+     */
+    public void put(CacheKey key, Object value) {
+        put(key, value, Deadline.none());
+    }
+
+    /**
+     * Put the key-value pair to contributed cache within the deadline
+     *
+     * @param key      key of the value. It should be serializable.
+     * @param value    value of the key. It can not be null
+     * @param deadline deadline of the request
+     * @throws IllegalArgumentException  if key, value or deadline is null
+     * @throws DeadlineExceededException if the deadline passes before the write is done
+     * @throws InternalException         if cache is not initialized for the node
+     * @see #put(CacheKey, Object, Deadline)
+     */
+    @Override
+    public void put(Serializable key, Object value, Deadline deadline) {
+        put(CacheKey.of(key), value, deadline);
+    }
+
+    /**
+     * Put the key-value pair with a pre-hashed key to contributed cache within the deadline
+     *
+     * @param key      pre-hashed key of the value
+     * @param value    value of the key. It can not be null
+     * @param deadline deadline of the request
+     * @throws IllegalArgumentException  if key, value or deadline is null
+     * @throws DeadlineExceededException if the deadline passes before the write is done
+     * @throws InternalException         if cache is not initialized for the node
+     */
+    public void put(CacheKey key, Object value, Deadline deadline) {
+        validateDeadline(deadline);
+        if (key == null) {
+            throw new IllegalArgumentException("Key can't be null.");
+        }
         if (value == null) {
             throw new IllegalArgumentException("Value can't be null.");
         }
-        nodeManager.nodeGet(key).getCache().putToCache(key, value);
+        long topologyVersion = nodeManager.getTopologyVersion();
+        nodeManager.fence(key);
+        Node node = validateAndRoute(key);
+        write(node, key, value, deadline);
+        //A topology change started after the key was routed, the old owner may be drained already
+        if (nodeManager.getTopologyVersion() != topologyVersion) {
+            nodeManager.fence(key);
+            Node owner = validateAndRoute(key);
+            if (!owner.sameNode(node)) {
+                write(owner, key, value, deadline);
+            }
+        }
+    }
+
+    /**
+     * Put multiple key-value pairs with pre-hashed keys. Keys are grouped by node and each node is written
+     * with one multi-put call, all nodes concurrently.
+     * Keys are fenced and written again to their new owner after a topology change, as {@link #put(CacheKey, Object)} does.
+     *
+     * @param entries pre-hashed keys and their values. Values can not be null
+     * @throws IllegalArgumentException if entries is null, any key or value is null or key is not in the cache
+     * @throws InternalException        if cache is not initialized for the node
+     * @see CacheableConnector#putAllToCache(Map)
+     */
+    public void putAll(Map<CacheKey, ?> entries) {
+        if (entries == null) {
+            throw new IllegalArgumentException("Entries can't be null.");
+        }
+        long topologyVersion = nodeManager.getTopologyVersion();
+        Map<Node, Map<CacheKey, Object>> entriesByNode = new LinkedHashMap<>();
+        entries.forEach((key, value) -> {
+            if (value == null) {
+                throw new IllegalArgumentException("Value can't be null.");
+            }
+            nodeManager.fence(key);
+            entriesByNode.computeIfAbsent(validateAndRoute(key), node -> new LinkedHashMap<>()).put(key, value);
+        });
+        multiPut(entriesByNode);
+        //A topology change started after the keys were routed, the old owners may be drained already
+        if (nodeManager.getTopologyVersion() != topologyVersion) {
+            Map<Node, Map<CacheKey, Object>> movedByOwner = new LinkedHashMap<>();
+            entriesByNode.forEach((node, nodeEntries) -> nodeEntries.forEach((key, value) -> {
+                nodeManager.fence(key);
+                Node owner = validateAndRoute(key);
+                if (!owner.sameNode(node)) {
+                    movedByOwner.computeIfAbsent(owner, ignored -> new LinkedHashMap<>()).put(key, value);
+                }
+            }));
+            multiPut(movedByOwner);
+        }
+    }
+
+    /**
+     * Add the delta to the counter of the key atomically on its node, a missing counter is created with the delta
+     * The key is fenced like a write. While a topology change is running, a counter which is not migrated yet
+     * is copied from its previous owner first, so the count does not start over on the new owner.
+     *
+     * If a topology change starts while the counter is incremented, the counter is carried over to its new owner
+     * with the increment. If another client carried it over at the same time, the delta may be counted twice,
+     * it is never lost.
+     *
+     * @param key   key of the counter. It should be serializable.
+     * @param delta amount to be added
+     * @return value of the counter after the increment
+     * @throws IllegalArgumentException if key is null
+     * @throws InternalException        if cache is not initialized for the node
+     * @see CacheableConnector#incrementInCache(CacheKey, long)
+     */
+    public long increment(Serializable key, long delta) {
+        return increment(key, delta, Deadline.none());
+    }
+
+    /**
+     * Add the delta to the counter of the key atomically on its node within the deadline
+     *
+     * @param key      key of the counter. It should be serializable.
+     * @param delta    amount to be added
+     * @param deadline deadline of the request
+     * @return value of the counter after the increment
+     * @throws IllegalArgumentException  if key or deadline is null
+     * @throws DeadlineExceededException if the deadline passes before the increment is done
+     * @throws InternalException         if cache is not initialized for the node
+     * @see #increment(Serializable, long)
+     */
+    public long increment(Serializable key, long delta, Deadline deadline) {
+        validateDeadline(deadline);
+        CacheKey cacheKey = CacheKey.of(key);
+        long topologyVersion = nodeManager.getTopologyVersion();
+        nodeManager.fence(cacheKey);
+        Node node = validateAndRoute(cacheKey);
+        Node previous = nodeManager.previousNodeGet(cacheKey);
+        if (previous != null && !read(node, cacheKey, deadline).isPresent()) {
+            read(previous, cacheKey, deadline).ifPresent(count -> node.getCache().putIfAbsentToCache(cacheKey, count));
+        }
+        long count = incrementOn(node, cacheKey, delta, deadline);
+        //A topology change started after the key was routed, the old owner may be drained already
+        if (nodeManager.getTopologyVersion() != topologyVersion) {
+            nodeManager.fence(cacheKey);
+            Node owner = validateAndRoute(cacheKey);
+            if (!owner.sameNode(node) && !owner.getCache().putIfAbsentToCache(cacheKey, Long.toString(count))) {
+                //The counter was carried over already, possibly before this increment
+                count = incrementOn(owner, cacheKey, delta, deadline);
+            }
+        }
+        return count;
     }
 
     /**
@@ -66,23 +359,230 @@ public class DistributedCache implements Cacheable {
      * @param key key of the value. It should be serializable.
      * @throws IllegalArgumentException if key is null or key is not in the cache
      * @throws InternalException        if cache is not initialized for the node
-     * @see NodeManager#nodeGet(Serializable)
+     * @see NodeManager#nodeGet(CacheKey)
      */
     @Override
     public void remove(Serializable key) {
-        validate(key);
-        nodeManager.nodeGet(key).getCache().removeFromCache(key);
+        remove(CacheKey.of(key));
+    }
+
+    /**
+     * Remove the pre-hashed key from the cache
+     * While a topology change is running, the key is also removed from its previous owner.
+     *
+     * @param key pre-hashed key of the value
+     * @throws IllegalArgumentException if key is null or key is not in the cache
+     * @throws InternalException        if cache is not initialized for the node
+     * @see NodeManager#nodeGet(CacheKey)
+     */
+    public void remove(CacheKey key) {
+        remove(key, Deadline.none());
+    }
+
+    /**
+     * Remove the key from the cache within the deadline
+     *
+     * @param key      key of the value. It should be serializable.
+     * @param deadline deadline of the request
+     * @throws IllegalArgumentException  if key or deadline is null
+     * @throws DeadlineExceededException if the deadline passes before the remove is done
+     * @throws InternalException         if cache is not initialized for the node
+     * @see #remove(CacheKey, Deadline)
+     */
+    @Override
+    public void remove(Serializable key, Deadline deadline) {
+        remove(CacheKey.of(key), deadline);
+    }
+
+    /**
+     * Remove the pre-hashed key from the cache within the deadline
+     *
+     * @param key      pre-hashed key of the value
+     * @param deadline deadline of the request
+     * @throws IllegalArgumentException  if key or deadline is null
+     * @throws DeadlineExceededException if the deadline passes before the remove is done
+     * @throws InternalException         if cache is not initialized for the node
+     */
+    public void remove(CacheKey key, Deadline deadline) {
+        validateDeadline(deadline);
+        if (key == null) {
+            throw new IllegalArgumentException("Key can't be null.");
+        }
+        long topologyVersion = nodeManager.getTopologyVersion();
+        nodeManager.fenceRemoval(key);
+        Node node = validateAndRoute(key);
+        delete(node, key, deadline);
+        Node previous = nodeManager.previousNodeGet(key);
+        if (previous != null) {
+            delete(previous, key, deadline);
+        }
+        //A topology change started after the key was routed, the migration may have copied the key already
+        if (nodeManager.getTopologyVersion() != topologyVersion) {
+            nodeManager.fenceRemoval(key);
+            Node owner = validateAndRoute(key);
+            if (!owner.sameNode(node)) {
+                delete(owner, key, deadline);
+            }
+        }
+    }
+
+    /**
+     * Remove multiple pre-hashed keys. Keys are grouped by node and each node is called with one multi-remove,
+     * all nodes concurrently. Keys are also removed from their previous and new owners as {@link #remove(CacheKey)} does.
+     *
+     * @param keys pre-hashed keys to be removed
+     * @throws IllegalArgumentException if keys is null, any key is null or key is not in the cache
+     * @throws InternalException        if cache is not initialized for the node
+     * @see CacheableConnector#removeAllFromCache(Collection)
+     */
+    public void removeAll(Collection<CacheKey> keys) {
+        if (keys == null) {
+            throw new IllegalArgumentException("Keys can't be null.");
+        }
+        long topologyVersion = nodeManager.getTopologyVersion();
+        Map<Node, List<CacheKey>> keysByNode = new LinkedHashMap<>();
+        for (CacheKey key : keys) {
+            nodeManager.fenceRemoval(key);
+            keysByNode.computeIfAbsent(validateAndRoute(key), node -> new ArrayList<>()).add(key);
+        }
+        multiRemove(keysByNode);
+        Map<Node, List<CacheKey>> otherOwners = new LinkedHashMap<>();
+        boolean topologyChanged = nodeManager.getTopologyVersion() != topologyVersion;
+        keysByNode.forEach((node, nodeKeys) -> nodeKeys.forEach(key -> {
+            Node previous = nodeManager.previousNodeGet(key);
+            if (previous != null) {
+                otherOwners.computeIfAbsent(previous, ignored -> new ArrayList<>()).add(key);
+            }
+            //A topology change started after the key was routed, the migration may have copied the key already
+            if (topologyChanged) {
+                nodeManager.fenceRemoval(key);
+                Node owner = validateAndRoute(key);
+                if (!owner.sameNode(node)) {
+                    otherOwners.computeIfAbsent(owner, ignored -> new ArrayList<>()).add(key);
+                }
+            }
+        }));
+        multiRemove(otherOwners);
+    }
+
+    /**
+     * Scan all entries of the cluster lazily
+     *
+     * @return stream of the entries
+     * @see #scan(String, int)
+     */
+    public Stream<Map.Entry<Serializable, Object>> scan() {
+        return scan(null, DEFAULT_SCAN_PAGE_SIZE);
+    }
+
+    /**
+     * Scan the entries of the cluster whose key starts with the prefix lazily
+     *
+     * @param keyPrefix prefix of the keys
+     * @return stream of the entries
+     * @see #scan(String, int)
+     */
+    public Stream<Map.Entry<Serializable, Object>> scan(String keyPrefix) {
+        return scan(keyPrefix, DEFAULT_SCAN_PAGE_SIZE);
+    }
+
+    /**
+     * Scan the entries of the cluster whose key starts with the prefix lazily, page by page with the cursor of each node
+     * The prefix is matched by the nodes, so other entries are not sent. Pages are read when the stream reaches them,
+     * a parallel stream reads the nodes, and the pages of a node, concurrently.
+     * The scan is weakly consistent: entries written or migrated while it runs may be missed or seen twice,
+     * and nodes which can not list their keys (e.g. memcache) return no entry.
+     *
+     * @param keyPrefix prefix of the keys, null for all keys
+     * @param pageSize  hint of the number of entries per page
+     * @return stream of the entries
+     * @throws IllegalArgumentException if page size is not positive
+     * @throws InternalException        if cache is not initialized for a node, when the stream reaches it
+     */
+    public Stream<Map.Entry<Serializable, Object>> scan(String keyPrefix, int pageSize) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("Page size must be larger than 0");
+        }
+        return StreamSupport.stream(new ScanSpliterator(nodeManager.getHashedNodeList(), keyPrefix, pageSize), false);
+    }
+
+    /**
+     * Whether a topology change is running or happened since the version was read
+     */
+    private boolean isTopologyChanging(long topologyVersion) {
+        return nodeManager.isMigrating() || nodeManager.getTopologyVersion() != topologyVersion;
+    }
+
+    private void multiGet(Map<Node, List<CacheKey>> keysByNode, Map<Serializable, Object> result, Deadline deadline) {
+        ScatterGather.scatter(fanOutExecutor, keysByNode.keySet(), node -> readAll(node, keysByNode.get(node), deadline))
+                .forEach(values -> values.forEach((key, value) -> result.put(key.getKey(), value)));
+    }
+
+    private void multiPut(Map<Node, Map<CacheKey, Object>> entriesByNode) {
+        ScatterGather.scatter(fanOutExecutor, entriesByNode.keySet(), node -> {
+            node.getCache().putAllToCache(entriesByNode.get(node));
+            return null;
+        });
     }
 
-    private void validate(Serializable key) {
+    private void multiRemove(Map<Node, List<CacheKey>> keysByNode) {
+        ScatterGather.scatter(fanOutExecutor, keysByNode.keySet(), node -> {
+            node.getCache().removeAllFromCache(keysByNode.get(node));
+            return null;
+        });
+    }
+
+    //Requests without a deadline use the plain calls, so decorators which only override those keep working
+
+    private static Optional<Object> read(Node node, CacheKey key, Deadline deadline) {
+        return deadline.isBounded() ? node.getCache().getFromCache(key, deadline) : node.getCache().getFromCache(key);
+    }
+
+    private static Map<CacheKey, Object> readAll(Node node, List<CacheKey> keys, Deadline deadline) {
+        return deadline.isBounded() ? node.getCache().multiGetFromCache(keys, deadline) : node.getCache().multiGetFromCache(keys);
+    }
+
+    private static void write(Node node, CacheKey key, Object value, Deadline deadline) {
+        if (deadline.isBounded()) {
+            node.getCache().putToCache(key, value, deadline);
+        } else {
+            node.getCache().putToCache(key, value);
+        }
+    }
+
+    private static long incrementOn(Node node, CacheKey key, long delta, Deadline deadline) {
+        return deadline.isBounded() ? node.getCache().incrementInCache(key, delta, deadline) : node.getCache().incrementInCache(key, delta);
+    }
+
+    private static void delete(Node node, CacheKey key, Deadline deadline) {
+        if (deadline.isBounded()) {
+            node.getCache().removeFromCache(key, deadline);
+        } else {
+            node.getCache().removeFromCache(key);
+        }
+    }
+
+    private static void validateDeadline(Deadline deadline) {
+        if (deadline == null) {
+            throw new IllegalArgumentException("Deadline can't be null.");
+        }
+        deadline.check();
+    }
+
+    /**
+     * Validate the key and get the node where the key is stored. The key is hashed only once.
+     */
+    private Node validateAndRoute(CacheKey key) {
         if (key == null) {
             throw new IllegalArgumentException("Key can't be null.");
         }
-        if (nodeManager.nodeGet(key) == null) {
+        Node node = nodeManager.nodeGet(key);
+        if (node == null) {
             throw new IllegalArgumentException("Key is not in the cache. Key: " + key);
         }
-        if (nodeManager.nodeGet(key).getCache() == null) {
-            throw new InternalException("Cache is not initialized for node " + nodeManager.nodeGet(key).getNodeId());
+        if (node.getCache() == null) {
+            throw new InternalException("Cache is not initialized for node " + node.getNodeId());
         }
+        return node;
     }
 }
@@ -0,0 +1,136 @@
+package com.unity.cache;
+
+import com.unity.cache.exceptions.InternalException;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * LongKeyCache is a facade of DistributedCache for numeric keys.
+ * <p>
+ * Keys are hashed from the primitive value instead of being serialized for hashing, and they are encoded as ASCII
+ * digits for the connectors. Each key is still boxed once into the Long wrapped by its CacheKey.
+ * Entries are shared with DistributedCache: a long key is the same entry as the boxed Long key.
+ * </p>
+ * e.g.
+ * LongKeyCache longKeyCache = new LongKeyCache(distributedCache);
+ * longKeyCache.put(42L, value);
+ * longKeyCache.get(42L);
+ * Object[] values = longKeyCache.getAll(new long[]{1L, 2L, 3L});
+ */
+public class LongKeyCache {
+
+    private final DistributedCache distributedCache;
+
+    public LongKeyCache(DistributedCache distributedCache) {
+        this.distributedCache = distributedCache;
+    }
+
+    /**
+     * Get the value of the key from the node where the key is stored.
+     *
+     * @param key key of the value
+     * @return value value of the key. It can be null.
+     * @throws InternalException if cache is not initialized for the node
+     * @see DistributedCache#get(CacheKey)
+     */
+    public Optional<Object> get(long key) {
+        return distributedCache.get(CacheKey.of(key));
+    }
+
+    /**
+     * Get the values of multiple keys, each node is queried with one multi-get call.
+     *
+     * @param keys keys of the values
+     * @return values in the order of the keys, null for the keys which are not found
+     * @throws IllegalArgumentException if keys is null
+     * @throws InternalException        if cache is not initialized for the node
+     * @see DistributedCache#getAll(java.util.Collection)
+     */
+    public Object[] getAll(long[] keys) {
+        if (keys == null) {
+            throw new IllegalArgumentException("Keys can't be null.");
+        }
+        List<CacheKey> cacheKeys = new ArrayList<>(keys.length);
+        for (long key : keys) {
+            cacheKeys.add(CacheKey.of(key));
+        }
+        Map<Serializable, Object> found = distributedCache.getAll(cacheKeys);
+        Object[] values = new Object[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            values[i] = found.get(cacheKeys.get(i).getKey());
+        }
+        return values;
+    }
+
+    /**
+     * Put the key-value pair to contributed cache
+     *
+     * @param key   key of the value
+     * @param value value of the key. It can not be null
+     * @throws IllegalArgumentException if value is null
+     * @throws InternalException        if cache is not initialized for the node
+     * @see DistributedCache#put(CacheKey, Object)
+     */
+    public void put(long key, Object value) {
+        distributedCache.put(CacheKey.of(key), value);
+    }
+
+    /**
+     * Put multiple key-value pairs to contributed cache, each node is written with one multi-put call.
+     * The last value of a repeated key wins.
+     *
+     * @param keys   keys of the values
+     * @param values values of the keys in the same order. They can not be null
+     * @throws IllegalArgumentException if keys or values is null, their lengths differ or any value is null
+     * @throws InternalException        if cache is not initialized for the node
+     * @see DistributedCache#putAll(Map)
+     */
+    public void putAll(long[] keys, Object[] values) {
+        if (keys == null || values == null) {
+            throw new IllegalArgumentException("Keys and values can't be null.");
+        }
+        if (keys.length != values.length) {
+            throw new IllegalArgumentException("Keys and values should have the same length.");
+        }
+        Map<CacheKey, Object> entries = new LinkedHashMap<>();
+        for (int i = 0; i < keys.length; i++) {
+            entries.put(CacheKey.of(keys[i]), values[i]);
+        }
+        distributedCache.putAll(entries);
+    }
+
+    /**
+     * Remove the key from the cache
+     *
+     * @param key key of the value
+     * @throws InternalException if cache is not initialized for the node
+     * @see DistributedCache#remove(CacheKey)
+     */
+    public void remove(long key) {
+        distributedCache.remove(CacheKey.of(key));
+    }
+
+    /**
+     * Remove multiple keys from the cache, each node is called with one multi-remove
+     *
+     * @param keys keys of the values
+     * @throws IllegalArgumentException if keys is null
+     * @throws InternalException        if cache is not initialized for the node
+     * @see DistributedCache#removeAll(java.util.Collection)
+     */
+    public void removeAll(long[] keys) {
+        if (keys == null) {
+            throw new IllegalArgumentException("Keys can't be null.");
+        }
+        List<CacheKey> cacheKeys = new ArrayList<>(keys.length);
+        for (long key : keys) {
+            cacheKeys.add(CacheKey.of(key));
+        }
+        distributedCache.removeAll(cacheKeys);
+    }
+}
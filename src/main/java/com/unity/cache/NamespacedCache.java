@@ -0,0 +1,155 @@
+package com.unity.cache;
+
+import com.unity.cache.exceptions.InternalException;
+
+import java.io.Serializable;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * NamespacedCache is a facade of DistributedCache whose keys belong to a namespace which can be invalidated at once.
+ * <p>
+ * Every key is stored with the current generation of the namespace, e.g. "users:1700000000042:user:1".
+ * Invalidating the namespace increments the generation counter with one atomic increment on its node, the entries of
+ * the previous generation are never read again and are evicted by the nodes over time, so clearing millions of keys
+ * costs one round trip instead of a scan or a flush of whole nodes.
+ * The generation is kept locally and read again after the refresh interval, so other clients see an invalidation
+ * within that interval. A counter which is lost, e.g. evicted, starts again from the current time in milliseconds,
+ * so it never goes back to a generation which may still have entries.
+ * </p>
+ * e.g.
+ * NamespacedCache users = new NamespacedCache(distributedCache, "users");
+ * users.put("user:1", value);
+ * users.invalidate();
+ * users.get("user:1"); //empty
+ */
+public class NamespacedCache implements Cacheable {
+
+    public static final long DEFAULT_GENERATION_REFRESH_MILLIS = 1000;
+
+    private final DistributedCache distributedCache;
+    private final String namespace;
+    private final CacheKey generationKey;
+    private final long refreshNanos;
+
+    //Generation of the namespace and when it was read, null until it is read
+    private volatile Generation generation;
+
+    public NamespacedCache(DistributedCache distributedCache, String namespace) {
+        this(distributedCache, namespace, DEFAULT_GENERATION_REFRESH_MILLIS);
+    }
+
+    /**
+     * @param distributedCache   distributed cache which stores the entries and the generation counter
+     * @param namespace          name of the namespace, it must not contain ':'
+     * @param refreshMillis      how long the generation is used before it is read again, 0 reads it on every request
+     * @throws IllegalArgumentException if cache or namespace is null, namespace is empty or contains ':', or refresh is negative
+     */
+    public NamespacedCache(DistributedCache distributedCache, String namespace, long refreshMillis) {
+        if (distributedCache == null || namespace == null) {
+            throw new IllegalArgumentException("Cache and namespace can not be null");
+        }
+        if (namespace.isEmpty() || namespace.indexOf(':') >= 0) {
+            throw new IllegalArgumentException("Namespace can not be empty or contain ':'");
+        }
+        if (refreshMillis < 0) {
+            throw new IllegalArgumentException("Refresh interval must be equal or larger than 0");
+        }
+        this.distributedCache = distributedCache;
+        this.namespace = namespace;
+        this.generationKey = CacheKey.of("namespace:" + namespace);
+        this.refreshNanos = TimeUnit.MILLISECONDS.toNanos(refreshMillis);
+    }
+
+    public String getNamespace() {
+        return namespace;
+    }
+
+    /**
+     * Get the current generation of the namespace, it is read from the cache if the local one is older than the refresh interval
+     *
+     * @throws InternalException if cache is not initialized for the node of the counter
+     */
+    public long getGeneration() {
+        Generation current = this.generation;
+        if (current != null && System.nanoTime() - current.readNanos < refreshNanos) {
+            return current.value;
+        }
+        long value = distributedCache.increment(generationKey, 0);
+        if (value == 0) {
+            value = distributedCache.increment(generationKey, System.currentTimeMillis());
+        }
+        this.generation = new Generation(value);
+        return value;
+    }
+
+    /**
+     * Invalidate all entries of the namespace with one atomic increment of its generation
+     *
+     * @return the new generation
+     * @throws InternalException if cache is not initialized for the node of the counter
+     */
+    public long invalidate() {
+        long value = distributedCache.increment(generationKey, 1);
+        if (value == 1) {
+            //The counter was lost and created by this increment
+            value = distributedCache.increment(generationKey, System.currentTimeMillis());
+        }
+        this.generation = new Generation(value);
+        return value;
+    }
+
+    /**
+     * Get the value of the key in the current generation of the namespace
+     *
+     * @param key key of the value
+     * @return value of the key, empty if it is not found or the namespace was invalidated since it was written
+     * @throws IllegalArgumentException if key is null
+     * @throws InternalException        if cache is not initialized for the node
+     */
+    @Override
+    public Optional<Object> get(Serializable key) {
+        return distributedCache.get(namespacedKey(key));
+    }
+
+    /**
+     * Put the key-value pair in the current generation of the namespace
+     *
+     * @param key   key of the value
+     * @param value value of the key. It can not be null
+     * @throws IllegalArgumentException if key or value is null
+     * @throws InternalException        if cache is not initialized for the node
+     */
+    @Override
+    public void put(Serializable key, Object value) {
+        distributedCache.put(namespacedKey(key), value);
+    }
+
+    /**
+     * Remove the key from the current generation of the namespace
+     *
+     * @param key key of the value
+     * @throws IllegalArgumentException if key is null
+     * @throws InternalException        if cache is not initialized for the node
+     */
+    @Override
+    public void remove(Serializable key) {
+        distributedCache.remove(namespacedKey(key));
+    }
+
+    private CacheKey namespacedKey(Serializable key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Key can't be null.");
+        }
+        return CacheKey.of(namespace + ":" + getGeneration() + ":" + key);
+    }
+
+    private static final class Generation {
+        private final long value;
+        private final long readNanos = System.nanoTime();
+
+        private Generation(long value) {
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.unity.cache;
+
+import com.unity.cache.connector.ScanPage;
+import com.unity.cache.exceptions.InternalException;
+import com.unity.cache.node.Node;
+
+import java.io.Serializable;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+
+/**
+ * ScanSpliterator reads the entries of the nodes lazily, one cursor page at a time
+ * <p>
+ * It splits by node first: the nodes not started yet are halved. When only the current node is left, it splits
+ * by page: the next page is read and handed to the new spliterator, so a parallel stream reads the pages of a node
+ * concurrently with the processing of the previous ones. At most one page per spliterator is held in memory.
+ * </p>
+ */
+final class ScanSpliterator implements Spliterator<Map.Entry<Serializable, Object>> {
+
+    private final List<Node> nodes;
+    private final String keyPrefix;
+    private final int pageSize;
+
+    //Nodes [next, end) are not started yet
+    private int next;
+    private final int end;
+
+    //Node being read and the cursor of its next page, null cursor with a current node means the first page
+    private Node current;
+    private String cursor;
+    private final Deque<Map.Entry<Serializable, Object>> buffer = new ArrayDeque<>();
+
+    ScanSpliterator(List<Node> nodes, String keyPrefix, int pageSize) {
+        this(nodes, keyPrefix, pageSize, 0, nodes.size());
+    }
+
+    private ScanSpliterator(List<Node> nodes, String keyPrefix, int pageSize, int next, int end) {
+        this.nodes = nodes;
+        this.keyPrefix = keyPrefix;
+        this.pageSize = pageSize;
+        this.next = next;
+        this.end = end;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super Map.Entry<Serializable, Object>> action) {
+        while (buffer.isEmpty()) {
+            if (!fetch()) {
+                return false;
+            }
+        }
+        action.accept(buffer.poll());
+        return true;
+    }
+
+    @Override
+    public Spliterator<Map.Entry<Serializable, Object>> trySplit() {
+        int remaining = end - next;
+        if (remaining > 1 || (remaining == 1 && current != null)) {
+            int middle = next + (remaining + 1) / 2;
+            ScanSpliterator prefix = new ScanSpliterator(nodes, keyPrefix, pageSize, next, middle);
+            next = middle;
+            return prefix;
+        }
+        if (current == null) {
+            if (remaining == 0) {
+                return null;
+            }
+            current = nodes.get(next++);
+            cursor = null;
+        }
+        //Only the current node is left, hand over its next non-empty page
+        while (current != null) {
+            Object[] page = readPage();
+            if (page.length > 0) {
+                return Spliterators.spliterator(page, characteristics());
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public long estimateSize() {
+        return Long.MAX_VALUE;
+    }
+
+    @Override
+    public int characteristics() {
+        return NONNULL;
+    }
+
+    /**
+     * Fill the buffer with the next page, moving to the next node when the current one is finished
+     *
+     * @return false if all nodes are finished
+     */
+    private boolean fetch() {
+        if (current == null) {
+            if (next == end) {
+                return false;
+            }
+            current = nodes.get(next++);
+            cursor = null;
+        }
+        for (Object entry : readPage()) {
+            buffer.add(cast(entry));
+        }
+        return true;
+    }
+
+    /**
+     * Read the next page of the current node, the current node is cleared after its last page
+     */
+    private Object[] readPage() {
+        if (current.getCache() == null) {
+            throw new InternalException("Cache is not initialized for node " + current.getNodeId());
+        }
+        ScanPage page = current.getCache().scanPage(cursor, keyPrefix, pageSize);
+        cursor = page.getNextCursor();
+        if (page.isLast()) {
+            current = null;
+        }
+        return page.getEntries().toArray();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map.Entry<Serializable, Object> cast(Object entry) {
+        return (Map.Entry<Serializable, Object>) entry;
+    }
+}
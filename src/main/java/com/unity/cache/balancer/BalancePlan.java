@@ -0,0 +1,23 @@
+package com.unity.cache.balancer;
+
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * BalancePlan is the result of one round of the balancer
+ * The scores are aligned to the loads, 1 is the mean score and a node above the imbalance threshold is overloaded.
+ */
+@Value
+public class BalancePlan {
+
+    List<NodeLoad> loads;
+
+    List<Double> scores;
+
+    //Moves in the order they are applied, empty if the ring is balanced or no move helps enough
+    List<RingMove> moves;
+
+    //Whether the moves were applied to the ring
+    boolean applied;
+}
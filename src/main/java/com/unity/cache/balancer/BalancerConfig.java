@@ -0,0 +1,49 @@
+package com.unity.cache.balancer;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.function.Consumer;
+
+/**
+ * BalancerConfig configures when and how far the load-aware balancer moves the nodes of the ring
+ * Moves are bounded per round, so a bad sample can only shift a small part of the key space.
+ * e.g.
+ * BalancerConfig.builder().intervalMillis(60000).imbalanceThreshold(1.3).maxShiftPerMove(0.01).dryRun(true).build();
+ */
+@Getter
+@Builder
+public class BalancerConfig {
+
+    //Delay between two rounds of the balancer
+    @Builder.Default
+    private final long intervalMillis = 60_000;
+
+    //A node whose score is above this times the mean score is overloaded
+    @Builder.Default
+    private final double imbalanceThreshold = 1.25;
+
+    //Budget of a round: number of moves, and fraction of the ring which may change owner in each move
+    @Builder.Default
+    private final int maxMovesPerRound = 1;
+    @Builder.Default
+    private final double maxShiftPerMove = 0.02;
+
+    //A move is only made if it lowers the highest score by at least this
+    @Builder.Default
+    private final double minImprovement = 0.05;
+
+    //Weights of the load metrics in the score of a node, each metric is normalized by its mean over the nodes
+    @Builder.Default
+    private final double requestRateWeight = 1;
+    @Builder.Default
+    private final double memoryWeight = 1;
+    @Builder.Default
+    private final double latencyWeight = 0;
+
+    //Only compute and report the plans, never move a node
+    private final boolean dryRun;
+
+    //Called with the plan of each round, e.g. to log the proposed moves of a dry run
+    private final Consumer<BalancePlan> planListener;
+}
@@ -0,0 +1,72 @@
+package com.unity.cache.balancer;
+
+import com.unity.cache.connector.CacheableConnector;
+import com.unity.cache.connector.ForwardingConnector;
+import com.unity.cache.connector.LoadTrackingConnector;
+import com.unity.cache.node.Node;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * ConnectorLoadSource samples request rate and latency from the {@link LoadTrackingConnector} of each node
+ * and used memory from the backend itself (INFO memory or stats)
+ * <p>
+ * Rates are computed from the counters since the previous sample, so the first sample of a node reports
+ * a rate of 0. Nodes without a LoadTrackingConnector in their connector chain report a rate of 0.
+ * </p>
+ */
+public class ConnectorLoadSource implements NodeLoadSource {
+
+    //Counters of the previous sample by node id: time, requests, latency
+    private final Map<UUID, long[]> previous = new ConcurrentHashMap<>();
+
+    @Override
+    public List<NodeLoad> sample(List<Node> nodes) {
+        List<NodeLoad> loads = new ArrayList<>(nodes.size());
+        for (Node node : nodes) {
+            loads.add(sample(node));
+        }
+        return loads;
+    }
+
+    private NodeLoad sample(Node node) {
+        long usedMemory = usedMemory(node);
+        LoadTrackingConnector tracker = findTracker(node.getCache());
+        if (tracker == null) {
+            return new NodeLoad(node, 0, usedMemory, -1);
+        }
+        long[] current = {System.nanoTime(), tracker.getRequests(), tracker.getLatencyNanos()};
+        long[] last = previous.put(node.getNodeId(), current);
+        if (last == null || current[0] == last[0]) {
+            return new NodeLoad(node, 0, usedMemory, -1);
+        }
+        long requests = current[1] - last[1];
+        double rate = requests * 1e9 / (current[0] - last[0]);
+        double latency = requests == 0 ? -1 : (current[2] - last[2]) / 1e6 / requests;
+        return new NodeLoad(node, rate, usedMemory, latency);
+    }
+
+    private static long usedMemory(Node node) {
+        try {
+            return node.getCache().getUsedMemoryBytes();
+        } catch (RuntimeException e) {
+            //An unreachable node is reported as unknown, it is not a reason to move ring positions
+            return -1;
+        }
+    }
+
+    private static LoadTrackingConnector findTracker(CacheableConnector<Serializable> cache) {
+        while (cache instanceof ForwardingConnector) {
+            if (cache instanceof LoadTrackingConnector) {
+                return (LoadTrackingConnector) cache;
+            }
+            cache = ((ForwardingConnector) cache).getDelegate();
+        }
+        return null;
+    }
+}
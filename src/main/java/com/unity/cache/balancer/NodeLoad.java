@@ -0,0 +1,23 @@
+package com.unity.cache.balancer;
+
+import com.unity.cache.node.Node;
+import lombok.Value;
+
+/**
+ * NodeLoad is one sample of the load of a node
+ * Metrics which the node does not report are negative
+ */
+@Value
+public class NodeLoad {
+
+    Node node;
+
+    //Requests completed per second since the previous sample
+    double requestsPerSecond;
+
+    //Memory used by the backend, -1 if unknown
+    long usedMemoryBytes;
+
+    //Mean latency of the requests since the previous sample, -1 if there were none
+    double meanLatencyMillis;
+}
@@ -0,0 +1,21 @@
+package com.unity.cache.balancer;
+
+import com.unity.cache.node.Node;
+
+import java.util.List;
+
+/**
+ * NodeLoadSource samples the load of the nodes for the balancer
+ *
+ * @see ConnectorLoadSource
+ */
+public interface NodeLoadSource {
+
+    /**
+     * Sample the load of the nodes
+     *
+     * @param nodes nodes of the ring
+     * @return load of each node, in the order of the nodes
+     */
+    List<NodeLoad> sample(List<Node> nodes);
+}
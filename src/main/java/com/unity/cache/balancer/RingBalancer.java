@@ -0,0 +1,349 @@
+package com.unity.cache.balancer;
+
+import com.unity.cache.concurrent.CacheExecutors;
+import com.unity.cache.node.Node;
+import com.unity.cache.node.NodeManager;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * RingBalancer moves the nodes of the ring periodically, so an overloaded node gives part of its keys to a neighbour
+ * <p>
+ * Each round samples the load of the nodes and scores them by request rate, used memory and latency, each normalized
+ * by its mean. If the highest score is above the imbalance threshold, the overloaded node or one of its neighbours
+ * is moved, so the boundary between them shifts and the neighbour takes part of the keys. The keys are moved by the
+ * migration of the {@link NodeManager}, so reads stay correct and the throughput caps of the
+ * {@link com.unity.cache.node.RebalanceConfig} apply. A round is skipped while another migration is running.
+ * </p>
+ * e.g.
+ * RingBalancer balancer = new RingBalancer(nodeManager, new ConnectorLoadSource(), BalancerConfig.builder().build());
+ * balancer.start();
+ */
+public class RingBalancer implements Closeable {
+
+    //Largest part of the gap to the next node a node may move, so the nodes never meet
+    private static final double MAX_GAP_FRACTION = 0.9;
+
+    //Number of smaller steps tried when the largest step is over the budget or does not help
+    private static final int STEP_HALVINGS = 6;
+
+    private final NodeManager nodeManager;
+    private final NodeLoadSource loadSource;
+    private final BalancerConfig config;
+
+    private ScheduledExecutorService scheduler;
+
+    public RingBalancer(NodeManager nodeManager, NodeLoadSource loadSource, BalancerConfig config) {
+        if (nodeManager == null || loadSource == null || config == null) {
+            throw new IllegalArgumentException("Node manager, load source and config can not be null");
+        }
+        if (config.getImbalanceThreshold() < 1) {
+            throw new IllegalArgumentException("Imbalance threshold must be at least 1");
+        }
+        if (config.getMaxShiftPerMove() <= 0 || config.getMaxShiftPerMove() > 0.5) {
+            throw new IllegalArgumentException("Max shift per move must be in range (0, 0.5]");
+        }
+        if (config.getIntervalMillis() <= 0) {
+            throw new IllegalArgumentException("Interval must be larger than 0");
+        }
+        this.nodeManager = nodeManager;
+        this.loadSource = loadSource;
+        this.config = config;
+    }
+
+    /**
+     * Run a round every interval in a background daemon thread
+     * A failed round is skipped, the next round samples the load again
+     */
+    public synchronized void start() {
+        if (scheduler != null) {
+            throw new IllegalStateException("Balancer is already started");
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(CacheExecutors.daemonThreadFactory("cache-balancer-"));
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                runOnce();
+            } catch (RuntimeException e) {
+                //The ring changed during the round or a node is unreachable, try again in the next round
+            }
+        }, config.getIntervalMillis(), config.getIntervalMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stop the background rounds, a running move completes
+     */
+    @Override
+    public synchronized void close() {
+        if (scheduler != null) {
+            scheduler.shutdown();
+            scheduler = null;
+        }
+    }
+
+    /**
+     * Sample the load, plan the moves and apply them one after another unless it is a dry run
+     *
+     * @return plan of the round, or null if the round is skipped because a migration is running
+     */
+    public BalancePlan runOnce() {
+        if (nodeManager.isMigrating()) {
+            return null;
+        }
+        List<NodeLoad> loads = loadSource.sample(nodeManager.getHashedNodeList());
+        BalancePlan plan = plan(loads);
+        if (!config.isDryRun() && !plan.getMoves().isEmpty()) {
+            for (RingMove move : plan.getMoves()) {
+                nodeManager.moveNode(move.getNode(), move.getToHash());
+            }
+            plan = new BalancePlan(plan.getLoads(), plan.getScores(), plan.getMoves(), true);
+        }
+        if (config.getPlanListener() != null) {
+            config.getPlanListener().accept(plan);
+        }
+        return plan;
+    }
+
+    /**
+     * Plan the moves for the load of the nodes without applying them
+     *
+     * @param loads load of each node of the ring
+     * @return plan with the proposed moves, within the budget of one round
+     */
+    public BalancePlan plan(List<NodeLoad> loads) {
+        if (loads == null) {
+            throw new IllegalArgumentException("Loads can not be null");
+        }
+        double[] scores = scores(loads);
+        List<RingMove> moves = new ArrayList<>();
+        if (scores != null && loads.size() > 1) {
+            double[] positions = loads.stream().mapToDouble(load -> load.getNode().getHash()).toArray();
+            double[] current = scores.clone();
+            for (int i = 0; i < config.getMaxMovesPerRound(); i++) {
+                RingMove move = bestMove(loads, positions, current);
+                if (move == null) {
+                    break;
+                }
+                moves.add(move);
+            }
+        }
+        List<Double> scoreList = new ArrayList<>(loads.size());
+        if (scores != null) {
+            Arrays.stream(scores).forEach(scoreList::add);
+        }
+        return new BalancePlan(Collections.unmodifiableList(loads), Collections.unmodifiableList(scoreList),
+                Collections.unmodifiableList(moves), false);
+    }
+
+    /**
+     * Score of each node, the weighted mean of its metrics normalized by their mean over the nodes
+     * A metric is left out if a node does not report it or its mean is 0
+     *
+     * @return scores aligned to the loads, or null if no metric can be used
+     */
+    private double[] scores(List<NodeLoad> loads) {
+        double[] scores = new double[loads.size()];
+        double totalWeight = addMetric(loads, NodeLoad::getRequestsPerSecond, config.getRequestRateWeight(), scores)
+                + addMetric(loads, NodeLoad::getUsedMemoryBytes, config.getMemoryWeight(), scores)
+                + addMetric(loads, NodeLoad::getMeanLatencyMillis, config.getLatencyWeight(), scores);
+        if (totalWeight == 0) {
+            return null;
+        }
+        for (int i = 0; i < scores.length; i++) {
+            scores[i] /= totalWeight;
+        }
+        return scores;
+    }
+
+    private static double addMetric(List<NodeLoad> loads, ToDoubleFunction<NodeLoad> metric, double weight, double[] scores) {
+        if (weight <= 0 || loads.isEmpty()) {
+            return 0;
+        }
+        double[] values = loads.stream().mapToDouble(metric).toArray();
+        if (Arrays.stream(values).anyMatch(value -> value < 0)) {
+            return 0;
+        }
+        double mean = Arrays.stream(values).average().orElse(0);
+        if (mean == 0) {
+            return 0;
+        }
+        for (int i = 0; i < scores.length; i++) {
+            scores[i] += weight * values[i] / mean;
+        }
+        return weight;
+    }
+
+    /**
+     * Find the move of the node with the highest score or of a neighbour which lowers the highest score the most
+     * The positions and scores are updated to the estimates after the move
+     *
+     * @return the move, or null if the ring is balanced or no move within the budget helps enough
+     */
+    private RingMove bestMove(List<NodeLoad> loads, double[] positions, double[] scores) {
+        int hot = 0;
+        for (int i = 1; i < scores.length; i++) {
+            if (scores[i] > scores[hot]) {
+                hot = i;
+            }
+        }
+        double maxBefore = scores[hot];
+        if (maxBefore <= config.getImbalanceThreshold()) {
+            return null;
+        }
+        Ownership ownership = Ownership.of(positions);
+        double[] arcs = ownership.arcs(positions.length);
+        double[] density = new double[scores.length];
+        for (int i = 0; i < scores.length; i++) {
+            density[i] = scores[i] / Math.max(arcs[i], Double.MIN_NORMAL);
+        }
+
+        Integer[] order = sortedByPosition(positions);
+        int rank = Arrays.asList(order).indexOf(hot);
+        //The overloaded node and its neighbours, and the last node which takes the keys above it from the first node
+        Set<Integer> movable = new LinkedHashSet<>();
+        movable.add(rank);
+        movable.add(Math.max(rank - 1, 0));
+        movable.add(Math.min(rank + 1, order.length - 1));
+        if (rank == 0) {
+            movable.add(order.length - 1);
+        }
+        //{node, limit}: each node may move down or up, but not past the nodes next to it nor out of the ring
+        List<double[]> candidates = new ArrayList<>();
+        for (int candidateRank : movable) {
+            int node = order[candidateRank];
+            candidates.add(new double[]{node, candidateRank > 0 ? positions[order[candidateRank - 1]] : 0});
+            candidates.add(new double[]{node, candidateRank < order.length - 1 ? positions[order[candidateRank + 1]] : 1});
+        }
+
+        int bestNode = -1;
+        double bestHash = 0;
+        double bestShift = 0;
+        double[] bestScores = null;
+        for (double[] candidate : candidates) {
+            int node = (int) candidate[0];
+            double gap = candidate[1] - positions[node];
+            double step = Math.signum(gap) * Math.min(Math.abs(gap) * MAX_GAP_FRACTION, config.getMaxShiftPerMove() * 2);
+            for (int i = 0; i <= STEP_HALVINGS; i++, step /= 2) {
+                double hash = positions[node] + step;
+                if (!(hash >= 0 && hash < 1) || hash == positions[node]) {
+                    continue;
+                }
+                double[] next = positions.clone();
+                next[node] = hash;
+                double[] estimate = new double[scores.length];
+                double shift = Ownership.of(next).estimate(ownership, density, estimate);
+                if (shift > config.getMaxShiftPerMove()) {
+                    continue;
+                }
+                double maxAfter = Arrays.stream(estimate).max().orElse(maxBefore);
+                if (maxAfter <= maxBefore - config.getMinImprovement()
+                        && (bestScores == null || maxAfter < Arrays.stream(bestScores).max().orElse(maxBefore))) {
+                    bestNode = node;
+                    bestHash = hash;
+                    bestShift = shift;
+                    bestScores = estimate;
+                }
+            }
+        }
+        if (bestScores == null) {
+            return null;
+        }
+        double fromHash = positions[bestNode];
+        positions[bestNode] = bestHash;
+        System.arraycopy(bestScores, 0, scores, 0, scores.length);
+        Node moved = loads.get(bestNode).getNode();
+        Node relieved = loads.get(hot).getNode();
+        return new RingMove(moved, relieved, fromHash, bestHash, bestShift, maxBefore,
+                Arrays.stream(bestScores).max().orElse(maxBefore));
+    }
+
+    private static Integer[] sortedByPosition(double[] positions) {
+        Integer[] order = new Integer[positions.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(positions[a], positions[b]));
+        return order;
+    }
+
+    /**
+     * Owner of each segment of the ring, segment i is [bounds[i], bounds[i + 1]) and follows the routing of the ring:
+     * a key belongs to the closest node, or to the first node if it is above all nodes
+     */
+    private static final class Ownership {
+
+        private final double[] bounds;
+        private final int[] owners;
+
+        private Ownership(double[] bounds, int[] owners) {
+            this.bounds = bounds;
+            this.owners = owners;
+        }
+
+        static Ownership of(double[] positions) {
+            Integer[] order = sortedByPosition(positions);
+            int size = order.length;
+            double[] bounds = new double[size + 2];
+            int[] owners = new int[size + 1];
+            for (int i = 0; i < size - 1; i++) {
+                bounds[i + 1] = (positions[order[i]] + positions[order[i + 1]]) / 2;
+                owners[i] = order[i];
+            }
+            bounds[size] = positions[order[size - 1]];
+            owners[size - 1] = order[size - 1];
+            bounds[size + 1] = 1;
+            owners[size] = order[0];
+            return new Ownership(bounds, owners);
+        }
+
+        double[] arcs(int size) {
+            double[] arcs = new double[size];
+            for (int i = 0; i < owners.length; i++) {
+                arcs[owners[i]] += bounds[i + 1] - bounds[i];
+            }
+            return arcs;
+        }
+
+        /**
+         * Estimate the scores with this ownership, assuming the score of each node is spread uniformly over its keys
+         *
+         * @param previous ownership the density is measured with
+         * @param density  score per ring fraction of each node in the previous ownership
+         * @param scores   estimated scores, filled by the method
+         * @return fraction of the ring whose owner changes
+         */
+        double estimate(Ownership previous, double[] density, double[] scores) {
+            double shift = 0;
+            double low = 0;
+            int i = 0;
+            int j = 0;
+            while (i < previous.owners.length && j < owners.length) {
+                double high = Math.min(previous.bounds[i + 1], bounds[j + 1]);
+                double length = high - low;
+                if (length > 0) {
+                    scores[owners[j]] += density[previous.owners[i]] * length;
+                    if (owners[j] != previous.owners[i]) {
+                        shift += length;
+                    }
+                }
+                if (previous.bounds[i + 1] == high) {
+                    i++;
+                }
+                if (bounds[j + 1] == high) {
+                    j++;
+                }
+                low = high;
+            }
+            return shift;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.unity.cache.balancer;
+
+import com.unity.cache.node.Node;
+import lombok.Value;
+
+/**
+ * RingMove is one proposed move of a node to another position of the ring, which shifts keys away from an overloaded node
+ * The estimates assume the load of a node is uniform over its keys
+ */
+@Value
+public class RingMove {
+
+    //Node to be moved
+    Node node;
+
+    //Overloaded node which gives keys away, it can be the moved node itself
+    Node relievedNode;
+
+    double fromHash;
+    double toHash;
+
+    //Fraction of the ring whose owner changes
+    double shiftedFraction;
+
+    //Highest score of the nodes before and after the move
+    double maxScoreBefore;
+    double maxScoreAfter;
+}
@@ -0,0 +1,48 @@
+package com.unity.cache.bulk;
+
+import com.unity.cache.concurrent.CacheExecutors;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.nio.file.Path;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+/**
+ * BulkLoadConfig configures how a file is loaded into the cluster
+ * e.g.
+ * BulkLoadConfig.builder().format(RecordFormat.BINARY).batchSize(2000).checkpointFile(Paths.get("warmup.checkpoint")).build();
+ */
+@Getter
+@Builder
+public class BulkLoadConfig {
+
+    @Builder.Default
+    private final RecordFormat format = RecordFormat.LINES;
+
+    //Number of entries sent to a node with one multi-put
+    @Builder.Default
+    private final int batchSize = 1000;
+
+    //Batches of a node which may be in flight at once, reading waits when a node is behind
+    @Builder.Default
+    private final int maxBatchesInFlightPerNode = 4;
+
+    //Executor to send the batches
+    @Builder.Default
+    private final Executor executor = CacheExecutors.fanOut();
+
+    //Size of the part of the file mapped at once, a longer record is mapped on its own
+    @Builder.Default
+    private final int mappedWindowBytes = 64 << 20;
+
+    //The offset of the loaded records is saved after this many records, once all their batches are acknowledged
+    @Builder.Default
+    private final long checkpointEveryRecords = 100_000;
+
+    //File to save the offset in, a load with an existing checkpoint resumes from it. Null disables resuming
+    private final Path checkpointFile;
+
+    //Called after each checkpoint and when the load is finished
+    private final Consumer<BulkLoadProgress> progressListener;
+}
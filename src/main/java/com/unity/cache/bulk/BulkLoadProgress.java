@@ -0,0 +1,108 @@
+package com.unity.cache.bulk;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * BulkLoadProgress reports the progress of one bulk load
+ * It is updated by the reader and the senders and can be read at any time
+ */
+public class BulkLoadProgress {
+
+    private final long startNanos = System.nanoTime();
+    private final long totalBytes;
+    private final long startOffset;
+    private final AtomicLong readBytes = new AtomicLong();
+    private final AtomicLong readEntries = new AtomicLong();
+    private final AtomicLong loadedEntries = new AtomicLong();
+    private volatile long checkpointOffset;
+    private volatile long finishNanos;
+
+    BulkLoadProgress(long totalBytes, long startOffset) {
+        this.totalBytes = totalBytes;
+        this.startOffset = startOffset;
+        this.checkpointOffset = startOffset;
+        this.readBytes.set(startOffset);
+    }
+
+    void recordRead(long offset) {
+        readBytes.set(offset);
+        readEntries.incrementAndGet();
+    }
+
+    void batchLoaded(int entries) {
+        loadedEntries.addAndGet(entries);
+    }
+
+    void checkpoint(long offset) {
+        checkpointOffset = offset;
+    }
+
+    void finish() {
+        finishNanos = System.nanoTime();
+    }
+
+    public long getTotalBytes() {
+        return totalBytes;
+    }
+
+    /**
+     * Offset the load started from, larger than 0 if it resumed from a checkpoint
+     */
+    public long getStartOffset() {
+        return startOffset;
+    }
+
+    public long getReadBytes() {
+        return readBytes.get();
+    }
+
+    public long getReadEntries() {
+        return readEntries.get();
+    }
+
+    /**
+     * Entries acknowledged by the nodes
+     */
+    public long getLoadedEntries() {
+        return loadedEntries.get();
+    }
+
+    /**
+     * Offset up to which all records are loaded, a failed load can be resumed from it
+     */
+    public long getCheckpointOffset() {
+        return checkpointOffset;
+    }
+
+    public boolean isFinished() {
+        return finishNanos != 0;
+    }
+
+    public long getElapsedMillis() {
+        long end = isFinished() ? finishNanos : System.nanoTime();
+        return TimeUnit.NANOSECONDS.toMillis(end - startNanos);
+    }
+
+    /**
+     * Entries acknowledged per second since the start
+     */
+    public double getEntriesPerSecond() {
+        long elapsed = getElapsedMillis();
+        return elapsed == 0 ? 0 : getLoadedEntries() * 1000.0 / elapsed;
+    }
+
+    /**
+     * Fraction of the file read so far, in range [0, 1]
+     */
+    public double getFraction() {
+        return totalBytes == 0 ? 1 : (double) getReadBytes() / totalBytes;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("BulkLoadProgress(bytes=%d/%d, entries=%d/%d, checkpoint=%d, entriesPerSecond=%.0f, elapsedMillis=%d)",
+                getReadBytes(), totalBytes, getLoadedEntries(), getReadEntries(), checkpointOffset, getEntriesPerSecond(),
+                getElapsedMillis());
+    }
+}
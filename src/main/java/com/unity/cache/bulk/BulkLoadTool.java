@@ -0,0 +1,55 @@
+package com.unity.cache.bulk;
+
+import com.unity.cache.node.Node;
+import com.unity.cache.node.NodeManager;
+import com.unity.cache.node.RingSnapshot;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+/**
+ * BulkLoadTool loads a file into the cluster of a saved ring snapshot from the command line
+ * The ring is restored from the snapshot, so every key goes to the node the clients route it to.
+ * e.g.
+ * java -cp distributed-cache.jar com.unity.cache.bulk.BulkLoadTool ring.snapshot warmup.tsv LINES warmup.checkpoint
+ */
+public final class BulkLoadTool {
+
+    private BulkLoadTool() {
+    }
+
+    /**
+     * @param args ring snapshot file, data file, record format (default LINES), checkpoint file (optional)
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: BulkLoadTool <ring snapshot> <file> [LINES|BINARY] [checkpoint file]");
+            System.exit(1);
+        }
+        RingSnapshot snapshot = RingSnapshot.readFrom(Paths.get(args[0]));
+        List<Node> nodes = snapshot.toNodes();
+        for (Node node : nodes) {
+            node.init();
+        }
+        NodeManager nodeManager = NodeManager.getInstance();
+        nodeManager.restore(nodes, snapshot.getNumReplicas());
+        Path checkpoint = args.length > 3 ? Paths.get(args[3]) : null;
+        BulkLoadConfig config = BulkLoadConfig.builder()
+                .format(args.length > 2 ? RecordFormat.valueOf(args[2]) : RecordFormat.LINES)
+                .checkpointFile(checkpoint)
+                .progressListener(System.out::println)
+                .build();
+        try {
+            new BulkLoader(nodeManager, config).load(Paths.get(args[1]));
+        } finally {
+            for (Node node : nodes) {
+                if (node.getCache() instanceof Closeable) {
+                    ((Closeable) node.getCache()).close();
+                }
+            }
+        }
+    }
+}
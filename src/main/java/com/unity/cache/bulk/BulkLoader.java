@@ -0,0 +1,251 @@
+package com.unity.cache.bulk;
+
+import com.unity.cache.CacheKey;
+import com.unity.cache.exceptions.InternalException;
+import com.unity.cache.node.Node;
+import com.unity.cache.node.NodeManager;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * BulkLoader loads the records of a file into the cluster, e.g. to warm a new cluster
+ * <p>
+ * Step 1: Read the records through a memory-mapped window, from the checkpoint if there is one
+ * Step 2: Route each record to its node and add it to the batch of the node
+ * Step 3: Send full batches with one multi-put each, in parallel, with a bounded number of batches in flight per node
+ * Step 4: Every few records, wait for the batches in flight and save the offset, so a failed load can be resumed
+ * Keys are fenced like foreground writes, so a load during a topology change is not undone by the migration.
+ * Batches are routed when they are queued, so if the topology changed since the last checkpoint, the keys whose owner
+ * changed are sent again to their new owner before the checkpoint is saved. The entries of the batches sent since
+ * the last checkpoint are kept for this until the checkpoint.
+ * </p>
+ * e.g.
+ * new BulkLoader(nodeManager, BulkLoadConfig.builder().format(RecordFormat.LINES).build()).load(Paths.get("warmup.tsv"));
+ */
+public class BulkLoader {
+
+    private final NodeManager nodeManager;
+    private final BulkLoadConfig config;
+
+    public BulkLoader(NodeManager nodeManager, BulkLoadConfig config) {
+        if (nodeManager == null || config == null) {
+            throw new IllegalArgumentException("Node manager and config can not be null");
+        }
+        if (config.getBatchSize() <= 0 || config.getMaxBatchesInFlightPerNode() <= 0) {
+            throw new IllegalArgumentException("Batch size and batches in flight must be larger than 0");
+        }
+        if (config.getMappedWindowBytes() <= 0 || config.getCheckpointEveryRecords() <= 0) {
+            throw new IllegalArgumentException("Mapped window and checkpoint interval must be larger than 0");
+        }
+        this.nodeManager = nodeManager;
+        this.config = config;
+    }
+
+    /**
+     * Load all records of the file, resuming from the checkpoint file if it exists
+     * The checkpoint is kept after a successful load, so loading the same file again does nothing
+     *
+     * @param file file to load
+     * @return progress of the finished load
+     * @throws IOException       if the file or the checkpoint can not be read, or a record is malformed
+     * @throws InternalException if a batch fails, the load can be resumed from the last checkpoint
+     */
+    public BulkLoadProgress load(Path file) throws IOException {
+        long offset = readCheckpoint(file);
+        try (MappedRecordReader reader = new MappedRecordReader(file, config.getFormat(), config.getMappedWindowBytes(), offset)) {
+            BulkLoadProgress progress = new BulkLoadProgress(reader.size(), offset);
+            Sender sender = new Sender(progress);
+            long sinceCheckpoint = 0;
+            while (reader.next()) {
+                CacheKey key = CacheKey.of(reader.key());
+                nodeManager.fence(key);
+                sender.add(nodeManager.nodeGet(key), key, reader.value());
+                progress.recordRead(reader.position());
+                if (++sinceCheckpoint == config.getCheckpointEveryRecords()) {
+                    checkpoint(file, sender, progress, reader.position());
+                    sinceCheckpoint = 0;
+                }
+            }
+            checkpoint(file, sender, progress, reader.position());
+            progress.finish();
+            report(progress);
+            return progress;
+        }
+    }
+
+    /**
+     * Send all batches, wait until they are acknowledged and save the offset
+     */
+    private void checkpoint(Path file, Sender sender, BulkLoadProgress progress, long offset) throws IOException {
+        sender.flush();
+        if (config.getCheckpointFile() != null) {
+            Path checkpoint = config.getCheckpointFile();
+            Path temp = checkpoint.resolveSibling(checkpoint.getFileName() + ".tmp");
+            Files.write(temp, (offset + " " + Files.size(file)).getBytes(StandardCharsets.UTF_8));
+            Files.move(temp, checkpoint, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        progress.checkpoint(offset);
+        report(progress);
+    }
+
+    /**
+     * Offset saved by a previous load of the file, 0 if there is none
+     *
+     * @throws IOException if the checkpoint is not one of this file
+     */
+    private long readCheckpoint(Path file) throws IOException {
+        Path checkpoint = config.getCheckpointFile();
+        if (checkpoint == null || !Files.exists(checkpoint)) {
+            return 0;
+        }
+        String[] saved = new String(Files.readAllBytes(checkpoint), StandardCharsets.UTF_8).trim().split(" ");
+        if (saved.length != 2 || Long.parseLong(saved[1]) != Files.size(file)) {
+            throw new IOException("Checkpoint " + checkpoint + " does not belong to " + file + ", delete it to load from the start");
+        }
+        return Long.parseLong(saved[0]);
+    }
+
+    private void report(BulkLoadProgress progress) {
+        if (config.getProgressListener() != null) {
+            config.getProgressListener().accept(progress);
+        }
+    }
+
+    /**
+     * Sender keeps the open batch of each node and the batches in flight
+     */
+    private class Sender {
+
+        private final BulkLoadProgress progress;
+        private final Map<UUID, Map<CacheKey, Object>> batches = new HashMap<>();
+        private final Map<UUID, Node> nodes = new HashMap<>();
+        private final Map<UUID, Semaphore> inFlight = new HashMap<>();
+        private final List<CompletableFuture<Void>> pending = new ArrayList<>();
+        private final AtomicReference<Throwable> failure = new AtomicReference<>();
+        //Batches sent since the last checkpoint and the topology version when they were routed
+        private List<SentBatch> sent = new ArrayList<>();
+        private long topologyVersion;
+
+        private Sender(BulkLoadProgress progress) {
+            this.progress = progress;
+            this.topologyVersion = nodeManager.getTopologyVersion();
+        }
+
+        void add(Node node, CacheKey key, Object value) {
+            queue(batches, node, key, value, true);
+        }
+
+        /**
+         * Send the open batches and wait for all batches in flight
+         * While the topology changed since the batches were routed, the keys whose owner changed are sent again
+         * to their new owner: the previous owner may be drained already and the migration skips fenced keys.
+         *
+         * @throws InternalException if a batch failed
+         */
+        void flush() {
+            sendAll(batches, true);
+            awaitPending();
+            while (nodeManager.getTopologyVersion() != topologyVersion) {
+                topologyVersion = nodeManager.getTopologyVersion();
+                List<SentBatch> routed = sent;
+                sent = new ArrayList<>();
+                Map<UUID, Map<CacheKey, Object>> moved = new HashMap<>();
+                for (SentBatch batch : routed) {
+                    Map<CacheKey, Object> kept = new HashMap<>();
+                    batch.entries.forEach((key, value) -> {
+                        nodeManager.fence(key);
+                        Node owner = nodeManager.nodeGet(key);
+                        if (owner.sameNode(batch.node)) {
+                            kept.put(key, value);
+                        } else {
+                            queue(moved, owner, key, value, false);
+                        }
+                    });
+                    if (!kept.isEmpty()) {
+                        sent.add(new SentBatch(batch.node, kept));
+                    }
+                }
+                sendAll(moved, false);
+                awaitPending();
+            }
+            sent.clear();
+        }
+
+        private void queue(Map<UUID, Map<CacheKey, Object>> open, Node node, CacheKey key, Object value, boolean loaded) {
+            Map<CacheKey, Object> batch = open.computeIfAbsent(node.getNodeId(), nodeId -> new HashMap<>());
+            nodes.put(node.getNodeId(), node);
+            batch.put(key, value);
+            if (batch.size() >= config.getBatchSize()) {
+                open.remove(node.getNodeId());
+                send(node, batch, loaded);
+            }
+        }
+
+        private void sendAll(Map<UUID, Map<CacheKey, Object>> open, boolean loaded) {
+            open.forEach((nodeId, batch) -> send(nodes.get(nodeId), batch, loaded));
+            open.clear();
+        }
+
+        private void awaitPending() {
+            CompletableFuture.allOf(pending.toArray(new CompletableFuture<?>[0])).exceptionally(e -> null).join();
+            pending.clear();
+            checkFailure();
+        }
+
+        /**
+         * @param loaded whether the entries are counted as loaded, batches sent again to a new owner are not
+         */
+        private void send(Node node, Map<CacheKey, Object> batch, boolean loaded) {
+            checkFailure();
+            sent.add(new SentBatch(node, batch));
+            Semaphore permits = inFlight.computeIfAbsent(node.getNodeId(), nodeId -> new Semaphore(config.getMaxBatchesInFlightPerNode()));
+            permits.acquireUninterruptibly();
+            pending.add(CompletableFuture.runAsync(() -> {
+                if (node.getCache() == null) {
+                    throw new InternalException("Cache is not initialized for node " + node.getNodeId());
+                }
+                node.getCache().putAllToCache(batch);
+                if (loaded) {
+                    progress.batchLoaded(batch.size());
+                }
+            }, config.getExecutor()).whenComplete((ignored, e) -> {
+                permits.release();
+                if (e != null) {
+                    failure.compareAndSet(null, e);
+                }
+            }));
+            //Drop the acknowledged batches, so the list stays as short as the batches in flight
+            pending.removeIf(CompletableFuture::isDone);
+        }
+
+        private void checkFailure() {
+            Throwable e = failure.get();
+            if (e != null) {
+                throw new InternalException("Bulk load failed, it can be resumed from offset " + progress.getCheckpointOffset(),
+                        e.getCause() != null ? e.getCause() : e);
+            }
+        }
+    }
+
+    private static class SentBatch {
+        private final Node node;
+        private final Map<CacheKey, Object> entries;
+
+        private SentBatch(Node node, Map<CacheKey, Object> entries) {
+            this.node = node;
+            this.entries = entries;
+        }
+    }
+}
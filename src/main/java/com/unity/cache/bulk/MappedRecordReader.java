@@ -0,0 +1,186 @@
+package com.unity.cache.bulk;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * MappedRecordReader reads the records of a bulk load file through a memory-mapped window
+ * The window moves forward with the records, so files larger than the address space of one mapping can be read.
+ * Keys and values are copied out of the mapping, the reader is not thread safe.
+ */
+final class MappedRecordReader implements Closeable {
+
+    private final FileChannel channel;
+    private final RecordFormat format;
+    private final int windowBytes;
+    private final long size;
+
+    private MappedByteBuffer window;
+    private long windowStart;
+
+    //Offset of the next record
+    private long position;
+    private byte[] scratch = new byte[256];
+
+    private String key;
+    private Object value;
+
+    MappedRecordReader(Path file, RecordFormat format, int windowBytes, long offset) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        this.format = format;
+        this.windowBytes = windowBytes;
+        this.size = channel.size();
+        if (offset < 0 || offset > size) {
+            channel.close();
+            throw new IOException("Offset " + offset + " is out of the file of " + size + " bytes");
+        }
+        this.position = offset;
+    }
+
+    long size() {
+        return size;
+    }
+
+    /**
+     * Offset after the last record read
+     */
+    long position() {
+        return position;
+    }
+
+    String key() {
+        return key;
+    }
+
+    Object value() {
+        return value;
+    }
+
+    /**
+     * Read the next record
+     *
+     * @return false at the end of the file
+     * @throws IOException if the record is malformed or truncated
+     */
+    boolean next() throws IOException {
+        return format == RecordFormat.LINES ? nextLine() : nextBinary();
+    }
+
+    private boolean nextLine() throws IOException {
+        while (position < size) {
+            long start = position;
+            long newline = findNewline(start);
+            position = Math.min(newline + 1, size);
+            long end = newline > start && byteAt(newline - 1) == '\r' ? newline - 1 : newline;
+            if (end == start) {
+                continue;
+            }
+            int base = ensure(start, end - start);
+            int length = (int) (end - start);
+            int tab = -1;
+            for (int i = 0; i < length; i++) {
+                if (window.get(base + i) == '\t') {
+                    tab = i;
+                    break;
+                }
+            }
+            if (tab < 0) {
+                throw new IOException("Record at offset " + start + " has no tab between key and value");
+            }
+            key = decode(base, tab);
+            value = decode(base + tab + 1, length - tab - 1);
+            return true;
+        }
+        return false;
+    }
+
+    private boolean nextBinary() throws IOException {
+        if (position == size) {
+            return false;
+        }
+        long start = position;
+        int index = ensure(start, 4);
+        int keyLength = window.getInt(index);
+        checkLength(start, keyLength);
+        index = ensure(start, 8L + keyLength);
+        int valueLength = window.getInt(index + 4 + keyLength);
+        checkLength(start, valueLength);
+        int base = ensure(start, 8L + keyLength + valueLength);
+        key = decode(base + 4, keyLength);
+        byte[] bytes = new byte[valueLength];
+        for (int i = 0; i < valueLength; i++) {
+            bytes[i] = window.get(base + 8 + keyLength + i);
+        }
+        value = bytes;
+        position = start + 8L + keyLength + valueLength;
+        return true;
+    }
+
+    private static void checkLength(long start, int length) throws IOException {
+        if (length < 0) {
+            throw new IOException("Record at offset " + start + " has a negative length");
+        }
+    }
+
+    private long findNewline(long from) throws IOException {
+        long length = Math.min(windowBytes, size - from);
+        while (true) {
+            int base = ensure(from, length);
+            for (int i = 0; i < length; i++) {
+                if (window.get(base + i) == '\n') {
+                    return from + i;
+                }
+            }
+            if (from + length == size) {
+                return size;
+            }
+            length = Math.min(length * 2, size - from);
+        }
+    }
+
+    private byte byteAt(long offset) throws IOException {
+        int index = ensure(offset, 1);
+        return window.get(index);
+    }
+
+    /**
+     * Map the bytes [from, from + length) if they are not mapped yet
+     *
+     * @return index of from in the window
+     * @throws IOException if the bytes are beyond the end of the file or too many for one mapping
+     */
+    private int ensure(long from, long length) throws IOException {
+        if (from + length > size) {
+            throw new IOException("Record at offset " + position + " is truncated");
+        }
+        if (window == null || from < windowStart || from + length > windowStart + window.limit()) {
+            long mapped = Math.min(Math.max(windowBytes, length), size - from);
+            if (mapped > Integer.MAX_VALUE) {
+                throw new IOException("Record at offset " + position + " is too large");
+            }
+            window = channel.map(FileChannel.MapMode.READ_ONLY, from, mapped);
+            windowStart = from;
+        }
+        return (int) (from - windowStart);
+    }
+
+    private String decode(int index, int length) {
+        if (scratch.length < length) {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+        }
+        for (int i = 0; i < length; i++) {
+            scratch[i] = window.get(index + i);
+        }
+        return new String(scratch, 0, length, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,17 @@
+package com.unity.cache.bulk;
+
+/**
+ * RecordFormat is the layout of the records of a bulk load file
+ */
+public enum RecordFormat {
+
+    /**
+     * One record per line: UTF-8 key, a tab, UTF-8 value. The value is stored as a string, empty lines are skipped
+     */
+    LINES,
+
+    /**
+     * Records of key length (int), UTF-8 key, value length (int), value bytes, big endian. The value is stored as a byte array
+     */
+    BINARY
+}
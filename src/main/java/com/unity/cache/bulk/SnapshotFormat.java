@@ -0,0 +1,73 @@
+package com.unity.cache.bulk;
+
+import org.apache.commons.lang3.SerializationUtils;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * SnapshotFormat is the layout of the data snapshot files written by {@link SnapshotWriter}
+ * <p>
+ * File layout (big endian): header, blocks, index, trailer
+ * Header: magic, version, flags (1 = blocks are compressed by LZ4)
+ * Block: stored length, raw length, CRC32 of the raw bytes, stored bytes. The raw bytes are records of one hash bucket:
+ * key hash, key tag, key length, key bytes, value tag, value length, value bytes
+ * Index: for each block its lowest and highest key hash, offset and number of records
+ * Trailer: offset of the index, number of blocks, magic
+ * </p>
+ */
+final class SnapshotFormat {
+
+    static final int MAGIC = 0x43534E50;
+    static final byte VERSION = 1;
+    static final byte FLAG_LZ4 = 1;
+
+    static final int HEADER_BYTES = 6;
+    static final int BLOCK_HEADER_BYTES = 12;
+    static final int INDEX_ENTRY_BYTES = 28;
+    static final int TRAILER_BYTES = 16;
+
+    private static final byte TAG_BYTES = 0;
+    private static final byte TAG_STRING = 1;
+    private static final byte TAG_SERIALIZED = 2;
+
+    private SnapshotFormat() {
+    }
+
+    static void writeObject(DataOutput out, Object object) throws IOException {
+        byte[] bytes;
+        if (object instanceof byte[]) {
+            out.writeByte(TAG_BYTES);
+            bytes = (byte[]) object;
+        } else if (object instanceof String) {
+            out.writeByte(TAG_STRING);
+            bytes = ((String) object).getBytes(StandardCharsets.UTF_8);
+        } else if (object instanceof Serializable) {
+            out.writeByte(TAG_SERIALIZED);
+            bytes = SerializationUtils.serialize((Serializable) object);
+        } else {
+            throw new IllegalArgumentException("Value of type " + object.getClass().getName() + " is not serializable");
+        }
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    static Object readObject(DataInput in) throws IOException {
+        byte tag = in.readByte();
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        switch (tag) {
+            case TAG_BYTES:
+                return bytes;
+            case TAG_STRING:
+                return new String(bytes, StandardCharsets.UTF_8);
+            case TAG_SERIALIZED:
+                return SerializationUtils.deserialize(bytes);
+            default:
+                throw new IOException("Unknown record tag " + tag);
+        }
+    }
+}
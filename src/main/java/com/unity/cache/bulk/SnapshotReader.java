@@ -0,0 +1,323 @@
+package com.unity.cache.bulk;
+
+import com.unity.cache.CacheKey;
+import com.unity.cache.exceptions.InternalException;
+import com.unity.cache.node.Node;
+import com.unity.cache.node.NodeManager;
+import net.jpountz.lz4.LZ4Exception;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4FastDecompressor;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+import java.util.zip.CRC32;
+
+/**
+ * SnapshotReader reads a snapshot file written by {@link SnapshotWriter} and restores it into the cluster
+ * <p>
+ * Only the index is read when the file is opened. A restore for one node reads only the blocks whose hash range
+ * overlaps the ranges the node owns in the current ring, and skips the records owned by other nodes.
+ * Restored entries are only written where the key is absent, so values written after the snapshot are kept.
+ * Keys are fenced like foreground writes, so a restore during a topology change is not undone by the migration.
+ * If the topology changed while a batch was routed and sent, the keys whose owner changed are sent again to their
+ * new owner, the previous owner may be drained already.
+ * </p>
+ * e.g.
+ * try (SnapshotReader reader = new SnapshotReader(Paths.get("cache.snapshot"))) {
+ * reader.restore(nodeManager, node);
+ * }
+ */
+public class SnapshotReader implements Closeable {
+
+    //Entries sent to a node with one multi-put
+    private static final int BATCH_SIZE = 500;
+
+    private static final LZ4FastDecompressor LZ4_DECOMPRESSOR = LZ4Factory.fastestInstance().fastDecompressor();
+
+    private final FileChannel channel;
+    private final boolean compressed;
+    private final List<Block> blocks;
+
+    public SnapshotReader(Path file) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            long size = channel.size();
+            if (size < SnapshotFormat.HEADER_BYTES + SnapshotFormat.TRAILER_BYTES) {
+                throw new IOException("Snapshot is truncated");
+            }
+            ByteBuffer header = read(0, SnapshotFormat.HEADER_BYTES);
+            if (header.getInt() != SnapshotFormat.MAGIC) {
+                throw new IOException("Not a snapshot file");
+            }
+            byte version = header.get();
+            if (version != SnapshotFormat.VERSION) {
+                throw new IOException("Unsupported snapshot version " + version);
+            }
+            this.compressed = (header.get() & SnapshotFormat.FLAG_LZ4) != 0;
+
+            ByteBuffer trailer = read(size - SnapshotFormat.TRAILER_BYTES, SnapshotFormat.TRAILER_BYTES);
+            long indexOffset = trailer.getLong();
+            int blockCount = trailer.getInt();
+            if (trailer.getInt() != SnapshotFormat.MAGIC || blockCount < 0
+                    || indexOffset + (long) blockCount * SnapshotFormat.INDEX_ENTRY_BYTES != size - SnapshotFormat.TRAILER_BYTES) {
+                throw new IOException("Snapshot index is corrupted");
+            }
+            ByteBuffer index = read(indexOffset, blockCount * SnapshotFormat.INDEX_ENTRY_BYTES);
+            this.blocks = new ArrayList<>(blockCount);
+            for (int i = 0; i < blockCount; i++) {
+                blocks.add(new Block(index.getDouble(), index.getDouble(), index.getLong(), index.getInt()));
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Number of entries in the snapshot
+     */
+    public long getEntryCount() {
+        return blocks.stream().mapToLong(block -> block.entries).sum();
+    }
+
+    public int getBlockCount() {
+        return blocks.size();
+    }
+
+    /**
+     * Read the entries whose key hash is in range [fromHash, toHash], only the blocks which overlap the range are read
+     *
+     * @param fromHash lowest key hash
+     * @param toHash   highest key hash
+     * @param consumer called with the key and value of each entry
+     * @return number of entries read
+     * @throws IOException if a block is corrupted
+     */
+    public long read(double fromHash, double toHash, BiConsumer<Serializable, Object> consumer) throws IOException {
+        List<double[]> ranges = new ArrayList<>(1);
+        ranges.add(new double[]{fromHash, toHash});
+        return read(ranges, (hash, key, value) -> {
+            if (hash >= fromHash && hash <= toHash) {
+                consumer.accept(key, value);
+                return true;
+            }
+            return false;
+        });
+    }
+
+    /**
+     * Restore all entries to the nodes which own them in the current ring
+     *
+     * @param nodeManager node manager of the cluster
+     * @return number of entries restored
+     * @throws IOException       if a block is corrupted
+     * @throws InternalException if cache is not initialized for a node
+     */
+    public long restore(NodeManager nodeManager) throws IOException {
+        List<double[]> all = new ArrayList<>(1);
+        all.add(new double[]{0, 1});
+        Batches batches = new Batches(nodeManager);
+        long restored = read(all, (hash, key, value) -> {
+            CacheKey cacheKey = CacheKey.of(key);
+            nodeManager.fence(cacheKey);
+            batches.add(nodeManager.nodeGet(cacheKey), cacheKey, value);
+            return true;
+        });
+        batches.flush();
+        return restored;
+    }
+
+    /**
+     * Restore the entries which the node owns in the current ring, e.g. after the maintenance of one node
+     *
+     * @param nodeManager node manager of the cluster
+     * @param node        node to be restored
+     * @return number of entries restored
+     * @throws IllegalArgumentException if node is null or does not exist
+     * @throws IOException              if a block is corrupted
+     * @throws InternalException        if cache is not initialized for the node
+     */
+    public long restore(NodeManager nodeManager, Node node) throws IOException {
+        List<double[]> ranges = nodeManager.getOwnedRanges(node);
+        Batches batches = new Batches(nodeManager);
+        long restored = read(ranges, (hash, key, value) -> {
+            CacheKey cacheKey = CacheKey.of(key);
+            nodeManager.fence(cacheKey);
+            Node owner = nodeManager.nodeGet(cacheKey);
+            if (!owner.sameNode(node)) {
+                return false;
+            }
+            batches.add(owner, cacheKey, value);
+            return true;
+        });
+        batches.flush();
+        return restored;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Read the records of the blocks which overlap any of the ranges
+     *
+     * @return number of records accepted by the visitor
+     */
+    private long read(List<double[]> ranges, RecordVisitor visitor) throws IOException {
+        long accepted = 0;
+        for (Block block : blocks) {
+            if (!block.overlaps(ranges)) {
+                continue;
+            }
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(readBlock(block)));
+            for (int i = 0; i < block.entries; i++) {
+                double hash = in.readDouble();
+                Serializable key = (Serializable) SnapshotFormat.readObject(in);
+                Object value = SnapshotFormat.readObject(in);
+                if (visitor.visit(hash, key, value)) {
+                    accepted++;
+                }
+            }
+        }
+        return accepted;
+    }
+
+    private byte[] readBlock(Block block) throws IOException {
+        ByteBuffer header = read(block.offset, SnapshotFormat.BLOCK_HEADER_BYTES);
+        int storedLength = header.getInt();
+        int rawLength = header.getInt();
+        int checksum = header.getInt();
+        if (storedLength < 0 || rawLength < 0) {
+            throw new IOException("Snapshot block at offset " + block.offset + " is corrupted");
+        }
+        ByteBuffer stored = read(block.offset + SnapshotFormat.BLOCK_HEADER_BYTES, storedLength);
+        byte[] raw;
+        if (compressed) {
+            raw = new byte[rawLength];
+            try {
+                LZ4_DECOMPRESSOR.decompress(stored.array(), 0, raw, 0, rawLength);
+            } catch (LZ4Exception e) {
+                throw new IOException("Snapshot block at offset " + block.offset + " is corrupted", e);
+            }
+        } else {
+            raw = stored.array();
+        }
+        CRC32 crc = new CRC32();
+        crc.update(raw);
+        if ((int) crc.getValue() != checksum) {
+            throw new IOException("Snapshot block at offset " + block.offset + " is corrupted");
+        }
+        return raw;
+    }
+
+    private ByteBuffer read(long offset, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, offset + buffer.position()) < 0) {
+                throw new IOException("Snapshot is truncated");
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    private interface RecordVisitor {
+        /**
+         * @return whether the record is accepted
+         */
+        boolean visit(double hash, Serializable key, Object value);
+    }
+
+    private static class Block {
+        private final double minHash;
+        private final double maxHash;
+        private final long offset;
+        private final int entries;
+
+        private Block(double minHash, double maxHash, long offset, int entries) {
+            this.minHash = minHash;
+            this.maxHash = maxHash;
+            this.offset = offset;
+            this.entries = entries;
+        }
+
+        private boolean overlaps(List<double[]> ranges) {
+            for (double[] range : ranges) {
+                if (minHash <= range[1] && maxHash >= range[0]) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Batches of the entries to be restored by node
+     */
+    private static class Batches {
+        private final NodeManager nodeManager;
+        private final Map<UUID, Node> nodes = new HashMap<>();
+        private final Map<UUID, Map<CacheKey, Object>> batches = new HashMap<>();
+        //Topology version when the first entry of the open batch of a node was routed
+        private final Map<UUID, Long> routedVersions = new HashMap<>();
+
+        private Batches(NodeManager nodeManager) {
+            this.nodeManager = nodeManager;
+        }
+
+        void add(Node node, CacheKey key, Object value) {
+            nodes.put(node.getNodeId(), node);
+            routedVersions.putIfAbsent(node.getNodeId(), nodeManager.getTopologyVersion());
+            Map<CacheKey, Object> batch = batches.computeIfAbsent(node.getNodeId(), nodeId -> new HashMap<>());
+            batch.put(key, value);
+            if (batch.size() >= BATCH_SIZE) {
+                send(node, batches.remove(node.getNodeId()), routedVersions.remove(node.getNodeId()));
+            }
+        }
+
+        void flush() {
+            batches.forEach((nodeId, batch) -> send(nodes.get(nodeId), batch, routedVersions.get(nodeId)));
+            batches.clear();
+            routedVersions.clear();
+        }
+
+        /**
+         * Send the batch, and send the keys whose owner changed since they were routed again to their new owner
+         */
+        private void send(Node node, Map<CacheKey, Object> batch, long routedVersion) {
+            if (node.getCache() == null) {
+                throw new InternalException("Cache is not initialized for node " + node.getNodeId());
+            }
+            node.getCache().putAllIfAbsentToCache(batch);
+            long topologyVersion = nodeManager.getTopologyVersion();
+            if (topologyVersion == routedVersion) {
+                return;
+            }
+            Map<UUID, Node> owners = new HashMap<>();
+            Map<UUID, Map<CacheKey, Object>> moved = new HashMap<>();
+            batch.forEach((key, value) -> {
+                nodeManager.fence(key);
+                Node owner = nodeManager.nodeGet(key);
+                if (!owner.sameNode(node)) {
+                    owners.put(owner.getNodeId(), owner);
+                    moved.computeIfAbsent(owner.getNodeId(), nodeId -> new HashMap<>()).put(key, value);
+                }
+            });
+            moved.forEach((nodeId, entries) -> send(owners.get(nodeId), entries, topologyVersion));
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package com.unity.cache.bulk;
+
+import com.unity.cache.CacheKey;
+import com.unity.cache.connector.ScanPage;
+import com.unity.cache.exceptions.InternalException;
+import com.unity.cache.node.Node;
+import com.unity.cache.node.NodeManager;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * SnapshotWriter exports entries into a compact binary snapshot file, e.g. to back up hot data before maintenance
+ * <p>
+ * Entries are grouped by key hash into buckets, a bucket is written as a block once it is full, so memory stays bounded
+ * by one block per bucket however many entries are written. Each block covers a narrow hash range and the index at the
+ * end of the file keeps the range of every block, so {@link SnapshotReader} can restore the keys of one node
+ * without reading the blocks of the others. Nodes are read page by page with their scan cursor.
+ * The file is written to a temporary file and moved in place on close, so a failed export never leaves a partial snapshot.
+ * </p>
+ * e.g.
+ * try (SnapshotWriter writer = new SnapshotWriter(Paths.get("cache.snapshot"), true)) {
+ * writer.writeCluster(nodeManager);
+ * }
+ */
+public class SnapshotWriter implements Closeable {
+
+    public static final int DEFAULT_BLOCK_BYTES = 64 << 10;
+    public static final int DEFAULT_BUCKETS = 64;
+
+    //Entries read from a node per page
+    private static final int PAGE_SIZE = 1000;
+
+    private static final LZ4Compressor LZ4_COMPRESSOR = LZ4Factory.fastestInstance().fastCompressor();
+
+    private final Path file;
+    private final Path temp;
+    private final FileChannel channel;
+    private final boolean compressed;
+    private final int blockBytes;
+
+    private final ByteArrayOutputStream[] buffers;
+    private final DataOutputStream[] outputs;
+    private final double[] minHashes;
+    private final double[] maxHashes;
+    private final int[] counts;
+    private final ByteArrayOutputStream index = new ByteArrayOutputStream();
+    private final DataOutputStream indexOutput = new DataOutputStream(index);
+
+    private long position;
+    private int blockCount;
+    private long entryCount;
+    private boolean closed;
+
+    public SnapshotWriter(Path file, boolean compressed) throws IOException {
+        this(file, compressed, DEFAULT_BLOCK_BYTES, DEFAULT_BUCKETS);
+    }
+
+    /**
+     * @param file       snapshot file, it is replaced on close
+     * @param compressed whether blocks are compressed by LZ4
+     * @param blockBytes raw size of a block, a bucket is written once it reaches it
+     * @param buckets    number of hash buckets, more buckets give narrower blocks and use more memory
+     */
+    public SnapshotWriter(Path file, boolean compressed, int blockBytes, int buckets) throws IOException {
+        if (file == null) {
+            throw new IllegalArgumentException("File can not be null");
+        }
+        if (blockBytes <= 0 || buckets <= 0) {
+            throw new IllegalArgumentException("Block size and bucket number must be larger than 0");
+        }
+        this.file = file;
+        this.temp = file.resolveSibling(file.getFileName() + ".tmp");
+        this.compressed = compressed;
+        this.blockBytes = blockBytes;
+        this.buffers = new ByteArrayOutputStream[buckets];
+        this.outputs = new DataOutputStream[buckets];
+        this.minHashes = new double[buckets];
+        this.maxHashes = new double[buckets];
+        this.counts = new int[buckets];
+        for (int i = 0; i < buckets; i++) {
+            buffers[i] = new ByteArrayOutputStream();
+            outputs[i] = new DataOutputStream(buffers[i]);
+        }
+        this.channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        ByteBuffer header = ByteBuffer.allocate(SnapshotFormat.HEADER_BYTES);
+        header.putInt(SnapshotFormat.MAGIC).put(SnapshotFormat.VERSION).put(compressed ? SnapshotFormat.FLAG_LZ4 : 0);
+        header.flip();
+        writeFully(header);
+    }
+
+    /**
+     * Number of entries written so far
+     */
+    public long getEntryCount() {
+        return entryCount;
+    }
+
+    /**
+     * Write one entry
+     *
+     * @param key   key of the entry
+     * @param value value of the entry, a byte array, a string or a serializable object
+     * @throws IllegalArgumentException if key or value is null, or value is not serializable
+     */
+    public void write(Serializable key, Object value) throws IOException {
+        if (key == null || value == null) {
+            throw new IllegalArgumentException("Key and value can not be null");
+        }
+        if (closed) {
+            throw new IllegalStateException("Snapshot writer is closed");
+        }
+        double hash = CacheKey.of(key).getHash();
+        int bucket = Math.min((int) (hash * buffers.length), buffers.length - 1);
+        DataOutputStream out = outputs[bucket];
+        if (counts[bucket] == 0) {
+            minHashes[bucket] = hash;
+            maxHashes[bucket] = hash;
+        } else {
+            minHashes[bucket] = Math.min(minHashes[bucket], hash);
+            maxHashes[bucket] = Math.max(maxHashes[bucket], hash);
+        }
+        out.writeDouble(hash);
+        SnapshotFormat.writeObject(out, key);
+        SnapshotFormat.writeObject(out, value);
+        counts[bucket]++;
+        entryCount++;
+        if (buffers[bucket].size() >= blockBytes) {
+            writeBlock(bucket);
+        }
+    }
+
+    /**
+     * Write all entries of the node, reading them page by page
+     *
+     * @param node node to export
+     * @return number of entries written
+     * @throws InternalException if cache is not initialized for the node
+     */
+    public long writeNode(Node node) throws IOException {
+        if (node.getCache() == null) {
+            throw new InternalException("Cache is not initialized for node " + node.getNodeId());
+        }
+        long written = 0;
+        String cursor = null;
+        do {
+            ScanPage page = node.getCache().scanPage(cursor, null, PAGE_SIZE);
+            for (Map.Entry<Serializable, Object> entry : page.getEntries()) {
+                write(entry.getKey(), entry.getValue());
+                written++;
+            }
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        return written;
+    }
+
+    /**
+     * Write all entries of every node of the ring
+     *
+     * @param nodeManager node manager of the cluster
+     * @return number of entries written
+     */
+    public long writeCluster(NodeManager nodeManager) throws IOException {
+        long written = 0;
+        for (Node node : nodeManager.getHashedNodeList()) {
+            written += writeNode(node);
+        }
+        return written;
+    }
+
+    /**
+     * Write the remaining blocks and the index, and move the snapshot in place
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            for (int bucket = 0; bucket < buffers.length; bucket++) {
+                if (counts[bucket] > 0) {
+                    writeBlock(bucket);
+                }
+            }
+            long indexOffset = position;
+            writeFully(ByteBuffer.wrap(index.toByteArray()));
+            ByteBuffer trailer = ByteBuffer.allocate(SnapshotFormat.TRAILER_BYTES);
+            trailer.putLong(indexOffset).putInt(blockCount).putInt(SnapshotFormat.MAGIC);
+            trailer.flip();
+            writeFully(trailer);
+            channel.force(true);
+        } finally {
+            channel.close();
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void writeBlock(int bucket) throws IOException {
+        byte[] raw = buffers[bucket].toByteArray();
+        CRC32 crc = new CRC32();
+        crc.update(raw);
+        byte[] stored = raw;
+        int storedLength = raw.length;
+        if (compressed) {
+            stored = new byte[LZ4_COMPRESSOR.maxCompressedLength(raw.length)];
+            storedLength = LZ4_COMPRESSOR.compress(raw, 0, raw.length, stored, 0, stored.length);
+        }
+        indexOutput.writeDouble(minHashes[bucket]);
+        indexOutput.writeDouble(maxHashes[bucket]);
+        indexOutput.writeLong(position);
+        indexOutput.writeInt(counts[bucket]);
+
+        ByteBuffer header = ByteBuffer.allocate(SnapshotFormat.BLOCK_HEADER_BYTES);
+        header.putInt(storedLength).putInt(raw.length).putInt((int) crc.getValue());
+        header.flip();
+        writeFully(header);
+        writeFully(ByteBuffer.wrap(stored, 0, storedLength));
+        blockCount++;
+        buffers[bucket].reset();
+        counts[bucket] = 0;
+    }
+
+    private void writeFully(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.unity.cache.chunk;
+
+import lombok.Value;
+
+import java.nio.ByteBuffer;
+import java.util.UUID;
+
+/**
+ * ChunkManifest is stored under the key of a chunked value and tells where its chunks are
+ * <p>
+ * It is encoded as a byte array, so it is stored as binary by every connector.
+ * Layout (big endian): magic, version, flags, length, chunk size, chunk count, nonce
+ * The nonce is new for every write, so the chunks of a value never mix with the chunks of a concurrent write of the same key.
+ * </p>
+ */
+@Value
+class ChunkManifest {
+
+    private static final long MAGIC = 0x43484E4B4D414E49L;
+    private static final byte VERSION = 1;
+    private static final byte FLAG_TEXT = 1;
+    static final int BYTES = Long.BYTES + 2 + Long.BYTES + Integer.BYTES * 2 + Long.BYTES * 2;
+
+    UUID nonce;
+    //Number of bytes of the whole value
+    long length;
+    int chunkBytes;
+    int chunkCount;
+    //Whether the value is a String encoded as UTF-8
+    boolean text;
+
+    /**
+     * Key of the chunk at the index
+     */
+    String chunkKey(int index) {
+        return chunkKey(nonce, index);
+    }
+
+    static String chunkKey(UUID nonce, int index) {
+        return "chunk:" + nonce + ":" + index;
+    }
+
+    byte[] encode() {
+        ByteBuffer buffer = ByteBuffer.allocate(BYTES);
+        buffer.putLong(MAGIC).put(VERSION).put(text ? FLAG_TEXT : 0)
+                .putLong(length).putInt(chunkBytes).putInt(chunkCount)
+                .putLong(nonce.getMostSignificantBits()).putLong(nonce.getLeastSignificantBits());
+        return buffer.array();
+    }
+
+    /**
+     * Decode a stored value
+     *
+     * @return manifest, null if the value is not a manifest
+     */
+    static ChunkManifest decode(Object value) {
+        if (!(value instanceof byte[]) || ((byte[]) value).length != BYTES) {
+            return null;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap((byte[]) value);
+        if (buffer.getLong() != MAGIC || buffer.get() != VERSION) {
+            return null;
+        }
+        boolean text = (buffer.get() & FLAG_TEXT) != 0;
+        long length = buffer.getLong();
+        int chunkBytes = buffer.getInt();
+        int chunkCount = buffer.getInt();
+        UUID nonce = new UUID(buffer.getLong(), buffer.getLong());
+        return new ChunkManifest(nonce, length, chunkBytes, chunkCount, text);
+    }
+}
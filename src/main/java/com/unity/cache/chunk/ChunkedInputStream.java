@@ -0,0 +1,115 @@
+package com.unity.cache.chunk;
+
+import com.unity.cache.DistributedCache;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+/**
+ * ChunkedInputStream reads a chunked value chunk by chunk, the next chunks are fetched in the background
+ * <p>
+ * At most maxChunksInFlight chunks are fetched ahead of the reader, so the heap use does not depend on the size of the value.
+ * </p>
+ */
+class ChunkedInputStream extends InputStream {
+
+    private final DistributedCache cache;
+    private final ChunkManifest manifest;
+    private final int maxChunksInFlight;
+    private final Executor executor;
+    private final Deque<CompletableFuture<Optional<Object>>> prefetched = new ArrayDeque<>();
+
+    private int nextToFetch;
+    private int current = -1;
+    private byte[] chunk = new byte[0];
+    private int position;
+    private boolean closed;
+
+    ChunkedInputStream(DistributedCache cache, ChunkManifest manifest, int maxChunksInFlight, Executor executor) {
+        this.cache = cache;
+        this.manifest = manifest;
+        this.maxChunksInFlight = maxChunksInFlight;
+        this.executor = executor;
+        prefetch();
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!ensureChunk()) {
+            return -1;
+        }
+        return chunk[position++] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] bytes, int offset, int count) throws IOException {
+        if (offset < 0 || count < 0 || count > bytes.length - offset) {
+            throw new IndexOutOfBoundsException();
+        }
+        if (count == 0) {
+            return 0;
+        }
+        if (!ensureChunk()) {
+            return -1;
+        }
+        int copied = Math.min(count, chunk.length - position);
+        System.arraycopy(chunk, position, bytes, offset, copied);
+        position += copied;
+        return copied;
+    }
+
+    @Override
+    public int available() {
+        return chunk.length - position;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        prefetched.clear();
+    }
+
+    /**
+     * Move to the next chunk if the current one is read
+     *
+     * @return false at the end of the value
+     * @throws IOException if a chunk is missing, e.g. it is evicted
+     */
+    private boolean ensureChunk() throws IOException {
+        if (closed) {
+            throw new IOException("Stream is closed");
+        }
+        while (position == chunk.length) {
+            if (current + 1 == manifest.getChunkCount()) {
+                return false;
+            }
+            Optional<Object> fetched;
+            try {
+                fetched = prefetched.poll().join();
+            } catch (CompletionException e) {
+                throw new IOException("Chunk " + (current + 1) + " could not be read", e.getCause());
+            }
+            current++;
+            prefetch();
+            if (!fetched.isPresent() || !(fetched.get() instanceof byte[])) {
+                throw new IOException("Chunk " + current + " is missing, the value is incomplete");
+            }
+            chunk = (byte[]) fetched.get();
+            position = 0;
+        }
+        return true;
+    }
+
+    private void prefetch() {
+        while (prefetched.size() < maxChunksInFlight && nextToFetch < manifest.getChunkCount()) {
+            String chunkKey = manifest.chunkKey(nextToFetch++);
+            prefetched.add(CompletableFuture.supplyAsync(() -> cache.get(chunkKey), executor));
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.unity.cache.chunk;
+
+import com.unity.cache.DistributedCache;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+/**
+ * ChunkedOutputStream writes a value chunk by chunk, full chunks are stored in the background
+ * <p>
+ * At most one chunk is buffered and at most maxChunksInFlight chunks are being stored, so the heap use does not
+ * depend on the size of the value. The manifest is stored on close, after all chunks, so a reader never finds
+ * a manifest whose chunks are not written yet.
+ * </p>
+ */
+class ChunkedOutputStream extends OutputStream {
+
+    private final ChunkingCache chunkingCache;
+    private final DistributedCache cache;
+    private final Serializable key;
+    private final boolean text;
+    private final int chunkBytes;
+    private final int maxChunksInFlight;
+    private final Executor executor;
+    private final UUID nonce = UUID.randomUUID();
+    private final Deque<CompletableFuture<Void>> inFlight = new ArrayDeque<>();
+
+    private byte[] buffer;
+    private int position;
+    private int chunkCount;
+    private long length;
+    private boolean closed;
+
+    ChunkedOutputStream(ChunkingCache chunkingCache, DistributedCache cache, Serializable key, boolean text,
+                        int chunkBytes, int maxChunksInFlight, Executor executor) {
+        this.chunkingCache = chunkingCache;
+        this.cache = cache;
+        this.key = key;
+        this.text = text;
+        this.chunkBytes = chunkBytes;
+        this.maxChunksInFlight = maxChunksInFlight;
+        this.executor = executor;
+        this.buffer = new byte[chunkBytes];
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        checkOpen();
+        buffer[position++] = (byte) b;
+        length++;
+        if (position == chunkBytes) {
+            sendChunk();
+        }
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int count) throws IOException {
+        checkOpen();
+        if (offset < 0 || count < 0 || count > bytes.length - offset) {
+            throw new IndexOutOfBoundsException();
+        }
+        while (count > 0) {
+            int copied = Math.min(count, chunkBytes - position);
+            System.arraycopy(bytes, offset, buffer, position, copied);
+            position += copied;
+            length += copied;
+            offset += copied;
+            count -= copied;
+            if (position == chunkBytes) {
+                sendChunk();
+            }
+        }
+    }
+
+    /**
+     * Store the last chunk, wait for all chunks and store the manifest
+     * Chunks of the value which is replaced are removed afterwards
+     *
+     * @throws IOException if a chunk can not be stored
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (position > 0) {
+            sendChunk();
+        }
+        while (!inFlight.isEmpty()) {
+            await(inFlight.poll());
+        }
+        ChunkManifest manifest = new ChunkManifest(nonce, length, chunkBytes, chunkCount, text);
+        ChunkManifest replaced = ChunkManifest.decode(cache.get(key).orElse(null));
+        cache.put(key, manifest.encode());
+        if (replaced != null) {
+            chunkingCache.removeChunks(replaced);
+        }
+    }
+
+    private void sendChunk() throws IOException {
+        byte[] chunk = buffer;
+        if (position < chunkBytes) {
+            byte[] last = new byte[position];
+            System.arraycopy(buffer, 0, last, 0, position);
+            chunk = last;
+        }
+        String chunkKey = ChunkManifest.chunkKey(nonce, chunkCount++);
+        if (inFlight.size() >= maxChunksInFlight) {
+            await(inFlight.poll());
+        }
+        byte[] stored = chunk;
+        inFlight.add(CompletableFuture.runAsync(() -> cache.put(chunkKey, stored), executor));
+        //The buffer is owned by the stored chunk now
+        buffer = closed ? null : new byte[chunkBytes];
+        position = 0;
+    }
+
+    private void checkOpen() throws IOException {
+        if (closed) {
+            throw new IOException("Stream is closed");
+        }
+    }
+
+    private void await(CompletableFuture<Void> future) throws IOException {
+        try {
+            future.join();
+        } catch (CompletionException e) {
+            //Wait for the other chunks, so no write is running after the failure is reported
+            inFlight.forEach(other -> other.exceptionally(ignored -> null).join());
+            inFlight.clear();
+            closed = true;
+            throw new IOException("Chunk of key " + key + " could not be stored", e.getCause());
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package com.unity.cache.chunk;
+
+import com.unity.cache.Cacheable;
+import com.unity.cache.DistributedCache;
+import com.unity.cache.concurrent.CacheExecutors;
+import com.unity.cache.exceptions.InternalException;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+
+/**
+ * ChunkingCache is a facade of DistributedCache which stores large values as chunks
+ * <p>
+ * Byte array and String values larger than the chunk size are split into chunks stored under derived keys,
+ * which are spread over the nodes, and a small manifest is stored under the key itself. Chunks are written and read
+ * in parallel. Values up to the chunk size are stored as they are, so they are read with one request like before.
+ * The streams write and read a value chunk by chunk, so values larger than the heap can be cached.
+ * A read whose chunks are not all found, e.g. because one is evicted, is a miss.
+ * Chunks of a chunked value are removed when it is replaced by another chunked value or removed through this cache,
+ * otherwise they are left to the eviction of the nodes.
+ * </p>
+ * e.g.
+ * ChunkingCache chunkingCache = new ChunkingCache(distributedCache);
+ * chunkingCache.put("report", largeBytes);
+ * try (OutputStream out = chunkingCache.openOutputStream("video")) {
+ * Files.copy(path, out);
+ * }
+ */
+public class ChunkingCache implements Cacheable {
+
+    //Below the 1MB item limit of memcache, with room for the key and the item header
+    public static final int DEFAULT_CHUNK_BYTES = 512 << 10;
+    public static final int DEFAULT_MAX_CHUNKS_IN_FLIGHT = 4;
+
+    private final DistributedCache cache;
+    private final int chunkBytes;
+    private final int maxChunksInFlight;
+    private final Executor executor;
+
+    public ChunkingCache(DistributedCache cache) {
+        this(cache, DEFAULT_CHUNK_BYTES, DEFAULT_MAX_CHUNKS_IN_FLIGHT, CacheExecutors.fanOut());
+    }
+
+    /**
+     * @param cache             distributed cache which stores the chunks
+     * @param chunkBytes        size of a chunk, larger values are chunked
+     * @param maxChunksInFlight chunks written or fetched in parallel for one value
+     * @param executor          executor to write and fetch the chunks
+     * @throws IllegalArgumentException if cache or executor is null, or chunk size or chunks in flight is not positive
+     */
+    public ChunkingCache(DistributedCache cache, int chunkBytes, int maxChunksInFlight, Executor executor) {
+        if (cache == null || executor == null) {
+            throw new IllegalArgumentException("Cache and executor can not be null");
+        }
+        if (chunkBytes <= 0 || maxChunksInFlight <= 0) {
+            throw new IllegalArgumentException("Chunk size and chunks in flight must be larger than 0");
+        }
+        this.cache = cache;
+        this.chunkBytes = chunkBytes;
+        this.maxChunksInFlight = maxChunksInFlight;
+        this.executor = executor;
+    }
+
+    /**
+     * Get the value of the key, the chunks of a chunked value are fetched in parallel and joined
+     *
+     * @param key key of the value
+     * @return value of the key, empty if it is not found or a chunk is missing
+     * @throws IllegalArgumentException if key is null
+     * @throws InternalException        if cache is not initialized for a node
+     */
+    @Override
+    public Optional<Object> get(Serializable key) {
+        Optional<Object> value = cache.get(key);
+        ChunkManifest manifest = ChunkManifest.decode(value.orElse(null));
+        if (manifest == null) {
+            return value;
+        }
+        if (manifest.getLength() > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Value of the key is too large for an array, please read it with a stream");
+        }
+        List<String> chunkKeys = new ArrayList<>(manifest.getChunkCount());
+        for (int i = 0; i < manifest.getChunkCount(); i++) {
+            chunkKeys.add(manifest.chunkKey(i));
+        }
+        //Chunk keys are spread over the nodes, each node is queried with one multi-get in parallel
+        Map<Serializable, Object> chunks = cache.getAll(chunkKeys);
+        byte[] joined = new byte[(int) manifest.getLength()];
+        int position = 0;
+        for (String chunkKey : chunkKeys) {
+            Object chunk = chunks.get(chunkKey);
+            if (!(chunk instanceof byte[]) || position + ((byte[]) chunk).length > joined.length) {
+                return Optional.empty();
+            }
+            System.arraycopy(chunk, 0, joined, position, ((byte[]) chunk).length);
+            position += ((byte[]) chunk).length;
+        }
+        if (position != joined.length) {
+            return Optional.empty();
+        }
+        return Optional.of(manifest.isText() ? new String(joined, StandardCharsets.UTF_8) : joined);
+    }
+
+    /**
+     * Put the key-value pair, byte array and String values larger than the chunk size are chunked
+     *
+     * @param key   key of the value
+     * @param value value of the key. It can not be null
+     * @throws IllegalArgumentException if key or value is null
+     * @throws InternalException        if cache is not initialized for a node or a chunk can not be stored
+     */
+    @Override
+    public void put(Serializable key, Object value) {
+        byte[] bytes = null;
+        boolean text = false;
+        if (value instanceof byte[] && ((byte[]) value).length > chunkBytes) {
+            bytes = (byte[]) value;
+        } else if (value instanceof String && ((String) value).length() > chunkBytes / 3) {
+            //A char is at most 3 bytes in UTF-8, shorter strings are never encoded here
+            byte[] encoded = ((String) value).getBytes(StandardCharsets.UTF_8);
+            if (encoded.length > chunkBytes) {
+                bytes = encoded;
+                text = true;
+            }
+        }
+        if (bytes == null) {
+            cache.put(key, value);
+            return;
+        }
+        try (OutputStream out = openOutputStream(key, text)) {
+            out.write(bytes);
+        } catch (IOException e) {
+            throw new InternalException("Chunked value of key " + key + " could not be stored", e);
+        }
+    }
+
+    /**
+     * Remove the key, and the chunks if the value is chunked
+     *
+     * @param key key of the value
+     * @throws IllegalArgumentException if key is null
+     * @throws InternalException        if cache is not initialized for a node
+     */
+    @Override
+    public void remove(Serializable key) {
+        ChunkManifest manifest = ChunkManifest.decode(cache.get(key).orElse(null));
+        cache.remove(key);
+        if (manifest != null) {
+            removeChunks(manifest);
+        }
+    }
+
+    /**
+     * Open a stream which writes a value chunk by chunk, the value is stored as a byte array
+     * The value is visible once the stream is closed, closing it waits for all chunks
+     *
+     * @param key key of the value
+     * @return stream of the value, it must be closed
+     * @throws IllegalArgumentException if key is null
+     */
+    public OutputStream openOutputStream(Serializable key) {
+        return openOutputStream(key, false);
+    }
+
+    /**
+     * Open a stream which reads a value chunk by chunk, the next chunks are fetched while the current one is read
+     * A value which is not chunked is read from memory, it must be a byte array or a String
+     *
+     * @param key key of the value
+     * @return stream of the value, empty if it is not found
+     * @throws IllegalArgumentException if key is null or the value is neither a byte array nor a String
+     * @throws InternalException        if cache is not initialized for a node
+     */
+    public Optional<InputStream> openInputStream(Serializable key) {
+        Optional<Object> value = cache.get(key);
+        if (!value.isPresent()) {
+            return Optional.empty();
+        }
+        ChunkManifest manifest = ChunkManifest.decode(value.get());
+        if (manifest != null) {
+            return Optional.of(new ChunkedInputStream(cache, manifest, maxChunksInFlight, executor));
+        }
+        if (value.get() instanceof byte[]) {
+            return Optional.of(new ByteArrayInputStream((byte[]) value.get()));
+        }
+        if (value.get() instanceof String) {
+            return Optional.of(new ByteArrayInputStream(((String) value.get()).getBytes(StandardCharsets.UTF_8)));
+        }
+        throw new IllegalArgumentException("Value of the key is neither a byte array nor a String");
+    }
+
+    private OutputStream openOutputStream(Serializable key, boolean text) {
+        if (key == null) {
+            throw new IllegalArgumentException("Key can not be null");
+        }
+        return new ChunkedOutputStream(this, cache, key, text, chunkBytes, maxChunksInFlight, executor);
+    }
+
+    /**
+     * Remove the chunks of a replaced or removed value, a chunk which can not be removed is left to the eviction
+     */
+    void removeChunks(ChunkManifest manifest) {
+        for (int i = 0; i < manifest.getChunkCount(); i++) {
+            try {
+                cache.remove(manifest.chunkKey(i));
+            } catch (RuntimeException e) {
+                //The value is already replaced or removed, an orphan chunk only takes memory until it is evicted
+            }
+        }
+    }
+}
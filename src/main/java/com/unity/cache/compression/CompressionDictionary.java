@@ -0,0 +1,149 @@
+package com.unity.cache.compression;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.CRC32;
+
+/**
+ * CompressionDictionary is a preset dictionary for compressing small values which look alike
+ * <p>
+ * Small values (e.g. JSON documents with the same field names) compress poorly on their own.
+ * A dictionary trained from sample values gives the compressor shared content to refer to.
+ * The id of the dictionary is written to every frame, so a value is never decoded with a wrong dictionary.
+ * </p>
+ */
+public final class CompressionDictionary {
+
+    //Length of the byte sequences counted during training
+    private static final int GRAM_LENGTH = 8;
+    //Length of the segments copied from samples into the dictionary
+    private static final int SEGMENT_LENGTH = 32;
+
+    @Getter
+    private final int id;
+    private final byte[] content;
+
+    public CompressionDictionary(byte[] content) {
+        if (content == null || content.length == 0) {
+            throw new IllegalArgumentException("Dictionary content can not be empty");
+        }
+        this.content = content.clone();
+        CRC32 crc32 = new CRC32();
+        crc32.update(content);
+        this.id = (int) crc32.getValue();
+    }
+
+    /**
+     * Train a dictionary from sample values
+     * Segments of the samples are scored by how many samples share their content,
+     * the best segments are kept and placed at the end where the compressor finds them cheapest.
+     *
+     * @param samples sample values
+     * @param maxSize max size of the dictionary in bytes
+     * @return the trained dictionary
+     * @throws IllegalArgumentException if there is no sample or maxSize is not positive
+     */
+    public static CompressionDictionary train(Collection<byte[]> samples, int maxSize) {
+        if (samples == null || samples.isEmpty()) {
+            throw new IllegalArgumentException("Samples can not be empty");
+        }
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Dictionary size must be larger than 0");
+        }
+        //Count in how many samples each gram appears
+        Map<Long, Integer> gramFrequency = new HashMap<>();
+        for (byte[] sample : samples) {
+            Set<Long> seen = new HashSet<>();
+            for (int i = 0; i + GRAM_LENGTH <= sample.length; i++) {
+                long gram = gram(sample, i);
+                if (seen.add(gram)) {
+                    gramFrequency.merge(gram, 1, Integer::sum);
+                }
+            }
+        }
+        //Score segments by the frequency of their grams
+        List<Segment> segments = new ArrayList<>();
+        for (byte[] sample : samples) {
+            for (int start = 0; start < sample.length; start += SEGMENT_LENGTH / 2) {
+                int end = Math.min(sample.length, start + SEGMENT_LENGTH);
+                long score = 0;
+                for (int i = start; i + GRAM_LENGTH <= end; i++) {
+                    score += gramFrequency.get(gram(sample, i)) - 1;
+                }
+                if (score > 0) {
+                    segments.add(new Segment(Arrays.copyOfRange(sample, start, end), score));
+                }
+            }
+        }
+        segments.sort((a, b) -> Long.compare(b.score, a.score));
+
+        //Keep the best distinct segments, the best one at the end
+        List<byte[]> selected = new ArrayList<>();
+        Set<String> selectedContent = new HashSet<>();
+        int size = 0;
+        for (Segment segment : segments) {
+            if (size + segment.bytes.length > maxSize) {
+                continue;
+            }
+            if (selectedContent.add(Arrays.toString(segment.bytes))) {
+                selected.add(segment.bytes);
+                size += segment.bytes.length;
+            }
+        }
+        if (selected.isEmpty()) {
+            byte[] first = samples.iterator().next();
+            return new CompressionDictionary(Arrays.copyOf(first, Math.min(first.length, maxSize)));
+        }
+        byte[] content = new byte[size];
+        int offset = size;
+        for (byte[] bytes : selected) {
+            offset -= bytes.length;
+            System.arraycopy(bytes, 0, content, offset, bytes.length);
+        }
+        return new CompressionDictionary(content);
+    }
+
+    /**
+     * Get a copy of the dictionary content
+     */
+    public byte[] getContent() {
+        return content.clone();
+    }
+
+    /**
+     * Size of the dictionary in bytes
+     */
+    public int size() {
+        return content.length;
+    }
+
+    byte[] content() {
+        return content;
+    }
+
+    private static long gram(byte[] bytes, int offset) {
+        long gram = 0;
+        for (int i = 0; i < GRAM_LENGTH; i++) {
+            gram = (gram << 8) | (bytes[offset + i] & 0xFF);
+        }
+        return gram;
+    }
+
+    private static final class Segment {
+        private final byte[] bytes;
+        private final long score;
+
+        private Segment(byte[] bytes, long score) {
+            this.bytes = bytes;
+            this.score = score;
+        }
+    }
+}
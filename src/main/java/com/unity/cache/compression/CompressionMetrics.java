@@ -0,0 +1,91 @@
+package com.unity.cache.compression;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * CompressionMetrics counts the values written and read by a {@link ValueCompressor}
+ * It reports the compression ratio and the CPU time spent on compression and decompression.
+ * The time is the CPU time of the calling thread, or wall time on a JVM which can not measure thread CPU time.
+ */
+public final class CompressionMetrics {
+
+    private final LongAdder valuesWritten = new LongAdder();
+    private final LongAdder valuesCompressed = new LongAdder();
+    private final LongAdder valuesCompressedWithDictionary = new LongAdder();
+    private final LongAdder rawBytes = new LongAdder();
+    private final LongAdder storedBytes = new LongAdder();
+    private final LongAdder compressNanos = new LongAdder();
+    private final LongAdder valuesRead = new LongAdder();
+    private final LongAdder decompressNanos = new LongAdder();
+
+    void recordWrite(int rawLength, int storedLength, boolean compressed, boolean withDictionary, long nanos) {
+        valuesWritten.increment();
+        rawBytes.add(rawLength);
+        storedBytes.add(storedLength);
+        compressNanos.add(nanos);
+        if (compressed) {
+            valuesCompressed.increment();
+        }
+        if (withDictionary) {
+            valuesCompressedWithDictionary.increment();
+        }
+    }
+
+    void recordRead(long nanos) {
+        valuesRead.increment();
+        decompressNanos.add(nanos);
+    }
+
+    public long getValuesWritten() {
+        return valuesWritten.sum();
+    }
+
+    public long getValuesCompressed() {
+        return valuesCompressed.sum();
+    }
+
+    public long getValuesCompressedWithDictionary() {
+        return valuesCompressedWithDictionary.sum();
+    }
+
+    public long getRawBytes() {
+        return rawBytes.sum();
+    }
+
+    public long getStoredBytes() {
+        return storedBytes.sum();
+    }
+
+    public long getValuesRead() {
+        return valuesRead.sum();
+    }
+
+    /**
+     * CPU time spent encoding values, including the serialization of values which are not Strings or byte arrays
+     */
+    public long getCompressNanos() {
+        return compressNanos.sum();
+    }
+
+    /**
+     * CPU time spent decoding frames
+     */
+    public long getDecompressNanos() {
+        return decompressNanos.sum();
+    }
+
+    /**
+     * Raw bytes divided by stored bytes of all written values, 1.0 if nothing is written
+     */
+    public double getCompressionRatio() {
+        long stored = storedBytes.sum();
+        return stored == 0 ? 1.0 : (double) rawBytes.sum() / stored;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("CompressionMetrics(written=%d, compressed=%d, dictionary=%d, ratio=%.2f, compressNanos=%d, read=%d, decompressNanos=%d)",
+                getValuesWritten(), getValuesCompressed(), getValuesCompressedWithDictionary(), getCompressionRatio(),
+                getCompressNanos(), getValuesRead(), getDecompressNanos());
+    }
+}
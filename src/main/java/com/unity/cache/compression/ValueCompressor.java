@@ -0,0 +1,264 @@
+package com.unity.cache.compression;
+
+import com.unity.cache.exceptions.InternalException;
+import lombok.Getter;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4FastDecompressor;
+import org.apache.commons.lang3.SerializationUtils;
+
+import java.io.Serializable;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * ValueCompressor encodes cache values into self-describing frames and decodes them back
+ * <p>
+ * Values of at least {@code thresholdBytes} are compressed by LZ4.
+ * Smaller values are compressed by DEFLATE with a preset dictionary if a dictionary is configured,
+ * otherwise they are stored raw. A compressed form is only kept if it is smaller than the raw form.
+ * </p>
+ * Frame layout:
+ * <pre>
+ * magic(1) codec(1) type(1) [rawLength(4)] [dictionaryId(4)] payload
+ * </pre>
+ * The magic byte 0xFE never appears in UTF-8 text, so frames are told apart from values written without compression.
+ */
+public class ValueCompressor {
+
+    public static final int DEFAULT_THRESHOLD_BYTES = 2048;
+    //Values smaller than this are never compressed, not even with a dictionary
+    public static final int MIN_DICTIONARY_VALUE_BYTES = 64;
+
+    static final byte MAGIC = (byte) 0xFE;
+
+    private static final byte CODEC_RAW = 0;
+    private static final byte CODEC_LZ4 = 1;
+    private static final byte CODEC_DEFLATE_DICTIONARY = 2;
+
+    private static final byte TYPE_SERIALIZED = 0;
+    private static final byte TYPE_BYTES = 1;
+    private static final byte TYPE_STRING = 2;
+
+    private static final int RAW_HEADER_LENGTH = 3;
+    private static final int LZ4_HEADER_LENGTH = 7;
+    private static final int DICTIONARY_HEADER_LENGTH = 11;
+
+    private static final LZ4Compressor LZ4_COMPRESSOR = LZ4Factory.fastestInstance().fastCompressor();
+    private static final LZ4FastDecompressor LZ4_DECOMPRESSOR = LZ4Factory.fastestInstance().fastDecompressor();
+
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+    private static final boolean CPU_TIME_SUPPORTED = THREADS.isCurrentThreadCpuTimeSupported();
+
+    @Getter
+    private final int thresholdBytes;
+    @Getter
+    private final CompressionDictionary dictionary;
+    @Getter
+    private final CompressionMetrics metrics = new CompressionMetrics();
+
+    public ValueCompressor() {
+        this(DEFAULT_THRESHOLD_BYTES, null);
+    }
+
+    public ValueCompressor(int thresholdBytes) {
+        this(thresholdBytes, null);
+    }
+
+    /**
+     * @param thresholdBytes values of at least this size are compressed by LZ4
+     * @param dictionary     dictionary for values smaller than the threshold, null to store them raw
+     * @throws IllegalArgumentException if thresholdBytes is negative
+     */
+    public ValueCompressor(int thresholdBytes, CompressionDictionary dictionary) {
+        if (thresholdBytes < 0) {
+            throw new IllegalArgumentException("Compression threshold must be equal or larger than 0");
+        }
+        this.thresholdBytes = thresholdBytes;
+        this.dictionary = dictionary;
+    }
+
+    /**
+     * Whether the stored value is a frame written by a ValueCompressor
+     */
+    public static boolean isFrame(Object stored) {
+        return stored instanceof byte[] && ((byte[]) stored).length >= RAW_HEADER_LENGTH && ((byte[]) stored)[0] == MAGIC;
+    }
+
+    /**
+     * Encode a value into a frame
+     *
+     * @param value value to be encoded, it must be a byte array, a string or serializable
+     * @return the frame
+     * @throws IllegalArgumentException if value is null or not serializable
+     */
+    public byte[] encode(Object value) {
+        long start = cpuNanos();
+        byte type;
+        byte[] raw;
+        if (value instanceof byte[]) {
+            type = TYPE_BYTES;
+            raw = (byte[]) value;
+        } else if (value instanceof String) {
+            type = TYPE_STRING;
+            raw = ((String) value).getBytes(StandardCharsets.UTF_8);
+        } else if (value instanceof Serializable) {
+            type = TYPE_SERIALIZED;
+            raw = SerializationUtils.serialize((Serializable) value);
+        } else {
+            throw new IllegalArgumentException("Value must be serializable to be compressed");
+        }
+
+        byte[] frame = null;
+        boolean withDictionary = false;
+        if (raw.length >= thresholdBytes) {
+            frame = compressLz4(type, raw);
+        } else if (dictionary != null && raw.length >= MIN_DICTIONARY_VALUE_BYTES) {
+            frame = compressWithDictionary(type, raw);
+            withDictionary = frame != null;
+        }
+        boolean compressed = frame != null;
+        if (!compressed) {
+            frame = new byte[RAW_HEADER_LENGTH + raw.length];
+            writeHeader(frame, CODEC_RAW, type);
+            System.arraycopy(raw, 0, frame, RAW_HEADER_LENGTH, raw.length);
+        }
+        metrics.recordWrite(raw.length, frame.length, compressed, withDictionary, cpuNanos() - start);
+        return frame;
+    }
+
+    /**
+     * Decode a stored value. Values which are not frames are returned as they are,
+     * so values written before compression was enabled can still be read
+     *
+     * @param stored the stored value
+     * @return the decoded value
+     * @throws InternalException if the frame is corrupted or needs a dictionary which is not configured
+     */
+    public Object decode(Object stored) {
+        if (!isFrame(stored)) {
+            return stored;
+        }
+        long start = cpuNanos();
+        byte[] frame = (byte[]) stored;
+        byte codec = frame[1];
+        byte type = frame[2];
+        byte[] raw;
+        switch (codec) {
+            case CODEC_RAW:
+                raw = Arrays.copyOfRange(frame, RAW_HEADER_LENGTH, frame.length);
+                break;
+            case CODEC_LZ4:
+                raw = new byte[readInt(frame, 3)];
+                LZ4_DECOMPRESSOR.decompress(frame, LZ4_HEADER_LENGTH, raw, 0, raw.length);
+                break;
+            case CODEC_DEFLATE_DICTIONARY:
+                raw = decompressWithDictionary(frame);
+                break;
+            default:
+                throw new InternalException("Unknown compression codec: " + codec);
+        }
+        Object value;
+        if (type == TYPE_BYTES) {
+            value = raw;
+        } else if (type == TYPE_STRING) {
+            value = new String(raw, StandardCharsets.UTF_8);
+        } else {
+            value = SerializationUtils.deserialize(raw);
+        }
+        metrics.recordRead(cpuNanos() - start);
+        return value;
+    }
+
+    /**
+     * CPU time of the current thread, so the metrics leave out GC pauses and descheduling.
+     * Wall time is used if the JVM can not measure the CPU time of a thread
+     */
+    private static long cpuNanos() {
+        if (CPU_TIME_SUPPORTED && THREADS.isThreadCpuTimeEnabled()) {
+            return THREADS.getCurrentThreadCpuTime();
+        }
+        return System.nanoTime();
+    }
+
+    private byte[] compressLz4(byte type, byte[] raw) {
+        byte[] frame = new byte[LZ4_HEADER_LENGTH + LZ4_COMPRESSOR.maxCompressedLength(raw.length)];
+        int length = LZ4_COMPRESSOR.compress(raw, 0, raw.length, frame, LZ4_HEADER_LENGTH);
+        if (length >= raw.length) {
+            return null;
+        }
+        writeHeader(frame, CODEC_LZ4, type);
+        writeInt(frame, 3, raw.length);
+        return Arrays.copyOf(frame, LZ4_HEADER_LENGTH + length);
+    }
+
+    private byte[] compressWithDictionary(byte type, byte[] raw) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED, true);
+        try {
+            deflater.setDictionary(dictionary.content());
+            deflater.setInput(raw);
+            deflater.finish();
+            byte[] frame = new byte[DICTIONARY_HEADER_LENGTH + raw.length];
+            int length = deflater.deflate(frame, DICTIONARY_HEADER_LENGTH, raw.length);
+            if (!deflater.finished()) {
+                //Compressed form is not smaller than the raw form
+                return null;
+            }
+            writeHeader(frame, CODEC_DEFLATE_DICTIONARY, type);
+            writeInt(frame, 3, raw.length);
+            writeInt(frame, 7, dictionary.getId());
+            return Arrays.copyOf(frame, DICTIONARY_HEADER_LENGTH + length);
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private byte[] decompressWithDictionary(byte[] frame) {
+        int dictionaryId = readInt(frame, 7);
+        if (dictionary == null || dictionary.getId() != dictionaryId) {
+            throw new InternalException("Value is compressed with dictionary " + dictionaryId + " which is not configured");
+        }
+        Inflater inflater = new Inflater(true);
+        try {
+            inflater.setDictionary(dictionary.content());
+            inflater.setInput(frame, DICTIONARY_HEADER_LENGTH, frame.length - DICTIONARY_HEADER_LENGTH);
+            byte[] raw = new byte[readInt(frame, 3)];
+            int offset = 0;
+            while (offset < raw.length) {
+                int length = inflater.inflate(raw, offset, raw.length - offset);
+                if (length == 0 && (inflater.finished() || inflater.needsInput())) {
+                    throw new InternalException("Compressed value is truncated");
+                }
+                offset += length;
+            }
+            return raw;
+        } catch (DataFormatException e) {
+            throw new InternalException("Exception occurs when decompress value: ", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static void writeHeader(byte[] frame, byte codec, byte type) {
+        frame[0] = MAGIC;
+        frame[1] = codec;
+        frame[2] = type;
+    }
+
+    private static void writeInt(byte[] bytes, int offset, int value) {
+        bytes[offset] = (byte) (value >>> 24);
+        bytes[offset + 1] = (byte) (value >>> 16);
+        bytes[offset + 2] = (byte) (value >>> 8);
+        bytes[offset + 3] = (byte) value;
+    }
+
+    private static int readInt(byte[] bytes, int offset) {
+        return ((bytes[offset] & 0xFF) << 24) | ((bytes[offset + 1] & 0xFF) << 16)
+                | ((bytes[offset + 2] & 0xFF) << 8) | (bytes[offset + 3] & 0xFF);
+    }
+}
@@ -0,0 +1,106 @@
+package com.unity.cache.concurrent;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * CacheExecutors creates the executors used to fan out blocking connector calls across nodes.
+ * <p>
+ * On Java 21+ a virtual-thread-per-task executor is used, so thousands of concurrent per-node calls
+ * can block without sizing a thread pool. On older JVMs it falls back to a fixed pool of daemon platform threads.
+ * The library is compiled for Java 8, so virtual threads are looked up reflectively at runtime.
+ * </p>
+ */
+public final class CacheExecutors {
+
+    //Default size of the platform thread pool used when virtual threads are not available
+    public static final int DEFAULT_PLATFORM_THREADS = Math.max(32, Runtime.getRuntime().availableProcessors() * 4);
+
+    private static final Method VIRTUAL_EXECUTOR_FACTORY = findVirtualExecutorFactory();
+
+    private static volatile ExecutorService shared;
+
+    private CacheExecutors() {
+    }
+
+    /**
+     * Whether virtual threads are available on the running JVM
+     */
+    public static boolean isVirtualThreadSupported() {
+        return VIRTUAL_EXECUTOR_FACTORY != null;
+    }
+
+    /**
+     * Shared fan-out executor of the library, created on first use
+     * It is virtual-thread based when possible and is never shut down
+     */
+    public static ExecutorService fanOut() {
+        ExecutorService executor = shared;
+        if (executor == null) {
+            synchronized (CacheExecutors.class) {
+                executor = shared;
+                if (executor == null) {
+                    executor = isVirtualThreadSupported() ? newVirtualThreadExecutor() : newPlatformThreadExecutor(DEFAULT_PLATFORM_THREADS);
+                    shared = executor;
+                }
+            }
+        }
+        return executor;
+    }
+
+    /**
+     * Create an executor which starts a new virtual thread for each task
+     *
+     * @throws UnsupportedOperationException if virtual threads are not available
+     */
+    public static ExecutorService newVirtualThreadExecutor() {
+        if (VIRTUAL_EXECUTOR_FACTORY == null) {
+            throw new UnsupportedOperationException("Virtual threads require Java 21 or later");
+        }
+        try {
+            return (ExecutorService) VIRTUAL_EXECUTOR_FACTORY.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            throw new UnsupportedOperationException("Virtual threads are not available", e);
+        }
+    }
+
+    /**
+     * Create a fixed pool of daemon platform threads
+     *
+     * @param threads number of threads
+     */
+    public static ExecutorService newPlatformThreadExecutor(int threads) {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("Thread number must be larger than 0");
+        }
+        return Executors.newFixedThreadPool(threads, daemonThreadFactory("cache-fan-out-"));
+    }
+
+    /**
+     * Thread factory which creates named daemon threads, so background work never blocks JVM shutdown
+     *
+     * @param prefix prefix of thread name
+     */
+    public static ThreadFactory daemonThreadFactory(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static Method findVirtualExecutorFactory() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            //Java 19/20 ship it as a preview API which throws unless preview is enabled
+            ((ExecutorService) factory.invoke(null)).shutdown();
+            return factory;
+        } catch (ReflectiveOperationException | RuntimeException | LinkageError e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.unity.cache.concurrent;
+
+import com.unity.cache.exceptions.InternalException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
+/**
+ * ScatterGather runs one blocking task per partition (usually per node) concurrently and gathers the results.
+ * <p>
+ * The last partition is run by the calling thread, so a single partition never hops threads.
+ * The first failure is rethrown after all tasks are finished.
+ * </p>
+ */
+public final class ScatterGather {
+
+    private ScatterGather() {
+    }
+
+    /**
+     * Run the task for every partition and gather the results by partition
+     *
+     * @param executor   executor to run the tasks
+     * @param partitions partitions of the work, e.g. nodes
+     * @param task       blocking task to be run for each partition
+     * @return results of each partition in the iteration order of the partitions
+     * @throws InternalException if any task throws a checked exception
+     */
+    public static <P, R> List<R> scatter(Executor executor, Collection<P> partitions, Function<? super P, ? extends R> task) {
+        List<R> results = new ArrayList<>(partitions.size());
+        if (partitions.isEmpty()) {
+            return results;
+        }
+        List<CompletableFuture<? extends R>> futures = new ArrayList<>(partitions.size() - 1);
+        Iterator<P> iterator = partitions.iterator();
+        P last = iterator.next();
+        while (iterator.hasNext()) {
+            P partition = last;
+            futures.add(CompletableFuture.supplyAsync(() -> task.apply(partition), executor));
+            last = iterator.next();
+        }
+
+        RuntimeException failure = null;
+        R lastResult = null;
+        try {
+            lastResult = task.apply(last);
+        } catch (RuntimeException e) {
+            failure = e;
+        }
+        for (CompletableFuture<? extends R> future : futures) {
+            try {
+                results.add(future.join());
+            } catch (CompletionException e) {
+                if (failure == null) {
+                    failure = unwrap(e);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        results.add(lastResult);
+        return results;
+    }
+
+    private static RuntimeException unwrap(CompletionException e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof RuntimeException) {
+            return (RuntimeException) cause;
+        }
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        return new InternalException("Exception occurs in fan-out task: ", cause);
+    }
+}
@@ -0,0 +1,179 @@
+package com.unity.cache.connector;
+
+import com.unity.cache.CacheKey;
+import com.unity.cache.Deadline;
+import com.unity.cache.exceptions.DeadlineExceededException;
+import com.unity.cache.exceptions.OverloadException;
+import com.unity.cache.limiter.AdaptiveConcurrencyLimiter;
+import lombok.Getter;
+
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * AdmissionControlConnector bounds the number of requests in flight to one node with an adaptive limit.
+ * <p>
+ * When the node slows down, its limit shrinks and further requests wait in a short queue or fail fast with an
+ * {@link OverloadException}, so one slow node can not hold all request threads of the service.
+ * Requests with a deadline wait in the queue for at most the time left, and calls which fail because their
+ * deadline passed give back their slot without shrinking the limit.
+ * The calls made by the rebalancer (listing entries, conditional bulk writes and bulk removes) are not limited,
+ * migrations are paced by their own rate limits.
+ * </p>
+ * e.g.
+ * node.setCache(new AdmissionControlConnector(node.getCache(), new AdaptiveConcurrencyLimiter(LimiterConfig.builder().build())));
+ */
+public class AdmissionControlConnector extends ForwardingConnector {
+
+    @Getter
+    private final AdaptiveConcurrencyLimiter limiter;
+
+    public AdmissionControlConnector(CacheableConnector<Serializable> delegate, AdaptiveConcurrencyLimiter limiter) {
+        super(delegate);
+        if (limiter == null) {
+            throw new IllegalArgumentException("Limiter can not be null");
+        }
+        this.limiter = limiter;
+    }
+
+    @Override
+    public Optional<Object> getFromCache(Serializable key) {
+        return limit(() -> delegate.getFromCache(key));
+    }
+
+    @Override
+    public Optional<Object> getFromCache(CacheKey key) {
+        return limit(() -> delegate.getFromCache(key));
+    }
+
+    @Override
+    public Optional<Object> getFromCache(CacheKey key, Deadline deadline) {
+        return limit(deadline, () -> delegate.getFromCache(key, deadline));
+    }
+
+    @Override
+    public Map<CacheKey, Object> multiGetFromCache(Collection<CacheKey> keys) {
+        return limit(() -> delegate.multiGetFromCache(keys));
+    }
+
+    @Override
+    public Map<CacheKey, Object> multiGetFromCache(Collection<CacheKey> keys, Deadline deadline) {
+        return limit(deadline, () -> delegate.multiGetFromCache(keys, deadline));
+    }
+
+    @Override
+    public void putToCache(Serializable key, Object value) {
+        limit(() -> {
+            delegate.putToCache(key, value);
+            return null;
+        });
+    }
+
+    @Override
+    public void putToCache(CacheKey key, Object value) {
+        limit(() -> {
+            delegate.putToCache(key, value);
+            return null;
+        });
+    }
+
+    @Override
+    public void putToCache(CacheKey key, Object value, Deadline deadline) {
+        limit(deadline, () -> {
+            delegate.putToCache(key, value, deadline);
+            return null;
+        });
+    }
+
+    @Override
+    public void putAllToCache(Map<CacheKey, Object> entries) {
+        limit(() -> {
+            delegate.putAllToCache(entries);
+            return null;
+        });
+    }
+
+    @Override
+    public boolean putIfAbsentToCache(CacheKey key, Object value) {
+        return limit(() -> delegate.putIfAbsentToCache(key, value));
+    }
+
+    @Override
+    public long incrementInCache(CacheKey key, long delta) {
+        return limit(() -> delegate.incrementInCache(key, delta));
+    }
+
+    @Override
+    public long incrementInCache(CacheKey key, long delta, Deadline deadline) {
+        return limit(deadline, () -> delegate.incrementInCache(key, delta, deadline));
+    }
+
+    @Override
+    public void removeFromCache(Serializable key) {
+        limit(() -> {
+            delegate.removeFromCache(key);
+            return null;
+        });
+    }
+
+    @Override
+    public void removeFromCache(CacheKey key) {
+        limit(() -> {
+            delegate.removeFromCache(key);
+            return null;
+        });
+    }
+
+    @Override
+    public void removeFromCache(CacheKey key, Deadline deadline) {
+        limit(deadline, () -> {
+            delegate.removeFromCache(key, deadline);
+            return null;
+        });
+    }
+
+    @Override
+    public boolean removeFromCacheIfPresent(CacheKey key) {
+        return limit(() -> delegate.removeFromCacheIfPresent(key));
+    }
+
+    /**
+     * Requests whose deadline has passed are abandoned before they take a slot or while they wait in the queue,
+     * so they do not shrink the limit
+     */
+    private <T> T limit(Deadline deadline, Supplier<T> call) {
+        deadline.check();
+        long start;
+        try {
+            start = limiter.acquire(deadline.remainingNanos());
+        } catch (OverloadException e) {
+            //The wait may have been cut short by the deadline rather than by the queue
+            deadline.check();
+            throw e;
+        }
+        return call(start, call);
+    }
+
+    private <T> T limit(Supplier<T> call) {
+        return call(limiter.acquire(), call);
+    }
+
+    private <T> T call(long start, Supplier<T> call) {
+        T result;
+        try {
+            result = call.get();
+        } catch (DeadlineExceededException e) {
+            //The caller gave up, the node is not known to be overloaded
+            limiter.abandon(start);
+            throw e;
+        } catch (RuntimeException | Error e) {
+            limiter.release(start, false);
+            throw e;
+        }
+        limiter.release(start, true);
+        return result;
+    }
+}
@@ -0,0 +1,238 @@
+package com.unity.cache.connector;
+
+import com.unity.cache.CacheKey;
+import com.unity.cache.exceptions.InternalException;
+import lombok.Getter;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * AutoBatchingConnector combines the concurrent single-key reads and writes of many threads into multi-key calls to one node.
+ * <p>
+ * A caller queues its request. If no other caller is collecting a batch, it becomes the leader: it waits up to the
+ * window for more requests while another batch is in flight, takes at most the maximum batch size from the queue,
+ * hands the leadership on and sends the batch with one multi-get or multi-put. The other callers park until their
+ * request is answered, or take the leadership themselves if requests are left in the queue. An interrupted caller
+ * still waits for its request, which may already be in a batch, and returns with its interrupt flag set.
+ * A lone caller is never delayed: with no batch in flight and nobody else queued its request is sent at once.
+ * Reads and writes are batched separately. Calls with a deadline and the calls of the rebalancer are not batched.
+ * </p>
+ * e.g.
+ * node.setCache(new AutoBatchingConnector(node.getCache(), 64, 50));
+ */
+public class AutoBatchingConnector extends ForwardingConnector {
+
+    public static final int DEFAULT_MAX_BATCH_SIZE = 64;
+    public static final long DEFAULT_WINDOW_MICROS = 50;
+
+    @Getter
+    private final int maxBatchSize;
+    private final long windowNanos;
+
+    private final Batcher<Optional<Object>> reads = new Batcher<Optional<Object>>() {
+        @Override
+        void send(List<Request<Optional<Object>>> batch) {
+            Set<CacheKey> keys = new LinkedHashSet<>();
+            batch.forEach(request -> keys.add(request.key));
+            Map<CacheKey, Object> values = delegate.multiGetFromCache(keys);
+            batch.forEach(request -> request.complete(Optional.ofNullable(values.get(request.key))));
+        }
+    };
+
+    private final Batcher<Void> writes = new Batcher<Void>() {
+        @Override
+        void send(List<Request<Void>> batch) {
+            //The batch is in queue order, so the last write of a key wins
+            Map<CacheKey, Object> entries = new LinkedHashMap<>();
+            batch.forEach(request -> entries.put(request.key, request.value));
+            delegate.putAllToCache(entries);
+            batch.forEach(request -> request.complete(null));
+        }
+    };
+
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder batchedRequests = new LongAdder();
+
+    public AutoBatchingConnector(CacheableConnector<Serializable> delegate) {
+        this(delegate, DEFAULT_MAX_BATCH_SIZE, DEFAULT_WINDOW_MICROS);
+    }
+
+    /**
+     * @param delegate     connector of the node
+     * @param maxBatchSize maximum number of requests sent with one call
+     * @param windowMicros how long a leader waits for more requests while another batch is in flight
+     * @throws IllegalArgumentException if delegate is null, batch size is not positive or window is negative
+     */
+    public AutoBatchingConnector(CacheableConnector<Serializable> delegate, int maxBatchSize, long windowMicros) {
+        super(delegate);
+        if (maxBatchSize <= 0) {
+            throw new IllegalArgumentException("Max batch size must be larger than 0");
+        }
+        if (windowMicros < 0) {
+            throw new IllegalArgumentException("Window can not be negative");
+        }
+        this.maxBatchSize = maxBatchSize;
+        this.windowNanos = TimeUnit.MICROSECONDS.toNanos(windowMicros);
+    }
+
+    /**
+     * Number of multi-key calls sent for batched requests
+     */
+    public long getBatches() {
+        return batches.sum();
+    }
+
+    /**
+     * Number of single-key requests sent in batches, divided by the batches it is the average batch size
+     */
+    public long getBatchedRequests() {
+        return batchedRequests.sum();
+    }
+
+    @Override
+    public Optional<Object> getFromCache(Serializable key) {
+        return getFromCache(CacheKey.of(key));
+    }
+
+    @Override
+    public Optional<Object> getFromCache(CacheKey key) {
+        return reads.submit(new Request<>(key, null));
+    }
+
+    @Override
+    public void putToCache(Serializable key, Object value) {
+        putToCache(CacheKey.of(key), value);
+    }
+
+    @Override
+    public void putToCache(CacheKey key, Object value) {
+        writes.submit(new Request<>(key, value));
+    }
+
+    /**
+     * Batcher queues the requests of one kind and lets one caller at a time collect a batch
+     */
+    private abstract class Batcher<R> {
+
+        private final ConcurrentLinkedQueue<Request<R>> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger queued = new AtomicInteger();
+        private final AtomicBoolean collecting = new AtomicBoolean();
+        private final AtomicInteger inFlight = new AtomicInteger();
+
+        /**
+         * Send the batch with one call and answer each request
+         */
+        abstract void send(List<Request<R>> batch);
+
+        R submit(Request<R> request) {
+            queue.add(request);
+            queued.incrementAndGet();
+            //The request is queued and may be sent by another caller, so an interrupt does not abandon it.
+            //The flag is cleared while parked, parkNanos returns at once while it is set, and restored at the end
+            boolean interrupted = false;
+            while (!request.done) {
+                if (queued.get() > 0 && collecting.compareAndSet(false, true)) {
+                    List<Request<R>> batch;
+                    try {
+                        batch = collect();
+                    } finally {
+                        collecting.set(false);
+                    }
+                    dispatch(batch);
+                } else {
+                    LockSupport.parkNanos(this, Math.max(windowNanos, 1000));
+                    interrupted |= Thread.interrupted();
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+            if (request.failure != null) {
+                throw request.failure;
+            }
+            return request.result;
+        }
+
+        private List<Request<R>> collect() {
+            //Wait for more requests only while another batch is in flight, so a lone caller is not delayed
+            long deadline = System.nanoTime() + windowNanos;
+            while (queued.get() < maxBatchSize && inFlight.get() > 0 && System.nanoTime() < deadline) {
+                Thread.yield();
+            }
+            List<Request<R>> batch = new ArrayList<>(Math.min(queued.get(), maxBatchSize));
+            Request<R> next;
+            while (batch.size() < maxBatchSize && (next = queue.poll()) != null) {
+                queued.decrementAndGet();
+                batch.add(next);
+            }
+            return batch;
+        }
+
+        private void dispatch(List<Request<R>> batch) {
+            if (batch.isEmpty()) {
+                return;
+            }
+            inFlight.incrementAndGet();
+            try {
+                send(batch);
+                batches.increment();
+                batchedRequests.add(batch.size());
+            } catch (RuntimeException e) {
+                batch.forEach(request -> request.fail(e));
+            } catch (Error e) {
+                //The callers must not park forever
+                batch.forEach(request -> request.fail(new InternalException("Batch of " + batch.size() + " requests failed", e)));
+                throw e;
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * A single-key request and its answer, the caller parks until it is answered
+     */
+    private static final class Request<R> {
+        private final CacheKey key;
+        private final Object value;
+        private final Thread caller = Thread.currentThread();
+        private R result;
+        private RuntimeException failure;
+        //Publishes the result or the failure
+        private volatile boolean done;
+
+        private Request(CacheKey key, Object value) {
+            this.key = key;
+            this.value = value;
+        }
+
+        void complete(R result) {
+            if (!done) {
+                this.result = result;
+                this.done = true;
+                LockSupport.unpark(caller);
+            }
+        }
+
+        void fail(RuntimeException failure) {
+            if (!done) {
+                this.failure = failure;
+                this.done = true;
+                LockSupport.unpark(caller);
+            }
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package com.unity.cache.connector;
+
+import com.unity.cache.CacheKey;
+import com.unity.cache.Deadline;
+import com.unity.cache.filter.CountingBloomFilter;
+import com.unity.cache.filter.FilterMetrics;
+import lombok.Getter;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * BloomFilterConnector answers lookups of keys which are definitely not cached without a round trip.
+ * <p>
+ * Keys are added to a {@link CountingBloomFilter} before they are written and removed from it when the backend
+ * confirms they were removed. Bulk removes and overwrites only raise the false positive rate, never cause
+ * false negatives, and the filter is rebuilt from the entries of the node after every rebalance.
+ * The filter only knows the writes of this client: other writers of the same backend must use it too.
+ * </p>
+ * e.g.
+ * node.setCache(new BloomFilterConnector(node.getCache(), new CountingBloomFilter(1_000_000, 0.01)));
+ */
+public class BloomFilterConnector extends ForwardingConnector {
+
+    @Getter
+    private final CountingBloomFilter filter;
+    @Getter
+    private final FilterMetrics metrics = new FilterMetrics();
+
+    //Writes hold the read lock from adding the key to writing it, a rebuild takes the write lock to start
+    private final ReadWriteLock rebuildLock = new ReentrantReadWriteLock();
+
+    /**
+     * Wrap a connector, the filter starts empty: call {@link #rebuild()} if the backend is not empty
+     */
+    public BloomFilterConnector(CacheableConnector<Serializable> delegate, CountingBloomFilter filter) {
+        super(delegate);
+        if (filter == null) {
+            throw new IllegalArgumentException("Filter can not be null");
+        }
+        this.filter = filter;
+    }
+
+    @Override
+    public Optional<Object> getFromCache(Serializable key) {
+        return getFromCache(CacheKey.of(key));
+    }
+
+    @Override
+    public Optional<Object> getFromCache(CacheKey key) {
+        return getFromCache(key, Deadline.none());
+    }
+
+    @Override
+    public Optional<Object> getFromCache(CacheKey key, Deadline deadline) {
+        boolean mightContain = filter.mightContain(key);
+        metrics.recordLookup(mightContain);
+        if (!mightContain) {
+            return Optional.empty();
+        }
+        Optional<Object> value = delegate.getFromCache(key, deadline);
+        if (!value.isPresent()) {
+            metrics.recordFalsePositive();
+        }
+        return value;
+    }
+
+    @Override
+    public Map<CacheKey, Object> multiGetFromCache(Collection<CacheKey> keys) {
+        return multiGetFromCache(keys, Deadline.none());
+    }
+
+    @Override
+    public Map<CacheKey, Object> multiGetFromCache(Collection<CacheKey> keys, Deadline deadline) {
+        List<CacheKey> candidates = new ArrayList<>(keys.size());
+        for (CacheKey key : keys) {
+            boolean mightContain = filter.mightContain(key);
+            metrics.recordLookup(mightContain);
+            if (mightContain) {
+                candidates.add(key);
+            }
+        }
+        Map<CacheKey, Object> result = delegate.multiGetFromCache(candidates, deadline);
+        for (int i = result.size(); i < candidates.size(); i++) {
+            metrics.recordFalsePositive();
+        }
+        return result;
+    }
+
+    @Override
+    public void putToCache(Serializable key, Object value) {
+        putToCache(CacheKey.of(key), value);
+    }
+
+    @Override
+    public void putToCache(CacheKey key, Object value) {
+        putToCache(key, value, Deadline.none());
+    }
+
+    @Override
+    public void putToCache(CacheKey key, Object value, Deadline deadline) {
+        rebuildLock.readLock().lock();
+        try {
+            filter.add(key);
+            delegate.putToCache(key, value, deadline);
+        } finally {
+            rebuildLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void putAllToCache(Map<CacheKey, Object> entries) {
+        rebuildLock.readLock().lock();
+        try {
+            entries.keySet().forEach(filter::add);
+            delegate.putAllToCache(entries);
+        } finally {
+            rebuildLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean putIfAbsentToCache(CacheKey key, Object value) {
+        rebuildLock.readLock().lock();
+        try {
+            filter.add(key);
+            return delegate.putIfAbsentToCache(key, value);
+        } finally {
+            rebuildLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void putAllIfAbsentToCache(Map<CacheKey, Object> entries) {
+        rebuildLock.readLock().lock();
+        try {
+            entries.keySet().forEach(filter::add);
+            delegate.putAllIfAbsentToCache(entries);
+        } finally {
+            rebuildLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public long incrementInCache(CacheKey key, long delta) {
+        return incrementInCache(key, delta, Deadline.none());
+    }
+
+    @Override
+    public long incrementInCache(CacheKey key, long delta, Deadline deadline) {
+        rebuildLock.readLock().lock();
+        try {
+            filter.add(key);
+            return delegate.incrementInCache(key, delta, deadline);
+        } finally {
+            rebuildLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void removeFromCache(Serializable key) {
+        removeFromCacheIfPresent(CacheKey.of(key));
+    }
+
+    @Override
+    public void removeFromCache(CacheKey key) {
+        removeFromCacheIfPresent(key);
+    }
+
+    /**
+     * The key is removed without the deadline: the filter is only updated when the backend confirms the remove
+     */
+    @Override
+    public void removeFromCache(CacheKey key, Deadline deadline) {
+        deadline.check();
+        removeFromCacheIfPresent(key);
+    }
+
+    @Override
+    public boolean removeFromCacheIfPresent(CacheKey key) {
+        boolean removed = delegate.removeFromCacheIfPresent(key);
+        if (removed) {
+            filter.remove(key);
+        }
+        return removed;
+    }
+
+    @Override
+    public void evictCache() {
+        rebuildLock.writeLock().lock();
+        try {
+            delegate.evictCache();
+            filter.clear();
+        } finally {
+            rebuildLock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void rebalanced() {
+        rebuild();
+        delegate.rebalanced();
+    }
+
+    /**
+     * Rebuild the filter from the entries of the backend, it drops the counts of overwritten and bulk removed keys
+     * Writes keep going during the scan, they only wait for the writes which are in flight when the rebuild starts
+     * Nothing is done if the backend can not list its entries
+     */
+    public synchronized void rebuild() {
+        if (!delegate.supportsGetAll()) {
+            return;
+        }
+        rebuildLock.writeLock().lock();
+        try {
+            filter.startRebuild();
+        } finally {
+            rebuildLock.writeLock().unlock();
+        }
+        long entries = 0;
+        for (Map.Entry<Serializable, Object> entry : delegate.getAllFromCache()) {
+            filter.addRebuilt(CacheKey.of(entry.getKey()));
+            entries++;
+        }
+        filter.finishRebuild(entries);
+        metrics.recordRebuild();
+    }
+}
@@ -1,6 +1,15 @@
 package com.unity.cache.connector;
 
+import com.unity.cache.CacheKey;
+import com.unity.cache.Deadline;
+import com.unity.cache.exceptions.DeadlineExceededException;
+
 import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
@@ -14,6 +23,62 @@ public interface CacheableConnector<K extends Serializable> {
      */
     Optional<Object> getFromCache(K key);
 
+    /**
+     * Get the value of the pre-hashed key from cache
+     * Connectors which store keys as strings should override it to use the cached encoded key
+     *
+     * @param key the key
+     * @return the value of the key
+     */
+    @SuppressWarnings("unchecked")
+    default Optional<Object> getFromCache(CacheKey key) {
+        return getFromCache((K) key.getKey());
+    }
+
+    /**
+     * Get the value of the pre-hashed key from cache within the deadline
+     * The default implementation only checks the deadline before the call, connectors should override it to bound
+     * the wait for the reply by the time left
+     *
+     * @param key      the key
+     * @param deadline deadline of the request
+     * @return the value of the key
+     * @throws DeadlineExceededException if the deadline passes before the value is read
+     */
+    default Optional<Object> getFromCache(CacheKey key, Deadline deadline) {
+        deadline.check();
+        return getFromCache(key);
+    }
+
+    /**
+     * Get the values of multiple keys from cache in one call
+     * Connectors should override it to fetch all keys in one round trip (e.g. MGET)
+     *
+     * @param keys the keys
+     * @return the values of the keys which are found in cache
+     */
+    default Map<CacheKey, Object> multiGetFromCache(Collection<CacheKey> keys) {
+        Map<CacheKey, Object> result = new HashMap<>();
+        for (CacheKey key : keys) {
+            getFromCache(key).ifPresent(value -> result.put(key, value));
+        }
+        return result;
+    }
+
+    /**
+     * Get the values of multiple keys from cache in one call within the deadline
+     *
+     * @param keys     the keys
+     * @param deadline deadline of the request
+     * @return the values of the keys which are found in cache
+     * @throws DeadlineExceededException if the deadline passes before the values are read
+     * @see #getFromCache(CacheKey, Deadline)
+     */
+    default Map<CacheKey, Object> multiGetFromCache(Collection<CacheKey> keys, Deadline deadline) {
+        deadline.check();
+        return multiGetFromCache(keys);
+    }
+
     /**
      * Put the key-value pair into cache
      *
@@ -22,6 +87,98 @@ public interface CacheableConnector<K extends Serializable> {
      */
     void putToCache(K key, Object value);
 
+    /**
+     * Put the key-value pair of the pre-hashed key into cache
+     *
+     * @param key   the key
+     * @param value the value
+     */
+    @SuppressWarnings("unchecked")
+    default void putToCache(CacheKey key, Object value) {
+        putToCache((K) key.getKey(), value);
+    }
+
+    /**
+     * Put the key-value pair of the pre-hashed key into cache within the deadline
+     *
+     * @param key      the key
+     * @param value    the value
+     * @param deadline deadline of the request
+     * @throws DeadlineExceededException if the deadline passes before the write is acknowledged
+     * @see #getFromCache(CacheKey, Deadline)
+     */
+    default void putToCache(CacheKey key, Object value, Deadline deadline) {
+        deadline.check();
+        putToCache(key, value);
+    }
+
+    /**
+     * Put multiple key-value pairs into cache in one call
+     * Connectors should override it to send all pairs in one round trip (e.g. MSET or pipelining)
+     *
+     * @param entries the key-value pairs
+     */
+    default void putAllToCache(Map<CacheKey, Object> entries) {
+        entries.forEach(this::putToCache);
+    }
+
+    /**
+     * Put the key-value pair of the pre-hashed key into cache unless the key is already cached
+     * The default implementation is not atomic, connectors should override it with a conditional write (e.g. SET NX or add)
+     *
+     * @param key   the key
+     * @param value the value
+     * @return true if the value is written
+     */
+    default boolean putIfAbsentToCache(CacheKey key, Object value) {
+        if (getFromCache(key).isPresent()) {
+            return false;
+        }
+        putToCache(key, value);
+        return true;
+    }
+
+    /**
+     * Put multiple key-value pairs into cache, skipping the keys which are already cached
+     * Connectors should override it to send all pairs in one round trip
+     *
+     * @param entries the key-value pairs
+     */
+    default void putAllIfAbsentToCache(Map<CacheKey, Object> entries) {
+        entries.forEach(this::putIfAbsentToCache);
+    }
+
+    /**
+     * Add the delta to the counter of the pre-hashed key, a missing counter is created with the delta
+     * Counters are stored as decimal strings, so every connector reads them back the same way
+     * The default implementation is not atomic, connectors should override it with an atomic increment (e.g. INCRBY or incr)
+     *
+     * @param key   the key
+     * @param delta amount to be added
+     * @return value of the counter after the increment
+     */
+    default long incrementInCache(CacheKey key, long delta) {
+        Object current = getFromCache(key).orElse(null);
+        long next = (current == null ? 0 : Long.parseLong(current.toString().trim())) + delta;
+        putToCache(key, Long.toString(next));
+        return next;
+    }
+
+    /**
+     * Add the delta to the counter of the pre-hashed key within the deadline
+     *
+     * @param key      the key
+     * @param delta    amount to be added
+     * @param deadline deadline of the request
+     * @return value of the counter after the increment
+     * @throws DeadlineExceededException if the deadline passes before the increment is acknowledged
+     * @see #getFromCache(CacheKey, Deadline)
+     */
+    default long incrementInCache(CacheKey key, long delta, Deadline deadline) {
+        deadline.check();
+        return incrementInCache(key, delta);
+    }
+
     /**
      * Remove the key from cache
      *
@@ -29,6 +186,52 @@ public interface CacheableConnector<K extends Serializable> {
      */
     void removeFromCache(K key);
 
+    /**
+     * Remove the pre-hashed key from cache
+     *
+     * @param key the key
+     */
+    @SuppressWarnings("unchecked")
+    default void removeFromCache(CacheKey key) {
+        removeFromCache((K) key.getKey());
+    }
+
+    /**
+     * Remove the pre-hashed key from cache within the deadline
+     *
+     * @param key      the key
+     * @param deadline deadline of the request
+     * @throws DeadlineExceededException if the deadline passes before the remove is acknowledged
+     * @see #getFromCache(CacheKey, Deadline)
+     */
+    default void removeFromCache(CacheKey key, Deadline deadline) {
+        deadline.check();
+        removeFromCache(key);
+    }
+
+    /**
+     * Remove the pre-hashed key from cache and tell whether it was cached
+     * The default implementation is not atomic, connectors should override it with the reply of the remove (e.g. DEL count)
+     *
+     * @param key the key
+     * @return true if the key was cached
+     */
+    default boolean removeFromCacheIfPresent(CacheKey key) {
+        boolean present = getFromCache(key).isPresent();
+        removeFromCache(key);
+        return present;
+    }
+
+    /**
+     * Remove multiple pre-hashed keys from cache
+     * Connectors should override it to remove all keys in one round trip (e.g. DEL with many keys)
+     *
+     * @param keys the keys
+     */
+    default void removeAllFromCache(Collection<CacheKey> keys) {
+        keys.forEach(this::removeFromCache);
+    }
+
     /**
      * Remove all keys from cache
      * It is implemented by the specific node cache implementation
@@ -40,4 +243,57 @@ public interface CacheableConnector<K extends Serializable> {
      * It is implemented by the specific node cache implementation
      */
     Set<Map.Entry<K, Object>> getAllFromCache();
+
+    /**
+     * Get one page of the entries whose key starts with the prefix
+     * The default implementation reads all entries with {@link #getAllFromCache()} as one page,
+     * connectors should override it to page with a server-side cursor and filter the keys on the server (e.g. SCAN MATCH)
+     *
+     * @param cursor    cursor returned with the previous page, null for the first page
+     * @param keyPrefix prefix of the keys, null or empty for all keys
+     * @param pageSize  hint of the number of entries per page
+     * @return the page and the cursor of the next page
+     */
+    default ScanPage scanPage(String cursor, String keyPrefix, int pageSize) {
+        List<Map.Entry<Serializable, Object>> entries = new ArrayList<>();
+        for (Map.Entry<K, Object> entry : getAllFromCache()) {
+            if (keyPrefix == null || entry.getKey().toString().startsWith(keyPrefix)) {
+                entries.add(new AbstractMap.SimpleEntry<>(entry.getKey(), entry.getValue()));
+            }
+        }
+        return new ScanPage(entries, null);
+    }
+
+    /**
+     * Memory used by the backend in bytes, as reported by the server (e.g. INFO memory or stats)
+     * It is sampled by load-aware balancing, backends which do not report it return -1
+     */
+    default long getUsedMemoryBytes() {
+        return -1;
+    }
+
+    /**
+     * Whether {@link #getAllFromCache()} returns all entries, backends which can not list their keys return false
+     */
+    default boolean supportsGetAll() {
+        return true;
+    }
+
+    /**
+     * Whether {@link #getAllFromCache()} and {@link #scanPage(String, String, int)} return every key as its encoded
+     * String instead of the key object that was written, e.g. backends which store keys by their string form.
+     * Keys are routed by their encoded String, so a listed key is routed the way it was written.
+     *
+     * @see CacheKey#getHash()
+     */
+    default boolean listsKeysAsStrings() {
+        return false;
+    }
+
+    /**
+     * Called after a rebalance moved entries to or from this node
+     * Decorators which keep client-side state about the entries of the node (e.g. membership filters) refresh it
+     */
+    default void rebalanced() {
+    }
 }
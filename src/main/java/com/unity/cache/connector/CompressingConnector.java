@@ -0,0 +1,150 @@
+package com.unity.cache.connector;
+
+import com.unity.cache.CacheKey;
+import com.unity.cache.Deadline;
+import com.unity.cache.compression.ValueCompressor;
+import lombok.Getter;
+
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * CompressingConnector compresses values on the way to the backend and decompresses them on the way back.
+ * Values are stored as frames of {@link ValueCompressor}, values written without compression are read as they are.
+ * Counter values, decimal strings which the backend increments, are stored unframed, e.g. when a counter is carried
+ * over or migrated to its new owner.
+ * e.g.
+ * node.setCache(new CompressingConnector(node.getCache(), new ValueCompressor(2048)));
+ */
+public class CompressingConnector extends ForwardingConnector {
+
+    @Getter
+    private final ValueCompressor compressor;
+
+    public CompressingConnector(CacheableConnector<Serializable> delegate, ValueCompressor compressor) {
+        super(delegate);
+        if (compressor == null) {
+            throw new IllegalArgumentException("Compressor can not be null");
+        }
+        this.compressor = compressor;
+    }
+
+    @Override
+    public Optional<Object> getFromCache(Serializable key) {
+        return delegate.getFromCache(key).map(compressor::decode);
+    }
+
+    @Override
+    public Optional<Object> getFromCache(CacheKey key) {
+        return delegate.getFromCache(key).map(compressor::decode);
+    }
+
+    @Override
+    public Optional<Object> getFromCache(CacheKey key, Deadline deadline) {
+        return delegate.getFromCache(key, deadline).map(compressor::decode);
+    }
+
+    @Override
+    public Map<CacheKey, Object> multiGetFromCache(Collection<CacheKey> keys) {
+        Map<CacheKey, Object> result = new HashMap<>();
+        delegate.multiGetFromCache(keys).forEach((key, value) -> result.put(key, compressor.decode(value)));
+        return result;
+    }
+
+    @Override
+    public Map<CacheKey, Object> multiGetFromCache(Collection<CacheKey> keys, Deadline deadline) {
+        Map<CacheKey, Object> result = new HashMap<>();
+        delegate.multiGetFromCache(keys, deadline).forEach((key, value) -> result.put(key, compressor.decode(value)));
+        return result;
+    }
+
+    @Override
+    public void putToCache(Serializable key, Object value) {
+        delegate.putToCache(key, encode(value));
+    }
+
+    @Override
+    public void putToCache(CacheKey key, Object value) {
+        delegate.putToCache(key, encode(value));
+    }
+
+    @Override
+    public void putToCache(CacheKey key, Object value, Deadline deadline) {
+        delegate.putToCache(key, encode(value), deadline);
+    }
+
+    @Override
+    public void putAllToCache(Map<CacheKey, Object> entries) {
+        Map<CacheKey, Object> encoded = new HashMap<>();
+        entries.forEach((key, value) -> encoded.put(key, encode(value)));
+        delegate.putAllToCache(encoded);
+    }
+
+    @Override
+    public boolean putIfAbsentToCache(CacheKey key, Object value) {
+        return delegate.putIfAbsentToCache(key, encode(value));
+    }
+
+    @Override
+    public void putAllIfAbsentToCache(Map<CacheKey, Object> entries) {
+        Map<CacheKey, Object> encoded = new HashMap<>();
+        entries.forEach((key, value) -> encoded.put(key, encode(value)));
+        delegate.putAllIfAbsentToCache(encoded);
+    }
+
+    @Override
+    public Set<Map.Entry<Serializable, Object>> getAllFromCache() {
+        Set<Map.Entry<Serializable, Object>> result = new HashSet<>();
+        for (Map.Entry<Serializable, Object> entry : delegate.getAllFromCache()) {
+            result.add(new AbstractMap.SimpleEntry<>(entry.getKey(), compressor.decode(entry.getValue())));
+        }
+        return result;
+    }
+
+    @Override
+    public ScanPage scanPage(String cursor, String keyPrefix, int pageSize) {
+        ScanPage page = delegate.scanPage(cursor, keyPrefix, pageSize);
+        List<Map.Entry<Serializable, Object>> entries = new ArrayList<>(page.getEntries().size());
+        for (Map.Entry<Serializable, Object> entry : page.getEntries()) {
+            entries.add(new AbstractMap.SimpleEntry<>(entry.getKey(), compressor.decode(entry.getValue())));
+        }
+        return new ScanPage(entries, page.getNextCursor());
+    }
+
+    /**
+     * Frame the value, unless it is a counter value which the backend must be able to increment
+     */
+    private Object encode(Object value) {
+        return isCounter(value) ? value : compressor.encode(value);
+    }
+
+    /**
+     * Whether the value is the decimal string of a long, the form counters are stored in
+     */
+    private static boolean isCounter(Object value) {
+        if (!(value instanceof String)) {
+            return false;
+        }
+        String string = (String) value;
+        int start = string.startsWith("-") ? 1 : 0;
+        //Up to 19 digits, so the counter fits a long
+        if (string.length() == start || string.length() - start > 19) {
+            return false;
+        }
+        for (int i = start; i < string.length(); i++) {
+            char c = string.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+}
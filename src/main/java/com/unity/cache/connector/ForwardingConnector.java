@@ -0,0 +1,156 @@
+package com.unity.cache.connector;
+
+import com.unity.cache.CacheKey;
+import com.unity.cache.Deadline;
+import lombok.Getter;
+
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * ForwardingConnector forwards every call to another connector.
+ * It is the base class of connector decorators, which only override the calls they change.
+ * A decorator which changes a call should also change its variant with a deadline.
+ * e.g.
+ * node.setCache(new CompressingConnector(node.getCache(), compressor));
+ */
+public abstract class ForwardingConnector implements CacheableConnector<Serializable> {
+
+    @Getter
+    protected final CacheableConnector<Serializable> delegate;
+
+    protected ForwardingConnector(CacheableConnector<Serializable> delegate) {
+        if (delegate == null) {
+            throw new IllegalArgumentException("Delegate connector can not be null");
+        }
+        this.delegate = delegate;
+    }
+
+    @Override
+    public Optional<Object> getFromCache(Serializable key) {
+        return delegate.getFromCache(key);
+    }
+
+    @Override
+    public Optional<Object> getFromCache(CacheKey key) {
+        return delegate.getFromCache(key);
+    }
+
+    @Override
+    public Optional<Object> getFromCache(CacheKey key, Deadline deadline) {
+        return delegate.getFromCache(key, deadline);
+    }
+
+    @Override
+    public Map<CacheKey, Object> multiGetFromCache(Collection<CacheKey> keys) {
+        return delegate.multiGetFromCache(keys);
+    }
+
+    @Override
+    public Map<CacheKey, Object> multiGetFromCache(Collection<CacheKey> keys, Deadline deadline) {
+        return delegate.multiGetFromCache(keys, deadline);
+    }
+
+    @Override
+    public void putToCache(Serializable key, Object value) {
+        delegate.putToCache(key, value);
+    }
+
+    @Override
+    public void putToCache(CacheKey key, Object value) {
+        delegate.putToCache(key, value);
+    }
+
+    @Override
+    public void putToCache(CacheKey key, Object value, Deadline deadline) {
+        delegate.putToCache(key, value, deadline);
+    }
+
+    @Override
+    public void putAllToCache(Map<CacheKey, Object> entries) {
+        delegate.putAllToCache(entries);
+    }
+
+    @Override
+    public boolean putIfAbsentToCache(CacheKey key, Object value) {
+        return delegate.putIfAbsentToCache(key, value);
+    }
+
+    @Override
+    public void putAllIfAbsentToCache(Map<CacheKey, Object> entries) {
+        delegate.putAllIfAbsentToCache(entries);
+    }
+
+    @Override
+    public long incrementInCache(CacheKey key, long delta) {
+        return delegate.incrementInCache(key, delta);
+    }
+
+    @Override
+    public long incrementInCache(CacheKey key, long delta, Deadline deadline) {
+        return delegate.incrementInCache(key, delta, deadline);
+    }
+
+    @Override
+    public void removeFromCache(Serializable key) {
+        delegate.removeFromCache(key);
+    }
+
+    @Override
+    public void removeFromCache(CacheKey key) {
+        delegate.removeFromCache(key);
+    }
+
+    @Override
+    public void removeFromCache(CacheKey key, Deadline deadline) {
+        delegate.removeFromCache(key, deadline);
+    }
+
+    @Override
+    public boolean removeFromCacheIfPresent(CacheKey key) {
+        return delegate.removeFromCacheIfPresent(key);
+    }
+
+    @Override
+    public void removeAllFromCache(Collection<CacheKey> keys) {
+        delegate.removeAllFromCache(keys);
+    }
+
+    @Override
+    public void evictCache() {
+        delegate.evictCache();
+    }
+
+    @Override
+    public Set<Map.Entry<Serializable, Object>> getAllFromCache() {
+        return delegate.getAllFromCache();
+    }
+
+    @Override
+    public ScanPage scanPage(String cursor, String keyPrefix, int pageSize) {
+        return delegate.scanPage(cursor, keyPrefix, pageSize);
+    }
+
+    @Override
+    public long getUsedMemoryBytes() {
+        return delegate.getUsedMemoryBytes();
+    }
+
+    @Override
+    public boolean supportsGetAll() {
+        return delegate.supportsGetAll();
+    }
+
+    @Override
+    public boolean listsKeysAsStrings() {
+        return delegate.listsKeysAsStrings();
+    }
+
+    @Override
+    public void rebalanced() {
+        delegate.rebalanced();
+    }
+}
@@ -0,0 +1,137 @@
+package com.unity.cache.connector;
+
+import com.unity.cache.CacheKey;
+import com.unity.cache.Deadline;
+
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * LoadTrackingConnector counts the requests sent to a node and the time they take.
+ * <p>
+ * The counters only grow, samplers read them periodically and use the differences, e.g. the load-aware balancer.
+ * Multi-key calls count as one request. The calls of the rebalancer are not counted.
+ * </p>
+ * e.g.
+ * node.setCache(new LoadTrackingConnector(node.getCache()));
+ */
+public class LoadTrackingConnector extends ForwardingConnector {
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder latencyNanos = new LongAdder();
+
+    public LoadTrackingConnector(CacheableConnector<Serializable> delegate) {
+        super(delegate);
+    }
+
+    /**
+     * Number of requests completed so far
+     */
+    public long getRequests() {
+        return requests.sum();
+    }
+
+    /**
+     * Total time of the requests completed so far
+     */
+    public long getLatencyNanos() {
+        return latencyNanos.sum();
+    }
+
+    @Override
+    public Optional<Object> getFromCache(Serializable key) {
+        return track(() -> delegate.getFromCache(key));
+    }
+
+    @Override
+    public Optional<Object> getFromCache(CacheKey key) {
+        return track(() -> delegate.getFromCache(key));
+    }
+
+    @Override
+    public Optional<Object> getFromCache(CacheKey key, Deadline deadline) {
+        return track(() -> delegate.getFromCache(key, deadline));
+    }
+
+    @Override
+    public Map<CacheKey, Object> multiGetFromCache(Collection<CacheKey> keys) {
+        return track(() -> delegate.multiGetFromCache(keys));
+    }
+
+    @Override
+    public Map<CacheKey, Object> multiGetFromCache(Collection<CacheKey> keys, Deadline deadline) {
+        return track(() -> delegate.multiGetFromCache(keys, deadline));
+    }
+
+    @Override
+    public void putToCache(Serializable key, Object value) {
+        track(() -> {
+            delegate.putToCache(key, value);
+            return null;
+        });
+    }
+
+    @Override
+    public void putToCache(CacheKey key, Object value) {
+        track(() -> {
+            delegate.putToCache(key, value);
+            return null;
+        });
+    }
+
+    @Override
+    public void putToCache(CacheKey key, Object value, Deadline deadline) {
+        track(() -> {
+            delegate.putToCache(key, value, deadline);
+            return null;
+        });
+    }
+
+    @Override
+    public long incrementInCache(CacheKey key, long delta) {
+        return track(() -> delegate.incrementInCache(key, delta));
+    }
+
+    @Override
+    public long incrementInCache(CacheKey key, long delta, Deadline deadline) {
+        return track(() -> delegate.incrementInCache(key, delta, deadline));
+    }
+
+    @Override
+    public void removeFromCache(Serializable key) {
+        track(() -> {
+            delegate.removeFromCache(key);
+            return null;
+        });
+    }
+
+    @Override
+    public void removeFromCache(CacheKey key) {
+        track(() -> {
+            delegate.removeFromCache(key);
+            return null;
+        });
+    }
+
+    @Override
+    public void removeFromCache(CacheKey key, Deadline deadline) {
+        track(() -> {
+            delegate.removeFromCache(key, deadline);
+            return null;
+        });
+    }
+
+    private <T> T track(Supplier<T> call) {
+        long start = System.nanoTime();
+        try {
+            return call.get();
+        } finally {
+            latencyNanos.add(System.nanoTime() - start);
+            requests.increment();
+        }
+    }
+}
@@ -1,18 +1,28 @@
 package com.unity.cache.connector;
 
+import com.unity.cache.CacheKey;
+import com.unity.cache.Deadline;
+import com.unity.cache.exceptions.DeadlineExceededException;
+import com.unity.cache.exceptions.InternalException;
 import net.spy.memcached.MemcachedClient;
 
+import java.io.Closeable;
 import java.io.IOException;
 import java.io.Serializable;
 import java.net.InetSocketAddress;
 import java.net.SocketAddress;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
 
 /**
  * DummyMemcacheCache is a dummy Memcache implementation of Cacheable interface.
+ * Reads with a deadline wait for the reply for the time left only, writes and removes are not acknowledged and only check it.
  */
-public class MemcacheConnector implements CacheableConnector<Serializable> {
+public class MemcacheConnector implements CacheableConnector<Serializable>, Closeable {
 
     private MemcachedClient memcachedClient;
 
@@ -25,23 +35,166 @@ public class MemcacheConnector implements CacheableConnector<Serializable> {
         return Optional.ofNullable(memcachedClient.get(key.toString()));
     }
 
+    @Override
+    public Optional<Object> getFromCache(CacheKey key) {
+        return Optional.ofNullable(memcachedClient.get(key.getEncoded()));
+    }
+
+    @Override
+    public Optional<Object> getFromCache(CacheKey key, Deadline deadline) {
+        if (!deadline.isBounded()) {
+            return getFromCache(key);
+        }
+        deadline.check();
+        return Optional.ofNullable(await(memcachedClient.asyncGet(key.getEncoded()), deadline));
+    }
+
+    @Override
+    public Map<CacheKey, Object> multiGetFromCache(Collection<CacheKey> keys) {
+        Map<String, CacheKey> keysByEncoded = keys.stream().collect(Collectors.toMap(CacheKey::getEncoded, key -> key, (a, b) -> a));
+        Map<CacheKey, Object> result = new HashMap<>();
+        if (keysByEncoded.isEmpty()) {
+            return result;
+        }
+        memcachedClient.getBulk(keysByEncoded.keySet()).forEach((key, value) -> result.put(keysByEncoded.get(key), value));
+        return result;
+    }
+
+    @Override
+    public Map<CacheKey, Object> multiGetFromCache(Collection<CacheKey> keys, Deadline deadline) {
+        if (!deadline.isBounded()) {
+            return multiGetFromCache(keys);
+        }
+        deadline.check();
+        Map<String, CacheKey> keysByEncoded = keys.stream().collect(Collectors.toMap(CacheKey::getEncoded, key -> key, (a, b) -> a));
+        Map<CacheKey, Object> result = new HashMap<>();
+        if (keysByEncoded.isEmpty()) {
+            return result;
+        }
+        await(memcachedClient.asyncGetBulk(keysByEncoded.keySet()), deadline).forEach((key, value) -> result.put(keysByEncoded.get(key), value));
+        return result;
+    }
+
     @Override
     public Set<Map.Entry<Serializable, Object>> getAllFromCache() {
         return Collections.emptySet();
     }
 
+    /**
+     * Memcache can not list its keys
+     */
+    @Override
+    public boolean supportsGetAll() {
+        return false;
+    }
+
     @Override
     public void putToCache(Serializable key, Object value) {
         memcachedClient.set(key.toString(), 0, value);
     }
 
+    @Override
+    public void putToCache(CacheKey key, Object value) {
+        memcachedClient.set(key.getEncoded(), 0, value);
+    }
+
+    @Override
+    public void putAllToCache(Map<CacheKey, Object> entries) {
+        //Sets are pipelined by the client, wait for all of them at the end
+        List<Future<Boolean>> futures = new ArrayList<>(entries.size());
+        entries.forEach((key, value) -> futures.add(memcachedClient.set(key.getEncoded(), 0, value)));
+        futures.forEach(MemcacheConnector::await);
+    }
+
+    @Override
+    public boolean putIfAbsentToCache(CacheKey key, Object value) {
+        return await(memcachedClient.add(key.getEncoded(), 0, value));
+    }
+
+    @Override
+    public void putAllIfAbsentToCache(Map<CacheKey, Object> entries) {
+        List<Future<Boolean>> futures = new ArrayList<>(entries.size());
+        entries.forEach((key, value) -> futures.add(memcachedClient.add(key.getEncoded(), 0, value)));
+        futures.forEach(MemcacheConnector::await);
+    }
+
+    /**
+     * Memcache only increments by positive deltas, other deltas use the non-atomic default
+     */
+    @Override
+    public long incrementInCache(CacheKey key, long delta) {
+        if (delta < 0) {
+            return CacheableConnector.super.incrementInCache(key, delta);
+        }
+        return memcachedClient.incr(key.getEncoded(), delta, delta);
+    }
+
     @Override
     public void removeFromCache(Serializable key) {
         memcachedClient.delete(key.toString());
     }
 
+    @Override
+    public void removeFromCache(CacheKey key) {
+        memcachedClient.delete(key.getEncoded());
+    }
+
+    @Override
+    public boolean removeFromCacheIfPresent(CacheKey key) {
+        return await(memcachedClient.delete(key.getEncoded()));
+    }
+
     @Override
     public void evictCache() {
         memcachedClient.flush();
     }
+
+    /**
+     * Sum of the bytes stat of the servers
+     */
+    @Override
+    public long getUsedMemoryBytes() {
+        long bytes = 0;
+        for (Map<String, String> stats : memcachedClient.getStats().values()) {
+            String value = stats.get("bytes");
+            if (value == null) {
+                return -1;
+            }
+            bytes += Long.parseLong(value);
+        }
+        return bytes;
+    }
+
+    @Override
+    public void close() {
+        memcachedClient.shutdown();
+    }
+
+    /**
+     * Wait for the reply for the time left, the operation is cancelled if the deadline passes
+     */
+    private static <T> T await(Future<T> future, Deadline deadline) {
+        try {
+            return future.get(deadline.remainingNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(false);
+            throw new DeadlineExceededException("Deadline exceeded when wait for reply", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InternalException("Interrupted when wait for reply", e);
+        } catch (ExecutionException e) {
+            throw new InternalException("Exception occurs when wait for reply: ", e.getCause());
+        }
+    }
+
+    private static boolean await(Future<Boolean> future) {
+        try {
+            return Boolean.TRUE.equals(future.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InternalException("Interrupted when wait for reply", e);
+        } catch (ExecutionException e) {
+            throw new InternalException("Exception occurs when wait for reply: ", e.getCause());
+        }
+    }
 }
@@ -1,49 +1,328 @@
 package com.unity.cache.connector;
 
+import com.unity.cache.CacheKey;
+import com.unity.cache.Deadline;
+import com.unity.cache.exceptions.DeadlineExceededException;
+import redis.clients.jedis.Connection;
 import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.params.ScanParams;
+import redis.clients.jedis.params.SetParams;
+import redis.clients.jedis.exceptions.JedisConnectionException;
+import redis.clients.jedis.resps.ScanResult;
 
+import java.io.Closeable;
 import java.io.Serializable;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 
 /**
  * DummyMemcacheCache is a dummy Redis cache implementation of Cacheable interface.
+ * A connection pool is used, so the connector can be called by multiple threads concurrently.
+ * Byte array values are stored as binary, other values as their string form.
+ * Calls with a deadline lower the socket timeout of the borrowed connection to the time left.
  */
-public class RedisConnector implements CacheableConnector<Serializable> {
+public class RedisConnector implements CacheableConnector<Serializable>, Closeable {
 
-    private Jedis jedis;
+    private static final int SCAN_PAGE_SIZE = 1000;
+    private static final String USED_MEMORY = "used_memory:";
+
+    private final JedisPool jedisPool;
 
     public RedisConnector(String ipAddress, int port) {
-        jedis = new Jedis(ipAddress, port);
+        jedisPool = new JedisPool(ipAddress, port);
     }
 
     @Override
     public Optional<Object> getFromCache(Serializable key) {
-        return Optional.ofNullable(jedis.get(key.toString()));
+        try (Jedis jedis = jedisPool.getResource()) {
+            return Optional.ofNullable(RedisValues.decode(jedis.get(key.toString().getBytes(StandardCharsets.UTF_8))));
+        }
+    }
+
+    @Override
+    public Optional<Object> getFromCache(CacheKey key) {
+        try (Jedis jedis = jedisPool.getResource()) {
+            return Optional.ofNullable(RedisValues.decode(jedis.get(key.getEncodedBytes())));
+        }
+    }
+
+    @Override
+    public Optional<Object> getFromCache(CacheKey key, Deadline deadline) {
+        return withDeadline(deadline, jedis -> Optional.ofNullable(RedisValues.decode(jedis.get(key.getEncodedBytes()))));
+    }
+
+    @Override
+    public Map<CacheKey, Object> multiGetFromCache(Collection<CacheKey> keys) {
+        return multiGetFromCache(keys, Deadline.none());
     }
 
+    @Override
+    public Map<CacheKey, Object> multiGetFromCache(Collection<CacheKey> keys, Deadline deadline) {
+        List<CacheKey> keyList = new ArrayList<>(keys);
+        Map<CacheKey, Object> result = new HashMap<>();
+        if (keyList.isEmpty()) {
+            return result;
+        }
+        byte[][] encodedKeys = keyList.stream().map(CacheKey::getEncodedBytes).toArray(byte[][]::new);
+        List<byte[]> values = withDeadline(deadline, jedis -> jedis.mget(encodedKeys));
+        for (int i = 0; i < keyList.size(); i++) {
+            if (values.get(i) != null) {
+                result.put(keyList.get(i), RedisValues.decode(values.get(i)));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Get all entries page by page with SCAN and MGET, keys are returned in their encoded form
+     * Only String keys come back as they were written, see {@link #listsKeysAsStrings()}
+     */
     @Override
     public Set<Map.Entry<Serializable, Object>> getAllFromCache() {
-        Set<Map.Entry<String, String>> stringSet = jedis.hgetAll("*").entrySet();
         Set<Map.Entry<Serializable, Object>> objectSet = new HashSet<>();
-        for (Map.Entry<String, String> entry : stringSet) {
-            Map.Entry<Serializable, Object> newEntry = new AbstractMap.SimpleEntry<>(entry.getKey(), entry.getValue());
-            objectSet.add(newEntry);
+        ScanParams params = new ScanParams().count(SCAN_PAGE_SIZE);
+        byte[] cursor = ScanParams.SCAN_POINTER_START_BINARY;
+        try (Jedis jedis = jedisPool.getResource()) {
+            do {
+                ScanResult<byte[]> page = jedis.scan(cursor, params);
+                cursor = page.getCursorAsBytes();
+                List<byte[]> keys = page.getResult();
+                if (keys.isEmpty()) {
+                    continue;
+                }
+                List<byte[]> values = jedis.mget(keys.toArray(new byte[0][]));
+                for (int i = 0; i < keys.size(); i++) {
+                    if (values.get(i) != null) {
+                        objectSet.add(new AbstractMap.SimpleEntry<>(new String(keys.get(i), StandardCharsets.UTF_8), RedisValues.decode(values.get(i))));
+                    }
+                }
+            } while (!Arrays.equals(cursor, ScanParams.SCAN_POINTER_START_BINARY));
         }
         return objectSet;
     }
 
+    /**
+     * Get one page with SCAN MATCH and MGET, the cursor is the cursor of SCAN
+     */
+    @Override
+    public ScanPage scanPage(String cursor, String keyPrefix, int pageSize) {
+        ScanParams params = new ScanParams().count(pageSize).match(matchPattern(keyPrefix));
+        List<Map.Entry<Serializable, Object>> entries = new ArrayList<>();
+        try (Jedis jedis = jedisPool.getResource()) {
+            ScanResult<byte[]> page = jedis.scan(cursor == null ? ScanParams.SCAN_POINTER_START_BINARY : cursor.getBytes(StandardCharsets.UTF_8), params);
+            List<byte[]> keys = page.getResult();
+            if (!keys.isEmpty()) {
+                List<byte[]> values = jedis.mget(keys.toArray(new byte[0][]));
+                for (int i = 0; i < keys.size(); i++) {
+                    if (values.get(i) != null) {
+                        entries.add(new AbstractMap.SimpleEntry<>(new String(keys.get(i), StandardCharsets.UTF_8), RedisValues.decode(values.get(i))));
+                    }
+                }
+            }
+            return new ScanPage(entries, page.isCompleteIteration() ? null : page.getCursor());
+        }
+    }
+
+    /**
+     * Keys are stored by their string form, SCAN returns them as Strings
+     */
+    @Override
+    public boolean listsKeysAsStrings() {
+        return true;
+    }
+
     @Override
     public void putToCache(Serializable key, Object value) {
-        jedis.set(key.toString(), value.toString());
+        try (Jedis jedis = jedisPool.getResource()) {
+            jedis.set(key.toString().getBytes(StandardCharsets.UTF_8), RedisValues.encode(value));
+        }
+    }
+
+    @Override
+    public void putToCache(CacheKey key, Object value) {
+        try (Jedis jedis = jedisPool.getResource()) {
+            jedis.set(key.getEncodedBytes(), RedisValues.encode(value));
+        }
+    }
+
+    @Override
+    public void putToCache(CacheKey key, Object value, Deadline deadline) {
+        byte[] encoded = RedisValues.encode(value);
+        withDeadline(deadline, jedis -> jedis.set(key.getEncodedBytes(), encoded));
+    }
+
+    @Override
+    public void putAllToCache(Map<CacheKey, Object> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        byte[][] keysValues = new byte[entries.size() * 2][];
+        int i = 0;
+        for (Map.Entry<CacheKey, Object> entry : entries.entrySet()) {
+            keysValues[i++] = entry.getKey().getEncodedBytes();
+            keysValues[i++] = RedisValues.encode(entry.getValue());
+        }
+        try (Jedis jedis = jedisPool.getResource()) {
+            jedis.mset(keysValues);
+        }
+    }
+
+    @Override
+    public boolean putIfAbsentToCache(CacheKey key, Object value) {
+        try (Jedis jedis = jedisPool.getResource()) {
+            return jedis.set(key.getEncodedBytes(), RedisValues.encode(value), SetParams.setParams().nx()) != null;
+        }
+    }
+
+    @Override
+    public void putAllIfAbsentToCache(Map<CacheKey, Object> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        try (Jedis jedis = jedisPool.getResource()) {
+            Pipeline pipeline = jedis.pipelined();
+            entries.forEach((key, value) -> pipeline.set(key.getEncodedBytes(), RedisValues.encode(value), SetParams.setParams().nx()));
+            pipeline.sync();
+        }
+    }
+
+    @Override
+    public long incrementInCache(CacheKey key, long delta) {
+        try (Jedis jedis = jedisPool.getResource()) {
+            return jedis.incrBy(key.getEncodedBytes(), delta);
+        }
+    }
+
+    @Override
+    public long incrementInCache(CacheKey key, long delta, Deadline deadline) {
+        return withDeadline(deadline, jedis -> jedis.incrBy(key.getEncodedBytes(), delta));
     }
 
     @Override
     public void removeFromCache(Serializable key) {
-        jedis.del(key.toString());
+        try (Jedis jedis = jedisPool.getResource()) {
+            jedis.del(key.toString());
+        }
+    }
+
+    @Override
+    public void removeFromCache(CacheKey key) {
+        try (Jedis jedis = jedisPool.getResource()) {
+            jedis.del(key.getEncoded());
+        }
+    }
+
+    @Override
+    public void removeFromCache(CacheKey key, Deadline deadline) {
+        withDeadline(deadline, jedis -> jedis.del(key.getEncodedBytes()));
+    }
+
+    @Override
+    public boolean removeFromCacheIfPresent(CacheKey key) {
+        try (Jedis jedis = jedisPool.getResource()) {
+            return jedis.del(key.getEncodedBytes()) > 0;
+        }
+    }
+
+    @Override
+    public void removeAllFromCache(Collection<CacheKey> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        try (Jedis jedis = jedisPool.getResource()) {
+            jedis.del(keys.stream().map(CacheKey::getEncodedBytes).toArray(byte[][]::new));
+        }
     }
 
     @Override
     public void evictCache() {
-        jedis.flushAll();
+        try (Jedis jedis = jedisPool.getResource()) {
+            jedis.flushAll();
+        }
+    }
+
+    /**
+     * Used memory from INFO memory
+     */
+    @Override
+    public long getUsedMemoryBytes() {
+        try (Jedis jedis = jedisPool.getResource()) {
+            return parseUsedMemory(jedis.info("memory"));
+        }
+    }
+
+    @Override
+    public void close() {
+        jedisPool.close();
+    }
+
+    /**
+     * Read used_memory from the reply of INFO, -1 if it is missing
+     */
+    static long parseUsedMemory(String info) {
+        for (String line : info.split("\r?\n")) {
+            if (line.startsWith(USED_MEMORY)) {
+                return Long.parseLong(line.substring(USED_MEMORY.length()).trim());
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Glob pattern of SCAN MATCH which matches the keys starting with the prefix, the glob characters of the prefix are escaped
+     */
+    static String matchPattern(String keyPrefix) {
+        if (keyPrefix == null) {
+            return "*";
+        }
+        StringBuilder pattern = new StringBuilder(keyPrefix.length() + 2);
+        for (int i = 0; i < keyPrefix.length(); i++) {
+            char c = keyPrefix.charAt(i);
+            if (c == '*' || c == '?' || c == '[' || c == ']' || c == '\\') {
+                pattern.append('\\');
+            }
+            pattern.append(c);
+        }
+        return pattern.append('*').toString();
+    }
+
+    /**
+     * Run a command on a pooled connection whose socket timeout is lowered to the time left
+     * A command which times out breaks the connection, so it is dropped by the pool instead of being reused
+     */
+    private <T> T withDeadline(Deadline deadline, Function<Jedis, T> command) {
+        deadline.check();
+        try (Jedis jedis = jedisPool.getResource()) {
+            if (!deadline.isBounded()) {
+                return command.apply(jedis);
+            }
+            Connection connection = jedis.getConnection();
+            int timeout = connection.getSoTimeout();
+            //A socket timeout of 0 means no timeout
+            long connectorTimeout = timeout == 0 ? Integer.MAX_VALUE : timeout;
+            long remaining = deadline.bound(connectorTimeout, TimeUnit.MILLISECONDS);
+            if (remaining <= 0) {
+                deadline.check();
+                remaining = 1;
+            }
+            connection.setSoTimeout((int) remaining);
+            try {
+                return command.apply(jedis);
+            } catch (JedisConnectionException e) {
+                if (remaining < connectorTimeout && e.getCause() instanceof SocketTimeoutException) {
+                    throw new DeadlineExceededException("Deadline exceeded when wait for reply", e);
+                }
+                throw e;
+            } finally {
+                if (!connection.isBroken()) {
+                    connection.setSoTimeout(timeout);
+                }
+            }
+        }
     }
 }
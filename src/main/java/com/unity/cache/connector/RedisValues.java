@@ -0,0 +1,41 @@
+package com.unity.cache.connector;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * RedisValues encodes values into Redis strings and decodes them back
+ * <p>
+ * Byte array values are stored with a leading 0xFF byte, which never appears in UTF-8 text,
+ * so binary values (e.g. compressed frames) and text values can share one keyspace.
+ * Other values are stored as their UTF-8 string form.
+ * </p>
+ */
+final class RedisValues {
+
+    private static final byte BINARY_MARKER = (byte) 0xFF;
+
+    private RedisValues() {
+    }
+
+    static byte[] encode(Object value) {
+        if (value instanceof byte[]) {
+            byte[] bytes = (byte[]) value;
+            byte[] encoded = new byte[bytes.length + 1];
+            encoded[0] = BINARY_MARKER;
+            System.arraycopy(bytes, 0, encoded, 1, bytes.length);
+            return encoded;
+        }
+        return value.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    static Object decode(byte[] stored) {
+        if (stored == null) {
+            return null;
+        }
+        if (stored.length > 0 && stored[0] == BINARY_MARKER) {
+            return Arrays.copyOfRange(stored, 1, stored.length);
+        }
+        return new String(stored, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,319 @@
+package com.unity.cache.connector;
+
+import com.unity.cache.CacheKey;
+import com.unity.cache.Deadline;
+import com.unity.cache.exceptions.DeadlineExceededException;
+import com.unity.cache.connector.resp.BufferPool;
+import com.unity.cache.connector.resp.RespClient;
+import com.unity.cache.exceptions.InternalException;
+
+import java.io.Closeable;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * RespConnector is a non-blocking Redis implementation of CacheableConnector.
+ * <p>
+ * Unlike {@link RedisConnector}, a command does not hold a socket and a thread while it is in flight.
+ * Commands of all threads are multiplexed over a few NIO connections and pipelined automatically.
+ * Values are stored the same way as {@link RedisConnector}, so both connectors can share a server.
+ * </p>
+ */
+public class RespConnector implements CacheableConnector<Serializable>, Closeable {
+
+    public static final int DEFAULT_CONNECTIONS = 2;
+    public static final long DEFAULT_TIMEOUT_MILLIS = 5000;
+
+    private static final byte[] GET = bytes("GET");
+    private static final byte[] MGET = bytes("MGET");
+    private static final byte[] SET = bytes("SET");
+    private static final byte[] MSET = bytes("MSET");
+    private static final byte[] DEL = bytes("DEL");
+    private static final byte[] NX = bytes("NX");
+    private static final byte[] INCRBY = bytes("INCRBY");
+    private static final byte[] FLUSHALL = bytes("FLUSHALL");
+    private static final byte[] SCAN = bytes("SCAN");
+    private static final byte[] COUNT = bytes("COUNT");
+    private static final byte[] MATCH = bytes("MATCH");
+    private static final byte[] SCAN_PAGE_SIZE = bytes("1000");
+    private static final byte[] INFO = bytes("INFO");
+    private static final byte[] MEMORY = bytes("memory");
+
+    private final RespClient client;
+    private final long timeoutMillis;
+
+    public RespConnector(String ipAddress, int port) {
+        this(ipAddress, port, DEFAULT_CONNECTIONS, DEFAULT_TIMEOUT_MILLIS);
+    }
+
+    /**
+     * @param ipAddress     server address
+     * @param port          server port
+     * @param connections   number of connections to multiplex over
+     * @param timeoutMillis max time to wait for a reply
+     */
+    public RespConnector(String ipAddress, int port, int connections, long timeoutMillis) {
+        this.client = new RespClient(ipAddress, port, connections, BufferPool.shared());
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    @Override
+    public Optional<Object> getFromCache(Serializable key) {
+        return getFromCache(CacheKey.of(key));
+    }
+
+    @Override
+    public Optional<Object> getFromCache(CacheKey key) {
+        return await(getFromCacheAsync(key));
+    }
+
+    @Override
+    public Optional<Object> getFromCache(CacheKey key, Deadline deadline) {
+        deadline.check();
+        return await(getFromCacheAsync(key), deadline);
+    }
+
+    /**
+     * Get the value of the key without blocking
+     *
+     * @param key the key
+     * @return future of the value
+     */
+    public CompletableFuture<Optional<Object>> getFromCacheAsync(CacheKey key) {
+        return client.send(GET, key.getEncodedBytes()).thenApply(reply -> Optional.ofNullable(RedisValues.decode((byte[]) reply)));
+    }
+
+    @Override
+    public Map<CacheKey, Object> multiGetFromCache(Collection<CacheKey> keys) {
+        return multiGetFromCache(keys, Deadline.none());
+    }
+
+    @Override
+    public Map<CacheKey, Object> multiGetFromCache(Collection<CacheKey> keys, Deadline deadline) {
+        deadline.check();
+        List<CacheKey> keyList = new ArrayList<>(keys);
+        Map<CacheKey, Object> result = new HashMap<>();
+        if (keyList.isEmpty()) {
+            return result;
+        }
+        byte[][] args = new byte[keyList.size() + 1][];
+        args[0] = MGET;
+        for (int i = 0; i < keyList.size(); i++) {
+            args[i + 1] = keyList.get(i).getEncodedBytes();
+        }
+        List<?> values = (List<?>) await(client.send(args), deadline);
+        for (int i = 0; i < keyList.size(); i++) {
+            if (values.get(i) != null) {
+                result.put(keyList.get(i), RedisValues.decode((byte[]) values.get(i)));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Keys are stored by their string form, SCAN returns them as Strings
+     */
+    @Override
+    public boolean listsKeysAsStrings() {
+        return true;
+    }
+
+    @Override
+    public void putToCache(Serializable key, Object value) {
+        putToCache(CacheKey.of(key), value);
+    }
+
+    @Override
+    public void putToCache(CacheKey key, Object value) {
+        await(putToCacheAsync(key, value));
+    }
+
+    @Override
+    public void putToCache(CacheKey key, Object value, Deadline deadline) {
+        deadline.check();
+        await(putToCacheAsync(key, value), deadline);
+    }
+
+    /**
+     * Put the key-value pair without blocking
+     *
+     * @param key   the key
+     * @param value the value
+     * @return future which completes when the server acknowledges the write
+     */
+    public CompletableFuture<Object> putToCacheAsync(CacheKey key, Object value) {
+        return client.send(SET, key.getEncodedBytes(), RedisValues.encode(value));
+    }
+
+    @Override
+    public void putAllToCache(Map<CacheKey, Object> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        byte[][] args = new byte[entries.size() * 2 + 1][];
+        args[0] = MSET;
+        int i = 1;
+        for (Map.Entry<CacheKey, Object> entry : entries.entrySet()) {
+            args[i++] = entry.getKey().getEncodedBytes();
+            args[i++] = RedisValues.encode(entry.getValue());
+        }
+        await(client.send(args));
+    }
+
+    @Override
+    public boolean putIfAbsentToCache(CacheKey key, Object value) {
+        return await(client.send(SET, key.getEncodedBytes(), RedisValues.encode(value), NX)) != null;
+    }
+
+    /**
+     * Pipeline one SET NX per entry, MSETNX would skip all entries if any key exists
+     */
+    @Override
+    public void putAllIfAbsentToCache(Map<CacheKey, Object> entries) {
+        List<CompletableFuture<Object>> futures = new ArrayList<>(entries.size());
+        entries.forEach((key, value) -> futures.add(client.send(SET, key.getEncodedBytes(), RedisValues.encode(value), NX)));
+        futures.forEach(this::await);
+    }
+
+    @Override
+    public long incrementInCache(CacheKey key, long delta) {
+        return (Long) await(client.send(INCRBY, key.getEncodedBytes(), bytes(Long.toString(delta))));
+    }
+
+    @Override
+    public long incrementInCache(CacheKey key, long delta, Deadline deadline) {
+        deadline.check();
+        return (Long) await(client.send(INCRBY, key.getEncodedBytes(), bytes(Long.toString(delta))), deadline);
+    }
+
+    @Override
+    public void removeFromCache(Serializable key) {
+        removeFromCache(CacheKey.of(key));
+    }
+
+    @Override
+    public void removeFromCache(CacheKey key) {
+        await(client.send(DEL, key.getEncodedBytes()));
+    }
+
+    @Override
+    public void removeFromCache(CacheKey key, Deadline deadline) {
+        deadline.check();
+        await(client.send(DEL, key.getEncodedBytes()), deadline);
+    }
+
+    @Override
+    public boolean removeFromCacheIfPresent(CacheKey key) {
+        return (Long) await(client.send(DEL, key.getEncodedBytes())) > 0;
+    }
+
+    @Override
+    public void removeAllFromCache(Collection<CacheKey> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        byte[][] args = new byte[keys.size() + 1][];
+        args[0] = DEL;
+        int i = 1;
+        for (CacheKey key : keys) {
+            args[i++] = key.getEncodedBytes();
+        }
+        await(client.send(args));
+    }
+
+    @Override
+    public void evictCache() {
+        await(client.send(FLUSHALL));
+    }
+
+    /**
+     * Get all entries page by page with SCAN and MGET, keys are returned in their encoded form
+     * Only String keys come back as they were written, see {@link #listsKeysAsStrings()}
+     */
+    @Override
+    public Set<Map.Entry<Serializable, Object>> getAllFromCache() {
+        Set<Map.Entry<Serializable, Object>> entries = new HashSet<>();
+        byte[] cursor = bytes("0");
+        do {
+            List<?> page = (List<?>) await(client.send(SCAN, cursor, COUNT, SCAN_PAGE_SIZE));
+            cursor = (byte[]) page.get(0);
+            List<CacheKey> keys = new ArrayList<>();
+            for (Object key : (List<?>) page.get(1)) {
+                keys.add(CacheKey.of(new String((byte[]) key, StandardCharsets.UTF_8)));
+            }
+            multiGetFromCache(keys).forEach((key, value) -> entries.add(new AbstractMap.SimpleEntry<>(key.getKey(), value)));
+        } while (!Arrays.equals(cursor, bytes("0")));
+        return entries;
+    }
+
+    /**
+     * Get one page with SCAN MATCH and MGET, the cursor is the cursor of SCAN
+     */
+    @Override
+    public ScanPage scanPage(String cursor, String keyPrefix, int pageSize) {
+        List<?> page = (List<?>) await(client.send(SCAN, bytes(cursor == null ? "0" : cursor),
+                MATCH, bytes(RedisConnector.matchPattern(keyPrefix)), COUNT, bytes(String.valueOf(pageSize))));
+        String nextCursor = new String((byte[]) page.get(0), StandardCharsets.UTF_8);
+        List<CacheKey> keys = new ArrayList<>();
+        for (Object key : (List<?>) page.get(1)) {
+            keys.add(CacheKey.of(new String((byte[]) key, StandardCharsets.UTF_8)));
+        }
+        List<Map.Entry<Serializable, Object>> entries = new ArrayList<>(keys.size());
+        multiGetFromCache(keys).forEach((key, value) -> entries.add(new AbstractMap.SimpleEntry<>(key.getKey(), value)));
+        return new ScanPage(entries, "0".equals(nextCursor) ? null : nextCursor);
+    }
+
+    /**
+     * Used memory from INFO memory
+     */
+    @Override
+    public long getUsedMemoryBytes() {
+        return RedisConnector.parseUsedMemory(new String((byte[]) await(client.send(INFO, MEMORY)), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Number of commands which are queued or waiting for replies
+     */
+    public int getPendingCount() {
+        return client.getPendingCount();
+    }
+
+    @Override
+    public void close() {
+        client.close();
+    }
+
+    private <T> T await(CompletableFuture<T> future) {
+        return await(future, Deadline.none());
+    }
+
+    /**
+     * Wait for the reply until the timeout of the connector or the deadline, whichever comes first
+     * A reply which comes after the caller gave up completes the abandoned future and is dropped
+     */
+    private <T> T await(CompletableFuture<T> future, Deadline deadline) {
+        try {
+            return future.get(deadline.bound(TimeUnit.MILLISECONDS.toNanos(timeoutMillis), TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InternalException("Interrupted when wait for reply", e);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof InternalException ? (InternalException) e.getCause()
+                    : new InternalException("Exception occurs when wait for reply: ", e.getCause());
+        } catch (TimeoutException e) {
+            if (deadline.isExpired()) {
+                throw new DeadlineExceededException("Deadline exceeded when wait for reply", e);
+            }
+            throw new InternalException("No reply in " + timeoutMillis + " ms", e);
+        }
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,24 @@
+package com.unity.cache.connector;
+
+import lombok.Value;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ScanPage is one page of the entries of a node, read with {@link CacheableConnector#scanPage(String, String, int)}
+ * A page can be empty while the scan is not finished, the scan is finished when the next cursor is null
+ */
+@Value
+public class ScanPage {
+
+    List<Map.Entry<Serializable, Object>> entries;
+
+    //Cursor to read the next page with, null after the last page
+    String nextCursor;
+
+    public boolean isLast() {
+        return nextCursor == null;
+    }
+}
@@ -0,0 +1,250 @@
+package com.unity.cache.connector;
+
+import com.unity.cache.CacheKey;
+import com.unity.cache.Deadline;
+import com.unity.cache.slowlog.SlowOperation;
+import com.unity.cache.slowlog.SlowOperationLog;
+import lombok.Getter;
+
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * SlowOperationConnector times the requests sent to a node and records the slow ones in a {@link SlowOperationLog}
+ * <p>
+ * A fast request costs two clock reads and a comparison. The calls are not wrapped in lambdas, so timing them
+ * allocates nothing, and the key hash and value size are only looked at once the request turned out to be slow.
+ * Conditional and bulk calls are timed too, also when the rebalancer makes them.
+ * </p>
+ * e.g.
+ * node.setCache(new SlowOperationConnector(node.getCache(), slowLog, node.getHostname() + ":" + node.getPort()));
+ */
+public class SlowOperationConnector extends ForwardingConnector {
+
+    @Getter
+    private final SlowOperationLog log;
+    private final String nodeName;
+
+    public SlowOperationConnector(CacheableConnector<Serializable> delegate, SlowOperationLog log, String nodeName) {
+        super(delegate);
+        if (log == null || nodeName == null) {
+            throw new IllegalArgumentException("Slow operation log and node name can not be null");
+        }
+        this.log = log;
+        this.nodeName = nodeName;
+    }
+
+    @Override
+    public Optional<Object> getFromCache(Serializable key) {
+        long start = System.nanoTime();
+        Optional<Object> value = null;
+        try {
+            value = delegate.getFromCache(key);
+            return value;
+        } finally {
+            finish(start, SlowOperation.Type.GET, key, value);
+        }
+    }
+
+    @Override
+    public Optional<Object> getFromCache(CacheKey key) {
+        long start = System.nanoTime();
+        Optional<Object> value = null;
+        try {
+            value = delegate.getFromCache(key);
+            return value;
+        } finally {
+            finish(start, SlowOperation.Type.GET, key, value);
+        }
+    }
+
+    @Override
+    public Optional<Object> getFromCache(CacheKey key, Deadline deadline) {
+        long start = System.nanoTime();
+        Optional<Object> value = null;
+        try {
+            value = delegate.getFromCache(key, deadline);
+            return value;
+        } finally {
+            finish(start, SlowOperation.Type.GET, key, value);
+        }
+    }
+
+    @Override
+    public Map<CacheKey, Object> multiGetFromCache(Collection<CacheKey> keys) {
+        long start = System.nanoTime();
+        try {
+            return delegate.multiGetFromCache(keys);
+        } finally {
+            finish(start, SlowOperation.Type.MULTI_GET, keys.size());
+        }
+    }
+
+    @Override
+    public Map<CacheKey, Object> multiGetFromCache(Collection<CacheKey> keys, Deadline deadline) {
+        long start = System.nanoTime();
+        try {
+            return delegate.multiGetFromCache(keys, deadline);
+        } finally {
+            finish(start, SlowOperation.Type.MULTI_GET, keys.size());
+        }
+    }
+
+    @Override
+    public void putToCache(Serializable key, Object value) {
+        long start = System.nanoTime();
+        try {
+            delegate.putToCache(key, value);
+        } finally {
+            finish(start, SlowOperation.Type.PUT, key, value);
+        }
+    }
+
+    @Override
+    public void putToCache(CacheKey key, Object value) {
+        long start = System.nanoTime();
+        try {
+            delegate.putToCache(key, value);
+        } finally {
+            finish(start, SlowOperation.Type.PUT, key, value);
+        }
+    }
+
+    @Override
+    public void putToCache(CacheKey key, Object value, Deadline deadline) {
+        long start = System.nanoTime();
+        try {
+            delegate.putToCache(key, value, deadline);
+        } finally {
+            finish(start, SlowOperation.Type.PUT, key, value);
+        }
+    }
+
+    @Override
+    public void putAllToCache(Map<CacheKey, Object> entries) {
+        long start = System.nanoTime();
+        try {
+            delegate.putAllToCache(entries);
+        } finally {
+            finish(start, SlowOperation.Type.PUT_ALL, entries.size());
+        }
+    }
+
+    @Override
+    public boolean putIfAbsentToCache(CacheKey key, Object value) {
+        long start = System.nanoTime();
+        try {
+            return delegate.putIfAbsentToCache(key, value);
+        } finally {
+            finish(start, SlowOperation.Type.PUT_IF_ABSENT, key, value);
+        }
+    }
+
+    @Override
+    public void putAllIfAbsentToCache(Map<CacheKey, Object> entries) {
+        long start = System.nanoTime();
+        try {
+            delegate.putAllIfAbsentToCache(entries);
+        } finally {
+            finish(start, SlowOperation.Type.PUT_ALL_IF_ABSENT, entries.size());
+        }
+    }
+
+    @Override
+    public long incrementInCache(CacheKey key, long delta) {
+        long start = System.nanoTime();
+        try {
+            return delegate.incrementInCache(key, delta);
+        } finally {
+            finish(start, SlowOperation.Type.INCREMENT, key, null);
+        }
+    }
+
+    @Override
+    public long incrementInCache(CacheKey key, long delta, Deadline deadline) {
+        long start = System.nanoTime();
+        try {
+            return delegate.incrementInCache(key, delta, deadline);
+        } finally {
+            finish(start, SlowOperation.Type.INCREMENT, key, null);
+        }
+    }
+
+    @Override
+    public void removeFromCache(Serializable key) {
+        long start = System.nanoTime();
+        try {
+            delegate.removeFromCache(key);
+        } finally {
+            finish(start, SlowOperation.Type.REMOVE, key, null);
+        }
+    }
+
+    @Override
+    public void removeFromCache(CacheKey key) {
+        long start = System.nanoTime();
+        try {
+            delegate.removeFromCache(key);
+        } finally {
+            finish(start, SlowOperation.Type.REMOVE, key, null);
+        }
+    }
+
+    @Override
+    public void removeFromCache(CacheKey key, Deadline deadline) {
+        long start = System.nanoTime();
+        try {
+            delegate.removeFromCache(key, deadline);
+        } finally {
+            finish(start, SlowOperation.Type.REMOVE, key, null);
+        }
+    }
+
+    @Override
+    public boolean removeFromCacheIfPresent(CacheKey key) {
+        long start = System.nanoTime();
+        try {
+            return delegate.removeFromCacheIfPresent(key);
+        } finally {
+            finish(start, SlowOperation.Type.REMOVE_IF_PRESENT, key, null);
+        }
+    }
+
+    @Override
+    public void removeAllFromCache(Collection<CacheKey> keys) {
+        long start = System.nanoTime();
+        try {
+            delegate.removeAllFromCache(keys);
+        } finally {
+            finish(start, SlowOperation.Type.REMOVE_ALL, keys.size());
+        }
+    }
+
+    /**
+     * Record a single-key request if it was slow, the value is the value written or the optional value read
+     * Only the size of byte array values is known, the encoded size of other values depends on the connector
+     */
+    private void finish(long start, SlowOperation.Type type, Serializable key, Object value) {
+        long duration = System.nanoTime() - start;
+        if (!log.isSlow(duration)) {
+            return;
+        }
+        if (value instanceof Optional) {
+            value = ((Optional<?>) value).orElse(null);
+        }
+        long payloadBytes = value instanceof byte[] ? ((byte[]) value).length : -1;
+        log.record(nodeName, type, 1, CacheKey.of(key).getHash(), payloadBytes, duration);
+    }
+
+    /**
+     * Record a multi-key request if it was slow
+     */
+    private void finish(long start, SlowOperation.Type type, int keys) {
+        long duration = System.nanoTime() - start;
+        if (log.isSlow(duration)) {
+            log.record(nodeName, type, keys, -1, -1, duration);
+        }
+    }
+}
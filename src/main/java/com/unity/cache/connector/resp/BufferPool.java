@@ -0,0 +1,77 @@
+package com.unity.cache.connector.resp;
+
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * BufferPool keeps direct ByteBuffers of a fixed size for reuse
+ * Direct buffers are expensive to allocate and are written to sockets without an extra copy.
+ * At most {@code maxPooled} buffers are kept, extra released buffers are left to the garbage collector.
+ */
+public class BufferPool {
+
+    public static final int DEFAULT_BUFFER_SIZE = 16 * 1024;
+    public static final int DEFAULT_MAX_POOLED = 1024;
+
+    private static final BufferPool SHARED = new BufferPool(DEFAULT_BUFFER_SIZE, DEFAULT_MAX_POOLED);
+
+    private final int bufferSize;
+    private final int maxPooled;
+    private final Queue<ByteBuffer> pooled = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pooledCount = new AtomicInteger();
+
+    public BufferPool(int bufferSize, int maxPooled) {
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("Buffer size must be larger than 0");
+        }
+        this.bufferSize = bufferSize;
+        this.maxPooled = maxPooled;
+    }
+
+    /**
+     * Pool shared by all connectors which do not configure their own
+     */
+    public static BufferPool shared() {
+        return SHARED;
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    /**
+     * Number of buffers kept in the pool now
+     */
+    public int getPooledCount() {
+        return pooledCount.get();
+    }
+
+    /**
+     * Take a cleared buffer from the pool, allocate one if the pool is empty
+     */
+    public ByteBuffer acquire() {
+        ByteBuffer buffer = pooled.poll();
+        if (buffer == null) {
+            return ByteBuffer.allocateDirect(bufferSize);
+        }
+        pooledCount.decrementAndGet();
+        return buffer;
+    }
+
+    /**
+     * Return a buffer to the pool. The buffer must not be used after it is released
+     */
+    public void release(ByteBuffer buffer) {
+        if (buffer == null || buffer.capacity() != bufferSize || !buffer.isDirect()) {
+            return;
+        }
+        if (pooledCount.incrementAndGet() > maxPooled) {
+            pooledCount.decrementAndGet();
+            return;
+        }
+        buffer.clear();
+        pooled.offer(buffer);
+    }
+}
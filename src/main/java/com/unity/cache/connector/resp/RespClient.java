@@ -0,0 +1,298 @@
+package com.unity.cache.connector.resp;
+
+import com.unity.cache.exceptions.InternalException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * RespClient multiplexes RESP commands of many threads over a few non-blocking connections
+ * <p>
+ * Callers queue commands and get futures back. One I/O thread drains the queues, encodes all pending
+ * commands of a connection into pooled direct buffers and writes them with one gathering write,
+ * so concurrent commands are pipelined automatically. Replies arrive in order and complete the futures in order.
+ * A broken connection fails its pending commands and is reconnected when the next command is sent.
+ * </p>
+ */
+public class RespClient implements Closeable {
+
+    public static final int DEFAULT_CONNECT_TIMEOUT_MILLIS = 2000;
+
+    private final InetSocketAddress address;
+    private final BufferPool pool;
+    private final Selector selector;
+    private final Connection[] connections;
+    private final AtomicInteger nextConnection = new AtomicInteger();
+    private final AtomicBoolean wakeupPending = new AtomicBoolean();
+    private final Thread ioThread;
+    private volatile boolean closed;
+
+    /**
+     * @param host        server host
+     * @param port        server port
+     * @param connections number of connections to multiplex over
+     * @param pool        pool of direct buffers for writing and reading
+     * @throws InternalException if the server can not be connected
+     */
+    public RespClient(String host, int port, int connections, BufferPool pool) {
+        if (connections <= 0) {
+            throw new IllegalArgumentException("Connection number must be larger than 0");
+        }
+        this.address = new InetSocketAddress(host, port);
+        this.pool = pool;
+        try {
+            this.selector = Selector.open();
+        } catch (IOException e) {
+            throw new InternalException("Exception occurs when open selector: ", e);
+        }
+        this.connections = new Connection[connections];
+        for (int i = 0; i < connections; i++) {
+            this.connections[i] = new Connection();
+            try {
+                this.connections[i].connect();
+            } catch (IOException e) {
+                closeQuietly();
+                throw new InternalException("Can not connect to " + address, e);
+            }
+        }
+        this.ioThread = new Thread(this::runLoop, "resp-io-" + address);
+        this.ioThread.setDaemon(true);
+        this.ioThread.start();
+    }
+
+    /**
+     * Send a command, e.g. send("GET".getBytes(), key)
+     *
+     * @param args command name and arguments
+     * @return future of the reply
+     */
+    public CompletableFuture<Object> send(byte[]... args) {
+        return submit(new Command(args));
+    }
+
+    /**
+     * Number of commands which are queued or waiting for replies
+     */
+    public int getPendingCount() {
+        int pending = 0;
+        for (Connection connection : connections) {
+            pending += connection.pendingCount.get();
+        }
+        return pending;
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        selector.wakeup();
+        try {
+            ioThread.join(DEFAULT_CONNECT_TIMEOUT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private CompletableFuture<Object> submit(Command command) {
+        if (closed) {
+            command.future.completeExceptionally(new InternalException("Client is closed"));
+            return command.future;
+        }
+        Connection connection = connections[(nextConnection.getAndIncrement() & Integer.MAX_VALUE) % connections.length];
+        connection.pendingCount.incrementAndGet();
+        connection.submitted.add(command);
+        if (wakeupPending.compareAndSet(false, true)) {
+            selector.wakeup();
+        }
+        return command.future;
+    }
+
+    private void runLoop() {
+        try {
+            while (!closed) {
+                selector.select();
+                wakeupPending.set(false);
+                for (Connection connection : connections) {
+                    connection.flushSubmitted();
+                }
+                for (SelectionKey key : selector.selectedKeys()) {
+                    Connection connection = (Connection) key.attachment();
+                    if (key.isValid() && key.isReadable()) {
+                        connection.read();
+                    }
+                    if (key.isValid() && key.isWritable()) {
+                        connection.write();
+                    }
+                }
+                selector.selectedKeys().clear();
+            }
+        } catch (IOException | RuntimeException e) {
+            closed = true;
+        } finally {
+            closeQuietly();
+        }
+    }
+
+    private void closeQuietly() {
+        for (Connection connection : connections) {
+            if (connection != null) {
+                connection.fail(new InternalException("Client is closed"));
+                while (!connection.submitted.isEmpty()) {
+                    connection.submitted.poll().future.completeExceptionally(new InternalException("Client is closed"));
+                }
+            }
+        }
+        try {
+            selector.close();
+        } catch (IOException e) {
+            //ignore, the client is closed anyway
+        }
+    }
+
+    private static final class Command {
+        private final byte[][] args;
+        private final CompletableFuture<Object> future = new CompletableFuture<>();
+
+        private Command(byte[][] args) {
+            this.args = args;
+        }
+    }
+
+    /**
+     * One non-blocking connection, all fields except the submitted queue are owned by the I/O thread
+     */
+    private final class Connection {
+        private final Queue<Command> submitted = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger pendingCount = new AtomicInteger();
+        private final Deque<Command> inflight = new ArrayDeque<>();
+        private final RespWriter writer = new RespWriter(pool);
+        private final RespReader reader = new RespReader();
+        private SocketChannel channel;
+        private SelectionKey key;
+        private ByteBuffer readBuffer;
+
+        private void connect() throws IOException {
+            SocketChannel socketChannel = SocketChannel.open();
+            try {
+                socketChannel.socket().setTcpNoDelay(true);
+                socketChannel.socket().connect(address, DEFAULT_CONNECT_TIMEOUT_MILLIS);
+                socketChannel.configureBlocking(false);
+                this.key = socketChannel.register(selector, SelectionKey.OP_READ, this);
+            } catch (IOException e) {
+                socketChannel.close();
+                throw e;
+            }
+            this.channel = socketChannel;
+            this.readBuffer = pool.acquire();
+        }
+
+        private void flushSubmitted() {
+            if (submitted.isEmpty()) {
+                return;
+            }
+            if (channel == null) {
+                try {
+                    connect();
+                } catch (IOException e) {
+                    Command command;
+                    while ((command = submitted.poll()) != null) {
+                        pendingCount.decrementAndGet();
+                        command.future.completeExceptionally(new InternalException("Can not connect to " + address, e));
+                    }
+                    return;
+                }
+            }
+            Command command;
+            while ((command = submitted.poll()) != null) {
+                writer.writeCommand(command.args);
+                inflight.add(command);
+            }
+            write();
+        }
+
+        private void write() {
+            Deque<ByteBuffer> outbound = writer.flush();
+            try {
+                if (outbound != null) {
+                    channel.write(outbound.toArray(new ByteBuffer[0]));
+                    writer.releaseWritten();
+                }
+                key.interestOps(writer.hasPending() ? SelectionKey.OP_READ | SelectionKey.OP_WRITE : SelectionKey.OP_READ);
+            } catch (IOException e) {
+                fail(new InternalException("Exception occurs when write to " + address, e));
+            }
+        }
+
+        private void read() {
+            try {
+                int length;
+                while ((length = channel.read(readBuffer)) > 0) {
+                    readBuffer.flip();
+                    reader.feed(readBuffer);
+                    readBuffer.clear();
+                    Object reply;
+                    while ((reply = reader.next()) != RespReader.INCOMPLETE) {
+                        complete(inflight.poll(), reply);
+                    }
+                }
+                if (length < 0) {
+                    fail(new InternalException("Connection is closed by " + address));
+                }
+            } catch (IOException | RuntimeException e) {
+                fail(new InternalException("Exception occurs when read from " + address, e));
+            }
+        }
+
+        private void complete(Command command, Object reply) {
+            if (command == null) {
+                throw new IllegalStateException("Reply without command");
+            }
+            pendingCount.decrementAndGet();
+            if (reply instanceof RespError) {
+                command.future.completeExceptionally(new InternalException("Server error: " + ((RespError) reply).getMessage()));
+            } else {
+                command.future.complete(reply);
+            }
+        }
+
+        private void fail(InternalException cause) {
+            Command command;
+            while ((command = inflight.poll()) != null) {
+                pendingCount.decrementAndGet();
+                command.future.completeExceptionally(cause);
+            }
+            writer.reset();
+            reader.reset();
+            if (key != null) {
+                key.cancel();
+                key = null;
+            }
+            if (channel != null) {
+                try {
+                    channel.close();
+                } catch (IOException e) {
+                    //ignore, the connection is dropped anyway
+                }
+                channel = null;
+            }
+            if (readBuffer != null) {
+                pool.release(readBuffer);
+                readBuffer = null;
+            }
+        }
+    }
+}
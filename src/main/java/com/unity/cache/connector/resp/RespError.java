@@ -0,0 +1,11 @@
+package com.unity.cache.connector.resp;
+
+import lombok.Value;
+
+/**
+ * RespError is an error reply of the server, e.g. "ERR unknown command"
+ */
+@Value
+public class RespError {
+    String message;
+}
@@ -0,0 +1,139 @@
+package com.unity.cache.connector.resp;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * RespReader decodes RESP replies from the bytes read from a socket
+ * <p>
+ * Bytes are accumulated until a whole reply is available, so replies can be split across reads.
+ * Bulk strings are decoded as byte arrays, simple strings as String, integers as Long, arrays as List
+ * and errors as {@link RespError}. Null bulk strings and null arrays are decoded as null.
+ * It is not thread-safe, it is owned by the I/O thread of a connection.
+ * </p>
+ */
+final class RespReader {
+
+    //Returned by next() when no whole reply is available yet
+    static final Object INCOMPLETE = new Object();
+
+    private byte[] buffer = new byte[8192];
+    private int start;
+    private int end;
+    private int position;
+
+    /**
+     * Append the remaining bytes of the source buffer
+     */
+    void feed(ByteBuffer source) {
+        int length = source.remaining();
+        if (end + length > buffer.length) {
+            int used = end - start;
+            byte[] target = used + length > buffer.length ? new byte[Math.max(buffer.length * 2, used + length)] : buffer;
+            System.arraycopy(buffer, start, target, 0, used);
+            buffer = target;
+            start = 0;
+            end = used;
+        }
+        source.get(buffer, end, length);
+        end += length;
+    }
+
+    /**
+     * Decode the next whole reply
+     *
+     * @return the reply, or {@link #INCOMPLETE} if more bytes are needed
+     */
+    Object next() {
+        position = start;
+        Object reply = parse();
+        if (reply != INCOMPLETE) {
+            start = position;
+            if (start == end) {
+                start = 0;
+                end = 0;
+            }
+        }
+        return reply;
+    }
+
+    void reset() {
+        start = 0;
+        end = 0;
+    }
+
+    private Object parse() {
+        if (position >= end) {
+            return INCOMPLETE;
+        }
+        byte type = buffer[position++];
+        int lineEnd = findLineEnd();
+        if (lineEnd < 0) {
+            return INCOMPLETE;
+        }
+        int lineStart = position;
+        position = lineEnd + 2;
+        switch (type) {
+            case '+':
+                return new String(buffer, lineStart, lineEnd - lineStart, StandardCharsets.UTF_8);
+            case '-':
+                return new RespError(new String(buffer, lineStart, lineEnd - lineStart, StandardCharsets.UTF_8));
+            case ':':
+                return parseLong(lineStart, lineEnd);
+            case '$':
+                return parseBulk(parseLong(lineStart, lineEnd));
+            case '*':
+                return parseArray(parseLong(lineStart, lineEnd));
+            default:
+                throw new IllegalStateException("Unknown RESP reply type: " + (char) type);
+        }
+    }
+
+    private Object parseBulk(long length) {
+        if (length < 0) {
+            return null;
+        }
+        if (end - position < length + 2) {
+            return INCOMPLETE;
+        }
+        byte[] bytes = Arrays.copyOfRange(buffer, position, position + (int) length);
+        position += (int) length + 2;
+        return bytes;
+    }
+
+    private Object parseArray(long size) {
+        if (size < 0) {
+            return null;
+        }
+        List<Object> elements = new ArrayList<>((int) size);
+        for (int i = 0; i < size; i++) {
+            Object element = parse();
+            if (element == INCOMPLETE) {
+                return INCOMPLETE;
+            }
+            elements.add(element);
+        }
+        return elements;
+    }
+
+    private int findLineEnd() {
+        for (int i = position; i < end - 1; i++) {
+            if (buffer[i] == '\r' && buffer[i + 1] == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private long parseLong(int from, int to) {
+        boolean negative = buffer[from] == '-';
+        long value = 0;
+        for (int i = negative ? from + 1 : from; i < to; i++) {
+            value = value * 10 + (buffer[i] - '0');
+        }
+        return negative ? -value : value;
+    }
+}
@@ -0,0 +1,125 @@
+package com.unity.cache.connector.resp;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * RespWriter encodes RESP commands straight into pooled direct buffers
+ * <p>
+ * Filled buffers are queued in read mode for a gathering write, the buffer being filled is kept in write mode.
+ * A command larger than one buffer simply spans several buffers.
+ * It is not thread-safe, it is owned by the I/O thread of a connection.
+ * </p>
+ */
+final class RespWriter {
+
+    private static final byte[] CRLF = {'\r', '\n'};
+
+    private final BufferPool pool;
+    private final Deque<ByteBuffer> outbound = new ArrayDeque<>();
+    private ByteBuffer filling;
+
+    RespWriter(BufferPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Encode a command as an array of bulk strings
+     */
+    void writeCommand(byte[][] args) {
+        writeHeader('*', args.length);
+        for (byte[] arg : args) {
+            writeBulk(arg);
+        }
+    }
+
+    /**
+     * Move the buffer being filled to the outbound queue
+     *
+     * @return queued buffers in read mode, null if there is nothing to write
+     */
+    Deque<ByteBuffer> flush() {
+        if (filling != null && filling.position() > 0) {
+            filling.flip();
+            outbound.add(filling);
+            filling = null;
+        }
+        return outbound.isEmpty() ? null : outbound;
+    }
+
+    /**
+     * Return fully written buffers to the pool
+     */
+    void releaseWritten() {
+        while (!outbound.isEmpty() && !outbound.peekFirst().hasRemaining()) {
+            pool.release(outbound.pollFirst());
+        }
+    }
+
+    boolean hasPending() {
+        return !outbound.isEmpty() || (filling != null && filling.position() > 0);
+    }
+
+    /**
+     * Drop everything which is not written yet and return all buffers to the pool
+     */
+    void reset() {
+        while (!outbound.isEmpty()) {
+            pool.release(outbound.pollFirst());
+        }
+        if (filling != null) {
+            pool.release(filling);
+            filling = null;
+        }
+    }
+
+    private void writeBulk(byte[] bytes) {
+        writeHeader('$', bytes.length);
+        write(bytes);
+        write(CRLF);
+    }
+
+    private void writeHeader(char type, long length) {
+        writeByte((byte) type);
+        writeDecimal(length);
+        write(CRLF);
+    }
+
+    private void writeDecimal(long value) {
+        long divisor = 1;
+        while (divisor <= value / 10) {
+            divisor *= 10;
+        }
+        while (divisor > 0) {
+            writeByte((byte) ('0' + value / divisor));
+            value %= divisor;
+            divisor /= 10;
+        }
+    }
+
+    private void writeByte(byte b) {
+        current().put(b);
+    }
+
+    private void write(byte[] bytes) {
+        int offset = 0;
+        while (offset < bytes.length) {
+            ByteBuffer buffer = current();
+            int length = Math.min(buffer.remaining(), bytes.length - offset);
+            buffer.put(bytes, offset, length);
+            offset += length;
+        }
+    }
+
+    private ByteBuffer current() {
+        if (filling == null) {
+            filling = pool.acquire();
+        } else if (!filling.hasRemaining()) {
+            filling.flip();
+            outbound.add(filling);
+            filling = pool.acquire();
+        }
+        return filling;
+    }
+}
@@ -0,0 +1,26 @@
+package com.unity.cache.exceptions;
+
+/**
+ * DeadlineExceededException is thrown when the deadline of a request passes before the request is sent or answered.
+ * A request whose deadline has already passed is abandoned without being sent.
+ */
+public class DeadlineExceededException extends InternalException {
+    /**
+     * Constructor
+     *
+     * @param message error message
+     */
+    public DeadlineExceededException(String message) {
+        super(message);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param message error message
+     * @param cause   the cause
+     */
+    public DeadlineExceededException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
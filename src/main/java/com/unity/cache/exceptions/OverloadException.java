@@ -0,0 +1,16 @@
+package com.unity.cache.exceptions;
+
+/**
+ * OverloadException is thrown when a request to a node is rejected because the node has too many requests in flight.
+ * The request is not sent, callers can retry later or fall back without waiting for the node.
+ */
+public class OverloadException extends InternalException {
+    /**
+     * Constructor
+     *
+     * @param message error message
+     */
+    public OverloadException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,272 @@
+package com.unity.cache.filter;
+
+import com.unity.cache.CacheKey;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * CountingBloomFilter is a lock-free membership filter of cache keys which supports removal
+ * <p>
+ * Every key sets k of m 4-bit counters, 16 counters are packed in a long. A key whose counters are all
+ * non-zero might be cached, a key with any zero counter is definitely not cached.
+ * Counters saturate at 15 and are never decremented after that, so removals never cause false negatives.
+ * Keys are hashed by their encoded form, which is what remote caches store, so the filter can be rebuilt
+ * from the entries of a node.
+ * </p>
+ * e.g.
+ * CountingBloomFilter filter = new CountingBloomFilter(1_000_000, 0.01); //about 4.6 MB
+ */
+public final class CountingBloomFilter {
+
+    private static final int COUNTERS_PER_WORD = 16;
+    private static final long MAX_COUNT = 15;
+    private static final int MAX_HASH_FUNCTIONS = 16;
+
+    private final long expectedEntries;
+    private final double falsePositiveRate;
+    private final int counterCount;
+    private final int hashFunctions;
+
+    private volatile AtomicLongArray counters;
+    //Counters being rebuilt, every added key also goes there while it is set
+    private volatile AtomicLongArray rebuilding;
+    private final LongAdder entries = new LongAdder();
+
+    /**
+     * @param expectedEntries   number of keys the filter is sized for
+     * @param falsePositiveRate target false positive rate at the expected number of keys, in range (0, 1)
+     * @throws IllegalArgumentException if expectedEntries is not positive or falsePositiveRate is not in (0, 1)
+     */
+    public CountingBloomFilter(long expectedEntries, double falsePositiveRate) {
+        if (expectedEntries <= 0) {
+            throw new IllegalArgumentException("Expected entries must be larger than 0");
+        }
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("False positive rate must be in range (0, 1)");
+        }
+        double bits = Math.ceil(-expectedEntries * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        if (bits > Integer.MAX_VALUE - COUNTERS_PER_WORD) {
+            throw new IllegalArgumentException("Filter for " + expectedEntries + " entries is too large");
+        }
+        this.expectedEntries = expectedEntries;
+        this.falsePositiveRate = falsePositiveRate;
+        this.counterCount = Math.max(COUNTERS_PER_WORD, (int) bits);
+        this.hashFunctions = (int) Math.max(1, Math.min(MAX_HASH_FUNCTIONS, Math.round((double) counterCount / expectedEntries * Math.log(2))));
+        this.counters = newCounters();
+    }
+
+    /**
+     * Add a key, it must be called before the key is written to the cache
+     */
+    public void add(CacheKey key) {
+        long h1 = hash1(key);
+        long h2 = hash2(h1);
+        AtomicLongArray current = counters;
+        AtomicLongArray next = rebuilding;
+        for (int i = 0; i < hashFunctions; i++) {
+            int index = index(h1, h2, i);
+            increment(current, index);
+            if (next != null) {
+                increment(next, index);
+            }
+        }
+        entries.increment();
+    }
+
+    /**
+     * Remove a key, it must only be called for a key which was added and is removed from the cache
+     */
+    public void remove(CacheKey key) {
+        long h1 = hash1(key);
+        long h2 = hash2(h1);
+        AtomicLongArray current = counters;
+        for (int i = 0; i < hashFunctions; i++) {
+            decrement(current, index(h1, h2, i));
+        }
+        entries.decrement();
+    }
+
+    /**
+     * Whether the key might be cached. False means the key is definitely not cached
+     */
+    public boolean mightContain(CacheKey key) {
+        long h1 = hash1(key);
+        long h2 = hash2(h1);
+        AtomicLongArray current = counters;
+        for (int i = 0; i < hashFunctions; i++) {
+            if (count(current, index(h1, h2, i)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Remove all keys
+     */
+    public void clear() {
+        counters = newCounters();
+        entries.reset();
+    }
+
+    /**
+     * Start rebuilding the filter, keys added from now on are kept in the rebuilt filter
+     * The caller must make sure that keys added before are already in the cache, so they are found by the scan
+     */
+    public void startRebuild() {
+        rebuilding = newCounters();
+    }
+
+    /**
+     * Add a key found by the rebuild scan
+     */
+    public void addRebuilt(CacheKey key) {
+        AtomicLongArray next = rebuilding;
+        if (next == null) {
+            throw new IllegalStateException("No rebuild is running");
+        }
+        long h1 = hash1(key);
+        long h2 = hash2(h1);
+        for (int i = 0; i < hashFunctions; i++) {
+            increment(next, index(h1, h2, i));
+        }
+    }
+
+    /**
+     * Replace the counters with the rebuilt ones
+     *
+     * @param rebuiltEntries number of keys found by the scan
+     */
+    public void finishRebuild(long rebuiltEntries) {
+        AtomicLongArray next = rebuilding;
+        if (next == null) {
+            throw new IllegalStateException("No rebuild is running");
+        }
+        counters = next;
+        rebuilding = null;
+        entries.reset();
+        entries.add(rebuiltEntries);
+    }
+
+    public long getExpectedEntries() {
+        return expectedEntries;
+    }
+
+    public double getConfiguredFalsePositiveRate() {
+        return falsePositiveRate;
+    }
+
+    public int getCounterCount() {
+        return counterCount;
+    }
+
+    public int getHashFunctions() {
+        return hashFunctions;
+    }
+
+    /**
+     * Memory used by the counters, doubled while a rebuild is running
+     */
+    public long getMemoryBytes() {
+        return (long) wordCount() * Long.BYTES * (rebuilding == null ? 1 : 2);
+    }
+
+    /**
+     * Approximate number of keys, overwritten keys are counted again until the next rebuild
+     */
+    public long getApproximateEntries() {
+        return Math.max(0, entries.sum());
+    }
+
+    /**
+     * False positive rate estimated from the fraction of non-zero counters
+     */
+    public double getEstimatedFalsePositiveRate() {
+        AtomicLongArray current = counters;
+        long nonZero = 0;
+        for (int i = 0; i < counterCount; i++) {
+            if (count(current, i) != 0) {
+                nonZero++;
+            }
+        }
+        return Math.pow((double) nonZero / counterCount, hashFunctions);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("CountingBloomFilter(entries=%d/%d, counters=%d, hashFunctions=%d, memoryBytes=%d, fpp=%.4f/%.4f)",
+                getApproximateEntries(), expectedEntries, counterCount, hashFunctions, getMemoryBytes(),
+                getEstimatedFalsePositiveRate(), falsePositiveRate);
+    }
+
+    private int wordCount() {
+        return (counterCount + COUNTERS_PER_WORD - 1) / COUNTERS_PER_WORD;
+    }
+
+    private AtomicLongArray newCounters() {
+        return new AtomicLongArray(wordCount());
+    }
+
+    private int index(long h1, long h2, int i) {
+        return (int) Long.remainderUnsigned(h1 + i * h2, counterCount);
+    }
+
+    private static long count(AtomicLongArray words, int index) {
+        return (words.get(index / COUNTERS_PER_WORD) >>> shift(index)) & MAX_COUNT;
+    }
+
+    private static void increment(AtomicLongArray words, int index) {
+        int word = index / COUNTERS_PER_WORD;
+        int shift = shift(index);
+        long value;
+        do {
+            value = words.get(word);
+            if (((value >>> shift) & MAX_COUNT) == MAX_COUNT) {
+                return;
+            }
+        } while (!words.compareAndSet(word, value, value + (1L << shift)));
+    }
+
+    private static void decrement(AtomicLongArray words, int index) {
+        int word = index / COUNTERS_PER_WORD;
+        int shift = shift(index);
+        long value;
+        do {
+            value = words.get(word);
+            long count = (value >>> shift) & MAX_COUNT;
+            if (count == 0 || count == MAX_COUNT) {
+                return;
+            }
+        } while (!words.compareAndSet(word, value, value - (1L << shift)));
+    }
+
+    private static int shift(int index) {
+        return (index % COUNTERS_PER_WORD) * 4;
+    }
+
+    /**
+     * 64-bit FNV-1a of the encoded key with a final avalanche mix
+     */
+    private static long hash1(CacheKey key) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : key.getEncodedBytes()) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        return mix(hash);
+    }
+
+    /**
+     * Second hash for double hashing, odd so that it never degenerates to a single counter
+     */
+    private static long hash2(long hash1) {
+        return mix(hash1 ^ 0x9e3779b97f4a7c15L) | 1;
+    }
+
+    private static long mix(long value) {
+        value = (value ^ (value >>> 33)) * 0xff51afd7ed558ccdL;
+        value = (value ^ (value >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return value ^ (value >>> 33);
+    }
+}
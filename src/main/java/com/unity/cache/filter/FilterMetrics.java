@@ -0,0 +1,66 @@
+package com.unity.cache.filter;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * FilterMetrics counts the lookups answered by a membership filter
+ * It reports how many remote lookups are skipped and how often the filter was wrong
+ */
+public final class FilterMetrics {
+
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder skipped = new LongAdder();
+    private final LongAdder falsePositives = new LongAdder();
+    private final LongAdder rebuilds = new LongAdder();
+
+    public void recordLookup(boolean mightContain) {
+        lookups.increment();
+        if (!mightContain) {
+            skipped.increment();
+        }
+    }
+
+    public void recordFalsePositive() {
+        falsePositives.increment();
+    }
+
+    public void recordRebuild() {
+        rebuilds.increment();
+    }
+
+    public long getLookups() {
+        return lookups.sum();
+    }
+
+    /**
+     * Lookups answered locally as definite misses
+     */
+    public long getSkipped() {
+        return skipped.sum();
+    }
+
+    /**
+     * Lookups which went remote and missed
+     */
+    public long getFalsePositives() {
+        return falsePositives.sum();
+    }
+
+    public long getRebuilds() {
+        return rebuilds.sum();
+    }
+
+    /**
+     * False positives divided by the lookups of absent keys, 0 if nothing was absent
+     */
+    public double getObservedFalsePositiveRate() {
+        long absent = skipped.sum() + falsePositives.sum();
+        return absent == 0 ? 0 : (double) falsePositives.sum() / absent;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("FilterMetrics(lookups=%d, skipped=%d, falsePositives=%d, observedFpp=%.4f, rebuilds=%d)",
+                getLookups(), getSkipped(), getFalsePositives(), getObservedFalsePositiveRate(), getRebuilds());
+    }
+}
@@ -0,0 +1,214 @@
+package com.unity.cache.limiter;
+
+import com.unity.cache.exceptions.InternalException;
+import com.unity.cache.exceptions.OverloadException;
+import lombok.Getter;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * AdaptiveConcurrencyLimiter bounds the number of requests in flight to one node
+ * <p>
+ * The limit follows AIMD: a call which completes in time while the limit is in use raises the limit by 1/limit,
+ * so it grows by about one per round of calls, and a slow or failed call multiplies it by the backoff ratio.
+ * Only calls started after the last decrease can shrink it again, so one slow episode shrinks it once instead of
+ * once per call in flight. Requests over the limit wait in a bounded queue or are rejected at once.
+ * </p>
+ * e.g.
+ * long start = limiter.acquire();
+ * boolean success = false;
+ * try {
+ * ... call the node ...
+ * success = true;
+ * } finally {
+ * limiter.release(start, success);
+ * }
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    @Getter
+    private final LimiterConfig config;
+    @Getter
+    private final LimiterMetrics metrics = new LimiterMetrics();
+
+    private final long slowCallNanos;
+    private final long maxWaitNanos;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition available = lock.newCondition();
+
+    //Guarded by lock
+    private double limit;
+    private int inFlight;
+    private int queued;
+    private long lastDecreaseNanos = System.nanoTime();
+
+    /**
+     * @throws IllegalArgumentException if the config is null or its bounds are not consistent
+     */
+    public AdaptiveConcurrencyLimiter(LimiterConfig config) {
+        if (config == null) {
+            throw new IllegalArgumentException("Limiter config can not be null");
+        }
+        if (config.getMinLimit() < 1 || config.getMaxLimit() < config.getMinLimit()
+                || config.getInitialLimit() < config.getMinLimit() || config.getInitialLimit() > config.getMaxLimit()) {
+            throw new IllegalArgumentException("Limits should satisfy 1 <= minLimit <= initialLimit <= maxLimit");
+        }
+        if (config.getBackoffRatio() <= 0 || config.getBackoffRatio() >= 1) {
+            throw new IllegalArgumentException("Backoff ratio should be in range (0, 1)");
+        }
+        if (config.getMaxQueueSize() < 0 || config.getMaxWaitMillis() < 0 || config.getSlowCallMillis() <= 0) {
+            throw new IllegalArgumentException("Queue size and wait time can not be negative, slow call time should be positive");
+        }
+        this.config = config;
+        this.limit = config.getInitialLimit();
+        this.slowCallNanos = TimeUnit.MILLISECONDS.toNanos(config.getSlowCallMillis());
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(config.getMaxWaitMillis());
+    }
+
+    /**
+     * Take a slot for a request, waiting in the queue if the limit is reached
+     *
+     * @return start time of the request in nanoseconds, to be passed to {@link #release(long, boolean)}
+     * @throws OverloadException if the queue is full or the request waited for too long
+     * @throws InternalException if the thread is interrupted while it waits
+     */
+    public long acquire() {
+        return acquire(Long.MAX_VALUE);
+    }
+
+    /**
+     * Take a slot for a request, waiting in the queue for at most the given time if the limit is reached
+     * The wait is the shorter of the given time and the max wait of the config, e.g. the time left of a deadline.
+     *
+     * @param maxWaitNanos longest time to wait in the queue, in nanoseconds
+     * @return start time of the request in nanoseconds, to be passed to {@link #release(long, boolean)}
+     * @throws OverloadException if the queue is full or the request waited for too long
+     * @throws InternalException if the thread is interrupted while it waits
+     */
+    public long acquire(long maxWaitNanos) {
+        lock.lock();
+        try {
+            if (inFlight < (int) limit) {
+                inFlight++;
+                metrics.recordAdmitted();
+                return System.nanoTime();
+            }
+            if (queued >= config.getMaxQueueSize()) {
+                metrics.recordRejected();
+                throw overloaded("rejected");
+            }
+            long enqueued = System.nanoTime();
+            long remaining = Math.min(maxWaitNanos, this.maxWaitNanos);
+            queued++;
+            try {
+                while (inFlight >= (int) limit) {
+                    if (remaining <= 0) {
+                        metrics.recordTimedOut();
+                        throw overloaded("timed out in queue");
+                    }
+                    remaining = available.awaitNanos(remaining);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InternalException("Interrupted when wait for a request slot", e);
+            } finally {
+                queued--;
+            }
+            inFlight++;
+            long now = System.nanoTime();
+            metrics.recordAdmitted();
+            metrics.recordQueued(now - enqueued);
+            return now;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Give back the slot of a request and adjust the limit by its latency
+     *
+     * @param startNanos start time returned by {@link #acquire()}
+     * @param success    whether the request completed without error
+     */
+    public void release(long startNanos, boolean success) {
+        long now = System.nanoTime();
+        lock.lock();
+        try {
+            int before = (int) limit;
+            if (!success || now - startNanos > slowCallNanos) {
+                if (startNanos - lastDecreaseNanos >= 0) {
+                    limit = Math.max(config.getMinLimit(), limit * config.getBackoffRatio());
+                    lastDecreaseNanos = now;
+                    metrics.recordLimitDecrease();
+                }
+            } else if (inFlight * 2 >= limit) {
+                //Only grow a limit which is in use
+                limit = Math.min(config.getMaxLimit(), limit + 1 / limit);
+            }
+            inFlight--;
+            if ((int) limit > before) {
+                available.signalAll();
+            } else {
+                available.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Give back the slot of a request which was abandoned by its caller, e.g. its deadline passed
+     * The limit is not adjusted, the call says nothing about the load of the node.
+     *
+     * @param startNanos start time returned by {@link #acquire()}
+     */
+    public void abandon(long startNanos) {
+        lock.lock();
+        try {
+            inFlight--;
+            available.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Current limit of requests in flight
+     */
+    public int getLimit() {
+        lock.lock();
+        try {
+            return (int) limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Number of requests waiting in the queue
+     */
+    public int getQueueDepth() {
+        lock.lock();
+        try {
+            return queued;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private OverloadException overloaded(String reason) {
+        return new OverloadException("Request " + reason + ": limit " + (int) limit + ", in flight " + inFlight
+                + ", queued " + queued);
+    }
+}
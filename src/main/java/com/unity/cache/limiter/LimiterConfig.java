@@ -0,0 +1,36 @@
+package com.unity.cache.limiter;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * LimiterConfig configures the adaptive concurrency limit of a node
+ * e.g.
+ * LimiterConfig.builder().initialLimit(20).maxLimit(100).slowCallMillis(50).maxQueueSize(0).build();
+ */
+@Getter
+@Builder
+public class LimiterConfig {
+
+    //Bounds of the number of requests in flight
+    @Builder.Default
+    private final int initialLimit = 20;
+    @Builder.Default
+    private final int minLimit = 1;
+    @Builder.Default
+    private final int maxLimit = 200;
+
+    //A call slower than this, or a failed call, shrinks the limit
+    @Builder.Default
+    private final long slowCallMillis = 100;
+
+    //The limit is multiplied by it when it shrinks
+    @Builder.Default
+    private final double backoffRatio = 0.9;
+
+    //Requests over the limit wait in a queue of this size for at most maxWaitMillis, 0 rejects them at once
+    @Builder.Default
+    private final int maxQueueSize = 0;
+    @Builder.Default
+    private final long maxWaitMillis = 10;
+}
@@ -0,0 +1,77 @@
+package com.unity.cache.limiter;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * LimiterMetrics counts the requests admitted and rejected by an {@link AdaptiveConcurrencyLimiter}
+ * The current limit, requests in flight and queue depth are read from the limiter itself
+ */
+public final class LimiterMetrics {
+
+    private final LongAdder admitted = new LongAdder();
+    private final LongAdder queued = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+    private final LongAdder queueWaitNanos = new LongAdder();
+    private final LongAdder limitDecreases = new LongAdder();
+
+    void recordAdmitted() {
+        admitted.increment();
+    }
+
+    void recordQueued(long waitNanos) {
+        queued.increment();
+        queueWaitNanos.add(waitNanos);
+    }
+
+    void recordRejected() {
+        rejected.increment();
+    }
+
+    void recordTimedOut() {
+        timedOut.increment();
+    }
+
+    void recordLimitDecrease() {
+        limitDecreases.increment();
+    }
+
+    public long getAdmitted() {
+        return admitted.sum();
+    }
+
+    /**
+     * Admitted requests which waited in the queue first
+     */
+    public long getQueued() {
+        return queued.sum();
+    }
+
+    /**
+     * Requests rejected at once because the queue was full
+     */
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    /**
+     * Requests rejected after waiting in the queue for too long
+     */
+    public long getTimedOut() {
+        return timedOut.sum();
+    }
+
+    public long getQueueWaitNanos() {
+        return queueWaitNanos.sum();
+    }
+
+    public long getLimitDecreases() {
+        return limitDecreases.sum();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("LimiterMetrics(admitted=%d, queued=%d, rejected=%d, timedOut=%d, queueWaitMs=%d, limitDecreases=%d)",
+                getAdmitted(), getQueued(), getRejected(), getTimedOut(), queueWaitNanos.sum() / 1_000_000, getLimitDecreases());
+    }
+}
@@ -0,0 +1,90 @@
+package com.unity.cache.loading;
+
+import lombok.Value;
+import org.apache.commons.lang3.SerializationUtils;
+
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * LoadedEntry is a loaded value stored with its expiry and the time its load took
+ * <p>
+ * The nodes have no expiry of their own, so the expiry is kept in the entry. It is encoded as a byte array,
+ * so it is stored as binary by every connector.
+ * Layout (big endian): magic, version, tag of the value, expiry, load time, value
+ * </p>
+ */
+@Value
+class LoadedEntry {
+
+    private static final long MAGIC = 0x4C4F414445440001L;
+    private static final byte VERSION = 1;
+    private static final int HEADER_BYTES = Long.BYTES + 2 + Long.BYTES * 2;
+
+    private static final byte TAG_BYTES = 0;
+    private static final byte TAG_STRING = 1;
+    private static final byte TAG_SERIALIZED = 2;
+
+    Object value;
+    long expiresAtMillis;
+    //How long the load took, the XFetch delta
+    long loadNanos;
+
+    /**
+     * @throws IllegalArgumentException if the value is not serializable
+     */
+    byte[] encode() {
+        byte tag;
+        byte[] bytes;
+        if (value instanceof byte[]) {
+            tag = TAG_BYTES;
+            bytes = (byte[]) value;
+        } else if (value instanceof String) {
+            tag = TAG_STRING;
+            bytes = ((String) value).getBytes(StandardCharsets.UTF_8);
+        } else if (value instanceof Serializable) {
+            tag = TAG_SERIALIZED;
+            bytes = SerializationUtils.serialize((Serializable) value);
+        } else {
+            throw new IllegalArgumentException("Value of type " + value.getClass().getName() + " is not serializable");
+        }
+        return ByteBuffer.allocate(HEADER_BYTES + bytes.length).putLong(MAGIC).put(VERSION).put(tag)
+                .putLong(expiresAtMillis).putLong(loadNanos).put(bytes).array();
+    }
+
+    /**
+     * Decode a stored value
+     *
+     * @return entry, null if the value is not a loaded entry
+     */
+    static LoadedEntry decode(Object stored) {
+        if (!(stored instanceof byte[]) || ((byte[]) stored).length < HEADER_BYTES) {
+            return null;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap((byte[]) stored);
+        if (buffer.getLong() != MAGIC || buffer.get() != VERSION) {
+            return null;
+        }
+        byte tag = buffer.get();
+        long expiresAtMillis = buffer.getLong();
+        long loadNanos = buffer.getLong();
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        Object value;
+        switch (tag) {
+            case TAG_BYTES:
+                value = bytes;
+                break;
+            case TAG_STRING:
+                value = new String(bytes, StandardCharsets.UTF_8);
+                break;
+            case TAG_SERIALIZED:
+                value = SerializationUtils.deserialize(bytes);
+                break;
+            default:
+                return null;
+        }
+        return new LoadedEntry(value, expiresAtMillis, loadNanos);
+    }
+}
@@ -0,0 +1,249 @@
+package com.unity.cache.loading;
+
+import com.unity.cache.CacheKey;
+import com.unity.cache.Cacheable;
+import com.unity.cache.DistributedCache;
+import com.unity.cache.exceptions.InternalException;
+
+import java.io.Serializable;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * LoadingCache is a facade of DistributedCache which loads missing values and refreshes hot values before they expire.
+ * <p>
+ * Values are stored with their expiry. A read of a fresh value reloads it in the background when it is within the
+ * refresh-ahead window, or when it is picked by probabilistic early expiration (XFetch): the closer the expiry and
+ * the longer the value took to load, the likelier a read refreshes it. Readers keep getting the current value
+ * meanwhile, so a popular value is reloaded before it expires instead of by every reader at once.
+ * An expired value is still returned within the stale window while it is reloaded; after that readers wait for the load.
+ * Each key is loaded at most once at a time by this client, concurrent readers of a missing key share the load.
+ * A load only stores its value if the stored entry is still the one it started from, so a value put meanwhile is
+ * kept. The check and the store are two calls, a put landing between them is still overwritten.
+ * </p>
+ * e.g.
+ * LoadingCache users = new LoadingCache(distributedCache, key -> userRepository.find(key), LoadingConfig.builder().ttlMillis(60000).build());
+ * users.get("user:1");
+ */
+public class LoadingCache implements Cacheable {
+
+    private final DistributedCache distributedCache;
+    private final Function<Serializable, Object> loader;
+    private final LoadingConfig config;
+
+    //Loads in flight by key, shared by the readers of a missing key and the background refreshes
+    private final ConcurrentMap<CacheKey, CompletableFuture<Object>> loading = new ConcurrentHashMap<>();
+
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder refreshes = new LongAdder();
+    private final LongAdder refreshFailures = new LongAdder();
+
+    /**
+     * @param distributedCache distributed cache which stores the values
+     * @param loader           loads the value of a key, null if the key has no value
+     * @param config           expiry and refresh of the values
+     * @throws IllegalArgumentException if an argument is null, ttl is not positive or another duration is negative
+     */
+    public LoadingCache(DistributedCache distributedCache, Function<Serializable, Object> loader, LoadingConfig config) {
+        if (distributedCache == null || loader == null || config == null) {
+            throw new IllegalArgumentException("Cache, loader and config can not be null");
+        }
+        if (config.getTtlMillis() <= 0) {
+            throw new IllegalArgumentException("Ttl must be larger than 0");
+        }
+        if (config.getRefreshAheadMillis() < 0 || config.getStaleMillis() < 0 || config.getEarlyExpirationBeta() < 0) {
+            throw new IllegalArgumentException("Refresh-ahead window, stale window and beta can not be negative");
+        }
+        this.distributedCache = distributedCache;
+        this.loader = loader;
+        this.config = config;
+    }
+
+    /**
+     * Get the value of the key, it is loaded if it is missing or expired
+     *
+     * @param key key of the value
+     * @return value of the key, empty if the loader has no value for it
+     * @throws IllegalArgumentException if key is null
+     * @throws InternalException        if cache is not initialized for the node, or the loader fails
+     */
+    @Override
+    public Optional<Object> get(Serializable key) {
+        CacheKey cacheKey = CacheKey.of(key);
+        LoadedEntry entry = distributedCache.get(cacheKey).map(LoadedEntry::decode).orElse(null);
+        if (entry == null) {
+            return Optional.ofNullable(load(cacheKey));
+        }
+        long now = System.currentTimeMillis();
+        if (now < entry.getExpiresAtMillis()) {
+            if (isRefreshDue(entry, now)) {
+                refresh(cacheKey);
+            }
+            return Optional.of(entry.getValue());
+        }
+        if (now < entry.getExpiresAtMillis() + config.getStaleMillis()) {
+            refresh(cacheKey);
+            return Optional.of(entry.getValue());
+        }
+        return Optional.ofNullable(load(cacheKey));
+    }
+
+    /**
+     * Put the value of the key, it is fresh for the ttl
+     *
+     * @param key   key of the value
+     * @param value value of the key. It can not be null
+     * @throws IllegalArgumentException if key or value is null, or value is not serializable
+     * @throws InternalException        if cache is not initialized for the node
+     */
+    @Override
+    public void put(Serializable key, Object value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Value can't be null.");
+        }
+        store(CacheKey.of(key), value, 0);
+    }
+
+    /**
+     * Remove the key from the cache, the next read loads it again
+     *
+     * @param key key of the value
+     * @throws IllegalArgumentException if key is null
+     * @throws InternalException        if cache is not initialized for the node
+     */
+    @Override
+    public void remove(Serializable key) {
+        distributedCache.remove(CacheKey.of(key));
+    }
+
+    /**
+     * Reload the value of the key in the background, unless it is being loaded already
+     *
+     * @param key key of the value
+     * @return load of the key, it completes with the loaded value
+     * @throws IllegalArgumentException if key is null
+     */
+    public CompletableFuture<Object> refresh(Serializable key) {
+        CacheKey cacheKey = CacheKey.of(key);
+        CompletableFuture<Object> created = new CompletableFuture<>();
+        CompletableFuture<Object> running = loading.putIfAbsent(cacheKey, created);
+        if (running != null) {
+            return running;
+        }
+        refreshes.increment();
+        try {
+            config.getExecutor().execute(() -> run(cacheKey, created));
+        } catch (RejectedExecutionException e) {
+            loading.remove(cacheKey, created);
+            created.completeExceptionally(e);
+        }
+        created.whenComplete((value, e) -> {
+            if (e != null) {
+                refreshFailures.increment();
+            }
+        });
+        return created;
+    }
+
+    /**
+     * Number of values loaded by readers which found no fresh value
+     */
+    public long getLoads() {
+        return loads.sum();
+    }
+
+    /**
+     * Number of background reloads started
+     */
+    public long getRefreshes() {
+        return refreshes.sum();
+    }
+
+    /**
+     * Number of background reloads which failed, the value they should have replaced is kept
+     */
+    public long getRefreshFailures() {
+        return refreshFailures.sum();
+    }
+
+    /**
+     * Whether a read of the fresh entry should reload it
+     */
+    private boolean isRefreshDue(LoadedEntry entry, long now) {
+        long remaining = entry.getExpiresAtMillis() - now;
+        if (config.getRefreshAheadMillis() > 0 && remaining <= config.getRefreshAheadMillis()) {
+            return true;
+        }
+        if (config.getEarlyExpirationBeta() > 0) {
+            //XFetch: expire early when delta * beta * -ln(random) reaches the time left
+            double deltaMillis = entry.getLoadNanos() / 1e6;
+            return deltaMillis * config.getEarlyExpirationBeta() * -Math.log(ThreadLocalRandom.current().nextDouble()) >= remaining;
+        }
+        return false;
+    }
+
+    /**
+     * Load the key in the calling thread, or wait for the load in flight
+     */
+    private Object load(CacheKey key) {
+        CompletableFuture<Object> created = new CompletableFuture<>();
+        CompletableFuture<Object> running = loading.putIfAbsent(key, created);
+        if (running != null) {
+            try {
+                return running.join();
+            } catch (CompletionException e) {
+                throw loadFailed(key, e.getCause());
+            }
+        }
+        loads.increment();
+        run(key, created);
+        try {
+            return created.join();
+        } catch (CompletionException e) {
+            throw loadFailed(key, e.getCause());
+        }
+    }
+
+    private void run(CacheKey key, CompletableFuture<Object> load) {
+        try {
+            Object before = distributedCache.get(key).orElse(null);
+            long start = System.nanoTime();
+            Object value = loader.apply(key.getKey());
+            long loadNanos = System.nanoTime() - start;
+            //Skip the store if the entry was written or removed during the load, the newer entry wins
+            if (Objects.deepEquals(before, distributedCache.get(key).orElse(null))) {
+                if (value == null) {
+                    distributedCache.remove(key);
+                } else {
+                    store(key, value, loadNanos);
+                }
+            }
+            load.complete(value);
+        } catch (Throwable e) {
+            //Errors complete the load too, so readers waiting for it are not blocked
+            load.completeExceptionally(e);
+        } finally {
+            loading.remove(key, load);
+        }
+    }
+
+    private void store(CacheKey key, Object value, long loadNanos) {
+        long expiresAtMillis = System.currentTimeMillis() + config.getTtlMillis();
+        distributedCache.put(key, new LoadedEntry(value, expiresAtMillis, loadNanos).encode());
+    }
+
+    private static RuntimeException loadFailed(CacheKey key, Throwable cause) {
+        if (cause instanceof IllegalArgumentException || cause instanceof InternalException) {
+            return (RuntimeException) cause;
+        }
+        return new InternalException("Failed to load key " + key, cause);
+    }
+}
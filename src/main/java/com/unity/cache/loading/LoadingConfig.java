@@ -0,0 +1,38 @@
+package com.unity.cache.loading;
+
+import com.unity.cache.concurrent.CacheExecutors;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.concurrent.Executor;
+
+/**
+ * LoadingConfig configures when the entries of a {@link LoadingCache} expire and are refreshed
+ * e.g.
+ * LoadingConfig.builder().ttlMillis(60000).refreshAheadMillis(10000).staleMillis(5000).build();
+ */
+@Getter
+@Builder
+public class LoadingConfig {
+
+    //How long a loaded value is fresh
+    @Builder.Default
+    private final long ttlMillis = 60_000;
+
+    //A read within this window before expiry reloads the value in the background, 0 disables it
+    @Builder.Default
+    private final long refreshAheadMillis = 0;
+
+    //Weight of the probabilistic early expiration (XFetch), values which take longer to load are refreshed earlier.
+    //1 is the usual choice, larger values refresh earlier and 0 disables it
+    @Builder.Default
+    private final double earlyExpirationBeta = 1.0;
+
+    //An expired value is still returned for this long while it is reloaded in the background, 0 makes readers wait for the load
+    @Builder.Default
+    private final long staleMillis = 0;
+
+    //Executor to reload values in the background
+    @Builder.Default
+    private final Executor executor = CacheExecutors.fanOut();
+}
@@ -0,0 +1,148 @@
+package com.unity.cache.node;
+
+import com.unity.cache.CacheKey;
+import com.unity.cache.exceptions.InternalException;
+import com.unity.cache.utils.ConsistentHashUtil;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * HashRing is an immutable version of the consistent hash circle
+ * <p>
+ * A topology change builds a new ring instead of changing the current one, so routing never takes a lock
+ * and the previous ring can still be used while entries are migrated.
+ * </p>
+ */
+final class HashRing {
+
+    static final HashRing EMPTY = new HashRing(Collections.emptyList());
+
+    private final List<Node> nodes;
+    //Hashes of the nodes in the same order, kept unboxed for routing
+    private final double[] hashes;
+
+    /**
+     * @param nodes hashed nodes, they are sorted by hash
+     */
+    HashRing(List<Node> nodes) {
+        List<Node> sorted = new ArrayList<>(nodes);
+        sorted.sort(Node::compareTo);
+        double[] sortedHashes = new double[sorted.size()];
+        for (int i = 0; i < sortedHashes.length; i++) {
+            sortedHashes[i] = sorted.get(i).getHash();
+        }
+        this.nodes = Collections.unmodifiableList(sorted);
+        this.hashes = sortedHashes;
+    }
+
+    List<Node> getNodes() {
+        return nodes;
+    }
+
+    int size() {
+        return nodes.size();
+    }
+
+    boolean contains(Node node) {
+        return indexOf(node) >= 0;
+    }
+
+    /**
+     * Index of the node, nodes are matched by node id, so a node built again for the same address matches
+     */
+    int indexOf(Node node) {
+        for (int i = 0; i < nodes.size(); i++) {
+            if (nodes.get(i).sameNode(node)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * The nodes before and after the node at the index, the ring wraps around
+     */
+    List<Node> neighbours(int index) {
+        List<Node> result = new ArrayList<>(2);
+        result.add(nodes.get((index - 1 + nodes.size()) % nodes.size()));
+        result.add(nodes.get((index + 1) % nodes.size()));
+        return result;
+    }
+
+    /**
+     * Whether a node other than the given one is at the hash
+     */
+    boolean isTakenByOther(Node node, double hash) {
+        for (Node other : nodes) {
+            if (!other.sameNode(node) && other.getHash() == hash) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    HashRing with(Node node) {
+        List<Node> next = new ArrayList<>(nodes);
+        next.add(node);
+        return new HashRing(next);
+    }
+
+    HashRing without(Node node) {
+        List<Node> next = new ArrayList<>(nodes);
+        next.removeIf(node::sameNode);
+        return new HashRing(next);
+    }
+
+    /**
+     * Hash ranges [from, to] of the keys owned by the node at the index, the first node also owns the keys above the last node
+     */
+    List<double[]> ownedRanges(int index) {
+        List<double[]> ranges = new ArrayList<>(2);
+        int last = hashes.length - 1;
+        if (last == 0) {
+            ranges.add(new double[]{0, 1});
+            return ranges;
+        }
+        double from = index == 0 ? 0 : (hashes[index - 1] + hashes[index]) / 2;
+        double to = index == last ? hashes[last] : (hashes[index] + hashes[index + 1]) / 2;
+        ranges.add(new double[]{from, to});
+        if (index == 0) {
+            ranges.add(new double[]{hashes[last], 1});
+        }
+        return ranges;
+    }
+
+    /**
+     * Whether some keys owned by the node in this ring are owned by another node in the next ring
+     */
+    boolean losesKeys(Node node, HashRing next) {
+        List<double[]> kept = next.ownedRanges(next.indexOf(node));
+        for (double[] range : ownedRanges(indexOf(node))) {
+            if (kept.stream().noneMatch(owned -> owned[0] <= range[0] && range[1] <= owned[1])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Get the node which owns the key: the node with the closest hash, or the first node if the key hash is above all nodes
+     *
+     * @throws InternalException if the ring is empty
+     */
+    Node route(CacheKey key) {
+        if (nodes.isEmpty()) {
+            throw new InternalException("No available node(s), please check the cluster status or initialize the node manager");
+        }
+        if (nodes.size() == 1) {
+            return nodes.get(0);
+        }
+        double hash = key.getHash();
+        if (hash > hashes[hashes.length - 1]) {
+            return nodes.get(0);
+        }
+        return nodes.get(ConsistentHashUtil.binarySearch(hashes, hash));
+    }
+}
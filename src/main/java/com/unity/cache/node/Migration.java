@@ -0,0 +1,44 @@
+package com.unity.cache.node;
+
+import com.unity.cache.CacheKey;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Migration is the state shared by foreground traffic and a running topology change
+ * <p>
+ * It keeps the ring from before the change, so reads can fall back to the previous owner of a key,
+ * and fences the keys written or removed by foreground traffic, so migrated entries never replace them.
+ * A fence remembers whether the last foreground call on the key was a remove.
+ * </p>
+ */
+final class Migration {
+
+    private final HashRing previous;
+    //Fenced keys, mapped to true if the last foreground call on the key removed it
+    private final Map<CacheKey, Boolean> fencedKeys = new ConcurrentHashMap<>();
+
+    Migration(HashRing previous) {
+        this.previous = previous;
+    }
+
+    HashRing getPrevious() {
+        return previous;
+    }
+
+    void fence(CacheKey key, boolean removed) {
+        fencedKeys.put(key, removed);
+    }
+
+    boolean isFenced(CacheKey key) {
+        return fencedKeys.containsKey(key);
+    }
+
+    /**
+     * Whether the key is fenced and the last foreground call on it was a remove
+     */
+    boolean isRemoved(CacheKey key) {
+        return Boolean.TRUE.equals(fencedKeys.get(key));
+    }
+}
@@ -1,5 +1,6 @@
 package com.unity.cache.node;
 
+import com.unity.cache.CacheKey;
 import com.unity.cache.connector.CacheableConnector;
 import com.unity.cache.connector.MemcacheConnector;
 import com.unity.cache.connector.RedisConnector;
@@ -8,6 +9,7 @@ import lombok.Data;
 
 import java.io.IOException;
 import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
@@ -37,11 +39,51 @@ public class Node implements Comparable<Node> {
     //This is a dummy cache backend, it can be replaced by other cache backend
     private CacheableConnector<Serializable> cache;
 
+    /**
+     * Create a node whose id is derived from its address, so it keeps its place on the ring across restarts
+     *
+     * @see #stableId(String, int)
+     */
     public Node(String hostname, int port, NodeType type) throws IOException {
+        this(stableId(hostname, port), hostname, port, type);
+    }
+
+    /**
+     * Create a node with a configured id, e.g. to keep its place on the ring when its address changes
+     *
+     * @param nodeId node id, the ring position is derived from it
+     * @throws IllegalArgumentException if nodeId is null
+     */
+    public Node(UUID nodeId, String hostname, int port, NodeType type) {
+        if (nodeId == null) {
+            throw new IllegalArgumentException("Node id can not be null");
+        }
+        this.nodeId = nodeId;
         this.hostname = hostname;
         this.port = port;
         this.type = type;
-        this.nodeId = UUID.randomUUID();
+    }
+
+    /**
+     * Name based node id of an address, the same address always gives the same id
+     *
+     * @param hostname hostname of the node
+     * @param port     port of the node
+     * @return type 3 UUID of "hostname:port"
+     */
+    public static UUID stableId(String hostname, int port) {
+        return UUID.nameUUIDFromBytes((hostname + ":" + port).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Whether the other node is the same cluster member, i.e. it has the same node id
+     * Node ids are compared by value, a node built again for the same address is the same node
+     *
+     * @param other other node, it can be null
+     * @return true if the other node has the same node id
+     */
+    public boolean sameNode(Node other) {
+        return other != null && nodeId.equals(other.nodeId);
     }
 
     public void init() throws IOException {
@@ -74,6 +116,29 @@ public class Node implements Comparable<Node> {
         this.cache.putToCache(key, value);
     }
 
+    /**
+     * Put a key-value pair with a pre-hashed key to cache
+     *
+     * @param key   key of the pair
+     * @param value value of the pair
+     */
+    public void putToCache(CacheKey key, Serializable value) {
+        this.cache.putToCache(key, value);
+    }
+
+    /**
+     * Copy of the node at another position of the ring, it shares the id and the cache of this node
+     *
+     * @param hash position of the copy, in range [0, 1)
+     * @return copy of the node with the hash
+     */
+    public Node withHash(double hash) {
+        Node moved = new Node(nodeId, hostname, port, type);
+        moved.setCache(cache);
+        moved.setHash(hash);
+        return moved;
+    }
+
     /**
      * Hash the node id to a double value, it should be in range [0, 1)
      *
@@ -1,29 +1,59 @@
 package com.unity.cache.node;
 
+import com.unity.cache.CacheKey;
+import com.unity.cache.concurrent.CacheExecutors;
 import com.unity.cache.exceptions.InternalException;
-import com.unity.cache.utils.ConsistentHashUtil;
 import lombok.Getter;
-import org.apache.commons.collections4.CollectionUtils;
 
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 /**
  * NodeManager is used to manage the nodes in the cluster.
  * It is a singleton class and can be accessed by NodeManager.getInstance()
  * It is also a NodeEventHandler which is used to handle node events
+ * <p>
+ * The hash ring is immutable and replaced as a whole on every topology change, so routing never waits for a change.
+ * Topology changes are queued and applied in batches in the background, each batch as one ring change so an entry
+ * is moved at most once however many nodes join or leave together. While entries are migrated the previous ring is kept:
+ * reads which miss on the new owner fall back to the previous owner, and writes and removes fence their keys
+ * so migrated entries never replace them.
+ * </p>
  */
 public class NodeManager implements NodeEventHandler {
 
     private static NodeManager instance;
 
+    //Current hash ring, it is replaced on topology changes
+    private volatile HashRing ring = HashRing.EMPTY;
+    //State of the running topology change, null if no entries are being migrated
+    private volatile Migration migration;
+    private volatile int numReplicas;
+    //Incremented whenever the ring or the migration changes
+    private volatile long topologyVersion;
+
+    private volatile Rebalancer rebalancer = new Rebalancer(RebalanceConfig.builder().build());
+    private volatile long topologyDebounceMillis;
+    //Topology changes are applied one batch at a time by this thread
+    private final ScheduledExecutorService topologyExecutor = Executors.newSingleThreadScheduledExecutor(CacheExecutors.daemonThreadFactory("cache-topology-"));
+    //Topology changes which are accepted but not applied yet, also guards the accepted ring
+    private final List<TopologyChange> pendingChanges = new ArrayList<>();
+    //Ring with all accepted changes applied, new changes are checked against it
+    private HashRing acceptedRing = HashRing.EMPTY;
+
+    //Progress of the latest rebalance run, null if no node has been added or shutdown
     @Getter
-    private final List<Node> hashedNodeList = new ArrayList<>();
-    private int numReplicas;
+    private volatile RebalanceProgress rebalanceProgress;
 
     private NodeManager() {
     }
@@ -48,12 +78,94 @@ public class NodeManager implements NodeEventHandler {
      * @throws IllegalArgumentException if numReplicas is less than 0
      */
     public void init(List<Node> nodeList, int numReplicas) {
-        this.hashedNodeList.clear();
+        if (numReplicas < 0) {
+            throw new IllegalArgumentException("Replica number must be equal or larger than 0");
+        }
         this.numReplicas = numReplicas;
+        nodeList.forEach(node -> node.hash(numReplicas));
+        this.migration = null;
+        this.ring = new HashRing(nodeList);
+        this.topologyVersion++;
+        synchronized (pendingChanges) {
+            this.acceptedRing = this.ring;
+        }
+    }
+
+    /**
+     * Initialize the node manager with nodes which keep the hash they already have, e.g. the nodes of a {@link RingSnapshot}
+     * Nothing is rehashed or migrated, keys are routed exactly as when the snapshot was taken
+     *
+     * @param nodeList    List of hashed nodes
+     * @param numReplicas Number of replicas in cluster, used to hash nodes added later
+     * @throws IllegalArgumentException if numReplicas is less than 0 or a node has no hash
+     * @see RingSnapshot#toNodes()
+     */
+    public void restore(List<Node> nodeList, int numReplicas) {
         if (numReplicas < 0) {
             throw new IllegalArgumentException("Replica number must be equal or larger than 0");
         }
-        nodeList.forEach(node -> rearrangeNodeList(node, true));
+        if (nodeList.stream().anyMatch(node -> node.getHash() == null)) {
+            throw new IllegalArgumentException("Restored nodes must have a hash");
+        }
+        this.numReplicas = numReplicas;
+        this.migration = null;
+        this.ring = new HashRing(nodeList);
+        this.topologyVersion++;
+        synchronized (pendingChanges) {
+            this.acceptedRing = this.ring;
+        }
+    }
+
+    /**
+     * Take a snapshot of the hash ring, which can be saved and restored on the next startup
+     *
+     * @return snapshot of the current nodes and their hash
+     */
+    public RingSnapshot snapshot() {
+        return RingSnapshot.of(this.ring.getNodes(), this.numReplicas);
+    }
+
+    /**
+     * Get the nodes of the current hash ring
+     *
+     * @return read-only list of the nodes sorted by hash
+     */
+    public List<Node> getHashedNodeList() {
+        return this.ring.getNodes();
+    }
+
+    /**
+     * Get the hash ranges of the keys owned by the node in the current ring
+     * A key whose hash is on a bound may belong to the neighbour, use {@link #nodeGet(CacheKey)} for exact ownership
+     *
+     * @param node Node in the ring
+     * @return ranges [from, to] in range [0, 1]
+     * @throws IllegalArgumentException if node is null or does not exist
+     */
+    public List<double[]> getOwnedRanges(Node node) {
+        HashRing current = this.ring;
+        int index = node == null ? -1 : current.indexOf(node);
+        if (index < 0) {
+            throw new IllegalArgumentException("Node not found");
+        }
+        return current.ownedRanges(index);
+    }
+
+    /**
+     * Configure how cached entries are moved between nodes when nodes are added or shutdown
+     *
+     * @param rebalanceConfig rebalance configuration
+     * @throws IllegalArgumentException if rebalanceConfig is null, batch size is not positive or debounce is negative
+     */
+    public void setRebalanceConfig(RebalanceConfig rebalanceConfig) {
+        if (rebalanceConfig == null) {
+            throw new IllegalArgumentException("Rebalance config can not be null");
+        }
+        if (rebalanceConfig.getTopologyDebounceMillis() < 0) {
+            throw new IllegalArgumentException("Topology debounce must be equal or larger than 0");
+        }
+        this.rebalancer = new Rebalancer(rebalanceConfig);
+        this.topologyDebounceMillis = rebalanceConfig.getTopologyDebounceMillis();
     }
 
     /**
@@ -64,24 +176,88 @@ public class NodeManager implements NodeEventHandler {
      * @return Node that the key is hashed to
      * @throws IllegalArgumentException if key is null
      * @throws InternalException        if no node is available
+     * @see #nodeGet(CacheKey)
      */
     public Node nodeGet(Serializable key) {
         if (key == null) {
             throw new IllegalArgumentException("Key can not be empty");
         }
-        if (CollectionUtils.isEmpty(this.hashedNodeList)) {
-            throw new InternalException("No available node(s), please check the cluster status or initialize the node manager");
+        return nodeGet(CacheKey.of(key));
+    }
+
+    /**
+     * Get the node from cluster by a pre-hashed key. The hash of the key is computed at most once
+     * Will always return a node
+     *
+     * @param key Pre-hashed key
+     * @return Node that the key is hashed to
+     * @throws IllegalArgumentException if key is null
+     * @throws InternalException        if no node is available
+     * @see CacheKey#getHash()
+     */
+    public Node nodeGet(CacheKey key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Key can not be empty");
         }
-        if (this.hashedNodeList.size() == 1) {
-            return this.hashedNodeList.get(0);
+        return this.ring.route(key);
+    }
+
+    /**
+     * Get the owner of the key in the ring from before the running topology change
+     * A read which misses on the current owner should try this node, the entry may not be migrated yet
+     *
+     * @param key Pre-hashed key
+     * @return previous owner of the key, null if no topology change is running or the owner did not change
+     */
+    public Node previousNodeGet(CacheKey key) {
+        Migration running = this.migration;
+        if (running == null) {
+            return null;
         }
+        Node previous = running.getPrevious().route(key);
+        return previous.sameNode(nodeGet(key)) ? null : previous;
+    }
 
-        double hash = ConsistentHashUtil.myHash(key);
-        if (hash > this.hashedNodeList.get(this.hashedNodeList.size() - 1).getHash()) {
-            return this.hashedNodeList.get(0);
+    /**
+     * Fence the key before it is written or removed, so the running migration does not put an older value back
+     * Does nothing if no topology change is running
+     *
+     * @param key Pre-hashed key
+     */
+    public void fence(CacheKey key) {
+        Migration running = this.migration;
+        if (running != null) {
+            running.fence(key, false);
         }
-        int index = ConsistentHashUtil.binarySearch(this.hashedNodeList.stream().map(Node::getHash).collect(Collectors.toList()), hash);
-        return this.hashedNodeList.get(index);
+    }
+
+    /**
+     * Fence the key before it is removed, so the running migration does not put the removed value back
+     * Does nothing if no topology change is running
+     *
+     * @param key Pre-hashed key
+     * @see #fence(CacheKey)
+     */
+    public void fenceRemoval(CacheKey key) {
+        Migration running = this.migration;
+        if (running != null) {
+            running.fence(key, true);
+        }
+    }
+
+    /**
+     * Version of the topology, it changes whenever the ring changes or a migration starts or ends
+     * Readers compare it before and after a miss to know whether the miss may be caused by a topology change
+     */
+    public long getTopologyVersion() {
+        return this.topologyVersion;
+    }
+
+    /**
+     * Whether a topology change is migrating entries
+     */
+    public boolean isMigrating() {
+        return this.migration != null;
     }
 
     /**
@@ -89,6 +265,7 @@ public class NodeManager implements NodeEventHandler {
      * Will add it to a position base on consistent hash algorithm in the node list
      * Will dispatch the cache of the previous node and next node to the new node
      * No cached content will be lost from the cluster (but shuffle between different nodes)
+     * Waits until the migration is finished, see {@link #nodeAddedAsync(Node)} to not wait
      *
      * @param node Node to be added
      *             Node id must be unique
@@ -99,25 +276,24 @@ public class NodeManager implements NodeEventHandler {
      */
     @Override
     public void nodeAdded(Node node) {
+        await(nodeAddedAsync(node));
+    }
+
+    /**
+     * Add a node to the cluster without waiting for the migration
+     * The new ring routes all traffic as soon as the change starts, entries are moved in the background
+     * Changes queued together are applied as one ring change, see {@link RebalanceConfig#getTopologyDebounceMillis()}
+     *
+     * @param node Node to be added
+     * @return future of the migration progress
+     * @throws IllegalArgumentException if node is null or node already exists or the cluster is empty
+     * @see #nodeAdded(Node)
+     */
+    public CompletableFuture<RebalanceProgress> nodeAddedAsync(Node node) {
         if (node == null) {
             throw new IllegalArgumentException("Node can not be null");
         }
-        if (this.hashedNodeList.stream().anyMatch(obj -> obj.getNodeId() == node.getNodeId())) {
-            throw new IllegalArgumentException("Node already exists");
-        }
-        rearrangeNodeList(node, true);
-
-        int indexOfNewNode = findIndexOfNode(node);
-        if (indexOfNewNode == 0) {
-            // If the new node is the first node, then the next node and the last node cache should be dispatched
-            shuffleNode(this.hashedNodeList.get(indexOfNewNode + 1), this.hashedNodeList.get(this.hashedNodeList.size() - 1));
-        } else if (indexOfNewNode == this.hashedNodeList.size() - 1) {
-            // If the new node is the last node, then the previous node and the first node cache should be dispatched
-            shuffleNode(this.hashedNodeList.get(0), this.hashedNodeList.get(indexOfNewNode - 1));
-        } else {
-            // If the new node is not the first node, then the previous node and next node cache should be dispatched
-            shuffleNode(this.hashedNodeList.get(indexOfNewNode - 1), this.hashedNodeList.get(indexOfNewNode + 1));
-        }
+        return submit(new TopologyChange(TopologyChange.Type.ADD, node, 0));
     }
 
     /**
@@ -125,6 +301,7 @@ public class NodeManager implements NodeEventHandler {
      * Will remove the node from the node list
      * Will NOT dispatch the cache of the this removed node to the new node
      * Cached content in this node will be lost
+     * The node is removed with the next ring change, after the running one if any
      *
      * @param node Node to be removed
      *             Node can not be null
@@ -139,14 +316,7 @@ public class NodeManager implements NodeEventHandler {
         if (node == null) {
             throw new IllegalArgumentException("Node to be deleted can not be null");
         }
-        int index = findIndexOfNode(node);
-        if (index < 0) {
-            throw new IllegalArgumentException("Node to be deleted not found");
-        }
-        if (this.hashedNodeList.size() == 1) {
-            throw new IllegalArgumentException("Can not delete the last node");
-        }
-        this.hashedNodeList.removeIf(obj -> obj.getNodeId() == node.getNodeId());
+        await(submit(new TopologyChange(TopologyChange.Type.REMOVE, node, 0)));
     }
 
     /**
@@ -154,6 +324,7 @@ public class NodeManager implements NodeEventHandler {
      * Will remove the node from the node list
      * Will dispatch the cache of the this removed node to the new node
      * Cached content in this node will NOT be lost (But shuffled to other nodes)
+     * Waits until the migration is finished, see {@link #nodeShuttingDownAsync(Node)} to not wait
      *
      * @param node Node to be shutdown
      *             Node can not be null
@@ -165,48 +336,257 @@ public class NodeManager implements NodeEventHandler {
      */
     @Override
     public void nodeShuttingDown(Node node) {
+        await(nodeShuttingDownAsync(node));
+    }
+
+    /**
+     * Shutdown a node without waiting for the migration
+     * The node leaves the ring as soon as the change starts, its entries are moved in the background
+     * and it is evicted once all of them are moved
+     *
+     * @param node Node to be shutdown
+     * @return future of the migration progress
+     * @throws IllegalArgumentException if node is null or node does not exist or it is the last node
+     * @see #nodeShuttingDown(Node)
+     */
+    public CompletableFuture<RebalanceProgress> nodeShuttingDownAsync(Node node) {
         if (node == null) {
             throw new IllegalArgumentException("Node to be shutdown can not be null");
         }
-        int index = findIndexOfNode(node);
-        if (index < 0) {
-            throw new IllegalArgumentException("Node to be shutdown not found");
+        return submit(new TopologyChange(TopologyChange.Type.SHUTDOWN, node, 0));
+    }
+
+    /**
+     * Move a node to another position of the ring, e.g. to shift keys from an overloaded neighbour to it
+     * The entries whose owner changes are migrated like on any topology change, and the method waits for it
+     *
+     * @param node Node to be moved
+     * @param hash New position of the node, in range [0, 1)
+     * @throws IllegalArgumentException if node is null or does not exist, or the position is out of range or taken
+     * @see #moveNodeAsync(Node, double)
+     */
+    public void moveNode(Node node, double hash) {
+        await(moveNodeAsync(node, hash));
+    }
+
+    /**
+     * Move a node to another position of the ring without waiting for the migration
+     * Only the node and its neighbours, before and after the move, can lose or gain keys, so only they are scanned
+     *
+     * @param node Node to be moved
+     * @param hash New position of the node, in range [0, 1)
+     * @return future of the migration progress
+     * @throws IllegalArgumentException if node is null or does not exist, or the position is out of range or taken
+     * @see #moveNode(Node, double)
+     */
+    public CompletableFuture<RebalanceProgress> moveNodeAsync(Node node, double hash) {
+        if (node == null) {
+            throw new IllegalArgumentException("Node to be moved can not be null");
         }
-        if (this.hashedNodeList.size() == 1) {
-            throw new IllegalArgumentException("Can not shutdown the last node");
+        return submit(new TopologyChange(TopologyChange.Type.MOVE, node, hash));
+    }
+
+    /**
+     * Queue a topology change, it is checked against the ring with all queued changes applied
+     * The first change of a batch schedules the batch, the changes queued until it runs are applied with it
+     *
+     * @throws IllegalArgumentException if the change can not be applied
+     */
+    private CompletableFuture<RebalanceProgress> submit(TopologyChange change) {
+        synchronized (pendingChanges) {
+            this.acceptedRing = apply(this.acceptedRing, change);
+            pendingChanges.add(change);
+            if (pendingChanges.size() == 1) {
+                topologyExecutor.schedule(this::applyPendingChanges, this.topologyDebounceMillis, TimeUnit.MILLISECONDS);
+            }
         }
-        rearrangeNodeList(node, false);
-        shuffleNode(node);
+        return change.future;
     }
 
     /**
-     * Consistent hashed circle is rearrange because of node addition or removal
+     * Apply all queued changes as one ring change, so each entry is moved at most once for the whole batch
+     * Step 1: Apply the changes one by one to a copy of the ring, a change which is no longer valid fails alone
+     * Step 2: Drop the removed nodes, their entries are lost anyway and reads must not fall back to them
+     * Step 3: Scan only the nodes which lose keys in the final ring and migrate once
      */
-    private void rearrangeNodeList(Node node, boolean isToAdd) {
-        node.hash(this.numReplicas);
-        if (isToAdd) {
-            this.hashedNodeList.add(node);
-        } else {
-            this.hashedNodeList.removeIf(obj -> obj.getNodeId() == node.getNodeId());
+    private void applyPendingChanges() {
+        List<TopologyChange> changes;
+        synchronized (pendingChanges) {
+            changes = new ArrayList<>(pendingChanges);
+            pendingChanges.clear();
+        }
+        HashRing current = this.ring;
+        HashRing next = current;
+        List<TopologyChange> applied = new ArrayList<>(changes.size());
+        for (TopologyChange change : changes) {
+            try {
+                next = apply(next, change);
+                applied.add(change);
+            } catch (RuntimeException e) {
+                change.future.completeExceptionally(e);
+            }
+        }
+        if (applied.isEmpty()) {
+            return;
+        }
+        try {
+            HashRing base = current;
+            List<Node> leaving = new ArrayList<>();
+            boolean onlyRemoved = true;
+            for (TopologyChange change : applied) {
+                onlyRemoved &= change.type == TopologyChange.Type.REMOVE;
+                int index = current.indexOf(change.node);
+                if (index < 0 || next.contains(change.node)) {
+                    continue;
+                }
+                if (change.type == TopologyChange.Type.REMOVE) {
+                    base = base.without(change.node);
+                } else if (change.type == TopologyChange.Type.SHUTDOWN) {
+                    leaving.add(current.getNodes().get(index));
+                }
+            }
+            RebalanceProgress progress = null;
+            if (onlyRemoved) {
+                this.ring = next;
+                this.topologyVersion++;
+            } else {
+                List<Node> sources = new ArrayList<>();
+                for (Node node : base.getNodes()) {
+                    if (!next.contains(node) || base.losesKeys(node, next)) {
+                        sources.add(node);
+                    }
+                }
+                progress = migrate(base, next, leaving, sources);
+            }
+            for (TopologyChange change : applied) {
+                change.future.complete(progress);
+            }
+        } catch (RuntimeException e) {
+            applied.forEach(change -> change.future.completeExceptionally(e));
+        }
+    }
+
+    /**
+     * Ring with the change applied
+     *
+     * @throws IllegalArgumentException if the change can not be applied to the ring
+     */
+    private HashRing apply(HashRing ring, TopologyChange change) {
+        Node node = change.node;
+        switch (change.type) {
+            case ADD:
+                checkNodeCanBeAdded(ring, node);
+                node.hash(this.numReplicas);
+                return ring.with(node);
+            case REMOVE:
+                checkNodeCanBeRemoved(ring, node, "Node to be deleted not found", "Can not delete the last node");
+                return ring.without(node);
+            case SHUTDOWN:
+                checkNodeCanBeRemoved(ring, node, "Node to be shutdown not found", "Can not shutdown the last node");
+                return ring.without(node);
+            default:
+                checkNodeCanBeMoved(ring, node, change.hash);
+                Node moved = ring.getNodes().get(ring.indexOf(node)).withHash(change.hash);
+                return ring.without(moved).with(moved);
+        }
+    }
+
+    private static void checkNodeCanBeAdded(HashRing ring, Node node) {
+        if (ring.contains(node)) {
+            throw new IllegalArgumentException("Node already exists");
+        }
+        if (ring.size() == 0) {
+            throw new IllegalArgumentException("Can not add a node to an empty cluster, please initialize the node manager");
+        }
+    }
+
+    private static void checkNodeCanBeMoved(HashRing ring, Node node, double hash) {
+        if (!ring.contains(node)) {
+            throw new IllegalArgumentException("Node to be moved not found");
+        }
+        if (!(hash >= 0 && hash < 1)) {
+            throw new IllegalArgumentException("Hash must be in range [0, 1)");
+        }
+        if (ring.isTakenByOther(node, hash)) {
+            throw new IllegalArgumentException("Hash is taken by another node");
+        }
+    }
+
+    private static void checkNodeCanBeRemoved(HashRing ring, Node node, String notFoundMessage, String lastNodeMessage) {
+        if (!ring.contains(node)) {
+            throw new IllegalArgumentException(notFoundMessage);
+        }
+        if (ring.size() == 1) {
+            throw new IllegalArgumentException(lastNodeMessage);
         }
-        this.hashedNodeList.sort(Node::compareTo);
     }
 
-    private int findIndexOfNode(Node node) {
-        return IntStream.range(0, this.hashedNodeList.size())
-                .filter(i -> this.hashedNodeList.get(i).getNodeId() == node.getNodeId())
-                .findFirst()
-                .orElse(-1);
+    /**
+     * Switch to the next ring and move the entries of the source nodes to their new owners
+     * Step 1: Keep the current ring for reads which miss on the new owner, and start fencing written keys
+     * Step 2: Route all traffic with the next ring
+     * Step 3: Move the entries whose owner changed, in parallel within the configured throughput caps
+     * Step 4: Evict the leaving nodes, let the connectors of the other changed nodes refresh and drop the previous ring
+     *
+     * @see Rebalancer
+     */
+    private RebalanceProgress migrate(HashRing current, HashRing next, List<Node> leaving, List<Node> sources) {
+        //A node can be both the previous and the next node in a small cluster, read it only once
+        Set<Node> sourceNodes = new LinkedHashSet<>(sources);
+        RebalanceProgress progress = new RebalanceProgress(sourceNodes.size());
+        Migration running = new Migration(current);
+        this.rebalanceProgress = progress;
+        this.migration = running;
+        this.ring = next;
+        this.topologyVersion++;
+        try {
+            Set<Node> changedNodes = new LinkedHashSet<>(sourceNodes);
+            changedNodes.addAll(rebalancer.rebalance(sourceNodes, next::route, running, progress));
+            for (Node node : leaving) {
+                node.getCache().evictCache();
+                changedNodes.remove(node);
+            }
+            changedNodes.forEach(node -> node.getCache().rebalanced());
+            return progress;
+        } finally {
+            this.migration = null;
+            this.topologyVersion++;
+        }
     }
 
     /**
-     * Shuffle the cache of the node to other nodes
-     * Step 1: Get all the cache entries from the node(s) to be shuffled
-     * Step 2: Evict all the cache entries from the node(s) to be shuffled
-     * Step 3: Dispatch the cache entries to the cluster
+     * Wait for a topology change, its exceptions are thrown as they are
      */
-    private void shuffleNode(Node... nodeList) {
-        Arrays.stream(nodeList).forEach(node -> node.clearCache().forEach(entry -> nodeGet(entry.getKey()).putToCache(entry.getKey(), entry.getValue())));
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new InternalException("Topology change failed: ", e.getCause());
+        }
     }
-}
 
+    /**
+     * A queued topology change and the future of the ring change which applies it
+     */
+    private static final class TopologyChange {
+
+        private enum Type {
+            ADD, REMOVE, SHUTDOWN, MOVE
+        }
+
+        private final Type type;
+        private final Node node;
+        //New position of a moved node
+        private final double hash;
+        private final CompletableFuture<RebalanceProgress> future = new CompletableFuture<>();
+
+        private TopologyChange(Type type, Node node, double hash) {
+            this.type = type;
+            this.node = node;
+            this.hash = hash;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.unity.cache.node;
+
+import com.unity.cache.concurrent.CacheExecutors;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+/**
+ * RebalanceConfig configures how cached entries are moved between nodes when the cluster changes
+ * Throughput caps of 0 mean unlimited.
+ * e.g.
+ * nodeManager.setRebalanceConfig(RebalanceConfig.builder().batchSize(1000).perNodeOpsPerSecond(5000).build());
+ */
+@Getter
+@Builder
+public class RebalanceConfig {
+
+    //Number of entries sent to the nodes as one batch
+    @Builder.Default
+    private final int batchSize = 500;
+
+    //Executor to drain source nodes and send batches in parallel
+    @Builder.Default
+    private final Executor executor = CacheExecutors.fanOut();
+
+    //Throughput caps of the whole migration
+    private final double globalOpsPerSecond;
+    private final double globalBytesPerSecond;
+
+    //Throughput caps of each target node
+    private final double perNodeOpsPerSecond;
+    private final double perNodeBytesPerSecond;
+
+    //Topology events received within this time after the first one are applied as one ring change, 0 applies them
+    //as soon as the running change is finished
+    private final long topologyDebounceMillis;
+
+    //Called after each batch with the progress so far, it can be called by multiple threads
+    private final Consumer<RebalanceProgress> progressListener;
+}
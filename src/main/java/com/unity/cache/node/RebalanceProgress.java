@@ -0,0 +1,91 @@
+package com.unity.cache.node;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * RebalanceProgress reports the progress of one rebalance run
+ * It is updated concurrently by the rebalance workers and can be read at any time
+ */
+public class RebalanceProgress {
+
+    private final long startNanos = System.nanoTime();
+    private final int totalSourceNodes;
+    private final AtomicInteger drainedSourceNodes = new AtomicInteger();
+    private final AtomicLong totalEntries = new AtomicLong();
+    private final AtomicLong movedEntries = new AtomicLong();
+    private final AtomicLong movedBytes = new AtomicLong();
+    private final AtomicLong throttledNanos = new AtomicLong();
+    private volatile long finishNanos;
+
+    RebalanceProgress(int totalSourceNodes) {
+        this.totalSourceNodes = totalSourceNodes;
+    }
+
+    void sourceDrained(int entries) {
+        totalEntries.addAndGet(entries);
+        drainedSourceNodes.incrementAndGet();
+    }
+
+    void batchMoved(int entries, long bytes, long waitNanos) {
+        movedEntries.addAndGet(entries);
+        movedBytes.addAndGet(bytes);
+        throttledNanos.addAndGet(waitNanos);
+    }
+
+    void finish() {
+        finishNanos = System.nanoTime();
+    }
+
+    public int getTotalSourceNodes() {
+        return totalSourceNodes;
+    }
+
+    public int getDrainedSourceNodes() {
+        return drainedSourceNodes.get();
+    }
+
+    public long getTotalEntries() {
+        return totalEntries.get();
+    }
+
+    public long getMovedEntries() {
+        return movedEntries.get();
+    }
+
+    public long getMovedBytes() {
+        return movedBytes.get();
+    }
+
+    /**
+     * Time spent waiting for the throughput caps, summed over all workers
+     */
+    public long getThrottledMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(throttledNanos.get());
+    }
+
+    public boolean isFinished() {
+        return finishNanos != 0;
+    }
+
+    public long getElapsedMillis() {
+        long end = isFinished() ? finishNanos : System.nanoTime();
+        return TimeUnit.NANOSECONDS.toMillis(end - startNanos);
+    }
+
+    /**
+     * Fraction of the entries drained so far which are moved, in range [0, 1]
+     */
+    public double getFraction() {
+        long total = totalEntries.get();
+        return total == 0 ? (isFinished() ? 1 : 0) : (double) movedEntries.get() / total;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("RebalanceProgress(sources=%d/%d, entries=%d/%d, bytes=%d, throttledMillis=%d, elapsedMillis=%d)",
+                getDrainedSourceNodes(), totalSourceNodes, getMovedEntries(), getTotalEntries(), getMovedBytes(),
+                getThrottledMillis(), getElapsedMillis());
+    }
+}
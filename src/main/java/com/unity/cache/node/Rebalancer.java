@@ -0,0 +1,166 @@
+package com.unity.cache.node;
+
+import com.unity.cache.CacheKey;
+import com.unity.cache.concurrent.ScatterGather;
+import com.unity.cache.utils.RateLimiter;
+import org.apache.commons.lang3.SerializationUtils;
+
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Rebalancer moves cached entries of some nodes to the nodes which own them in the new hash ring
+ * <p>
+ * Step 1: Read all source nodes in parallel and keep the entries whose owner changed
+ * Step 2: Split these entries into batches
+ * Step 3: Send the batches in parallel, each batch is grouped by target node and sent with one multi-put per node
+ * Step 4: Remove the moved entries from their source
+ * Every send waits for the global and per-node throughput caps, so migration never starves foreground traffic.
+ * Entries are only written where the key is absent and keys fenced by foreground writes or removes are skipped,
+ * so a migrated entry never replaces a newer value.
+ * Keys are routed by their encoded String, so a key listed back as a String is moved to the node it was written to,
+ * see {@link CacheKey#getHash()}.
+ * </p>
+ */
+class Rebalancer {
+
+    private final RebalanceConfig config;
+    private final RateLimiter globalOps;
+    private final RateLimiter globalBytes;
+    private final Map<UUID, RateLimiter[]> nodeLimiters = new ConcurrentHashMap<>();
+
+    Rebalancer(RebalanceConfig config) {
+        if (config.getBatchSize() <= 0) {
+            throw new IllegalArgumentException("Batch size must be larger than 0");
+        }
+        this.config = config;
+        this.globalOps = new RateLimiter(config.getGlobalOpsPerSecond());
+        this.globalBytes = new RateLimiter(config.getGlobalBytesPerSecond());
+    }
+
+    /**
+     * Move the entries of the source nodes to the nodes which own them
+     *
+     * @param sources   source nodes to be read
+     * @param router    function to find the owner of a key in the new ring
+     * @param migration fenced keys of the running topology change
+     * @param progress  progress to be updated
+     * @return nodes which received entries
+     */
+    Set<Node> rebalance(Collection<Node> sources, Function<CacheKey, Node> router, Migration migration, RebalanceProgress progress) {
+        List<Batch> batches = new ArrayList<>();
+        ScatterGather.scatter(config.getExecutor(), sources, source -> {
+            List<Map.Entry<CacheKey, Object>> moving = new ArrayList<>();
+            for (Map.Entry<Serializable, Object> entry : source.getCache().getAllFromCache()) {
+                CacheKey key = CacheKey.of(entry.getKey());
+                if (!router.apply(key).sameNode(source)) {
+                    moving.add(new AbstractMap.SimpleImmutableEntry<>(key, entry.getValue()));
+                }
+            }
+            progress.sourceDrained(moving.size());
+            return new Batch(source, moving);
+        }).forEach(drained -> {
+            for (int from = 0; from < drained.entries.size(); from += config.getBatchSize()) {
+                int to = Math.min(from + config.getBatchSize(), drained.entries.size());
+                batches.add(new Batch(drained.source, drained.entries.subList(from, to)));
+            }
+        });
+
+        Set<Node> targets = ConcurrentHashMap.newKeySet();
+        ScatterGather.scatter(config.getExecutor(), batches, batch -> {
+            targets.addAll(moveBatch(batch, router, migration, progress));
+            return null;
+        });
+        progress.finish();
+        report(progress);
+        return targets;
+    }
+
+    private Set<Node> moveBatch(Batch batch, Function<CacheKey, Node> router, Migration migration, RebalanceProgress progress) {
+        Map<Node, Map<CacheKey, Object>> entriesByTarget = new LinkedHashMap<>();
+        for (Map.Entry<CacheKey, Object> entry : batch.entries) {
+            entriesByTarget.computeIfAbsent(router.apply(entry.getKey()), node -> new LinkedHashMap<>()).put(entry.getKey(), entry.getValue());
+        }
+        entriesByTarget.forEach((target, entries) -> {
+            Map<CacheKey, Object> unfenced = new LinkedHashMap<>();
+            entries.forEach((key, value) -> {
+                if (!migration.isFenced(key)) {
+                    unfenced.put(key, value);
+                }
+            });
+            long bytes = estimateBytes(unfenced);
+            long waitNanos = throttle(target, unfenced.size(), bytes);
+            target.getCache().putAllIfAbsentToCache(unfenced);
+            batch.source.getCache().removeAllFromCache(entries.keySet());
+
+            //A key removed while it was being moved may have been removed before the move wrote it back,
+            //a key written meanwhile holds the new value, which must be kept
+            List<CacheKey> raced = new ArrayList<>();
+            unfenced.keySet().forEach(key -> {
+                if (migration.isRemoved(key)) {
+                    raced.add(key);
+                }
+            });
+            if (!raced.isEmpty()) {
+                target.getCache().removeAllFromCache(raced);
+            }
+            progress.batchMoved(entries.size(), bytes, waitNanos);
+            report(progress);
+        });
+        return entriesByTarget.keySet();
+    }
+
+    private long throttle(Node target, int ops, long bytes) {
+        RateLimiter[] limiters = nodeLimiters.computeIfAbsent(target.getNodeId(), nodeId -> new RateLimiter[]{
+                new RateLimiter(config.getPerNodeOpsPerSecond()), new RateLimiter(config.getPerNodeBytesPerSecond())});
+        return globalOps.acquire(ops) + globalBytes.acquire(bytes) + limiters[0].acquire(ops) + limiters[1].acquire(bytes);
+    }
+
+    private long estimateBytes(Map<CacheKey, Object> entries) {
+        //Only serialize other objects to get their size if bytes are capped
+        boolean exact = !globalBytes.isUnlimited() || config.getPerNodeBytesPerSecond() > 0;
+        long bytes = 0;
+        for (Map.Entry<CacheKey, Object> entry : entries.entrySet()) {
+            bytes += entry.getKey().getEncodedBytes().length + sizeOf(entry.getValue(), exact);
+        }
+        return bytes;
+    }
+
+    private static long sizeOf(Object value, boolean exact) {
+        if (value instanceof byte[]) {
+            return ((byte[]) value).length;
+        }
+        if (value instanceof CharSequence) {
+            return ((CharSequence) value).length();
+        }
+        if (value instanceof Number) {
+            return Long.BYTES;
+        }
+        return exact && value instanceof Serializable ? SerializationUtils.serialize((Serializable) value).length : 0;
+    }
+
+    private void report(RebalanceProgress progress) {
+        if (config.getProgressListener() != null) {
+            config.getProgressListener().accept(progress);
+        }
+    }
+
+    private static class Batch {
+        private final Node source;
+        private final List<Map.Entry<CacheKey, Object>> entries;
+
+        private Batch(Node source, List<Map.Entry<CacheKey, Object>> entries) {
+            this.source = source;
+            this.entries = entries;
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.unity.cache.node;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Value;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.CRC32;
+
+/**
+ * RingSnapshot is a compact copy of the hash ring which can be saved to a file and loaded on startup
+ * <p>
+ * It keeps the id, address, type and hash of every node, so restoring it puts every node back at its saved
+ * position without rehashing and a restarted client routes every key exactly as before.
+ * File layout (big endian): magic, version, replica number, node count, nodes, CRC32 of all previous bytes
+ * </p>
+ *
+ * @see NodeManager#snapshot()
+ * @see NodeManager#restore(List, int)
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public final class RingSnapshot {
+
+    private static final int MAGIC = 0x52494E47;
+    private static final byte VERSION = 1;
+
+    private final int numReplicas;
+    private final List<Entry> entries;
+
+    /**
+     * A node on the ring
+     */
+    @Value
+    public static class Entry {
+        UUID nodeId;
+        String hostname;
+        int port;
+        NodeType type;
+        double hash;
+    }
+
+    static RingSnapshot of(List<Node> nodes, int numReplicas) {
+        List<Entry> entries = new ArrayList<>(nodes.size());
+        nodes.forEach(node -> entries.add(new Entry(node.getNodeId(), node.getHostname(), node.getPort(), node.getType(), node.getHash())));
+        return new RingSnapshot(numReplicas, Collections.unmodifiableList(entries));
+    }
+
+    /**
+     * Create the nodes of this snapshot with their saved id and hash
+     * The nodes have no cache backend yet, call {@link Node#init()} or set one before restoring them
+     *
+     * @return nodes in ring order
+     */
+    public List<Node> toNodes() {
+        List<Node> nodes = new ArrayList<>(entries.size());
+        for (Entry entry : entries) {
+            Node node = new Node(entry.getNodeId(), entry.getHostname(), entry.getPort(), entry.getType());
+            node.setHash(entry.getHash());
+            nodes.add(node);
+        }
+        return nodes;
+    }
+
+    /**
+     * Save the snapshot, the file is replaced atomically so a crash never leaves a partial snapshot behind
+     *
+     * @param path file to write
+     * @throws IOException if the file can not be written
+     */
+    public void writeTo(Path path) throws IOException {
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        Files.write(temp, toBytes());
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Load a snapshot saved by {@link #writeTo(Path)}
+     *
+     * @param path file to read
+     * @return the snapshot
+     * @throws IOException if the file can not be read or is not a valid snapshot
+     */
+    public static RingSnapshot readFrom(Path path) throws IOException {
+        return fromBytes(Files.readAllBytes(path));
+    }
+
+    byte[] toBytes() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(16 + entries.size() * 48);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+        out.writeInt(numReplicas);
+        out.writeInt(entries.size());
+        for (Entry entry : entries) {
+            out.writeLong(entry.getNodeId().getMostSignificantBits());
+            out.writeLong(entry.getNodeId().getLeastSignificantBits());
+            out.writeUTF(entry.getHostname() == null ? "" : entry.getHostname());
+            out.writeInt(entry.getPort());
+            out.writeByte(entry.getType() == null ? -1 : entry.getType().ordinal());
+            out.writeDouble(entry.getHash());
+        }
+        CRC32 crc = new CRC32();
+        crc.update(bytes.toByteArray());
+        out.writeInt((int) crc.getValue());
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    static RingSnapshot fromBytes(byte[] bytes) throws IOException {
+        if (bytes.length < 4) {
+            throw new IOException("Ring snapshot is truncated");
+        }
+        CRC32 crc = new CRC32();
+        crc.update(bytes, 0, bytes.length - 4);
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a ring snapshot");
+        }
+        byte version = in.readByte();
+        if (version != VERSION) {
+            throw new IOException("Unsupported ring snapshot version " + version);
+        }
+        int numReplicas = in.readInt();
+        int size = in.readInt();
+        if (size < 0) {
+            throw new IOException("Ring snapshot is corrupted");
+        }
+        List<Entry> entries = new ArrayList<>(Math.min(size, bytes.length));
+        NodeType[] types = NodeType.values();
+        for (int i = 0; i < size; i++) {
+            UUID nodeId = new UUID(in.readLong(), in.readLong());
+            String hostname = in.readUTF();
+            int port = in.readInt();
+            int type = in.readByte();
+            double hash = in.readDouble();
+            entries.add(new Entry(nodeId, hostname, port, type >= 0 && type < types.length ? types[type] : null, hash));
+        }
+        if (in.readInt() != (int) crc.getValue()) {
+            throw new IOException("Ring snapshot checksum mismatch");
+        }
+        return new RingSnapshot(numReplicas, Collections.unmodifiableList(entries));
+    }
+}
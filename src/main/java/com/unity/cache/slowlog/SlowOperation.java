@@ -0,0 +1,33 @@
+package com.unity.cache.slowlog;
+
+import lombok.Value;
+
+/**
+ * SlowOperation is one operation recorded by a {@link SlowOperationLog}
+ */
+@Value
+public class SlowOperation {
+
+    public enum Type {
+        GET, MULTI_GET, PUT, PUT_ALL, PUT_IF_ABSENT, PUT_ALL_IF_ABSENT, INCREMENT, REMOVE, REMOVE_IF_PRESENT, REMOVE_ALL
+    }
+
+    //Wall-clock time the operation finished at
+    long timestampMillis;
+
+    //Name of the node, e.g. host:port
+    String node;
+
+    Type type;
+
+    //Number of keys of the operation
+    int keys;
+
+    //Routing hash of the key, -1 for multi-key operations
+    double keyHash;
+
+    //Length of a byte array value written or read, -1 if unknown, e.g. for other values whose encoded size depends on the connector
+    long payloadBytes;
+
+    long durationNanos;
+}
@@ -0,0 +1,221 @@
+package com.unity.cache.slowlog;
+
+import com.unity.cache.exceptions.InternalException;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * SlowOperationLog keeps the last operations slower than a threshold in a fixed-size ring buffer
+ * <p>
+ * The buffer is allocated once and written without locks: a writer takes the next sequence number and claims its slot
+ * with a compare-and-set of the slot's stamp, so recording allocates nothing. A slot still being written by another
+ * thread is skipped and counted as dropped. Readers copy a slot and keep it only if its stamp did not change meanwhile.
+ * Fast operations only compare their duration with the threshold.
+ * </p>
+ * e.g.
+ * SlowOperationLog slowLog = new SlowOperationLog(1024, 20, TimeUnit.MILLISECONDS);
+ * slowLog.registerMBean("cache");
+ * node.setCache(new SlowOperationConnector(node.getCache(), slowLog, node.getHostname() + ":" + node.getPort()));
+ */
+public class SlowOperationLog implements SlowOperationLogMXBean {
+
+    private static final String MBEAN_NAME = "com.unity.cache:type=SlowOperationLog,name=";
+
+    private static final SlowOperation.Type[] TYPES = SlowOperation.Type.values();
+
+    //Stamps of slots which hold no operation or are being written
+    private static final long EMPTY = -1;
+    private static final long BUSY = -2;
+
+    //Fields of a slot in the data array
+    private static final int FIELDS = 5;
+    private static final int TIMESTAMP = 0;
+    private static final int KEY_HASH = 1;
+    private static final int PAYLOAD = 2;
+    private static final int DURATION = 3;
+    private static final int TYPE_AND_KEYS = 4;
+
+    private final int mask;
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLongArray stamps;
+    private final AtomicLongArray data;
+    private final AtomicReferenceArray<String> nodes;
+    private final LongAdder dropped = new LongAdder();
+
+    private volatile long thresholdNanos;
+
+    //Operations recorded before this sequence number are cleared
+    private volatile long clearedBefore;
+
+    /**
+     * @param capacity  number of operations kept, rounded up to a power of two
+     * @param threshold operations which take at least this long are recorded
+     * @param unit      unit of the threshold
+     * @throws IllegalArgumentException if capacity is not positive or threshold is negative
+     */
+    public SlowOperationLog(int capacity, long threshold, TimeUnit unit) {
+        if (capacity <= 0 || capacity > 1 << 24) {
+            throw new IllegalArgumentException("Capacity must be in range [1, 16777216]");
+        }
+        if (threshold < 0 || unit == null) {
+            throw new IllegalArgumentException("Threshold can not be negative");
+        }
+        int size = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        this.mask = size - 1;
+        this.stamps = new AtomicLongArray(size);
+        this.data = new AtomicLongArray(size * FIELDS);
+        this.nodes = new AtomicReferenceArray<>(size);
+        for (int i = 0; i < size; i++) {
+            stamps.set(i, EMPTY);
+        }
+        this.thresholdNanos = unit.toNanos(threshold);
+    }
+
+    /**
+     * Whether an operation of this duration is recorded
+     */
+    public boolean isSlow(long durationNanos) {
+        return durationNanos >= thresholdNanos;
+    }
+
+    /**
+     * Record a slow operation, it allocates nothing
+     *
+     * @param node          name of the node
+     * @param type          type of the operation
+     * @param keys          number of keys
+     * @param keyHash       routing hash of the key, -1 for multi-key operations
+     * @param payloadBytes  size of the value, -1 if unknown
+     * @param durationNanos duration of the operation
+     */
+    public void record(String node, SlowOperation.Type type, int keys, double keyHash, long payloadBytes, long durationNanos) {
+        long seq = sequence.getAndIncrement();
+        int slot = (int) seq & mask;
+        long stamp = stamps.get(slot);
+        if (stamp == BUSY || !stamps.compareAndSet(slot, stamp, BUSY)) {
+            dropped.increment();
+            return;
+        }
+        int base = slot * FIELDS;
+        data.set(base + TIMESTAMP, System.currentTimeMillis());
+        data.set(base + KEY_HASH, Double.doubleToRawLongBits(keyHash));
+        data.set(base + PAYLOAD, payloadBytes);
+        data.set(base + DURATION, durationNanos);
+        data.set(base + TYPE_AND_KEYS, ((long) type.ordinal() << 32) | (keys & 0xFFFFFFFFL));
+        nodes.set(slot, node);
+        stamps.set(slot, seq);
+    }
+
+    @Override
+    public List<SlowOperation> getSlowOperations() {
+        List<Recorded> recorded = new ArrayList<>();
+        long cleared = clearedBefore;
+        for (int slot = 0; slot <= mask; slot++) {
+            long stamp = stamps.get(slot);
+            if (stamp < cleared) {
+                continue;
+            }
+            int base = slot * FIELDS;
+            long typeAndKeys = data.get(base + TYPE_AND_KEYS);
+            SlowOperation operation = new SlowOperation(data.get(base + TIMESTAMP), nodes.get(slot), TYPES[(int) (typeAndKeys >>> 32)],
+                    (int) typeAndKeys, Double.longBitsToDouble(data.get(base + KEY_HASH)), data.get(base + PAYLOAD), data.get(base + DURATION));
+            //The slot was overwritten while it was copied
+            if (stamps.get(slot) == stamp) {
+                recorded.add(new Recorded(stamp, operation));
+            }
+        }
+        recorded.sort(Comparator.comparingLong((Recorded entry) -> entry.sequence).reversed());
+        List<SlowOperation> operations = new ArrayList<>(recorded.size());
+        recorded.forEach(entry -> operations.add(entry.operation));
+        return operations;
+    }
+
+    @Override
+    public long getThresholdMicros() {
+        return TimeUnit.NANOSECONDS.toMicros(thresholdNanos);
+    }
+
+    @Override
+    public void setThresholdMicros(long thresholdMicros) {
+        if (thresholdMicros < 0) {
+            throw new IllegalArgumentException("Threshold can not be negative");
+        }
+        this.thresholdNanos = TimeUnit.MICROSECONDS.toNanos(thresholdMicros);
+    }
+
+    @Override
+    public int getCapacity() {
+        return mask + 1;
+    }
+
+    @Override
+    public long getRecordedCount() {
+        return sequence.get() - dropped.sum();
+    }
+
+    @Override
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    /**
+     * Forget the operations recorded so far
+     */
+    @Override
+    public void clear() {
+        this.clearedBefore = sequence.get();
+    }
+
+    /**
+     * Register the log with the platform MBean server as com.unity.cache:type=SlowOperationLog,name=[name]
+     *
+     * @param name name of the log, e.g. the name of the cluster
+     * @return name the log is registered with
+     * @throws InternalException if the log can not be registered, e.g. the name is taken
+     */
+    public ObjectName registerMBean(String name) {
+        try {
+            ObjectName objectName = new ObjectName(MBEAN_NAME + name);
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+            return objectName;
+        } catch (JMException e) {
+            throw new InternalException("Failed to register slow operation log " + name, e);
+        }
+    }
+
+    /**
+     * Unregister the log registered with {@link #registerMBean(String)}, does nothing if it is not registered
+     */
+    public void unregisterMBean(String name) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = new ObjectName(MBEAN_NAME + name);
+            if (server.isRegistered(objectName)) {
+                server.unregisterMBean(objectName);
+            }
+        } catch (JMException e) {
+            throw new InternalException("Failed to unregister slow operation log " + name, e);
+        }
+    }
+
+    private static class Recorded {
+        private final long sequence;
+        private final SlowOperation operation;
+
+        private Recorded(long sequence, SlowOperation operation) {
+            this.sequence = sequence;
+            this.operation = operation;
+        }
+    }
+}
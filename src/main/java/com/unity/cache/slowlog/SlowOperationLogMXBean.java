@@ -0,0 +1,32 @@
+package com.unity.cache.slowlog;
+
+import java.util.List;
+
+/**
+ * Management interface of a {@link SlowOperationLog}, e.g. to read the slow operations with jconsole
+ */
+public interface SlowOperationLogMXBean {
+
+    long getThresholdMicros();
+
+    void setThresholdMicros(long thresholdMicros);
+
+    int getCapacity();
+
+    /**
+     * Number of slow operations recorded since the log was created, including the ones overwritten since
+     */
+    long getRecordedCount();
+
+    /**
+     * Slow operations not recorded because their slot was being written by another thread
+     */
+    long getDroppedCount();
+
+    /**
+     * Slow operations in the buffer, newest first
+     */
+    List<SlowOperation> getSlowOperations();
+
+    void clear();
+}
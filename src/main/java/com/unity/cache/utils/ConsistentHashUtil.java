@@ -5,6 +5,7 @@ import org.apache.commons.lang3.SerializationUtils;
 
 import java.io.Serializable;
 import java.math.BigInteger;
+import java.security.DigestException;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.List;
@@ -15,10 +16,28 @@ import java.util.List;
  * It is used to determine the node that the key is hashed to
  * It is also used to find the closest hash value in a list
  * The hash value is in range of [0, 1) and is calculated by MD5 algorithm
+ * String, Long and Integer keys are hashed without serializing them: their serialized form is written straight into
+ * a per-thread buffer (a constant class descriptor followed by the value for Long and Integer, the modified UTF-8
+ * form for String), so hashing them allocates nothing.
+ * Numeric keys are routed by {@link #myHashDecimal(long)}, the hash of their decimal string, which is also the form
+ * remote caches store and list them in.
  * </p>
  */
 public class ConsistentHashUtil {
 
+    private static final int MD5_LENGTH = 16;
+
+    //Stream header and type codes of java.io.ObjectOutputStream
+    private static final byte[] STREAM_HEADER = {(byte) 0xAC, (byte) 0xED, 0x00, 0x05};
+    private static final byte TC_STRING = 0x74;
+    private static final byte TC_LONGSTRING = 0x7C;
+
+    //Serialized form of a Long/Integer without its trailing value bytes
+    private static final byte[] LONG_PREFIX = serializedPrefix(0L, Long.BYTES);
+    private static final byte[] INT_PREFIX = serializedPrefix(0, Integer.BYTES);
+
+    private static final ThreadLocal<DigestBuffers> DIGEST_BUFFERS = ThreadLocal.withInitial(DigestBuffers::new);
+
     /**
      * Binary Search to find the closest hash value in the list
      */
@@ -48,10 +67,47 @@ public class ConsistentHashUtil {
         }
     }
 
+    /**
+     * Binary Search to find the closest hash value in the sorted array
+     *
+     * @see #binarySearch(List, double)
+     */
+    public static int binarySearch(double[] hashValues, double hash) {
+        int low = 0;
+        int high = hashValues.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            double midValue = hashValues[mid];
+            if (Double.compare(midValue, hash) == 0) {
+                return mid;
+            } else if (midValue < hash) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        if (high < 0) {
+            return 0;
+        } else if (low >= hashValues.length) {
+            return hashValues.length - 1;
+        } else {
+            return (hash - hashValues[high] < hashValues[low] - hash) ? high : low;
+        }
+    }
+
     /**
      * Get the hash value of the object which is in range of [0, 1)
      */
     public static double myHash(Serializable obj) {
+        if (obj instanceof String) {
+            return myHash((String) obj);
+        }
+        if (obj instanceof Long) {
+            return myHash(((Long) obj).longValue());
+        }
+        if (obj instanceof Integer) {
+            return myHash(((Integer) obj).intValue());
+        }
         try {
             MessageDigest md = MessageDigest.getInstance("MD5");
             byte[] bytes = md.digest(SerializationUtils.serialize(obj));
@@ -61,4 +117,209 @@ public class ConsistentHashUtil {
             throw new InternalException("Exception occurs when get hash: ", e);
         }
     }
+
+    /**
+     * Get the hash value of a long key without boxing or serializing it, it is equal to the hash value of the boxed Long
+     */
+    public static double myHash(long value) {
+        DigestBuffers buffers = DIGEST_BUFFERS.get();
+        byte[] input = buffers.longInput;
+        for (int i = input.length - 1, shift = 0; shift < Long.SIZE; i--, shift += Byte.SIZE) {
+            input[i] = (byte) (value >>> shift);
+        }
+        return buffers.digest(input);
+    }
+
+    /**
+     * Get the hash value of an int key without boxing or serializing it, it is equal to the hash value of the boxed Integer
+     */
+    public static double myHash(int value) {
+        DigestBuffers buffers = DIGEST_BUFFERS.get();
+        byte[] input = buffers.intInput;
+        for (int i = input.length - 1, shift = 0; shift < Integer.SIZE; i--, shift += Byte.SIZE) {
+            input[i] = (byte) (value >>> shift);
+        }
+        return buffers.digest(input);
+    }
+
+    /**
+     * Get the hash value of the decimal string of a numeric key without building the string, it is equal to the hash
+     * value of the serialized {@code Long.toString(value)}. The digits are written straight into the per-thread buffer.
+     */
+    public static double myHashDecimal(long value) {
+        //Work on the negative magnitude, so Long.MIN_VALUE needs no special case
+        long magnitude = value < 0 ? value : -value;
+        int digits = 1;
+        long power = 1;
+        for (long rest = magnitude / 10; rest != 0; rest /= 10) {
+            digits++;
+            power *= 10;
+        }
+        DigestBuffers buffers = DIGEST_BUFFERS.get();
+        buffers.write(STREAM_HEADER);
+        buffers.write(TC_STRING);
+        buffers.writeNumber(value < 0 ? digits + 1 : digits, Short.BYTES);
+        if (value < 0) {
+            buffers.write((byte) '-');
+        }
+        for (; power > 0; power /= 10) {
+            buffers.write((byte) ('0' - magnitude / power));
+            magnitude %= power;
+        }
+        return buffers.digestWritten();
+    }
+
+    /**
+     * Get the hash value of a string key without serializing it, it is equal to the hash value of the serialized string
+     * The string is written in its modified UTF-8 form, as ObjectOutputStream does, through a small per-thread buffer
+     */
+    public static double myHash(String value) {
+        return myHash(value, 0, value.length());
+    }
+
+    /**
+     * Get the hash value of a part of a string key, it is equal to the hash value of the serialized substring
+     * It allocates no substring, e.g. to hash the hash tag of a key
+     *
+     * @param value string key
+     * @param begin index of the first char, inclusive
+     * @param end   index of the last char, exclusive
+     */
+    public static double myHash(String value, int begin, int end) {
+        long utfLength = 0;
+        for (int i = begin; i < end; i++) {
+            char c = value.charAt(i);
+            utfLength += (c >= 0x0001 && c <= 0x007F) ? 1 : (c > 0x07FF ? 3 : 2);
+        }
+        DigestBuffers buffers = DIGEST_BUFFERS.get();
+        buffers.write(STREAM_HEADER);
+        if (utfLength <= 0xFFFF) {
+            buffers.write(TC_STRING);
+            buffers.writeNumber(utfLength, Short.BYTES);
+        } else {
+            buffers.write(TC_LONGSTRING);
+            buffers.writeNumber(utfLength, Long.BYTES);
+        }
+        for (int i = begin; i < end; i++) {
+            char c = value.charAt(i);
+            if (c >= 0x0001 && c <= 0x007F) {
+                buffers.write((byte) c);
+            } else if (c > 0x07FF) {
+                buffers.write((byte) (0xE0 | ((c >> 12) & 0x0F)));
+                buffers.write((byte) (0x80 | ((c >> 6) & 0x3F)));
+                buffers.write((byte) (0x80 | (c & 0x3F)));
+            } else {
+                buffers.write((byte) (0xC0 | ((c >> 6) & 0x1F)));
+                buffers.write((byte) (0x80 | (c & 0x3F)));
+            }
+        }
+        return buffers.digestWritten();
+    }
+
+    /**
+     * Convert an unsigned 128-bit value to the nearest double, the same way as {@link BigInteger#doubleValue()}
+     */
+    static double unsignedToDouble(long high, long low) {
+        if (high == 0 && low >= 0) {
+            return (double) low;
+        }
+        //Keep the 64 most significant bits and whether any bit below them is set
+        int shift = high == 0 ? 0 : Long.SIZE - Long.numberOfLeadingZeros(high);
+        long top;
+        boolean sticky;
+        if (shift == 0) {
+            top = low;
+            sticky = false;
+        } else if (shift == Long.SIZE) {
+            top = high;
+            sticky = low != 0;
+        } else {
+            top = (high << (Long.SIZE - shift)) | (low >>> shift);
+            sticky = (low << (Long.SIZE - shift)) != 0;
+        }
+        //Round the 64 bits to a 53-bit mantissa, half to even
+        long mantissa = top >>> 11;
+        long rest = top & 0x7FF;
+        if (rest > 0x400 || (rest == 0x400 && (sticky || (mantissa & 1) != 0))) {
+            mantissa++;
+        }
+        return Math.scalb((double) mantissa, 11 + shift);
+    }
+
+    private static byte[] serializedPrefix(Serializable zero, int valueLength) {
+        byte[] serialized = SerializationUtils.serialize(zero);
+        byte[] prefix = new byte[serialized.length - valueLength];
+        System.arraycopy(serialized, 0, prefix, 0, prefix.length);
+        return prefix;
+    }
+
+    /**
+     * Per-thread MD5 digest and buffers, the serialized prefix is copied once and only the value bytes are rewritten
+     */
+    private static final class DigestBuffers {
+
+        private final MessageDigest md;
+        private final byte[] longInput = new byte[LONG_PREFIX.length + Long.BYTES];
+        private final byte[] intInput = new byte[INT_PREFIX.length + Integer.BYTES];
+        private final byte[] output = new byte[MD5_LENGTH];
+        //Variable length input is written here and passed to the digest whenever the buffer is full
+        private final byte[] scratch = new byte[256];
+        private int written;
+
+        private DigestBuffers() {
+            try {
+                md = MessageDigest.getInstance("MD5");
+            } catch (NoSuchAlgorithmException e) {
+                throw new InternalException("Exception occurs when get hash: ", e);
+            }
+            System.arraycopy(LONG_PREFIX, 0, longInput, 0, LONG_PREFIX.length);
+            System.arraycopy(INT_PREFIX, 0, intInput, 0, INT_PREFIX.length);
+        }
+
+        private void write(byte b) {
+            if (written == scratch.length) {
+                md.update(scratch, 0, written);
+                written = 0;
+            }
+            scratch[written++] = b;
+        }
+
+        private void write(byte[] bytes) {
+            for (byte b : bytes) {
+                write(b);
+            }
+        }
+
+        private void writeNumber(long value, int bytes) {
+            for (int shift = (bytes - 1) * Byte.SIZE; shift >= 0; shift -= Byte.SIZE) {
+                write((byte) (value >>> shift));
+            }
+        }
+
+        private double digestWritten() {
+            md.update(scratch, 0, written);
+            written = 0;
+            return finish();
+        }
+
+        private double digest(byte[] input) {
+            md.update(input);
+            return finish();
+        }
+
+        private double finish() {
+            try {
+                md.digest(output, 0, MD5_LENGTH);
+            } catch (DigestException e) {
+                throw new InternalException("Exception occurs when get hash: ", e);
+            }
+            long high = 0;
+            long low = 0;
+            for (int i = 0; i < Long.BYTES; i++) {
+                high = (high << Byte.SIZE) | (output[i] & 0xFF);
+                low = (low << Byte.SIZE) | (output[i + Long.BYTES] & 0xFF);
+            }
+            return unsignedToDouble(high, low) % 1000000 / 1000000.0;
+        }
+    }
 }
@@ -0,0 +1,60 @@
+package com.unity.cache.utils;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * RateLimiter is a token bucket which limits the rate of permits (e.g. operations or bytes) per second
+ * <p>
+ * Up to one second worth of unused permits can be accumulated and spent as a burst.
+ * A request for more permits than the rate is granted, but the following callers wait for the debt to be paid.
+ * A rate of 0 or less means unlimited.
+ * </p>
+ */
+public class RateLimiter {
+
+    private static final long BURST_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final double nanosPerPermit;
+    private long nextFreeNanos;
+
+    public RateLimiter(double permitsPerSecond) {
+        this.nanosPerPermit = permitsPerSecond > 0 ? TimeUnit.SECONDS.toNanos(1) / permitsPerSecond : 0;
+        this.nextFreeNanos = System.nanoTime() - BURST_NANOS;
+    }
+
+    /**
+     * Whether this limiter limits anything
+     */
+    public boolean isUnlimited() {
+        return nanosPerPermit == 0;
+    }
+
+    /**
+     * Acquire permits, block until they are available
+     *
+     * @param permits number of permits
+     * @return nanoseconds spent waiting
+     */
+    public long acquire(long permits) {
+        if (isUnlimited() || permits <= 0) {
+            return 0;
+        }
+        long waitNanos = reserve(permits);
+        long deadline = System.nanoTime() + waitNanos;
+        long remaining = waitNanos;
+        while (remaining > 0) {
+            LockSupport.parkNanos(remaining);
+            remaining = deadline - System.nanoTime();
+        }
+        return waitNanos;
+    }
+
+    private synchronized long reserve(long permits) {
+        long now = System.nanoTime();
+        nextFreeNanos = Math.max(nextFreeNanos, now - BURST_NANOS);
+        long waitNanos = Math.max(0, nextFreeNanos - now);
+        nextFreeNanos += (long) (permits * nanosPerPermit);
+        return waitNanos;
+    }
+}
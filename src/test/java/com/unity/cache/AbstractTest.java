@@ -4,7 +4,6 @@ import com.unity.cache.connector.CacheableConnector;
 import com.unity.cache.connector.DummyConnector;
 import com.unity.cache.node.Node;
 import com.unity.cache.node.NodeManager;
-import com.unity.cache.utils.ConsistentHashUtil;
 import org.jeasy.random.EasyRandom;
 import org.jeasy.random.EasyRandomParameters;
 
@@ -68,7 +67,7 @@ public class AbstractTest {
     protected List<Node> getNodes(int nodeNum) {
         List<Node> nodeList = new ArrayList<>(nodeNum);
         for (int i = 0; i < nodeNum; i++) {
-            Node node = createObject(generator, Node.class);
+            Node node = createObject(Node.class);
             node.setHash(null);
             nodeList.add(node);
         }
@@ -82,7 +81,7 @@ public class AbstractTest {
     protected void assertKeyDispatched(List<Node> nodeList, int amount) {
         for (int i = 0; i < amount; i++) { //3 times of node size
             Node selectNode = nodeManager.nodeGet(i);
-            double keyHash = ConsistentHashUtil.myHash(i);
+            double keyHash = CacheKey.of(i).getHash();
             double diff = Math.abs(keyHash - selectNode.getHash());
             Node maxHashNode = findMaxHashNode(nodeList);
             Node minHashNode = findMinHashNode(nodeList);
@@ -1,20 +1,37 @@
 package com.unity.cache;
 
+import com.unity.cache.compression.ValueCompressor;
+import com.unity.cache.connector.CompressingConnector;
 import com.unity.cache.connector.DummyConnector;
+import com.unity.cache.connector.ForwardingConnector;
+import com.unity.cache.exceptions.DeadlineExceededException;
 import com.unity.cache.node.Node;
 import com.unity.cache.node.NodeManager;
 import com.unity.cache.node.NodeType;
+import com.unity.cache.node.RebalanceConfig;
+import com.unity.cache.node.RebalanceProgress;
+import com.unity.cache.utils.ConsistentHashUtil;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import org.junit.jupiter.api.Assumptions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
 import java.io.Serializable;
+import java.lang.management.ManagementFactory;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.IntConsumer;
+import java.util.stream.Collectors;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -26,12 +43,24 @@ import static org.assertj.core.api.Assertions.assertThatThrownBy;
  * 1. Test cache add/get/shutdown/remove given fixed node number
  * 2. Test cache add/get/shutdown/remove given dynamic node number
  * 3. Test cache add/get/shutdown/remove given dynamic node number and dynamic replica number
+ * 4. Test pre-hashed cache keys and multi-get
+ * 5. Test parallel, rate-limited rebalancing
+ * 6. Test reads, writes and removes while a topology change runs in the background
+ * 7. Test the primitive long key facade
+ * 8. Test deadlines of requests
+ * 9. Test the steady-state hit path does not allocate
+ * 10. Test the lazy cluster-wide scan
+ * 11. Test atomic counters and namespace invalidation by generation
+ * 12. Test keys with the same hash tag are co-located
+ * 13. Test keys listed back as Strings are moved to the node they were written to
  * <p>
  */
 
 class DistributedCacheTest extends AbstractTest {
 
     private final static Map<Serializable, Serializable> DATA = new HashMap<>();
+    //Nodes 1 to 3 are created in setUp, new nodes get the following addresses
+    private final static AtomicInteger NEW_NODE_COUNTER = new AtomicInteger(3);
 
     private final NodeManager nodeManager = NodeManager.getInstance();
     private DistributedCache distributedCache;
@@ -57,6 +86,7 @@ class DistributedCacheTest extends AbstractTest {
         nodeList.add(node2);
         nodeList.add(node3);
         nodeManager.init(nodeList, 3);
+        nodeManager.setRebalanceConfig(RebalanceConfig.builder().build());
         distributedCache = new DistributedCache(nodeManager);
     }
 
@@ -134,6 +164,37 @@ class DistributedCacheTest extends AbstractTest {
         assertThat(totalCacheContentAmount).isEqualTo(AMOUNT);
     }
 
+    @Test
+    void testCache_givenAddNewNode_rateLimitedRebalance_allPass() throws IOException {
+        //Rebalance with small batches and a global cap, progress is reported after every batch
+        int AMOUNT = 1000;
+        for (int i = 0; i < AMOUNT; i++) {
+            distributedCache.put(new TestKey(i), new TestValue("value" + i));
+        }
+        AtomicInteger reports = new AtomicInteger();
+        nodeManager.setRebalanceConfig(RebalanceConfig.builder()
+                .batchSize(50)
+                .globalOpsPerSecond(500)
+                .perNodeBytesPerSecond(10_000_000)
+                .progressListener(progress -> reports.incrementAndGet())
+                .build());
+        nodeManager.nodeAdded(createNewNode());
+
+        RebalanceProgress progress = nodeManager.getRebalanceProgress();
+        assertThat(progress.isFinished()).isTrue();
+        assertThat(progress.getFraction()).isEqualTo(1);
+        assertThat(progress.getMovedEntries()).isEqualTo(progress.getTotalEntries()).isPositive();
+        assertThat(progress.getMovedBytes()).isPositive();
+        assertThat(reports.get()).isGreaterThan(1);
+        if (progress.getTotalEntries() > 500) {
+            assertThat(progress.getThrottledMillis()).isPositive();
+        }
+        for (int i = 0; i < AMOUNT; i++) {
+            assertThat(distributedCache.get(new TestKey(i))).contains(new TestValue("value" + i));
+        }
+        assertThat(getTotalCacheContentAmount(4)).isEqualTo(AMOUNT);
+    }
+
     @Test
     void testCache_givenShutdownNode_allPass() throws InterruptedException, IOException {
         //Put data to 3-node 3-replica cache then shutdown one node
@@ -177,6 +238,410 @@ class DistributedCacheTest extends AbstractTest {
         assertThat(totalCacheContentAmount).isEqualTo(4 - nodeToRemove.getCache().getAllFromCache().size());
     }
 
+    @Test
+    void testCache_givenAsyncAddNode_noMissAndNoClobberDuringMigration() throws IOException {
+        //Slow migration to a new node, reads never miss and foreground writes and removes win over migrated entries
+        int AMOUNT = 2000;
+        for (int i = 0; i < AMOUNT; i++) {
+            distributedCache.put(new TestKey(i), new TestValue("value" + i));
+        }
+        nodeManager.setRebalanceConfig(RebalanceConfig.builder().batchSize(20).globalOpsPerSecond(200).build());
+        CompletableFuture<RebalanceProgress> future = nodeManager.nodeAddedAsync(createNewNode());
+
+        boolean sawMigration = false;
+        for (int i = 0; !future.isDone() || i < AMOUNT; i = (i + 1) % AMOUNT) {
+            sawMigration |= nodeManager.isMigrating();
+            TestKey key = new TestKey(i);
+            if (i % 10 == 0) {
+                distributedCache.put(key, new TestValue("new" + i));
+            } else if (i % 10 == 1) {
+                distributedCache.remove(key);
+            } else {
+                assertThat(distributedCache.get(key)).contains(new TestValue("value" + i));
+            }
+            if (future.isDone() && i == AMOUNT - 1) {
+                break;
+            }
+        }
+        assertThat(sawMigration).isTrue();
+        assertThat(future.join().getMovedEntries()).isPositive();
+        assertThat(nodeManager.isMigrating()).isFalse();
+        for (int i = 0; i < AMOUNT; i++) {
+            Optional<Object> value = distributedCache.get(new TestKey(i));
+            if (i % 10 == 0) {
+                assertThat(value).contains(new TestValue("new" + i));
+            } else if (i % 10 == 1) {
+                assertThat(value).isNotPresent();
+            } else {
+                assertThat(value).contains(new TestValue("value" + i));
+            }
+        }
+        assertThat(getTotalCacheContentAmount(4)).isEqualTo(AMOUNT - AMOUNT / 10);
+    }
+
+    @Test
+    void testCache_givenPutWhileEntryMoved_newValueKept() throws IOException {
+        for (int i = 0; i < 200; i++) {
+            distributedCache.put("key" + i, "old" + i);
+        }
+        //A foreground write lands on the new owner right after the migration wrote the entry there
+        AtomicReference<CacheKey> written = new AtomicReference<>();
+        Node node = new Node("node" + NEW_NODE_COUNTER.incrementAndGet(), 123, NodeType.REDIS);
+        node.setCache(new DummyConnector() {
+            @Override
+            public void putAllIfAbsentToCache(Map<CacheKey, Object> entries) {
+                super.putAllIfAbsentToCache(entries);
+                if (!entries.isEmpty() && written.compareAndSet(null, entries.keySet().iterator().next())) {
+                    distributedCache.put(written.get(), "new");
+                }
+            }
+        });
+        nodeManager.nodeAdded(node);
+
+        assertThat(written.get()).isNotNull();
+        assertThat(distributedCache.get(written.get())).contains("new");
+        assertThat(node.getCache().getFromCache(written.get())).contains("new");
+    }
+
+    @Test
+    void testCache_givenAsyncShutdownNode_getAllFallsBackDuringMigration() throws IOException {
+        //Slow migration away from a leaving node, multi-get finds the entries which are not moved yet
+        Node node4 = createNewNode();
+        nodeManager.nodeAdded(node4);
+        int AMOUNT = 2000;
+        List<Serializable> keys = new ArrayList<>();
+        for (int i = 0; i < AMOUNT; i++) {
+            keys.add(new TestKey(i));
+            distributedCache.put(new TestKey(i), new TestValue("value" + i));
+        }
+        nodeManager.setRebalanceConfig(RebalanceConfig.builder().batchSize(20).globalOpsPerSecond(200).build());
+        CompletableFuture<RebalanceProgress> future = nodeManager.nodeShuttingDownAsync(node4);
+        while (!future.isDone()) {
+            assertThat(distributedCache.getAll(keys)).hasSize(AMOUNT);
+        }
+        future.join();
+        assertThat(node4.getCache().getAllFromCache()).isEmpty();
+        assertThat(getTotalCacheContentAmount(3)).isEqualTo(AMOUNT);
+    }
+
+    @Test
+    void testCache_givenCacheKey_sameAsRawKey() {
+        //Pre-hashed keys are routed and stored exactly like the raw keys they wrap
+        putEntryToCache();
+        DATA.forEach((key, value) -> {
+            CacheKey cacheKey = CacheKey.of(key);
+            assertThat(cacheKey.getHash()).isEqualTo(ConsistentHashUtil.myHash(key.toString()));
+            assertThat(nodeManager.nodeGet(cacheKey)).isSameAs(nodeManager.nodeGet(key));
+            assertThat(distributedCache.get(cacheKey)).contains(value);
+        });
+        CacheKey cacheKey = CacheKey.of(createObject(TestKey.class));
+        distributedCache.put(cacheKey, "value");
+        assertThat(distributedCache.get(cacheKey.getKey())).contains("value");
+        distributedCache.remove(cacheKey);
+        assertThat(distributedCache.get(cacheKey)).isNotPresent();
+        assertThat(CacheKey.of(cacheKey)).isSameAs(cacheKey);
+    }
+
+    @Test
+    void testCache_getAll_givenKeysOnAllNodes_allPass() {
+        //Multi-get fans out to all nodes and only returns the keys found
+        putEntryToCache();
+        List<Serializable> keys = new ArrayList<>(DATA.keySet());
+        keys.add(createObject(TestKey.class));
+        assertThat(distributedCache.getAll(keys)).isEqualTo(DATA);
+        assertThat(distributedCache.getAll(new ArrayList<>())).isEmpty();
+    }
+
+    @Test
+    void testLongKeyCache_givenLongKeys_sharedWithBoxedKeys() {
+        AtomicInteger multiPuts = new AtomicInteger();
+        AtomicInteger multiRemoves = new AtomicInteger();
+        for (Node node : nodeManager.getHashedNodeList()) {
+            node.setCache(new ForwardingConnector(node.getCache()) {
+                @Override
+                public void putAllToCache(Map<CacheKey, Object> entries) {
+                    multiPuts.incrementAndGet();
+                    super.putAllToCache(entries);
+                }
+
+                @Override
+                public void removeAllFromCache(Collection<CacheKey> keys) {
+                    multiRemoves.incrementAndGet();
+                    super.removeAllFromCache(keys);
+                }
+            });
+        }
+        LongKeyCache longKeyCache = new LongKeyCache(distributedCache);
+        long[] keys = new long[100];
+        Object[] values = new Object[100];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = i * 1_000_003L - 50_000_000L;
+            values[i] = "value" + i;
+        }
+        longKeyCache.putAll(keys, values);
+        //One multi-put per node
+        assertThat(multiPuts).hasValue(3);
+        for (int i = 0; i < keys.length; i++) {
+            assertThat(longKeyCache.get(keys[i])).contains(values[i]);
+            assertThat(distributedCache.get(keys[i])).contains(values[i]);
+            assertThat(nodeManager.nodeGet(CacheKey.of(keys[i])).getNodeId()).isEqualTo(nodeManager.nodeGet(Long.valueOf(keys[i])).getNodeId());
+            assertThat(CacheKey.of(keys[i]).getEncodedBytes()).isEqualTo(Long.toString(keys[i]).getBytes());
+        }
+
+        distributedCache.put(Long.MAX_VALUE, "boxed");
+        longKeyCache.remove(keys[0]);
+        Object[] found = longKeyCache.getAll(new long[]{keys[0], keys[1], Long.MAX_VALUE, Long.MIN_VALUE});
+        assertThat(found).containsExactly(null, values[1], "boxed", null);
+
+        longKeyCache.removeAll(keys);
+        assertThat(multiRemoves).hasValue(3);
+        assertThat(longKeyCache.getAll(keys)).containsOnlyNulls();
+        assertThatThrownBy(() -> longKeyCache.putAll(new long[1], new Object[2])).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> longKeyCache.put(1L, null)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void testDeadline_givenExpiredOrOpenDeadline_abandonOrServe() {
+        Deadline open = Deadline.after(1, TimeUnit.MINUTES);
+        distributedCache.put("key", "value", open);
+        assertThat(distributedCache.get("key", open)).contains("value");
+        List<Serializable> keys = new ArrayList<>();
+        keys.add("key");
+        keys.add("missing");
+        assertThat(distributedCache.getAll(keys, open)).containsOnlyKeys("key");
+
+        Deadline expired = Deadline.after(0, TimeUnit.MILLISECONDS);
+        assertThatThrownBy(() -> distributedCache.get("key", expired)).isInstanceOf(DeadlineExceededException.class);
+        assertThatThrownBy(() -> distributedCache.getAll(keys, expired)).isInstanceOf(DeadlineExceededException.class);
+        assertThatThrownBy(() -> distributedCache.put("key", "other", expired)).isInstanceOf(DeadlineExceededException.class);
+        assertThatThrownBy(() -> distributedCache.remove("key", expired)).isInstanceOf(DeadlineExceededException.class);
+        assertThatThrownBy(() -> distributedCache.get("key", null)).isInstanceOf(IllegalArgumentException.class);
+        assertThat(distributedCache.get("key", Deadline.none())).contains("value");
+
+        distributedCache.remove("key", open);
+        assertThat(distributedCache.get("key")).isNotPresent();
+    }
+
+    @Test
+    void testHitPath_givenSteadyState_allocatesOnlyTheResult() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        Assumptions.assumeTrue(threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled());
+        CacheKey[] cacheKeys = new CacheKey[64];
+        String[] keys = new String[cacheKeys.length];
+        for (int i = 0; i < cacheKeys.length; i++) {
+            keys[i] = "key" + i;
+            cacheKeys[i] = CacheKey.of(keys[i]);
+            distributedCache.put(cacheKeys[i], "value" + i);
+        }
+        LongKeyCache longKeyCache = new LongKeyCache(distributedCache);
+        longKeyCache.put(42L, "value");
+
+        //The Optional returned by the connector is the only allocation of a pre-hashed get
+        assertThat(bytesPerOperation(threads, i -> distributedCache.get(cacheKeys[i & 63]))).isLessThanOrEqualTo(16);
+        assertThat(bytesPerOperation(threads, i -> distributedCache.put(cacheKeys[i & 63], "value"))).isLessThanOrEqualTo(0);
+        //Raw keys also allocate their CacheKey, numeric keys their boxed value
+        assertThat(bytesPerOperation(threads, i -> distributedCache.get(keys[i & 63]))).isLessThanOrEqualTo(64);
+        assertThat(bytesPerOperation(threads, i -> longKeyCache.get(42L))).isLessThanOrEqualTo(80);
+    }
+
+    @Test
+    void testScan_givenEntriesOnAllNodes_streamAllOrPrefixed() {
+        for (int i = 0; i < 300; i++) {
+            distributedCache.put("user:" + i, i);
+            distributedCache.put("order:" + i, i);
+        }
+        Map<Serializable, Object> all = new HashMap<>();
+        distributedCache.scan().forEach(entry -> all.put(entry.getKey(), entry.getValue()));
+        assertThat(all).hasSize(600).containsEntry("user:7", 7).containsEntry("order:299", 299);
+
+        List<Serializable> users = distributedCache.scan("user:", 16).parallel()
+                .map(Map.Entry::getKey).collect(Collectors.toList());
+        assertThat(users).hasSize(300).doesNotHaveDuplicates().allMatch(key -> key.toString().startsWith("user:"));
+        assertThat(distributedCache.scan("missing:").count()).isZero();
+        assertThatThrownBy(() -> distributedCache.scan(null, 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void testNamespacedCache_givenInvalidate_onlyNamespaceCleared() {
+        NamespacedCache users = new NamespacedCache(distributedCache, "users", 0);
+        NamespacedCache orders = new NamespacedCache(distributedCache, "orders");
+        for (int i = 0; i < 100; i++) {
+            users.put(i, "user" + i);
+            orders.put(i, "order" + i);
+        }
+        long generation = users.getGeneration();
+        assertThat(generation).isGreaterThan(1);
+        assertThat(users.get(7)).contains("user7");
+
+        assertThat(users.invalidate()).isEqualTo(generation + 1);
+        for (int i = 0; i < 100; i++) {
+            assertThat(users.get(i)).isNotPresent();
+            assertThat(orders.get(i)).contains("order" + i);
+        }
+        //Another client of the namespace sees the new generation
+        NamespacedCache otherClient = new NamespacedCache(distributedCache, "users", 0);
+        otherClient.put("key", "value");
+        assertThat(users.get("key")).contains("value");
+
+        //A lost counter starts again from the clock, old generations are not read again
+        distributedCache.remove("namespace:users");
+        assertThat(users.getGeneration()).isGreaterThan(generation + 1);
+        assertThat(users.get("key")).isNotPresent();
+        assertThatThrownBy(() -> new NamespacedCache(distributedCache, "a:b")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void testIncrement_givenAsyncAddNode_countNotRestarted() throws IOException {
+        for (int i = 0; i < 50; i++) {
+            distributedCache.increment("counter" + i, 10);
+        }
+        nodeManager.setRebalanceConfig(RebalanceConfig.builder().batchSize(5).globalOpsPerSecond(100).build());
+        CompletableFuture<RebalanceProgress> future = nodeManager.nodeAddedAsync(createNewNode());
+        for (int i = 0; i < 50; i++) {
+            assertThat(distributedCache.increment("counter" + i, 1)).isEqualTo(11);
+        }
+        future.join();
+        for (int i = 0; i < 50; i++) {
+            assertThat(distributedCache.get("counter" + i)).contains("11");
+        }
+    }
+
+    @Test
+    void testIncrement_givenCompressingNodes_countersIncrementedAfterRebalance() throws IOException {
+        for (Node node : nodeManager.getHashedNodeList()) {
+            node.setCache(new CompressingConnector(node.getCache(), new ValueCompressor(0)));
+        }
+        for (int i = 0; i < 50; i++) {
+            distributedCache.increment("counter" + i, 10);
+        }
+        Node added = createNewNode();
+        added.setCache(new CompressingConnector(added.getCache(), new ValueCompressor(0)));
+        nodeManager.nodeAdded(added);
+        //Migrated counters are stored as decimal strings, so the new owner can increment them
+        for (int i = 0; i < 50; i++) {
+            assertThat(distributedCache.increment("counter" + i, 1)).isEqualTo(11);
+        }
+        assertThat(distributedCache.get("counter0")).contains("11");
+    }
+
+    @Test
+    void testIncrement_givenOwnerShutDownDuringIncrement_countCarriedOver() {
+        for (int i = 0; i < 4; i++) {
+            distributedCache.increment("counter", 1);
+        }
+        //The owner leaves the ring after the key was routed to it and before its increment is applied
+        AtomicInteger armed = new AtomicInteger(1);
+        for (Node node : nodeManager.getHashedNodeList()) {
+            node.setCache(new ForwardingConnector(node.getCache()) {
+                @Override
+                public long incrementInCache(CacheKey key, long delta) {
+                    if (armed.getAndDecrement() == 1) {
+                        nodeManager.nodeShuttingDown(node);
+                    }
+                    return super.incrementInCache(key, delta);
+                }
+            });
+        }
+        Node owner = nodeManager.nodeGet("counter");
+        distributedCache.increment("counter", 1);
+
+        assertThat(nodeManager.nodeGet("counter").sameNode(owner)).isFalse();
+        assertThat(distributedCache.get("counter")).contains("5");
+        assertThat(distributedCache.increment("counter", 1, Deadline.after(1, TimeUnit.SECONDS))).isEqualTo(6);
+        assertThatThrownBy(() -> distributedCache.increment("counter", 1, Deadline.after(0, TimeUnit.MILLISECONDS)))
+                .isInstanceOf(DeadlineExceededException.class);
+        assertThat(distributedCache.get("counter")).contains("6");
+    }
+
+    @Test
+    void testHashTag_givenKeysWithSameTag_coLocatedAndReadWithOneMultiGet() throws IOException {
+        AtomicInteger multiGets = new AtomicInteger();
+        for (Node node : nodeManager.getHashedNodeList()) {
+            node.setCache(new ForwardingConnector(node.getCache()) {
+                @Override
+                public Map<CacheKey, Object> multiGetFromCache(Collection<CacheKey> keys) {
+                    multiGets.incrementAndGet();
+                    return super.multiGetFromCache(keys);
+                }
+            });
+        }
+        List<Serializable> keys = new ArrayList<>();
+        for (String field : new String[]{"profile", "settings", "sessions", "cart", "orders"}) {
+            keys.add("{user:42}:" + field);
+            distributedCache.put("{user:42}:" + field, field);
+        }
+        for (Serializable key : keys) {
+            assertThat(CacheKey.of(key).getHash()).isEqualTo(CacheKey.of("user:42").getHash());
+        }
+        assertThat(distributedCache.getAll(keys)).hasSize(5).containsEntry("{user:42}:cart", "cart");
+        assertThat(multiGets).hasValue(1);
+
+        //Only the first non-empty tag counts, keys without one are hashed whole
+        assertThat(CacheKey.of("a{b}{c}").getHash()).isEqualTo(ConsistentHashUtil.myHash("b"));
+        assertThat(CacheKey.of("{}:user:42").getHash()).isEqualTo(ConsistentHashUtil.myHash("{}:user:42"));
+        assertThat(CacheKey.of("{user:42:profile").getHash()).isEqualTo(ConsistentHashUtil.myHash("{user:42:profile"));
+
+        //A migration moves the keys of a tag together
+        nodeManager.nodeAdded(createNewNode());
+        Node owner = nodeManager.nodeGet("user:42");
+        for (Serializable key : keys) {
+            assertThat(nodeManager.nodeGet(key).getNodeId()).isEqualTo(owner.getNodeId());
+            assertThat(owner.getCache().getFromCache(key)).isPresent();
+        }
+    }
+
+    @Test
+    void testRebalance_givenNodesListingKeysAsStrings_keysMovedToTheirOwner() throws IOException {
+        List<Node> nodeList = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Node node = new Node("string" + i, 123, NodeType.REDIS);
+            node.setCache(new StringKeyConnector());
+            nodeList.add(node);
+        }
+        nodeManager.init(nodeList, 3);
+        Map<Serializable, String> entries = new HashMap<>();
+        for (int i = 0; i < 100; i++) {
+            entries.put(i, "int" + i);
+            entries.put(-1000L * i - 1, "long" + i);
+            entries.put("key" + i, "string" + i);
+            entries.put(new TestKey(i), "object" + i);
+        }
+        entries.forEach(distributedCache::put);
+        //Keys are routed by their string form, the form the node lists them in
+        assertThat(CacheKey.of(42).getHash()).isEqualTo(CacheKey.of("42").getHash()).isEqualTo(CacheKey.of(42L).getHash());
+        assertThat(CacheKey.of(Long.MIN_VALUE).getHash()).isEqualTo(CacheKey.of(Long.toString(Long.MIN_VALUE)).getHash());
+
+        Node added = new Node("string3", 123, NodeType.REDIS);
+        added.setCache(new StringKeyConnector());
+        nodeManager.nodeAdded(added);
+        nodeManager.nodeShuttingDown(nodeList.get(0));
+        entries.forEach((key, value) -> {
+            assertThat(distributedCache.get(key)).contains(value);
+            assertThat(nodeManager.nodeGet(key).getCache().getFromCache(key)).contains(value);
+        });
+        int total = 0;
+        for (Node node : nodeManager.getHashedNodeList()) {
+            total += node.getCache().getAllFromCache().size();
+        }
+        assertThat(total).isEqualTo(entries.size());
+    }
+
+    /**
+     * Average bytes allocated by the current thread per operation, after a warm-up
+     */
+    private static long bytesPerOperation(com.sun.management.ThreadMXBean threads, IntConsumer operation) {
+        int operations = 200_000;
+        for (int i = 0; i < operations; i++) {
+            operation.accept(i);
+        }
+        long threadId = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < operations; i++) {
+            operation.accept(i);
+        }
+        return (threads.getThreadAllocatedBytes(threadId) - before) / operations;
+    }
+
     @Test
     void testValidateKey_givenInvalidKey_throwException() {
         assertThatThrownBy(() -> distributedCache.put(null, "value")).isInstanceOf(IllegalArgumentException.class);
@@ -205,12 +670,53 @@ class DistributedCacheTest extends AbstractTest {
     }
 
     private Node createNewNode() throws IOException {
-        Node node = new Node("node1", 123, NodeType.REDIS);
+        Node node = new Node("node" + NEW_NODE_COUNTER.incrementAndGet(), 123, NodeType.REDIS);
         node.setCache(new DummyConnector());
         return node;
     }
 }
 
+/**
+ * Connector which stores keys by their string form and lists them back as Strings, as Redis does
+ */
+class StringKeyConnector extends DummyConnector {
+
+    @Override
+    public Optional<Object> getFromCache(Serializable key) {
+        return super.getFromCache(key.toString());
+    }
+
+    @Override
+    public void putToCache(Serializable key, Object value) {
+        super.putToCache(key.toString(), value);
+    }
+
+    @Override
+    public boolean putIfAbsentToCache(CacheKey key, Object value) {
+        return super.putIfAbsentToCache(CacheKey.of(key.getEncoded()), value);
+    }
+
+    @Override
+    public long incrementInCache(CacheKey key, long delta) {
+        return super.incrementInCache(CacheKey.of(key.getEncoded()), delta);
+    }
+
+    @Override
+    public boolean removeFromCacheIfPresent(CacheKey key) {
+        return super.removeFromCacheIfPresent(CacheKey.of(key.getEncoded()));
+    }
+
+    @Override
+    public void removeFromCache(Serializable key) {
+        super.removeFromCache(key.toString());
+    }
+
+    @Override
+    public boolean listsKeysAsStrings() {
+        return true;
+    }
+}
+
 @Data
 @AllArgsConstructor
 class TestKey implements Serializable {
@@ -221,4 +727,4 @@ class TestKey implements Serializable {
 @AllArgsConstructor
 class TestValue implements Serializable {
     private String value;
-}
\ No newline at end of file
+}
@@ -0,0 +1,178 @@
+package com.unity.cache.balancer;
+
+import com.unity.cache.AbstractTest;
+import com.unity.cache.DistributedCache;
+import com.unity.cache.connector.DummyConnector;
+import com.unity.cache.connector.LoadTrackingConnector;
+import com.unity.cache.node.Node;
+import com.unity.cache.node.NodeType;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Test cases for {@link RingBalancer} and {@link ConnectorLoadSource}
+ * <p>
+ * Test cases of the balancer are divided into 3 parts:
+ * 1. Test the plan moves a neighbour of an overloaded node within the budget, and nothing if the load is balanced
+ * 2. Test a round applies the plan through the migration, or only reports it in a dry run
+ * 3. Test the load is sampled from the connectors
+ * </p>
+ */
+class RingBalancerTest extends AbstractTest {
+
+    @Test
+    void testPlan_givenOverloadedNode_moveNeighbourWithinBudget() throws Exception {
+        nodeManager.init(dummyNodes(4), 0);
+        List<Node> nodes = nodeManager.getHashedNodeList();
+        List<NodeLoad> loads = loads(nodes, 1, 400);
+        RingBalancer balancer = new RingBalancer(nodeManager, sampled -> loads, BalancerConfig.builder()
+                .maxShiftPerMove(0.05).maxMovesPerRound(2).build());
+
+        BalancePlan plan = balancer.plan(loads);
+        assertThat(plan.getScores().get(1)).isGreaterThan(1.25);
+        assertThat(plan.getMoves()).isNotEmpty().hasSizeLessThanOrEqualTo(2);
+        RingMove first = plan.getMoves().get(0);
+        assertThat(first.getRelievedNode().getNodeId()).isEqualTo(nodes.get(1).getNodeId());
+        assertThat(first.getNode().getNodeId()).isIn(nodes.get(0).getNodeId(), nodes.get(1).getNodeId(), nodes.get(2).getNodeId());
+        assertThat(first.getShiftedFraction()).isPositive().isLessThanOrEqualTo(0.05);
+        assertThat(first.getMaxScoreAfter()).isLessThan(first.getMaxScoreBefore());
+        //Planning does not change the ring
+        assertThat(nodeManager.getHashedNodeList()).isEqualTo(nodes);
+    }
+
+    @Test
+    void testPlan_givenBalancedOrUnknownLoad_noMove() throws Exception {
+        nodeManager.init(dummyNodes(3), 0);
+        List<Node> nodes = nodeManager.getHashedNodeList();
+        RingBalancer balancer = new RingBalancer(nodeManager, sampled -> null, BalancerConfig.builder().build());
+        assertThat(balancer.plan(loads(nodes, 0, 110)).getMoves()).isEmpty();
+
+        //No request and no memory reported, there is nothing to balance by
+        List<NodeLoad> unknown = new ArrayList<>();
+        nodes.forEach(node -> unknown.add(new NodeLoad(node, 0, -1, -1)));
+        BalancePlan plan = balancer.plan(unknown);
+        assertThat(plan.getScores()).isEmpty();
+        assertThat(plan.getMoves()).isEmpty();
+
+        assertThatThrownBy(() -> new RingBalancer(nodeManager, sampled -> null, BalancerConfig.builder().imbalanceThreshold(0.5).build()))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new RingBalancer(nodeManager, sampled -> null, BalancerConfig.builder().maxShiftPerMove(0).build()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void testRunOnce_givenDryRun_reportPlanOnly() throws Exception {
+        nodeManager.init(dummyNodes(3), 0);
+        List<Node> nodes = nodeManager.getHashedNodeList();
+        AtomicReference<BalancePlan> reported = new AtomicReference<>();
+        RingBalancer balancer = new RingBalancer(nodeManager, sampled -> loads(sampled, 0, 500), BalancerConfig.builder()
+                .maxShiftPerMove(0.1).dryRun(true).planListener(reported::set).build());
+
+        BalancePlan plan = balancer.runOnce();
+        assertThat(plan.getMoves()).hasSize(1);
+        assertThat(plan.isApplied()).isFalse();
+        assertThat(reported.get()).isSameAs(plan);
+        assertThat(nodeManager.getHashedNodeList()).isEqualTo(nodes);
+    }
+
+    @Test
+    void testRunOnce_givenOverloadedNode_moveAppliedAndEntriesReadable() throws Exception {
+        nodeManager.init(dummyNodes(3), 0);
+        DistributedCache cache = new DistributedCache(nodeManager);
+        for (int i = 0; i < 2000; i++) {
+            cache.put(i, "value" + i);
+        }
+        Node hot = nodeManager.getHashedNodeList().get(1);
+        int ownedBefore = countOwned(hot, 2000);
+        RingBalancer balancer = new RingBalancer(nodeManager, sampled -> loads(sampled, 1, 500), BalancerConfig.builder()
+                .maxShiftPerMove(0.2).build());
+
+        BalancePlan plan = balancer.runOnce();
+        assertThat(plan.isApplied()).isTrue();
+        RingMove move = plan.getMoves().get(0);
+        Node moved = nodeManager.getHashedNodeList().stream()
+                .filter(node -> node.sameNode(move.getNode())).findFirst().get();
+        assertThat(moved.getHash()).isEqualTo(move.getToHash());
+        assertThat(nodeManager.isMigrating()).isFalse();
+        assertThat(countOwned(hot, 2000)).isLessThan(ownedBefore);
+        for (int i = 0; i < 2000; i++) {
+            assertThat(cache.get(i)).contains("value" + i);
+            //Migrated entries are on their new owner
+            assertThat(nodeManager.nodeGet(i).getCache().getFromCache(i)).contains("value" + i);
+        }
+    }
+
+    @Test
+    void testMoveNode_givenInvalidPosition_throwException() throws Exception {
+        nodeManager.init(dummyNodes(3), 0);
+        List<Node> nodes = nodeManager.getHashedNodeList();
+        assertThatThrownBy(() -> nodeManager.moveNode(null, 0.5)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> nodeManager.moveNode(createObject(Node.class), 0.5)).isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Node to be moved not found");
+        assertThatThrownBy(() -> nodeManager.moveNode(nodes.get(0), 1)).isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Hash must be in range [0, 1)");
+        assertThatThrownBy(() -> nodeManager.moveNode(nodes.get(0), nodes.get(1).getHash())).isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Hash is taken by another node");
+    }
+
+    @Test
+    void testSample_givenLoadTrackingConnector_reportRateAndLatency() throws Exception {
+        List<Node> nodes = dummyNodes(2);
+        nodes.get(0).setCache(new LoadTrackingConnector(nodes.get(0).getCache()));
+        ConnectorLoadSource source = new ConnectorLoadSource();
+        //The first sample has no previous counters
+        assertThat(source.sample(nodes).get(0).getRequestsPerSecond()).isZero();
+
+        for (int i = 0; i < 100; i++) {
+            nodes.get(0).getCache().putToCache(i, i);
+        }
+        List<NodeLoad> loads = source.sample(nodes);
+        assertThat(loads.get(0).getRequestsPerSecond()).isPositive();
+        assertThat(loads.get(0).getMeanLatencyMillis()).isNotNegative();
+        assertThat(loads.get(0).getUsedMemoryBytes()).isEqualTo(-1);
+        //Without a tracker the rate is 0 and the latency unknown
+        assertThat(loads.get(1).getRequestsPerSecond()).isZero();
+        assertThat(loads.get(1).getMeanLatencyMillis()).isEqualTo(-1);
+    }
+
+    /**
+     * Nodes with distinct ids, each with its own dummy connector
+     */
+    private static List<Node> dummyNodes(int nodeNum) throws IOException {
+        List<Node> nodes = new ArrayList<>(nodeNum);
+        for (int i = 0; i < nodeNum; i++) {
+            Node node = new Node("node" + i, 123, NodeType.REDIS);
+            node.setCache(new DummyConnector());
+            nodes.add(node);
+        }
+        return nodes;
+    }
+
+    /**
+     * Loads with the same request rate on each node, except the hot node
+     */
+    private static List<NodeLoad> loads(List<Node> nodes, int hot, double hotRate) {
+        List<NodeLoad> loads = new ArrayList<>();
+        for (int i = 0; i < nodes.size(); i++) {
+            loads.add(new NodeLoad(nodes.get(i), i == hot ? hotRate : 100, -1, -1));
+        }
+        return loads;
+    }
+
+    private int countOwned(Node node, int amount) {
+        int owned = 0;
+        for (int i = 0; i < amount; i++) {
+            if (nodeManager.nodeGet(i).sameNode(node)) {
+                owned++;
+            }
+        }
+        return owned;
+    }
+}
@@ -0,0 +1,105 @@
+package com.unity.cache.benchmark;
+
+import com.unity.cache.CacheKey;
+import com.unity.cache.DistributedCache;
+import com.unity.cache.LongKeyCache;
+import com.unity.cache.connector.DummyConnector;
+import com.unity.cache.node.Node;
+import com.unity.cache.node.NodeManager;
+import com.unity.cache.node.NodeType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the hit path of DistributedCache against in-memory nodes
+ * <p>
+ * It is run with the GC profiler (-prof gc): gc.alloc.rate.norm is the number of bytes allocated per operation.
+ * A pre-hashed get should allocate only the returned Optional, a pre-hashed put nothing, raw keys add their CacheKey.
+ * DistributedCacheTest checks the same bounds on every build with the allocation counter of the thread.
+ * Run the main method with the test classpath, e.g. from the IDE after mvn test-compile
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DistributedCacheBenchmark {
+
+    private static final int KEYS = 1024;
+
+    private DistributedCache distributedCache;
+    private LongKeyCache longKeyCache;
+    private String[] keys;
+    private CacheKey[] cacheKeys;
+    private int next;
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(DistributedCacheBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        List<Node> nodes = new ArrayList<>();
+        for (int i = 1; i <= 3; i++) {
+            Node node = new Node("node" + i, 6379, NodeType.REDIS);
+            node.setCache(new DummyConnector());
+            nodes.add(node);
+        }
+        NodeManager nodeManager = NodeManager.getInstance();
+        nodeManager.init(nodes, 3);
+        distributedCache = new DistributedCache(nodeManager);
+        longKeyCache = new LongKeyCache(distributedCache);
+        keys = new String[KEYS];
+        cacheKeys = new CacheKey[KEYS];
+        for (int i = 0; i < KEYS; i++) {
+            keys[i] = "user:" + i;
+            cacheKeys[i] = CacheKey.of(keys[i]);
+            distributedCache.put(cacheKeys[i], "value" + i);
+            longKeyCache.put(i, "value" + i);
+        }
+    }
+
+    @Benchmark
+    public Optional<Object> getPreHashedKey() {
+        return distributedCache.get(cacheKeys[next++ & (KEYS - 1)]);
+    }
+
+    @Benchmark
+    public Optional<Object> getStringKey() {
+        return distributedCache.get(keys[next++ & (KEYS - 1)]);
+    }
+
+    @Benchmark
+    public Optional<Object> getLongKey() {
+        return longKeyCache.get(next++ & (KEYS - 1));
+    }
+
+    @Benchmark
+    public void putPreHashedKey() {
+        distributedCache.put(cacheKeys[next++ & (KEYS - 1)], "value");
+    }
+}
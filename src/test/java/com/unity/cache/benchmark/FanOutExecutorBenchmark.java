@@ -0,0 +1,83 @@
+package com.unity.cache.benchmark;
+
+import com.unity.cache.concurrent.CacheExecutors;
+import com.unity.cache.concurrent.ScatterGather;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Benchmark of fan-out executors for blocking per-node calls
+ * <p>
+ * Each operation scatters a number of blocking calls (simulated with a 1 ms park) and gathers the results.
+ * The virtual executor is skipped when the JVM has no virtual threads (Java 20 and older).
+ * Run the main method with the test classpath, e.g. from the IDE after mvn test-compile
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FanOutExecutorBenchmark {
+
+    private static final long BLOCKING_CALL_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Param({"virtual", "platform"})
+    private String executorType;
+
+    @Param({"16", "1000", "5000"})
+    private int fanOut;
+
+    private ExecutorService executor;
+    private List<Integer> partitions;
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(FanOutExecutorBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        if ("virtual".equals(executorType) && !CacheExecutors.isVirtualThreadSupported()) {
+            throw new IllegalStateException("Virtual threads are not supported by this JVM, skip");
+        }
+        executor = "virtual".equals(executorType)
+                ? CacheExecutors.newVirtualThreadExecutor()
+                : CacheExecutors.newPlatformThreadExecutor(CacheExecutors.DEFAULT_PLATFORM_THREADS);
+        partitions = IntStream.range(0, fanOut).boxed().collect(Collectors.toList());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    public List<Integer> scatterGatherBlockingCalls() {
+        return ScatterGather.scatter(executor, partitions, partition -> {
+            LockSupport.parkNanos(BLOCKING_CALL_NANOS);
+            return partition;
+        });
+    }
+}
@@ -0,0 +1,87 @@
+package com.unity.cache.benchmark;
+
+import com.unity.cache.CacheKey;
+import com.unity.cache.connector.CacheableConnector;
+import com.unity.cache.connector.RedisConnector;
+import com.unity.cache.connector.RespConnector;
+import com.unity.cache.simulator.RespStubServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the multiplexed RESP connector against the Jedis based connector
+ * <p>
+ * 32 threads read 1 KB values from an in-process {@link RespStubServer}, so no real Redis is needed.
+ * Run the main method with the test classpath, e.g. from the IDE after mvn test-compile
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(32)
+@Fork(1)
+public class RespConnectorBenchmark {
+
+    private static final int KEYS = 1000;
+
+    @Param({"resp", "jedis"})
+    private String connectorType;
+
+    private RespStubServer server;
+    private CacheableConnector<Serializable> connector;
+    private CacheKey[] keys;
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(RespConnectorBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        server = new RespStubServer();
+        connector = "resp".equals(connectorType)
+                ? new RespConnector(server.getHost(), server.getPort())
+                : new RedisConnector(server.getHost(), server.getPort());
+        keys = new CacheKey[KEYS];
+        byte[] value = new byte[1024];
+        for (int i = 0; i < KEYS; i++) {
+            keys[i] = CacheKey.of("key" + i);
+            connector.putToCache(keys[i], value);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        if (connector instanceof RespConnector) {
+            ((RespConnector) connector).close();
+        }
+        server.close();
+    }
+
+    @Benchmark
+    public Optional<Object> get() {
+        return connector.getFromCache(keys[ThreadLocalRandom.current().nextInt(KEYS)]);
+    }
+}
@@ -0,0 +1,214 @@
+package com.unity.cache.bulk;
+
+import com.unity.cache.AbstractTest;
+import com.unity.cache.CacheKey;
+import com.unity.cache.DistributedCache;
+import com.unity.cache.connector.DummyConnector;
+import com.unity.cache.exceptions.InternalException;
+import com.unity.cache.node.Node;
+import com.unity.cache.node.NodeType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Test cases for {@link BulkLoader}
+ * <p>
+ * Test cases of the bulk loader are divided into 3 parts:
+ * 1. Test line-delimited and binary files are loaded, also with records longer than the mapped window
+ * 2. Test a failed load resumes from its checkpoint
+ * 3. Test malformed files and foreign checkpoints are rejected
+ * 4. Test keys whose owner changed while their batch was in flight are sent again to the new owner
+ * </p>
+ */
+class BulkLoaderTest extends AbstractTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testLoad_givenLinesFile_allEntriesReadable() throws Exception {
+        nodeManager.init(dummyNodes(3), 0);
+        StringBuilder lines = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            lines.append("key").append(i).append('\t').append("value").append(i).append(i % 2 == 0 ? "\n" : "\r\n");
+        }
+        lines.append("\ncl\u00e9\t").append(new String(new char[300]).replace('\0', 'v'));
+        Path file = Files.write(dir.resolve("data.tsv"), lines.toString().getBytes(StandardCharsets.UTF_8));
+
+        List<BulkLoadProgress> reported = new ArrayList<>();
+        BulkLoadProgress progress = new BulkLoader(nodeManager, BulkLoadConfig.builder()
+                .batchSize(64).mappedWindowBytes(128).checkpointEveryRecords(300).progressListener(reported::add).build()).load(file);
+
+        assertThat(progress.isFinished()).isTrue();
+        assertThat(progress.getLoadedEntries()).isEqualTo(1001);
+        assertThat(progress.getReadBytes()).isEqualTo(Files.size(file));
+        assertThat(progress.getFraction()).isEqualTo(1);
+        assertThat(reported).isNotEmpty();
+        DistributedCache cache = new DistributedCache(nodeManager);
+        for (int i = 0; i < 1000; i++) {
+            assertThat(cache.get("key" + i)).contains("value" + i);
+        }
+        assertThat((String) cache.get("cl\u00e9").get()).hasSize(300);
+    }
+
+    @Test
+    void testLoad_givenBinaryFile_valuesStoredAsBytes() throws Exception {
+        nodeManager.init(dummyNodes(3), 0);
+        Path file = binaryFile(500, 100);
+
+        BulkLoadProgress progress = new BulkLoader(nodeManager, BulkLoadConfig.builder()
+                .format(RecordFormat.BINARY).batchSize(50).mappedWindowBytes(64).build()).load(file);
+
+        assertThat(progress.getLoadedEntries()).isEqualTo(500);
+        for (int i = 0; i < 500; i++) {
+            byte[] value = (byte[]) nodeManager.nodeGet(CacheKey.of("key" + i)).getCache().getFromCache(CacheKey.of("key" + i)).get();
+            assertThat(value).hasSize(100).containsOnly((byte) i);
+        }
+    }
+
+    @Test
+    void testLoad_givenFailedBatch_resumeFromCheckpoint() throws Exception {
+        List<Node> nodes = dummyNodes(3);
+        AtomicInteger batchesBeforeFailure = new AtomicInteger(12);
+        nodes.get(0).setCache(new DummyConnector() {
+            @Override
+            public void putAllToCache(Map<CacheKey, Object> entries) {
+                if (batchesBeforeFailure.decrementAndGet() < 0) {
+                    throw new IllegalStateException("Node is down");
+                }
+                super.putAllToCache(entries);
+            }
+        });
+        nodeManager.init(nodes, 0);
+        Path file = binaryFile(3000, 10);
+        Path checkpoint = dir.resolve("data.checkpoint");
+        BulkLoadConfig config = BulkLoadConfig.builder().format(RecordFormat.BINARY).batchSize(10)
+                .checkpointEveryRecords(500).checkpointFile(checkpoint).build();
+
+        assertThatThrownBy(() -> new BulkLoader(nodeManager, config).load(file)).isInstanceOf(InternalException.class)
+                .hasMessageContaining("resumed").hasRootCauseMessage("Node is down");
+        long saved = Long.parseLong(new String(Files.readAllBytes(checkpoint), StandardCharsets.UTF_8).split(" ")[0]);
+        assertThat(saved).isPositive().isLessThan(Files.size(file));
+
+        batchesBeforeFailure.set(Integer.MAX_VALUE);
+        BulkLoadProgress resumed = new BulkLoader(nodeManager, config).load(file);
+        assertThat(resumed.getStartOffset()).isEqualTo(saved);
+        assertThat(resumed.getReadEntries()).isLessThan(3000);
+        DistributedCache cache = new DistributedCache(nodeManager);
+        for (int i = 0; i < 3000; i++) {
+            assertThat(cache.get("key" + i)).isPresent();
+        }
+        //The file is loaded completely, loading it again reads nothing
+        assertThat(new BulkLoader(nodeManager, config).load(file).getReadEntries()).isZero();
+    }
+
+    @Test
+    void testLoad_givenMalformedFileOrForeignCheckpoint_throwException() throws Exception {
+        nodeManager.init(dummyNodes(2), 0);
+        Path noTab = Files.write(dir.resolve("bad.tsv"), "key value\n".getBytes(StandardCharsets.UTF_8));
+        assertThatThrownBy(() -> new BulkLoader(nodeManager, BulkLoadConfig.builder().build()).load(noTab))
+                .isInstanceOf(IOException.class).hasMessageContaining("no tab");
+
+        Path truncated = Files.write(dir.resolve("bad.bin"), new byte[]{0, 0, 0, 9, 'k'});
+        assertThatThrownBy(() -> new BulkLoader(nodeManager, BulkLoadConfig.builder().format(RecordFormat.BINARY).build()).load(truncated))
+                .isInstanceOf(IOException.class).hasMessageContaining("truncated");
+
+        Path checkpoint = Files.write(dir.resolve("other.checkpoint"), "5 12345".getBytes(StandardCharsets.UTF_8));
+        assertThatThrownBy(() -> new BulkLoader(nodeManager, BulkLoadConfig.builder().checkpointFile(checkpoint).build()).load(noTab))
+                .isInstanceOf(IOException.class).hasMessageContaining("does not belong");
+        assertThatThrownBy(() -> new BulkLoader(nodeManager, BulkLoadConfig.builder().batchSize(0).build()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void testLoad_givenNodeShutDownWhileBatchInFlight_keysSentToNewOwner() throws Exception {
+        List<Node> nodes = dummyNodes(3);
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+        nodes.get(0).setCache(new DummyConnector() {
+            @Override
+            public void putAllToCache(Map<CacheKey, Object> entries) {
+                //The first batch of the node is written after the node was drained
+                if (calls.getAndIncrement() == 0) {
+                    entered.countDown();
+                    try {
+                        release.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                super.putAllToCache(entries);
+            }
+        });
+        nodeManager.init(nodes, 0);
+        CompletableFuture<Void> shutdown = CompletableFuture.runAsync(() -> {
+            try {
+                entered.await(5, TimeUnit.SECONDS);
+                nodeManager.nodeShuttingDown(nodes.get(0));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                release.countDown();
+            }
+        });
+        Path file = binaryFile(600, 10);
+
+        BulkLoadProgress progress = new BulkLoader(nodeManager, BulkLoadConfig.builder().format(RecordFormat.BINARY)
+                .batchSize(10).checkpointEveryRecords(1000).build()).load(file);
+        shutdown.get(10, TimeUnit.SECONDS);
+
+        assertThat(progress.getLoadedEntries()).isEqualTo(600);
+        assertThat(nodeManager.getHashedNodeList()).hasSize(2);
+        DistributedCache cache = new DistributedCache(nodeManager);
+        for (int i = 0; i < 600; i++) {
+            assertThat(cache.get("key" + i)).isPresent();
+        }
+    }
+
+    /**
+     * Binary file of keys key0, key1... whose values are filled with the low byte of the index
+     */
+    private Path binaryFile(int records, int valueSize) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        for (int i = 0; i < records; i++) {
+            byte[] key = ("key" + i).getBytes(StandardCharsets.UTF_8);
+            byte[] value = new byte[valueSize];
+            Arrays.fill(value, (byte) i);
+            out.writeInt(key.length);
+            out.write(key);
+            out.writeInt(value.length);
+            out.write(value);
+        }
+        return Files.write(dir.resolve("data.bin"), bytes.toByteArray());
+    }
+
+    private static List<Node> dummyNodes(int nodeNum) throws IOException {
+        List<Node> nodes = new ArrayList<>(nodeNum);
+        for (int i = 0; i < nodeNum; i++) {
+            Node node = new Node("bulk" + i, 123, NodeType.REDIS);
+            node.setCache(new DummyConnector());
+            nodes.add(node);
+        }
+        return nodes;
+    }
+}
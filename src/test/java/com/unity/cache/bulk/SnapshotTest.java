@@ -0,0 +1,198 @@
+package com.unity.cache.bulk;
+
+import com.unity.cache.AbstractTest;
+import com.unity.cache.CacheKey;
+import com.unity.cache.DistributedCache;
+import com.unity.cache.connector.DummyConnector;
+import com.unity.cache.node.Node;
+import com.unity.cache.node.NodeType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Test cases for {@link SnapshotWriter} and {@link SnapshotReader}
+ * <p>
+ * Test cases of the snapshot are divided into 4 parts:
+ * 1. Test a cluster snapshot is restored completely, with and without compression
+ * 2. Test a node restore only reads the blocks of the ranges the node owns and keeps newer values
+ * 3. Test corrupted and truncated files are rejected
+ * 4. Test keys whose owner changed while their batch was sent are restored to the new owner
+ * </p>
+ */
+class SnapshotTest extends AbstractTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testRestore_givenClusterSnapshot_allEntriesRestored() throws Exception {
+        for (boolean compressed : new boolean[]{false, true}) {
+            nodeManager.init(dummyNodes(3), 0);
+            DistributedCache cache = new DistributedCache(nodeManager);
+            for (int i = 0; i < 1000; i++) {
+                cache.put("key" + i, "value" + i);
+            }
+            cache.put(42, new byte[]{1, 2, 3});
+            Path file = dir.resolve("cluster" + compressed + ".snapshot");
+            try (SnapshotWriter writer = new SnapshotWriter(file, compressed, 1024, 16)) {
+                assertThat(writer.writeCluster(nodeManager)).isEqualTo(1001);
+            }
+            assertThat(Files.exists(file.resolveSibling(file.getFileName() + ".tmp"))).isFalse();
+
+            nodeManager.init(dummyNodes(4), 0);
+            cache = new DistributedCache(nodeManager);
+            try (SnapshotReader reader = new SnapshotReader(file)) {
+                assertThat(reader.getEntryCount()).isEqualTo(1001);
+                assertThat(reader.getBlockCount()).isGreaterThan(16);
+                assertThat(reader.restore(nodeManager)).isEqualTo(1001);
+            }
+            for (int i = 0; i < 1000; i++) {
+                assertThat(cache.get("key" + i)).contains("value" + i);
+            }
+            assertThat((byte[]) cache.get(42).get()).containsExactly(1, 2, 3);
+        }
+    }
+
+    @Test
+    void testRestore_givenNode_onlyOwnedBlocksRead() throws Exception {
+        nodeManager.init(dummyNodes(4), 0);
+        DistributedCache cache = new DistributedCache(nodeManager);
+        for (int i = 0; i < 2000; i++) {
+            cache.put(i, "value" + i);
+        }
+        Path file = dir.resolve("node.snapshot");
+        try (SnapshotWriter writer = new SnapshotWriter(file, true, 512, 64)) {
+            writer.writeCluster(nodeManager);
+        }
+
+        //The node comes back empty after a maintenance, one of its entries was written again meanwhile
+        Node node = nodeManager.getHashedNodeList().get(1);
+        node.setCache(new DummyConnector());
+        int ownedKey = firstOwnedKey(node, 2000);
+        cache.put(ownedKey, "newer");
+
+        Map<Serializable, Object> read = new HashMap<>();
+        try (SnapshotReader reader = new SnapshotReader(file)) {
+            List<double[]> ranges = nodeManager.getOwnedRanges(node);
+            reader.read(ranges.get(0)[0], ranges.get(0)[1], read::put);
+            assertThat(read.size()).isPositive().isLessThan(2000);
+
+            long restored = reader.restore(nodeManager, node);
+            assertThat(restored).isEqualTo(countOwned(node, 2000));
+        }
+        for (int i = 0; i < 2000; i++) {
+            if (nodeManager.nodeGet(i).sameNode(node)) {
+                assertThat(node.getCache().getFromCache(i)).contains(i == ownedKey ? "newer" : "value" + i);
+            }
+        }
+    }
+
+    @Test
+    void testOpen_givenCorruptedOrTruncatedFile_throwException() throws Exception {
+        nodeManager.init(dummyNodes(2), 0);
+        DistributedCache cache = new DistributedCache(nodeManager);
+        for (int i = 0; i < 100; i++) {
+            cache.put("key" + i, "value" + i);
+        }
+        Path file = dir.resolve("bad.snapshot");
+        try (SnapshotWriter writer = new SnapshotWriter(file, false)) {
+            writer.writeCluster(nodeManager);
+        }
+        byte[] bytes = Files.readAllBytes(file);
+
+        //A flipped byte in the first block fails the checksum
+        byte[] flipped = bytes.clone();
+        flipped[30] ^= 0x7F;
+        Path corrupted = Files.write(dir.resolve("flipped.snapshot"), flipped);
+        try (SnapshotReader reader = new SnapshotReader(corrupted)) {
+            assertThatThrownBy(() -> reader.restore(nodeManager)).isInstanceOf(IOException.class).hasMessageContaining("corrupted");
+        }
+
+        byte[] cut = new byte[bytes.length - 5];
+        System.arraycopy(bytes, 0, cut, 0, cut.length);
+        Path truncated = Files.write(dir.resolve("cut.snapshot"), cut);
+        assertThatThrownBy(() -> new SnapshotReader(truncated)).isInstanceOf(IOException.class);
+        Path notSnapshot = Files.write(dir.resolve("other.snapshot"), new byte[64]);
+        assertThatThrownBy(() -> new SnapshotReader(notSnapshot)).isInstanceOf(IOException.class).hasMessage("Not a snapshot file");
+        assertThatThrownBy(() -> new SnapshotWriter(dir.resolve("x.snapshot"), false, 0, 1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void testRestore_givenNodeShutDownWhileBatchSent_keysRestoredToNewOwner() throws Exception {
+        nodeManager.init(dummyNodes(3), 0);
+        DistributedCache cache = new DistributedCache(nodeManager);
+        for (int i = 0; i < 600; i++) {
+            cache.put("key" + i, "value" + i);
+        }
+        Path file = dir.resolve("moving.snapshot");
+        try (SnapshotWriter writer = new SnapshotWriter(file, false, 1024, 16)) {
+            writer.writeCluster(nodeManager);
+        }
+
+        List<Node> nodes = dummyNodes(3);
+        AtomicInteger calls = new AtomicInteger();
+        nodes.get(0).setCache(new DummyConnector() {
+            @Override
+            public void putAllIfAbsentToCache(Map<CacheKey, Object> entries) {
+                //The first batch of the node is written after the node was drained
+                if (calls.getAndIncrement() == 0) {
+                    nodeManager.nodeShuttingDown(nodes.get(0));
+                }
+                super.putAllIfAbsentToCache(entries);
+            }
+        });
+        nodeManager.init(nodes, 0);
+        cache = new DistributedCache(nodeManager);
+        try (SnapshotReader reader = new SnapshotReader(file)) {
+            assertThat(reader.restore(nodeManager)).isEqualTo(600);
+        }
+
+        assertThat(calls.get()).isPositive();
+        assertThat(nodeManager.getHashedNodeList()).hasSize(2);
+        for (int i = 0; i < 600; i++) {
+            assertThat(cache.get("key" + i)).contains("value" + i);
+        }
+    }
+
+    private int firstOwnedKey(Node node, int amount) {
+        for (int i = 0; i < amount; i++) {
+            if (nodeManager.nodeGet(i).sameNode(node)) {
+                return i;
+            }
+        }
+        throw new IllegalStateException("Node owns no key");
+    }
+
+    private int countOwned(Node node, int amount) {
+        int owned = 0;
+        for (int i = 0; i < amount; i++) {
+            if (nodeManager.nodeGet(i).sameNode(node)) {
+                owned++;
+            }
+        }
+        return owned;
+    }
+
+    private static List<Node> dummyNodes(int nodeNum) throws IOException {
+        List<Node> nodes = new ArrayList<>(nodeNum);
+        for (int i = 0; i < nodeNum; i++) {
+            Node node = new Node("snapshot" + i, 123, NodeType.REDIS);
+            node.setCache(new DummyConnector());
+            nodes.add(node);
+        }
+        return nodes;
+    }
+}
@@ -0,0 +1,145 @@
+package com.unity.cache.chunk;
+
+import com.unity.cache.AbstractTest;
+import com.unity.cache.DistributedCache;
+import com.unity.cache.concurrent.CacheExecutors;
+import com.unity.cache.connector.DummyConnector;
+import com.unity.cache.node.Node;
+import com.unity.cache.node.NodeType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Test cases for {@link ChunkingCache}
+ * <p>
+ * Test cases of the chunking cache are divided into 3 parts:
+ * 1. Test large values are stored as chunks spread over the nodes and small values as they are
+ * 2. Test values are written and read as streams, and replaced or removed values leave no chunks
+ * 3. Test a value with a missing chunk is a miss
+ * </p>
+ */
+class ChunkingCacheTest extends AbstractTest {
+
+    private static final int CHUNK_BYTES = 1000;
+
+    private List<Node> nodes;
+    private DistributedCache distributedCache;
+    private ChunkingCache chunkingCache;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        nodes = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Node node = new Node("chunk" + i, 123, NodeType.MEMCACHE);
+            node.setCache(new DummyConnector());
+            nodes.add(node);
+        }
+        nodeManager.init(nodes, 0);
+        distributedCache = new DistributedCache(nodeManager);
+        chunkingCache = new ChunkingCache(distributedCache, CHUNK_BYTES, 3, CacheExecutors.fanOut());
+    }
+
+    @Test
+    void testPut_givenLargeValues_storedAsChunksOnSeveralNodes() {
+        byte[] bytes = randomBytes(25_500);
+        chunkingCache.put("bytes", bytes);
+        String text = new String(new char[3000]).replace('\0', '\u00e9');
+        chunkingCache.put("text", text);
+        chunkingCache.put("small", "value");
+
+        assertThat((byte[]) chunkingCache.get("bytes").get()).isEqualTo(bytes);
+        assertThat(chunkingCache.get("text")).contains(text);
+        assertThat(chunkingCache.get("small")).contains("value");
+        assertThat(distributedCache.get("small")).contains("value");
+        //26 chunks of the bytes, 6 of the text, no stored item is larger than a chunk
+        assertThat(chunkKeys()).hasSize(32);
+        assertThat(nodes).filteredOn(node -> node.getCache().getAllFromCache().stream()
+                .anyMatch(entry -> entry.getKey().toString().startsWith("chunk:"))).hasSizeGreaterThan(1);
+        assertThat(allEntries()).allMatch(entry -> !(entry.getValue() instanceof byte[]) || ((byte[]) entry.getValue()).length <= CHUNK_BYTES);
+
+        assertThatThrownBy(() -> new ChunkingCache(distributedCache, 0, 1, CacheExecutors.fanOut())).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void testStream_givenLargeValue_readBackAndChunksCleanedUp() throws IOException {
+        byte[] bytes = randomBytes(10_001);
+        try (OutputStream out = chunkingCache.openOutputStream("streamed")) {
+            for (int i = 0; i < bytes.length; i += 777) {
+                out.write(bytes, i, Math.min(777, bytes.length - i));
+            }
+        }
+        assertThat(chunkKeys()).hasSize(11);
+        try (InputStream in = chunkingCache.openInputStream("streamed").get()) {
+            assertThat(readFully(in)).isEqualTo(bytes);
+        }
+        assertThat(readFully(chunkingCache.openInputStream("small").orElse(null))).isNull();
+        chunkingCache.put("plain", new byte[]{1, 2});
+        assertThat(readFully(chunkingCache.openInputStream("plain").get())).containsExactly(1, 2);
+
+        //Replacing a chunked value removes the chunks of the previous one
+        chunkingCache.put("streamed", randomBytes(4_500));
+        assertThat(chunkKeys()).hasSize(5);
+        chunkingCache.remove("streamed");
+        assertThat(chunkKeys()).isEmpty();
+        assertThat(chunkingCache.get("streamed")).isNotPresent();
+    }
+
+    @Test
+    void testGet_givenMissingChunk_miss() throws IOException {
+        chunkingCache.put("bytes", randomBytes(5_000));
+        String evicted = chunkKeys().get(2).toString();
+        distributedCache.remove(evicted);
+
+        assertThat(chunkingCache.get("bytes")).isNotPresent();
+        try (InputStream in = chunkingCache.openInputStream("bytes").get()) {
+            assertThatThrownBy(() -> readFully(in)).isInstanceOf(IOException.class).hasMessageContaining("missing");
+        }
+    }
+
+    private List<Serializable> chunkKeys() {
+        List<Serializable> keys = new ArrayList<>();
+        allEntries().forEach(entry -> {
+            if (entry.getKey().toString().startsWith("chunk:")) {
+                keys.add(entry.getKey());
+            }
+        });
+        return keys;
+    }
+
+    private List<Map.Entry<Serializable, Object>> allEntries() {
+        List<Map.Entry<Serializable, Object>> entries = new ArrayList<>();
+        nodes.forEach(node -> entries.addAll(node.getCache().getAllFromCache()));
+        return entries;
+    }
+
+    private static byte[] randomBytes(int length) {
+        byte[] bytes = new byte[length];
+        new Random(length).nextBytes(bytes);
+        return bytes;
+    }
+
+    private static byte[] readFully(InputStream in) throws IOException {
+        if (in == null) {
+            return null;
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[300];
+        for (int read; (read = in.read(buffer)) >= 0; ) {
+            out.write(buffer, 0, read);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,122 @@
+package com.unity.cache.compression;
+
+import com.unity.cache.AbstractTest;
+import com.unity.cache.CacheKey;
+import com.unity.cache.connector.CompressingConnector;
+import com.unity.cache.connector.DummyConnector;
+import com.unity.cache.exceptions.InternalException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Test cases for {@link ValueCompressor}
+ * <p>
+ * Test cases of {@link ValueCompressor} are divided into 4 parts:
+ * 1. Test values below/above the threshold
+ * 2. Test dictionary compression of small values
+ * 3. Test metrics
+ * 4. Test compressing connector
+ * </p>
+ */
+class ValueCompressorTest extends AbstractTest {
+
+    @Test
+    void testEncode_givenLargeValue_compressedAndDecoded() {
+        ValueCompressor compressor = new ValueCompressor(1024);
+        String value = json(200);
+        byte[] frame = compressor.encode(value);
+        assertThat(ValueCompressor.isFrame(frame)).isTrue();
+        assertThat(frame.length).isLessThan(value.length() / 2);
+        assertThat(compressor.decode(frame)).isEqualTo(value);
+    }
+
+    @Test
+    void testEncode_givenSmallValue_storedRaw() {
+        ValueCompressor compressor = new ValueCompressor(1024);
+        String value = json(1);
+        byte[] frame = compressor.encode(value);
+        assertThat(frame.length).isEqualTo(value.length() + 3);
+        assertThat(compressor.decode(frame)).isEqualTo(value);
+        assertThat(compressor.getMetrics().getValuesCompressed()).isZero();
+    }
+
+    @Test
+    void testEncode_givenAnyValueType_roundTrip() {
+        ValueCompressor compressor = new ValueCompressor(0);
+        byte[] bytes = json(100).getBytes(StandardCharsets.UTF_8);
+        assertThat((byte[]) compressor.decode(compressor.encode(bytes))).isEqualTo(bytes);
+        Integer number = createObject(Integer.class);
+        assertThat(compressor.decode(compressor.encode(number))).isEqualTo(number);
+        //Values written without compression are read as they are
+        assertThat(compressor.decode("plain")).isEqualTo("plain");
+        assertThatThrownBy(() -> compressor.encode(new Object())).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void testEncode_givenDictionary_smallValuesCompressed() {
+        List<byte[]> samples = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            samples.add(json(i % 3 + 1).getBytes(StandardCharsets.UTF_8));
+        }
+        CompressionDictionary dictionary = CompressionDictionary.train(samples, 1024);
+        assertThat(dictionary.size()).isPositive().isLessThanOrEqualTo(1024);
+
+        ValueCompressor compressor = new ValueCompressor(4096, dictionary);
+        String value = json(2);
+        byte[] frame = compressor.encode(value);
+        assertThat(frame.length).isLessThan(new ValueCompressor(4096).encode(value).length);
+        assertThat(compressor.decode(frame)).isEqualTo(value);
+        assertThat(compressor.getMetrics().getValuesCompressedWithDictionary()).isEqualTo(1);
+
+        //A frame can not be decoded without its dictionary
+        assertThatThrownBy(() -> new ValueCompressor(4096).decode(frame)).isInstanceOf(InternalException.class);
+    }
+
+    @Test
+    void testMetrics_givenWrittenValues_reportRatio() {
+        ValueCompressor compressor = new ValueCompressor(1024);
+        compressor.encode(json(200));
+        compressor.decode(compressor.encode(json(200)));
+        CompressionMetrics metrics = compressor.getMetrics();
+        assertThat(metrics.getValuesWritten()).isEqualTo(2);
+        assertThat(metrics.getValuesCompressed()).isEqualTo(2);
+        assertThat(metrics.getValuesRead()).isEqualTo(1);
+        assertThat(metrics.getCompressionRatio()).isGreaterThan(2);
+        assertThat(metrics.getCompressNanos()).isPositive();
+    }
+
+    @Test
+    void testCompressingConnector_givenValues_storedCompressed() {
+        DummyConnector backend = new DummyConnector();
+        CompressingConnector connector = new CompressingConnector(backend, new ValueCompressor(1024));
+        String value = json(200);
+        connector.putToCache(CacheKey.of("key"), value);
+        assertThat(backend.getFromCache("key").get()).isInstanceOf(byte[].class);
+        assertThat(connector.getFromCache("key")).contains(value);
+        assertThat(connector.getAllFromCache()).hasSize(1).allSatisfy(entry -> assertThat(entry.getValue()).isEqualTo(value));
+
+        //Counter values are stored unframed, so the backend can still increment them
+        CompressingConnector counters = new CompressingConnector(backend, new ValueCompressor(0));
+        assertThat(counters.putIfAbsentToCache(CacheKey.of("counter"), "-42")).isTrue();
+        assertThat(backend.getFromCache("counter")).contains("-42");
+        assertThat(counters.incrementInCache(CacheKey.of("counter"), 50)).isEqualTo(8);
+        counters.putToCache(CacheKey.of("long"), "12345678901234567890");
+        assertThat(backend.getFromCache("long").get()).isInstanceOf(byte[].class);
+        assertThat(counters.getFromCache("long")).contains("12345678901234567890");
+    }
+
+    private static String json(int fields) {
+        StringBuilder builder = new StringBuilder("{");
+        for (int i = 0; i < fields; i++) {
+            builder.append("\"userName").append(i).append("\":\"player-").append(i % 7)
+                    .append("\",\"score\":").append(i * 31 % 1000).append(",\"active\":true,");
+        }
+        return builder.append("\"type\":\"profile\"}").toString();
+    }
+}
@@ -0,0 +1,190 @@
+package com.unity.cache.connector;
+
+import com.unity.cache.AbstractTest;
+import com.unity.cache.CacheKey;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Test cases for {@link AutoBatchingConnector}
+ * <p>
+ * Test cases of the auto-batching connector are divided into 4 parts:
+ * 1. Test concurrent single-key reads are combined into multi-gets and answered correctly
+ * 2. Test a lone caller is sent at once and concurrent writes are combined into multi-puts
+ * 3. Test a failed batch fails every request of the batch
+ * 4. Test an interrupted caller waits for its request without spinning and keeps its interrupt flag
+ * </p>
+ */
+class AutoBatchingConnectorTest extends AbstractTest {
+
+    @Test
+    void testGet_givenConcurrentCallers_combinedIntoMultiGets() throws Exception {
+        SlowNode node = new SlowNode();
+        for (int i = 0; i < 1000; i++) {
+            node.putToCache(i, "value" + i);
+        }
+        AutoBatchingConnector connector = new AutoBatchingConnector(node, 32, 200);
+        ExecutorService threads = Executors.newFixedThreadPool(32);
+        try {
+            List<CompletableFuture<Void>> callers = new ArrayList<>();
+            for (int t = 0; t < 32; t++) {
+                int first = t * 30;
+                callers.add(CompletableFuture.runAsync(() -> {
+                    for (int i = first; i < first + 30; i++) {
+                        assertThat(connector.getFromCache(CacheKey.of(i))).contains("value" + i);
+                        assertThat(connector.getFromCache(CacheKey.of(-1 - i))).isNotPresent();
+                    }
+                }, threads));
+            }
+            CompletableFuture.allOf(callers.toArray(new CompletableFuture[0])).join();
+        } finally {
+            threads.shutdown();
+        }
+        assertThat(connector.getBatchedRequests()).isEqualTo(32 * 60);
+        assertThat(node.multiGets.get()).isEqualTo(connector.getBatches()).isLessThan(32 * 60 / 4);
+    }
+
+    @Test
+    void testPut_givenLoneOrConcurrentCallers_sentAtOnceOrCombined() {
+        SlowNode node = new SlowNode();
+        AutoBatchingConnector connector = new AutoBatchingConnector(node);
+        //A lone caller is not delayed by the window, each request is a batch of its own
+        for (int i = 0; i < 10; i++) {
+            connector.putToCache(i, i);
+        }
+        assertThat(connector.getBatches()).isEqualTo(10);
+        assertThat(node.getFromCache(CacheKey.of(9))).contains(9);
+
+        ExecutorService threads = Executors.newFixedThreadPool(16);
+        try {
+            List<CompletableFuture<Void>> callers = new ArrayList<>();
+            for (int t = 0; t < 16; t++) {
+                int thread = t;
+                callers.add(CompletableFuture.runAsync(() -> {
+                    for (int i = 0; i < 50; i++) {
+                        connector.putToCache("key" + thread + ":" + i, i);
+                    }
+                }, threads));
+            }
+            CompletableFuture.allOf(callers.toArray(new CompletableFuture[0])).join();
+        } finally {
+            threads.shutdown();
+        }
+        assertThat(node.putAlls.get()).isLessThan(10 + 16 * 50);
+        for (int t = 0; t < 16; t++) {
+            assertThat(node.getFromCache(CacheKey.of("key" + t + ":49"))).contains(49);
+        }
+        assertThatThrownBy(() -> new AutoBatchingConnector(node, 0, 50)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new AutoBatchingConnector(node, 8, -1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void testGet_givenFailedBatch_everyCallerFails() {
+        SlowNode node = new SlowNode();
+        node.failing.set(true);
+        AutoBatchingConnector connector = new AutoBatchingConnector(node, 8, 100);
+        List<CompletableFuture<Object>> callers = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            int key = t;
+            callers.add(CompletableFuture.supplyAsync(() -> connector.getFromCache(key)));
+        }
+        for (CompletableFuture<Object> caller : callers) {
+            assertThatThrownBy(caller::join).hasRootCauseMessage("Node is down");
+        }
+        node.failing.set(false);
+        assertThat(connector.getFromCache(1)).isNotPresent();
+        assertThat(connector.getBatches()).isEqualTo(1);
+    }
+
+    @Test
+    void testGet_givenInterruptedCaller_parkedUntilAnswered() throws Exception {
+        SlowNode node = new SlowNode();
+        node.putToCache(CacheKey.of("parked"), "value");
+        node.gate = new CountDownLatch(1);
+        AutoBatchingConnector connector = new AutoBatchingConnector(node, 8, 300_000);
+        ExecutorService threads = Executors.newFixedThreadPool(3);
+        try {
+            //The first batch blocks in flight, so the next leader collects for the whole window
+            CompletableFuture<Optional<Object>> inFlight = CompletableFuture.supplyAsync(() -> connector.getFromCache("first"), threads);
+            while (node.multiGets.get() == 0) {
+                Thread.sleep(1);
+            }
+            CompletableFuture<Optional<Object>> leader = CompletableFuture.supplyAsync(() -> connector.getFromCache("leader"), threads);
+            Thread.sleep(50);
+            CompletableFuture<long[]> interrupted = CompletableFuture.supplyAsync(() -> {
+                ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+                long cpuNanos = bean.getCurrentThreadCpuTime();
+                Thread.currentThread().interrupt();
+                Optional<Object> value = connector.getFromCache("parked");
+                long flag = Thread.interrupted() ? 1 : 0;
+                return new long[]{bean.getCurrentThreadCpuTime() - cpuNanos, value.isPresent() ? flag : -1};
+            }, threads);
+            Thread.sleep(500);
+            node.gate.countDown();
+
+            long[] result = interrupted.get(5, TimeUnit.SECONDS);
+            assertThat(result[1]).isEqualTo(1);
+            assertThat(result[0]).isLessThan(TimeUnit.MILLISECONDS.toNanos(200));
+            assertThat(inFlight.get(5, TimeUnit.SECONDS)).isNotPresent();
+            assertThat(leader.get(5, TimeUnit.SECONDS)).isNotPresent();
+        } finally {
+            threads.shutdown();
+        }
+    }
+
+    /**
+     * In-memory node whose multi-key calls take a millisecond and are counted
+     */
+    private static class SlowNode extends DummyConnector {
+        private final AtomicInteger multiGets = new AtomicInteger();
+        private final AtomicInteger putAlls = new AtomicInteger();
+        private final AtomicBoolean failing = new AtomicBoolean();
+        //Multi-key calls wait for it to open, if it is set
+        private volatile CountDownLatch gate;
+
+        @Override
+        public Map<CacheKey, Object> multiGetFromCache(Collection<CacheKey> keys) {
+            multiGets.incrementAndGet();
+            pause();
+            return super.multiGetFromCache(keys);
+        }
+
+        @Override
+        public void putAllToCache(Map<CacheKey, Object> entries) {
+            putAlls.incrementAndGet();
+            pause();
+            super.putAllToCache(entries);
+        }
+
+        private void pause() {
+            if (failing.get()) {
+                throw new IllegalStateException("Node is down");
+            }
+            try {
+                if (gate != null) {
+                    gate.await(5, TimeUnit.SECONDS);
+                }
+                Thread.sleep(1);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
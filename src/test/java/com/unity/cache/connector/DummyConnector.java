@@ -1,12 +1,12 @@
 package com.unity.cache.connector;
 
-import redis.clients.jedis.Jedis;
+import com.unity.cache.CacheKey;
 
 import java.io.Serializable;
-import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * DummyMemcacheCache is a dummy Redis cache implementation of Cacheable interface.
@@ -18,11 +18,11 @@ public class DummyConnector implements CacheableConnector<Serializable> {
 
     public DummyConnector(){
         //In real Memcache, we need to connect to the Redis server
-        this.cache = new HashMap<>();
+        this.cache = new ConcurrentHashMap<>();
     }
 
     public DummyConnector(String ipAddress, int port) {
-         this.cache = new HashMap<>();
+         this.cache = new ConcurrentHashMap<>();
     }
 
     @Override
@@ -40,6 +40,23 @@ public class DummyConnector implements CacheableConnector<Serializable> {
         cache.put(key, value);
     }
 
+    @Override
+    public boolean putIfAbsentToCache(CacheKey key, Object value) {
+        return cache.putIfAbsent(key.getKey(), value) == null;
+    }
+
+    @Override
+    public long incrementInCache(CacheKey key, long delta) {
+        Object next = cache.compute(key.getKey(), (ignored, current) ->
+                Long.toString((current == null ? 0 : Long.parseLong(current.toString())) + delta));
+        return Long.parseLong(next.toString());
+    }
+
+    @Override
+    public boolean removeFromCacheIfPresent(CacheKey key) {
+        return cache.remove(key.getKey()) != null;
+    }
+
     @Override
     public void removeFromCache(Serializable key) {
         cache.remove(key);
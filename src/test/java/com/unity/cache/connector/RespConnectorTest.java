@@ -0,0 +1,139 @@
+package com.unity.cache.connector;
+
+import com.unity.cache.AbstractTest;
+import com.unity.cache.CacheKey;
+import com.unity.cache.exceptions.InternalException;
+import com.unity.cache.simulator.RespStubServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Test cases for {@link RespConnector}
+ * <p>
+ * Test cases of {@link RespConnector} are run against {@link RespStubServer} and divided into 3 parts:
+ * 1. Test single and multi key operations
+ * 2. Test many threads multiplexed over few connections
+ * 3. Test broken connections
+ * </p>
+ */
+class RespConnectorTest extends AbstractTest {
+
+    private RespStubServer server;
+    private RespConnector connector;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new RespStubServer();
+        connector = new RespConnector(server.getHost(), server.getPort(), 2, 2000);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        connector.close();
+        server.close();
+    }
+
+    @Test
+    void testConnector_givenKeyValues_getPutRemove() {
+        connector.putToCache("key1", "value1");
+        connector.putToCache(CacheKey.of(2), new byte[]{1, 2, 3});
+        assertThat(connector.getFromCache("key1")).contains("value1");
+        assertThat((byte[]) connector.getFromCache(2).get()).containsExactly(1, 2, 3);
+        connector.removeFromCache("key1");
+        assertThat(connector.getFromCache("key1")).isNotPresent();
+    }
+
+    @Test
+    void testConnector_givenManyKeys_multiGetAndGetAll() {
+        Map<CacheKey, Object> entries = new HashMap<>();
+        for (int i = 0; i < 2500; i++) {
+            entries.put(CacheKey.of("key" + i), "value" + i);
+        }
+        connector.putAllToCache(entries);
+        assertThat(server.size()).isEqualTo(2500);
+
+        List<CacheKey> keys = new ArrayList<>(entries.keySet());
+        keys.add(CacheKey.of("missing"));
+        assertThat(connector.multiGetFromCache(keys)).isEqualTo(entries);
+
+        Map<Serializable, Object> all = new HashMap<>();
+        connector.getAllFromCache().forEach(entry -> all.put(entry.getKey(), entry.getValue()));
+        assertThat(all).hasSize(2500).containsEntry("key7", "value7");
+
+        connector.evictCache();
+        assertThat(server.size()).isZero();
+    }
+
+    @Test
+    void testConnector_givenManyThreads_repliesMatchCommands() throws Exception {
+        //64 threads share 2 connections, every reply must go back to the thread which sent the command
+        ExecutorService executor = Executors.newFixedThreadPool(64);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 64; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 200; i++) {
+                        String key = "thread" + thread + "-" + i;
+                        connector.putToCache(key, key);
+                        assertThat(connector.getFromCache(key)).contains(key);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(server.size()).isEqualTo(64 * 200);
+        assertThat(connector.getPendingCount()).isZero();
+    }
+
+    @Test
+    void testConnector_givenAsyncCalls_pipelined() {
+        List<CompletableFuture<Object>> puts = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            puts.add(connector.putToCacheAsync(CacheKey.of(i), "value" + i));
+        }
+        CompletableFuture.allOf(puts.toArray(new CompletableFuture[0])).join();
+        assertThat(connector.getFromCacheAsync(CacheKey.of(999)).join()).contains("value999");
+    }
+
+    @Test
+    void testConnector_givenDroppedConnection_reconnect() throws Exception {
+        connector.putToCache("key", "value");
+        server.dropConnections();
+        //Commands sent on a dropped connection may fail, later commands reconnect
+        for (int i = 0; i < 10; i++) {
+            try {
+                assertThat(connector.getFromCache("key")).contains("value");
+                return;
+            } catch (InternalException e) {
+                Thread.sleep(50);
+            }
+        }
+        assertThat(connector.getFromCache("key")).contains("value");
+    }
+
+    @Test
+    void testConnector_givenClosedServer_throwException() throws IOException {
+        server.close();
+        assertThatThrownBy(() -> new RespConnector(server.getHost(), server.getPort())).isInstanceOf(InternalException.class);
+    }
+}
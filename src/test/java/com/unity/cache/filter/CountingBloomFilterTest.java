@@ -0,0 +1,147 @@
+package com.unity.cache.filter;
+
+import com.unity.cache.AbstractTest;
+import com.unity.cache.CacheKey;
+import com.unity.cache.DistributedCache;
+import com.unity.cache.connector.BloomFilterConnector;
+import com.unity.cache.connector.DummyConnector;
+import com.unity.cache.node.Node;
+import com.unity.cache.node.NodeType;
+import com.unity.cache.node.RebalanceConfig;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Test cases for {@link CountingBloomFilter} and {@link BloomFilterConnector}
+ * <p>
+ * Test cases of the membership filter are divided into 3 parts:
+ * 1. Test sizing, false positive rate and removal of the filter
+ * 2. Test lookups answered by the connector decorator
+ * 3. Test the filter is rebuilt after a rebalance
+ * </p>
+ */
+class CountingBloomFilterTest extends AbstractTest {
+
+    @Test
+    void testFilter_givenExpectedEntries_sizedForFalsePositiveRate() {
+        CountingBloomFilter filter = new CountingBloomFilter(1_000_000, 0.01);
+        assertThat(filter.getHashFunctions()).isEqualTo(7);
+        assertThat(filter.getCounterCount()).isBetween(9_500_000, 9_700_000);
+        assertThat(filter.getMemoryBytes()).isBetween(4_700_000L, 4_900_000L);
+        assertThatThrownBy(() -> new CountingBloomFilter(0, 0.01)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new CountingBloomFilter(100, 1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void testFilter_givenAddedKeys_noFalseNegativeAndFalsePositiveRateAsConfigured() {
+        CountingBloomFilter filter = new CountingBloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.add(CacheKey.of("key" + i));
+        }
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(filter.mightContain(CacheKey.of("key" + i))).isTrue();
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain(CacheKey.of("absent" + i))) {
+                falsePositives++;
+            }
+        }
+        assertThat(falsePositives / 100_000.0).isLessThan(0.02);
+        assertThat(filter.getEstimatedFalsePositiveRate()).isBetween(0.005, 0.02);
+        assertThat(filter.getApproximateEntries()).isEqualTo(10_000);
+    }
+
+    @Test
+    void testFilter_givenRemovedAndSaturatedKeys_noFalseNegative() {
+        CountingBloomFilter filter = new CountingBloomFilter(1000, 0.01);
+        CacheKey key = CacheKey.of("key");
+        filter.add(key);
+        filter.remove(key);
+        assertThat(filter.mightContain(key)).isFalse();
+
+        //Saturated counters are never decremented, the key stays a possible member
+        CacheKey hot = CacheKey.of("hot");
+        for (int i = 0; i < 20; i++) {
+            filter.add(hot);
+        }
+        for (int i = 0; i < 19; i++) {
+            filter.remove(hot);
+        }
+        assertThat(filter.mightContain(hot)).isTrue();
+        filter.clear();
+        assertThat(filter.mightContain(hot)).isFalse();
+    }
+
+    @Test
+    void testConnector_givenAbsentKeys_answeredLocally() {
+        DummyConnector backend = new DummyConnector();
+        BloomFilterConnector connector = new BloomFilterConnector(backend, new CountingBloomFilter(1000, 0.01));
+        connector.putToCache("key", "value");
+        //Written without the filter, so the filter can not know it
+        backend.putToCache("hidden", "value");
+
+        assertThat(connector.getFromCache("key")).contains("value");
+        assertThat(connector.getFromCache("hidden")).isNotPresent();
+        List<CacheKey> keys = new ArrayList<>();
+        keys.add(CacheKey.of("key"));
+        keys.add(CacheKey.of("missing"));
+        assertThat(connector.multiGetFromCache(keys)).containsOnlyKeys(CacheKey.of("key"));
+        assertThat(connector.getMetrics().getLookups()).isEqualTo(4);
+        assertThat(connector.getMetrics().getSkipped()).isEqualTo(2);
+
+        connector.removeFromCache("key");
+        assertThat(connector.getFilter().mightContain(CacheKey.of("key"))).isFalse();
+        assertThat(backend.getFromCache("key")).isNotPresent();
+
+        connector.rebuild();
+        assertThat(connector.getFromCache("hidden")).contains("value");
+        assertThat(connector.getMetrics().getRebuilds()).isEqualTo(1);
+    }
+
+    @Test
+    void testConnector_givenRebalance_filtersRebuiltAndKeysFound() throws IOException {
+        List<Node> nodeList = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            nodeList.add(filteredNode("filtered" + i));
+        }
+        nodeManager.init(nodeList, 0);
+        nodeManager.setRebalanceConfig(RebalanceConfig.builder().build());
+        DistributedCache distributedCache = new DistributedCache(nodeManager);
+        for (int i = 0; i < 1000; i++) {
+            distributedCache.put("key" + i, "value" + i);
+        }
+        Node newNode = filteredNode("filtered3");
+        nodeManager.nodeAdded(newNode);
+
+        for (int i = 0; i < 1000; i++) {
+            assertThat(distributedCache.get("key" + i)).contains("value" + i);
+        }
+        BloomFilterConnector connector = (BloomFilterConnector) newNode.getCache();
+        assertThat(connector.getMetrics().getRebuilds()).isEqualTo(1);
+        assertThat(connector.getFilter().getApproximateEntries()).isEqualTo(newNode.getCache().getAllFromCache().size());
+        long skipped = 0;
+        for (Node node : nodeManager.getHashedNodeList()) {
+            skipped += ((BloomFilterConnector) node.getCache()).getMetrics().getSkipped();
+        }
+        for (int i = 0; i < 1000; i++) {
+            assertThat(distributedCache.get("absent" + i)).isNotPresent();
+        }
+        for (Node node : nodeManager.getHashedNodeList()) {
+            skipped -= ((BloomFilterConnector) node.getCache()).getMetrics().getSkipped();
+        }
+        assertThat(-skipped).isGreaterThan(950);
+    }
+
+    private static Node filteredNode(String hostname) throws IOException {
+        Node node = new Node(hostname, 6379, NodeType.REDIS);
+        node.setCache(new BloomFilterConnector(new DummyConnector(), new CountingBloomFilter(10_000, 0.01)));
+        return node;
+    }
+}
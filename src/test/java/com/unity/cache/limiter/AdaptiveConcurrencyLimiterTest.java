@@ -0,0 +1,195 @@
+package com.unity.cache.limiter;
+
+import com.unity.cache.AbstractTest;
+import com.unity.cache.CacheKey;
+import com.unity.cache.Deadline;
+import com.unity.cache.connector.AdmissionControlConnector;
+import com.unity.cache.connector.DummyConnector;
+import com.unity.cache.connector.ForwardingConnector;
+import com.unity.cache.exceptions.DeadlineExceededException;
+import com.unity.cache.exceptions.OverloadException;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Test cases for {@link AdaptiveConcurrencyLimiter} and {@link AdmissionControlConnector}
+ * <p>
+ * Test cases of the admission control are divided into 3 parts:
+ * 1. Test fast rejection and bounded queuing over the limit
+ * 2. Test the limit adapts to the latency of the calls
+ * 3. Test a slow node can not take more threads than its limit
+ * 4. Test deadlines bound the queue wait and their expiry does not shrink the limit
+ * </p>
+ */
+class AdaptiveConcurrencyLimiterTest extends AbstractTest {
+
+    @Test
+    void testAcquire_givenLimitReachedAndNoQueue_rejectAtOnce() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(LimiterConfig.builder()
+                .initialLimit(2).minLimit(1).maxLimit(2).build());
+        long first = limiter.acquire();
+        limiter.acquire();
+        assertThatThrownBy(limiter::acquire).isInstanceOf(OverloadException.class).hasMessageContaining("limit 2");
+        assertThat(limiter.getMetrics().getRejected()).isEqualTo(1);
+        assertThat(limiter.getInFlight()).isEqualTo(2);
+
+        limiter.release(first, true);
+        limiter.acquire();
+        assertThat(limiter.getMetrics().getAdmitted()).isEqualTo(3);
+        assertThatThrownBy(() -> new AdaptiveConcurrencyLimiter(LimiterConfig.builder().initialLimit(0).build()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void testAcquire_givenLimitReachedAndQueue_waitForSlotOrTimeOut() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(LimiterConfig.builder()
+                .initialLimit(1).minLimit(1).maxLimit(1).maxQueueSize(1).maxWaitMillis(2000).build());
+        long start = limiter.acquire();
+        CompletableFuture<Long> waiting = CompletableFuture.supplyAsync(limiter::acquire);
+        while (limiter.getQueueDepth() == 0) {
+            Thread.sleep(1);
+        }
+        //The queue is full
+        assertThatThrownBy(limiter::acquire).isInstanceOf(OverloadException.class);
+        limiter.release(start, true);
+        limiter.release(waiting.get(5, TimeUnit.SECONDS), true);
+        assertThat(limiter.getMetrics().getQueued()).isEqualTo(1);
+        assertThat(limiter.getMetrics().getRejected()).isEqualTo(1);
+
+        AdaptiveConcurrencyLimiter shortWait = new AdaptiveConcurrencyLimiter(LimiterConfig.builder()
+                .initialLimit(1).minLimit(1).maxLimit(1).maxQueueSize(1).maxWaitMillis(20).build());
+        shortWait.acquire();
+        assertThatThrownBy(shortWait::acquire).isInstanceOf(OverloadException.class).hasMessageContaining("timed out");
+        assertThat(shortWait.getMetrics().getTimedOut()).isEqualTo(1);
+        assertThat(shortWait.getQueueDepth()).isZero();
+    }
+
+    @Test
+    void testRelease_givenSlowAndFastCalls_limitDecreasesAndIncreases() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(LimiterConfig.builder()
+                .initialLimit(10).minLimit(2).maxLimit(12).slowCallMillis(1000).backoffRatio(0.5).build());
+        //Slow calls started after the last decrease halve the limit, down to the minimum
+        for (int i = 0; i < 5; i++) {
+            long start = limiter.acquire();
+            limiter.release(start - TimeUnit.SECONDS.toNanos(2), true);
+            limiter.release(limiter.acquire(), false);
+        }
+        assertThat(limiter.getLimit()).isEqualTo(2);
+
+        //Calls in flight while the limit shrinks only shrink it once
+        AdaptiveConcurrencyLimiter burst = new AdaptiveConcurrencyLimiter(LimiterConfig.builder()
+                .initialLimit(10).slowCallMillis(1000).backoffRatio(0.5).build());
+        List<Long> starts = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            starts.add(burst.acquire());
+        }
+        starts.forEach(start -> burst.release(start, false));
+        assertThat(burst.getLimit()).isEqualTo(5);
+        assertThat(burst.getMetrics().getLimitDecreases()).isEqualTo(1);
+
+        //Fast calls which use the limit grow it by about one per round, up to the maximum
+        for (int round = 0; round < 100; round++) {
+            long[] inFlight = new long[limiter.getLimit()];
+            for (int i = 0; i < inFlight.length; i++) {
+                inFlight[i] = limiter.acquire();
+            }
+            for (long start : inFlight) {
+                limiter.release(start, true);
+            }
+        }
+        assertThat(limiter.getLimit()).isEqualTo(12);
+    }
+
+    @Test
+    void testConnector_givenSlowNode_concurrencyBoundedAndRejected() throws Exception {
+        AtomicInteger concurrent = new AtomicInteger();
+        AtomicInteger maxConcurrent = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ForwardingConnector slowNode = new ForwardingConnector(new DummyConnector()) {
+            @Override
+            public Optional<Object> getFromCache(CacheKey key) {
+                maxConcurrent.accumulateAndGet(concurrent.incrementAndGet(), Math::max);
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                concurrent.decrementAndGet();
+                return delegate.getFromCache(key);
+            }
+        };
+        AdmissionControlConnector connector = new AdmissionControlConnector(slowNode, new AdaptiveConcurrencyLimiter(
+                LimiterConfig.builder().initialLimit(4).maxQueueSize(2).maxWaitMillis(50).slowCallMillis(10).build()));
+        connector.putToCache(CacheKey.of("key"), "value");
+
+        ExecutorService threads = Executors.newFixedThreadPool(16);
+        List<CompletableFuture<Optional<Object>>> results = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            results.add(CompletableFuture.supplyAsync(() -> connector.getFromCache(CacheKey.of("key")), threads));
+        }
+        //The threads over the limit fail fast while the admitted ones are still blocked on the node
+        LimiterMetrics metrics = connector.getLimiter().getMetrics();
+        long deadline = System.currentTimeMillis() + 5000;
+        while (metrics.getRejected() + metrics.getTimedOut() < 12 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(1);
+        }
+        assertThat(concurrent.get()).isEqualTo(4);
+        release.countDown();
+        threads.shutdown();
+        assertThat(threads.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+        long failed = results.stream().filter(CompletableFuture::isCompletedExceptionally).count();
+
+        assertThat(maxConcurrent.get()).isEqualTo(4);
+        assertThat(failed).isEqualTo(12);
+        assertThat(metrics.getRejected() + metrics.getTimedOut()).isEqualTo(12);
+        assertThat(metrics.getTimedOut()).isEqualTo(2);
+        //The slow calls shrank the limit
+        assertThat(connector.getLimiter().getLimit()).isLessThan(4);
+        assertThat(connector.getLimiter().getInFlight()).isZero();
+    }
+
+    @Test
+    void testConnector_givenDeadline_queueWaitBoundedAndExpiryNotOverload() {
+        ForwardingConnector expiringNode = new ForwardingConnector(new DummyConnector()) {
+            @Override
+            public Optional<Object> getFromCache(CacheKey key, Deadline deadline) {
+                throw new DeadlineExceededException("Deadline exceeded when wait for reply");
+            }
+        };
+        AdmissionControlConnector connector = new AdmissionControlConnector(expiringNode, new AdaptiveConcurrencyLimiter(
+                LimiterConfig.builder().initialLimit(2).minLimit(1).maxLimit(2).maxQueueSize(1).maxWaitMillis(10_000).build()));
+        AdaptiveConcurrencyLimiter limiter = connector.getLimiter();
+
+        //Expired calls give back their slot without shrinking the limit
+        for (int i = 0; i < 5; i++) {
+            assertThatThrownBy(() -> connector.getFromCache(CacheKey.of("key"), Deadline.after(1, TimeUnit.SECONDS)))
+                    .isInstanceOf(DeadlineExceededException.class);
+        }
+        assertThat(limiter.getLimit()).isEqualTo(2);
+        assertThat(limiter.getInFlight()).isZero();
+
+        //A full node makes the request wait for the time left of its deadline only, not for the max wait of the queue
+        long first = limiter.acquire();
+        long second = limiter.acquire();
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> connector.getFromCache(CacheKey.of("key"), Deadline.after(50, TimeUnit.MILLISECONDS)))
+                .isInstanceOf(DeadlineExceededException.class);
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(5_000);
+        assertThat(limiter.getQueueDepth()).isZero();
+        limiter.release(first, true);
+        limiter.release(second, true);
+        assertThat(limiter.getInFlight()).isZero();
+    }
+}
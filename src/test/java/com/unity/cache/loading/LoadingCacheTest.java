@@ -0,0 +1,202 @@
+package com.unity.cache.loading;
+
+import com.unity.cache.AbstractTest;
+import com.unity.cache.DistributedCache;
+import com.unity.cache.connector.DummyConnector;
+import com.unity.cache.exceptions.InternalException;
+import com.unity.cache.node.Node;
+import com.unity.cache.node.NodeType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Test cases for {@link LoadingCache}
+ * <p>
+ * Test cases of the loading cache are divided into 4 parts:
+ * 1. Test a missing value is loaded once for concurrent readers
+ * 2. Test a read within the refresh-ahead window or picked by early expiration reloads the value in the background
+ * 3. Test an expired value is served within the stale window, and a failed reload keeps it
+ * 4. Test a reload does not overwrite a value put during it, and a loader error completes the load
+ * </p>
+ */
+class LoadingCacheTest extends AbstractTest {
+
+    private DistributedCache cache;
+    private final AtomicInteger version = new AtomicInteger();
+    private final AtomicInteger calls = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        List<Node> nodes = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Node node = new Node("loading" + i, 123, NodeType.REDIS);
+            node.setCache(new DummyConnector());
+            nodes.add(node);
+        }
+        nodeManager.init(nodes, 0);
+        cache = new DistributedCache(nodeManager);
+    }
+
+    @Test
+    void testGet_givenConcurrentReadersOfMissingKey_loadedOnce() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        LoadingCache loadingCache = new LoadingCache(cache, key -> {
+            calls.incrementAndGet();
+            await(loading);
+            return "value:" + key;
+        }, LoadingConfig.builder().build());
+
+        List<CompletableFuture<Optional<Object>>> readers = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            readers.add(CompletableFuture.supplyAsync(() -> loadingCache.get("user:1")));
+        }
+        Thread.sleep(100);
+        loading.countDown();
+        for (CompletableFuture<Optional<Object>> reader : readers) {
+            assertThat(reader.get(5, TimeUnit.SECONDS)).contains("value:user:1");
+        }
+        assertThat(calls.get()).isEqualTo(1);
+        assertThat(loadingCache.get("user:1")).contains("value:user:1");
+        assertThat(calls.get()).isEqualTo(1);
+
+        //A key without a value is not cached
+        LoadingCache absent = new LoadingCache(cache, key -> null, LoadingConfig.builder().build());
+        assertThat(absent.get("user:2")).isEmpty();
+        assertThat(cache.get("user:2")).isEmpty();
+        assertThatThrownBy(() -> new LoadingCache(cache, key -> null, LoadingConfig.builder().ttlMillis(0).build()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void testGet_givenReadWithinRefreshAheadWindow_currentValueReturnedAndReloaded() {
+        LoadingCache loadingCache = new LoadingCache(cache, versionedLoader(0), LoadingConfig.builder()
+                .ttlMillis(60_000).refreshAheadMillis(60_000).earlyExpirationBeta(0).executor(Runnable::run).build());
+        assertThat(loadingCache.get("hot")).contains("hot:1");
+        //Every read is within the window, it returns the current value and reloads it
+        assertThat(loadingCache.get("hot")).contains("hot:1");
+        assertThat(loadingCache.get("hot")).contains("hot:2");
+        assertThat(loadingCache.getLoads()).isEqualTo(1);
+        assertThat(loadingCache.getRefreshes()).isEqualTo(2);
+
+        //Neither the window nor early expiration, the value is only loaded once
+        LoadingCache plain = new LoadingCache(cache, versionedLoader(0), LoadingConfig.builder()
+                .ttlMillis(60_000).earlyExpirationBeta(0).executor(Runnable::run).build());
+        plain.get("cold");
+        for (int i = 0; i < 10; i++) {
+            assertThat(plain.get("cold")).isPresent();
+        }
+        assertThat(plain.getRefreshes()).isZero();
+
+        //A value which takes long to load is refreshed early with a large beta
+        LoadingCache early = new LoadingCache(cache, versionedLoader(5), LoadingConfig.builder()
+                .ttlMillis(60_000).earlyExpirationBeta(1e9).executor(Runnable::run).build());
+        assertThat(early.get("slow")).isPresent();
+        early.get("slow");
+        assertThat(early.getRefreshes()).isEqualTo(1);
+    }
+
+    @Test
+    void testGet_givenExpiredValue_servedStaleOrLoaded() throws Exception {
+        LoadingCache stale = new LoadingCache(cache, versionedLoader(0), LoadingConfig.builder()
+                .ttlMillis(1).staleMillis(60_000).earlyExpirationBeta(0).executor(Runnable::run).build());
+        assertThat(stale.get("key")).contains("key:1");
+        Thread.sleep(5);
+        assertThat(stale.get("key")).contains("key:1");
+        assertThat(stale.getRefreshes()).isEqualTo(1);
+        assertThat(stale.getLoads()).isEqualTo(1);
+
+        //Past the stale window the reader waits for the load
+        LoadingCache expiring = new LoadingCache(cache, versionedLoader(0), LoadingConfig.builder()
+                .ttlMillis(1).earlyExpirationBeta(0).executor(Runnable::run).build());
+        Thread.sleep(5);
+        assertThat(expiring.get("key")).contains("key:3");
+        assertThat(expiring.getLoads()).isEqualTo(1);
+
+        //A failed reload keeps the value, a failed load is thrown
+        AtomicInteger failing = new AtomicInteger();
+        LoadingCache failed = new LoadingCache(cache, key -> {
+            if (failing.incrementAndGet() > 1) {
+                throw new IllegalStateException("Database is down");
+            }
+            return "kept";
+        }, LoadingConfig.builder().ttlMillis(1).staleMillis(60_000).earlyExpirationBeta(0).executor(Runnable::run).build());
+        failed.get("failing");
+        Thread.sleep(5);
+        assertThat(failed.get("failing")).contains("kept");
+        assertThat(failed.getRefreshFailures()).isEqualTo(1);
+        failed.remove("failing");
+        assertThatThrownBy(() -> failed.get("failing")).isInstanceOf(InternalException.class).hasRootCauseMessage("Database is down");
+    }
+
+    @Test
+    void testRefresh_givenPutDuringReload_newValueKept() throws Exception {
+        CountDownLatch reloading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        LoadingCache loadingCache = new LoadingCache(cache, key -> {
+            if (calls.incrementAndGet() > 1) {
+                reloading.countDown();
+                await(release);
+            }
+            return "loaded:" + calls.get();
+        }, LoadingConfig.builder().ttlMillis(60_000).earlyExpirationBeta(0).executor(task -> new Thread(task).start()).build());
+        assertThat(loadingCache.get("user:1")).contains("loaded:1");
+
+        CompletableFuture<Object> refresh = loadingCache.refresh("user:1");
+        assertThat(reloading.await(5, TimeUnit.SECONDS)).isTrue();
+        loadingCache.put("user:1", "written");
+        release.countDown();
+        assertThat(refresh.get(5, TimeUnit.SECONDS)).isEqualTo("loaded:2");
+        assertThat(loadingCache.get("user:1")).contains("written");
+
+        //An error of the loader fails the load instead of leaving it in flight
+        AtomicInteger errors = new AtomicInteger();
+        LoadingCache failing = new LoadingCache(cache, key -> {
+            errors.incrementAndGet();
+            throw new StackOverflowError();
+        }, LoadingConfig.builder().executor(Runnable::run).build());
+        assertThatThrownBy(() -> failing.get("broken")).isInstanceOf(InternalException.class).hasCauseInstanceOf(StackOverflowError.class);
+        assertThat(failing.refresh("broken")).isCompletedExceptionally();
+        assertThat(errors.get()).isEqualTo(2);
+        assertThat(failing.getRefreshFailures()).isEqualTo(1);
+    }
+
+    /**
+     * Loader which returns the key with the number of loads so far, after sleeping for the load time
+     */
+    private Function<Serializable, Object> versionedLoader(long loadMillis) {
+        return key -> {
+            sleep(loadMillis);
+            return key + ":" + version.incrementAndGet();
+        };
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
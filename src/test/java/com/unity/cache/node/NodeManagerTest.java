@@ -1,14 +1,24 @@
 package com.unity.cache.node;
 
 import com.unity.cache.AbstractTest;
+import com.unity.cache.CacheKey;
+import com.unity.cache.connector.DummyConnector;
 import com.unity.cache.exceptions.InternalException;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 
-
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 
@@ -22,6 +32,8 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
  * 4. Test get node given 3 nodes + 1,3,5 replica, put 10000 keys, dispatch evenly
  * 5. Add new node, remove node, showdown node
  * 6. Some exception cases
+ * 7. Stable node ids, nodes built again for an address and ring snapshots
+ * 8. Topology changes queued together are applied as one ring change
  * <p>
  */
 class NodeManagerTest extends AbstractTest {
@@ -190,4 +202,152 @@ class NodeManagerTest extends AbstractTest {
         nodeManager.init(nodeList, 0);
         assertThrows(IllegalArgumentException.class, () -> nodeManager.nodeRemoved(nodeList.get(0)));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testNode_given_sameAddress_sameIdAndHash() throws IOException {
+        //Nodes created for the same address on different startups land on the same ring position
+        Node node = new Node("10.0.0.1", 6379, NodeType.REDIS);
+        Node restarted = new Node("10.0.0.1", 6379, NodeType.REDIS);
+        node.hash(3);
+        restarted.hash(3);
+        assertThat(restarted.getNodeId()).isEqualTo(node.getNodeId());
+        assertThat(restarted.getHash()).isEqualTo(node.getHash());
+        assertThat(new Node("10.0.0.2", 6379, NodeType.REDIS).getNodeId()).isNotEqualTo(node.getNodeId());
+    }
+
+    @Test
+    void testTopologyChange_given_newNodeForExistingAddress_matchedById() throws IOException {
+        //Nodes built again for an address in the ring are the same node for add, shutdown and remove
+        List<Node> nodeList = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Node node = new Node("member" + i, 6379, NodeType.REDIS);
+            node.setCache(new DummyConnector());
+            nodeList.add(node);
+        }
+        nodeManager.init(nodeList, 0);
+        for (int i = 0; i < 100; i++) {
+            nodeManager.nodeGet(i).putToCache(i, i);
+        }
+        assertThrows(IllegalArgumentException.class, () -> nodeManager.nodeAdded(new Node("member0", 6379, NodeType.REDIS)));
+        for (Node restored : nodeManager.snapshot().toNodes()) {
+            assertThrows(IllegalArgumentException.class, () -> nodeManager.nodeAdded(restored));
+        }
+        assertThat(nodeManager.getHashedNodeList()).hasSize(3);
+
+        nodeManager.nodeShuttingDown(new Node("member1", 6379, NodeType.REDIS));
+        assertThat(nodeManager.getHashedNodeList()).extracting(Node::getHostname).containsExactlyInAnyOrder("member0", "member2");
+        for (int i = 0; i < 100; i++) {
+            assertThat(nodeManager.nodeGet(i).getCache().getFromCache(i)).contains(i);
+        }
+
+        nodeManager.nodeRemoved(new Node("member2", 6379, NodeType.REDIS));
+        assertThat(nodeManager.getHashedNodeList()).extracting(Node::getHostname).containsExactly("member0");
+    }
+
+    @Test
+    void testSnapshot_given_savedRing_restoredRingRoutesIdentically(@TempDir Path dir) throws IOException {
+        //Save a ring with an unusual hash, restore it, keys go to the same addresses without rehash
+        List<Node> nodeList = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            nodeList.add(new Node("node" + i, 11211, NodeType.MEMCACHE));
+        }
+        nodeManager.init(nodeList, 3);
+        nodeList.get(0).setHash(0.123456789);
+        nodeManager.restore(nodeList, 3);
+        List<String> routes = new ArrayList<>();
+        for (int i = 0; i < 10000; i++) {
+            routes.add(nodeManager.nodeGet(i).getHostname());
+        }
+        Path file = dir.resolve("ring.snapshot");
+        nodeManager.snapshot().writeTo(file);
+
+        RingSnapshot snapshot = RingSnapshot.readFrom(file);
+        nodeManager.restore(snapshot.toNodes(), snapshot.getNumReplicas());
+        assertThat(snapshot.getNumReplicas()).isEqualTo(3);
+        assertThat(nodeManager.getHashedNodeList()).extracting(Node::getHash).contains(0.123456789);
+        assertThat(nodeManager.getHashedNodeList()).extracting(Node::getType).containsOnly(NodeType.MEMCACHE);
+        for (int i = 0; i < 10000; i++) {
+            assertThat(nodeManager.nodeGet(i).getHostname()).isEqualTo(routes.get(i));
+        }
+    }
+
+    @Test
+    void testSnapshot_given_corruptedFile_getIOException(@TempDir Path dir) throws IOException {
+        //Flip a byte of a saved snapshot, get IOException
+        nodeManager.init(getNodes(3), 0);
+        Path file = dir.resolve("ring.snapshot");
+        nodeManager.snapshot().writeTo(file);
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length / 2] ^= 1;
+        Files.write(file, bytes);
+        assertThrows(IOException.class, () -> RingSnapshot.readFrom(file));
+    }
+
+    @Test
+    void testRestore_given_nodeWithoutHash_getIllegalArgumentException() {
+        //Restore a node which was never hashed, get IllegalArgumentException
+        List<Node> nodeList = getNodes(1);
+        assertThrows(IllegalArgumentException.class, () -> nodeManager.restore(nodeList, 0));
+    }
+
+    @Test
+    void testTopologyChange_given_queuedEvents_appliedAsOneRingChange() throws IOException {
+        //Add 3 nodes and shutdown one within the debounce window, each moved key is written exactly once
+        AtomicInteger received = new AtomicInteger();
+        List<Node> nodeList = countingNodes("initial", 3, received);
+        nodeManager.init(nodeList, 0);
+        int AMOUNT = 3000;
+        List<Node> initialOwners = new ArrayList<>();
+        for (int i = 0; i < AMOUNT; i++) {
+            Node owner = nodeManager.nodeGet(i);
+            owner.putToCache(i, "value" + i);
+            initialOwners.add(owner);
+        }
+        nodeManager.setRebalanceConfig(RebalanceConfig.builder().topologyDebounceMillis(200).build());
+        try {
+            List<CompletableFuture<RebalanceProgress>> futures = new ArrayList<>();
+            for (Node node : countingNodes("added", 3, received)) {
+                futures.add(nodeManager.nodeAddedAsync(node));
+            }
+            futures.add(nodeManager.nodeShuttingDownAsync(nodeList.get(0)));
+            //Changes are checked against the ring with the queued changes applied
+            assertThrows(IllegalArgumentException.class, () -> nodeManager.nodeShuttingDownAsync(nodeList.get(0)));
+
+            RebalanceProgress progress = futures.get(0).join();
+            futures.forEach(future -> assertThat(future.join()).isSameAs(progress));
+            int changedOwner = 0;
+            for (int i = 0; i < AMOUNT; i++) {
+                Node owner = nodeManager.nodeGet(i);
+                if (!owner.sameNode(initialOwners.get(i))) {
+                    changedOwner++;
+                }
+                assertThat(owner.getCache().getFromCache(i)).contains("value" + i);
+            }
+            assertThat(nodeManager.getHashedNodeList()).hasSize(5);
+            assertThat(progress.getMovedEntries()).isEqualTo(changedOwner);
+            assertThat(received.get()).isEqualTo(changedOwner);
+            assertThat(nodeList.get(0).getCache().getAllFromCache()).isEmpty();
+        } finally {
+            nodeManager.setRebalanceConfig(RebalanceConfig.builder().build());
+        }
+    }
+
+    /**
+     * Nodes with distinct ids, their connectors count the entries they receive from migrations
+     */
+    private static List<Node> countingNodes(String prefix, int nodeNum, AtomicInteger received) throws IOException {
+        List<Node> nodes = new ArrayList<>(nodeNum);
+        for (int i = 0; i < nodeNum; i++) {
+            Node node = new Node(prefix + i, 123, NodeType.REDIS);
+            node.setCache(new DummyConnector() {
+                @Override
+                public void putAllIfAbsentToCache(Map<CacheKey, Object> entries) {
+                    received.addAndGet(entries.size());
+                    super.putAllIfAbsentToCache(entries);
+                }
+            });
+            nodes.add(node);
+        }
+        return nodes;
+    }
+}
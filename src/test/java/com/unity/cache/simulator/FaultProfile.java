@@ -0,0 +1,66 @@
+package com.unity.cache.simulator;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.Duration;
+import java.util.Random;
+
+/**
+ * FaultProfile describes how a stub server misbehaves
+ * <p>
+ * The round trip latency is applied once per batch of pipelined requests and the service time once per request,
+ * so pipelining pays the network latency once like against a real server.
+ * Each request can additionally stall, fail with an error reply or drop the connection.
+ * </p>
+ * e.g.
+ * server.setFaultProfile(FaultProfile.builder().roundTrip(LatencyDistribution.logNormal(Duration.ofMillis(1), 0.5))
+ * .stallProbability(0.001).stall(Duration.ofMillis(200)).errorProbability(0.01).build());
+ */
+@Getter
+@Builder
+public class FaultProfile {
+
+    public static final FaultProfile NONE = FaultProfile.builder().build();
+
+    //Latency of a round trip, applied once per batch of pipelined requests
+    @Builder.Default
+    private final LatencyDistribution roundTrip = LatencyDistribution.none();
+
+    //Processing time of each request
+    @Builder.Default
+    private final LatencyDistribution serviceTime = LatencyDistribution.none();
+
+    //Random extra latency in range [0, jitter) added to each round trip
+    @Builder.Default
+    private final Duration jitter = Duration.ZERO;
+
+    //Probability that a request stalls, e.g. for a GC pause or a slow disk
+    private final double stallProbability;
+    @Builder.Default
+    private final Duration stall = Duration.ZERO;
+
+    //Probability that a request is answered with an error
+    private final double errorProbability;
+
+    //Probability that the connection is dropped instead of answering a request
+    private final double disconnectProbability;
+
+    long roundTripNanos(Random random) {
+        long jitterNanos = jitter.isZero() ? 0 : (long) (random.nextDouble() * jitter.toNanos());
+        return roundTrip.sampleNanos(random) + jitterNanos;
+    }
+
+    long serviceNanos(Random random) {
+        long stallNanos = random.nextDouble() < stallProbability ? stall.toNanos() : 0;
+        return serviceTime.sampleNanos(random) + stallNanos;
+    }
+
+    boolean shouldFail(Random random) {
+        return random.nextDouble() < errorProbability;
+    }
+
+    boolean shouldDisconnect(Random random) {
+        return random.nextDouble() < disconnectProbability;
+    }
+}
@@ -0,0 +1,44 @@
+package com.unity.cache.simulator;
+
+import java.time.Duration;
+import java.util.Random;
+
+/**
+ * LatencyDistribution samples the simulated latency of a request in nanoseconds
+ */
+@FunctionalInterface
+public interface LatencyDistribution {
+
+    long sampleNanos(Random random);
+
+    static LatencyDistribution none() {
+        return random -> 0;
+    }
+
+    static LatencyDistribution fixed(Duration latency) {
+        long nanos = latency.toNanos();
+        return random -> nanos;
+    }
+
+    static LatencyDistribution uniform(Duration min, Duration max) {
+        long minNanos = min.toNanos();
+        long range = max.toNanos() - minNanos;
+        return random -> minNanos + (long) (random.nextDouble() * range);
+    }
+
+    static LatencyDistribution exponential(Duration mean) {
+        long meanNanos = mean.toNanos();
+        return random -> (long) (-meanNanos * Math.log(1 - random.nextDouble()));
+    }
+
+    /**
+     * Log-normal latency, which has the long tail of real network latencies
+     *
+     * @param median median latency
+     * @param sigma  shape of the tail, e.g. 0.5 gives p99 of about 3.2 times the median
+     */
+    static LatencyDistribution logNormal(Duration median, double sigma) {
+        double mu = Math.log(median.toNanos());
+        return random -> (long) Math.exp(mu + sigma * random.nextGaussian());
+    }
+}
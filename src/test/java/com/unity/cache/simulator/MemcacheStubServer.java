@@ -0,0 +1,201 @@
+package com.unity.cache.simulator;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MemcacheStubServer is an in-process server which speaks enough memcache text protocol for the Memcache connector
+ * <p>
+ * Data is kept in memory and expiration times are honoured. Latency and failures can be injected with a {@link FaultProfile}.
+ * Supported commands: get, gets, set, add, replace, delete, incr, decr, flush_all, version, stats, quit
+ * </p>
+ */
+public class MemcacheStubServer extends StubServer {
+
+    //Expiration times larger than 30 days are absolute unix times
+    private static final long MAX_RELATIVE_EXPIRATION_SECONDS = TimeUnit.DAYS.toSeconds(30);
+
+    private final Map<String, Item> data = new ConcurrentHashMap<>();
+
+    public MemcacheStubServer() throws IOException {
+        super("memcache-stub");
+    }
+
+    /**
+     * Number of live items stored
+     */
+    public int size() {
+        data.entrySet().removeIf(entry -> entry.getValue().isExpired());
+        return data.size();
+    }
+
+    @Override
+    protected boolean serveRequest(InputStream in, OutputStream out, boolean injectError) throws IOException {
+        String[] tokens = readLine(in).trim().split(" +");
+        String command = tokens[0].toLowerCase();
+        byte[] payload = null;
+        if (isStorageCommand(command)) {
+            payload = readBytes(in, Integer.parseInt(tokens[4]));
+        }
+        boolean noReply = "noreply".equals(tokens[tokens.length - 1]);
+        if (injectError && !noReply) {
+            writeLine(out, "SERVER_ERROR injected failure");
+            return true;
+        }
+        ByteArrayOutputStream reply = new ByteArrayOutputStream();
+        boolean keepOpen = execute(tokens, payload, reply);
+        if (!noReply) {
+            reply.writeTo(out);
+        }
+        return keepOpen;
+    }
+
+    private boolean execute(String[] tokens, byte[] payload, OutputStream out) throws IOException {
+        String command = tokens[0].toLowerCase();
+        switch (command) {
+            case "get":
+            case "gets":
+                for (int i = 1; i < tokens.length; i++) {
+                    Item item = live(tokens[i]);
+                    if (item != null) {
+                        writeLine(out, "VALUE " + tokens[i] + " " + item.flags + " " + item.data.length + ("gets".equals(command) ? " " + item.cas : ""));
+                        out.write(item.data);
+                        writeLine(out, "");
+                    }
+                }
+                writeLine(out, "END");
+                return true;
+            case "set":
+            case "add":
+            case "replace":
+                Item item = new Item(Integer.parseInt(tokens[2]), expiresAt(Long.parseLong(tokens[3])), payload);
+                boolean exists = live(tokens[1]) != null;
+                if (("add".equals(command) && exists) || ("replace".equals(command) && !exists)) {
+                    writeLine(out, "NOT_STORED");
+                } else {
+                    data.put(tokens[1], item);
+                    writeLine(out, "STORED");
+                }
+                return true;
+            case "delete":
+                writeLine(out, live(tokens[1]) != null && data.remove(tokens[1]) != null ? "DELETED" : "NOT_FOUND");
+                return true;
+            case "incr":
+            case "decr":
+                writeLine(out, incr(tokens[1], "incr".equals(command) ? Long.parseLong(tokens[2]) : -Long.parseLong(tokens[2])));
+                return true;
+            case "flush_all":
+                data.clear();
+                writeLine(out, "OK");
+                return true;
+            case "version":
+                writeLine(out, "VERSION 1.6.0-stub");
+                return true;
+            case "stats":
+                long bytes = data.values().stream().mapToLong(value -> value.data.length).sum();
+                writeLine(out, "STAT curr_items " + size());
+                writeLine(out, "STAT bytes " + bytes);
+                writeLine(out, "STAT total_items " + getRequestCount());
+                writeLine(out, "END");
+                return true;
+            case "quit":
+                return false;
+            default:
+                writeLine(out, "ERROR");
+                return true;
+        }
+    }
+
+    private synchronized String incr(String key, long delta) {
+        Item item = live(key);
+        if (item == null) {
+            return "NOT_FOUND";
+        }
+        long value = Math.max(0, Long.parseLong(new String(item.data, StandardCharsets.US_ASCII).trim()) + delta);
+        data.put(key, new Item(item.flags, item.expiresAtMillis, Long.toString(value).getBytes(StandardCharsets.US_ASCII)));
+        return Long.toString(value);
+    }
+
+    private Item live(String key) {
+        Item item = data.get(key);
+        if (item != null && item.isExpired()) {
+            data.remove(key, item);
+            return null;
+        }
+        return item;
+    }
+
+    private static long expiresAt(long expiration) {
+        if (expiration <= 0) {
+            return 0;
+        }
+        return expiration > MAX_RELATIVE_EXPIRATION_SECONDS
+                ? TimeUnit.SECONDS.toMillis(expiration)
+                : System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(expiration);
+    }
+
+    private static boolean isStorageCommand(String command) {
+        return "set".equals(command) || "add".equals(command) || "replace".equals(command);
+    }
+
+    private static String readLine(InputStream in) throws IOException {
+        ByteArrayOutputStream line = new ByteArrayOutputStream();
+        int b;
+        while ((b = in.read()) != '\n') {
+            if (b < 0) {
+                throw new EOFException();
+            }
+            if (b != '\r') {
+                line.write(b);
+            }
+        }
+        return new String(line.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private static byte[] readBytes(InputStream in, int length) throws IOException {
+        byte[] bytes = new byte[length];
+        int offset = 0;
+        while (offset < length) {
+            int read = in.read(bytes, offset, length - offset);
+            if (read < 0) {
+                throw new EOFException();
+            }
+            offset += read;
+        }
+        readLine(in);
+        return bytes;
+    }
+
+    private static void writeLine(OutputStream out, String line) throws IOException {
+        out.write((line + "\r\n").getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static final class Item {
+        private static long nextCas;
+
+        private final int flags;
+        private final long expiresAtMillis;
+        private final byte[] data;
+        private final long cas;
+
+        private Item(int flags, long expiresAtMillis, byte[] data) {
+            this.flags = flags;
+            this.expiresAtMillis = expiresAtMillis;
+            this.data = data;
+            synchronized (Item.class) {
+                this.cas = ++nextCas;
+            }
+        }
+
+        private boolean isExpired() {
+            return expiresAtMillis != 0 && System.currentTimeMillis() >= expiresAtMillis;
+        }
+    }
+}
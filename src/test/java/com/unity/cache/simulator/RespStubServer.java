@@ -0,0 +1,250 @@
+package com.unity.cache.simulator;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+
+/**
+ * RespStubServer is an in-process server which speaks enough RESP for the Redis connectors
+ * <p>
+ * Data is kept in memory. Latency and failures can be injected with a {@link FaultProfile}.
+ * Supported commands: PING, GET, SET (and SET NX), DEL, MGET, MSET, FLUSHALL, FLUSHDB, DBSIZE, SCAN (with MATCH), INFO, QUIT
+ * </p>
+ */
+public class RespStubServer extends StubServer {
+
+    private final Map<String, byte[]> data = new ConcurrentSkipListMap<>();
+
+    public RespStubServer() throws IOException {
+        super("resp-stub");
+    }
+
+    /**
+     * Number of keys stored
+     */
+    public int size() {
+        return data.size();
+    }
+
+    @Override
+    protected boolean serveRequest(InputStream in, OutputStream out, boolean injectError) throws IOException {
+        List<byte[]> command = readCommand(in);
+        if (injectError) {
+            writeError(out, "ERR injected failure");
+            return true;
+        }
+        if ("QUIT".equalsIgnoreCase(new String(command.get(0), StandardCharsets.UTF_8))) {
+            writeSimple(out, "OK");
+            return false;
+        }
+        execute(command, out);
+        return true;
+    }
+
+    /**
+     * Execute one command and write its reply, it can be overridden to change the behaviour of the server
+     */
+    protected void execute(List<byte[]> command, OutputStream out) throws IOException {
+        String name = new String(command.get(0), StandardCharsets.UTF_8).toUpperCase();
+        switch (name) {
+            case "PING":
+                writeSimple(out, "PONG");
+                break;
+            case "GET":
+                writeBulk(out, data.get(key(command.get(1))));
+                break;
+            case "SET":
+                if (command.size() > 3 && "NX".equalsIgnoreCase(key(command.get(3)))) {
+                    if (data.putIfAbsent(key(command.get(1)), command.get(2)) == null) {
+                        writeSimple(out, "OK");
+                    } else {
+                        writeBulk(out, null);
+                    }
+                    break;
+                }
+                data.put(key(command.get(1)), command.get(2));
+                writeSimple(out, "OK");
+                break;
+            case "INCRBY":
+                byte[] counter = data.get(key(command.get(1)));
+                long incremented = (counter == null ? 0 : Long.parseLong(new String(counter, StandardCharsets.UTF_8)))
+                        + Long.parseLong(key(command.get(2)));
+                data.put(key(command.get(1)), Long.toString(incremented).getBytes(StandardCharsets.UTF_8));
+                writeInteger(out, incremented);
+                break;
+            case "DEL":
+                long deleted = 0;
+                for (int i = 1; i < command.size(); i++) {
+                    deleted += data.remove(key(command.get(i))) == null ? 0 : 1;
+                }
+                writeInteger(out, deleted);
+                break;
+            case "MGET":
+                writeArrayHeader(out, command.size() - 1);
+                for (int i = 1; i < command.size(); i++) {
+                    writeBulk(out, data.get(key(command.get(i))));
+                }
+                break;
+            case "MSET":
+                for (int i = 1; i + 1 < command.size(); i += 2) {
+                    data.put(key(command.get(i)), command.get(i + 1));
+                }
+                writeSimple(out, "OK");
+                break;
+            case "FLUSHALL":
+            case "FLUSHDB":
+                data.clear();
+                writeSimple(out, "OK");
+                break;
+            case "DBSIZE":
+                writeInteger(out, data.size());
+                break;
+            case "SCAN":
+                scan(command, out);
+                break;
+            case "INFO":
+                long usedMemory = data.values().stream().mapToLong(value -> value.length).sum();
+                writeBulk(out, ("# Memory\r\nused_memory:" + usedMemory + "\r\n").getBytes(StandardCharsets.UTF_8));
+                break;
+            default:
+                writeError(out, "ERR unknown command '" + name + "'");
+        }
+    }
+
+    /**
+     * SCAN cursor [MATCH pattern] [COUNT count], the cursor is the position in the sorted key set
+     * Like Redis, the pattern filters the keys of the page, so a page can be empty before the end
+     */
+    private void scan(List<byte[]> command, OutputStream out) throws IOException {
+        int cursor = Integer.parseInt(new String(command.get(1), StandardCharsets.UTF_8));
+        int count = 10;
+        Pattern match = null;
+        for (int i = 2; i + 1 < command.size(); i += 2) {
+            String option = new String(command.get(i), StandardCharsets.UTF_8);
+            if ("COUNT".equalsIgnoreCase(option)) {
+                count = Integer.parseInt(new String(command.get(i + 1), StandardCharsets.UTF_8));
+            } else if ("MATCH".equalsIgnoreCase(option)) {
+                match = globToRegex(new String(command.get(i + 1), StandardCharsets.ISO_8859_1));
+            }
+        }
+        List<String> keys = new ArrayList<>(data.keySet());
+        int end = Math.min(keys.size(), cursor + count);
+        List<String> page = new ArrayList<>();
+        for (int i = cursor; i < end; i++) {
+            if (match == null || match.matcher(keys.get(i)).matches()) {
+                page.add(keys.get(i));
+            }
+        }
+        writeArrayHeader(out, 2);
+        writeBulk(out, String.valueOf(end >= keys.size() ? 0 : end).getBytes(StandardCharsets.UTF_8));
+        writeArrayHeader(out, page.size());
+        for (String key : page) {
+            writeBulk(out, key.getBytes(StandardCharsets.ISO_8859_1));
+        }
+    }
+
+    /**
+     * Glob pattern with *, ? and backslash escapes to regex
+     */
+    private static Pattern globToRegex(String glob) {
+        StringBuilder regex = new StringBuilder();
+        for (int i = 0; i < glob.length(); i++) {
+            char c = glob.charAt(i);
+            if (c == '\\' && i + 1 < glob.length()) {
+                regex.append(Pattern.quote(String.valueOf(glob.charAt(++i))));
+            } else if (c == '*') {
+                regex.append(".*");
+            } else if (c == '?') {
+                regex.append('.');
+            } else {
+                regex.append(Pattern.quote(String.valueOf(c)));
+            }
+        }
+        return Pattern.compile(regex.toString(), Pattern.DOTALL);
+    }
+
+    protected static String key(byte[] bytes) {
+        return new String(bytes, StandardCharsets.ISO_8859_1);
+    }
+
+    protected static void writeSimple(OutputStream out, String value) throws IOException {
+        out.write(('+' + value + "\r\n").getBytes(StandardCharsets.UTF_8));
+    }
+
+    protected static void writeError(OutputStream out, String message) throws IOException {
+        out.write(('-' + message + "\r\n").getBytes(StandardCharsets.UTF_8));
+    }
+
+    protected static void writeInteger(OutputStream out, long value) throws IOException {
+        out.write((":" + value + "\r\n").getBytes(StandardCharsets.UTF_8));
+    }
+
+    protected static void writeArrayHeader(OutputStream out, int size) throws IOException {
+        out.write(("*" + size + "\r\n").getBytes(StandardCharsets.UTF_8));
+    }
+
+    protected static void writeBulk(OutputStream out, byte[] value) throws IOException {
+        if (value == null) {
+            out.write("$-1\r\n".getBytes(StandardCharsets.UTF_8));
+            return;
+        }
+        out.write(("$" + value.length + "\r\n").getBytes(StandardCharsets.UTF_8));
+        out.write(value);
+        out.write("\r\n".getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static List<byte[]> readCommand(InputStream in) throws IOException {
+        int type = in.read();
+        if (type < 0) {
+            throw new EOFException();
+        }
+        if (type != '*') {
+            throw new IOException("Inline commands are not supported");
+        }
+        int size = (int) readLong(in);
+        List<byte[]> args = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            if (in.read() != '$') {
+                throw new IOException("Bulk string expected");
+            }
+            byte[] arg = new byte[(int) readLong(in)];
+            int offset = 0;
+            while (offset < arg.length) {
+                int read = in.read(arg, offset, arg.length - offset);
+                if (read < 0) {
+                    throw new EOFException();
+                }
+                offset += read;
+            }
+            in.read();
+            in.read();
+            args.add(arg);
+        }
+        return args;
+    }
+
+    private static long readLong(InputStream in) throws IOException {
+        long value = 0;
+        boolean negative = false;
+        int b;
+        while ((b = in.read()) != '\r') {
+            if (b < 0) {
+                throw new EOFException();
+            }
+            if (b == '-') {
+                negative = true;
+            } else {
+                value = value * 10 + (b - '0');
+            }
+        }
+        in.read();
+        return negative ? -value : value;
+    }
+}
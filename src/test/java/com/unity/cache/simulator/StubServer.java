@@ -0,0 +1,169 @@
+package com.unity.cache.simulator;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * StubServer is the base of in-process protocol simulators used by tests and load tests
+ * <p>
+ * It listens on a random loopback port and serves each connection with its own thread.
+ * Replies of pipelined requests are flushed together once no more input is buffered.
+ * Latency and failures are injected as described by the {@link FaultProfile}, which can be changed at any time.
+ * </p>
+ */
+public abstract class StubServer implements Closeable {
+
+    private final ServerSocket serverSocket;
+    private final Set<Socket> sockets = ConcurrentHashMap.newKeySet();
+    private final AtomicLong requestCount = new AtomicLong();
+    private final AtomicLong injectedErrorCount = new AtomicLong();
+    private volatile boolean closed;
+
+    @Getter
+    @Setter
+    private volatile FaultProfile faultProfile = FaultProfile.NONE;
+
+    protected StubServer(String name) throws IOException {
+        this.serverSocket = new ServerSocket(0, 128, InetAddress.getLoopbackAddress());
+        Thread acceptor = new Thread(this::acceptLoop, name + "-acceptor");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    public String getHost() {
+        return serverSocket.getInetAddress().getHostAddress();
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Number of requests served since start
+     */
+    public long getRequestCount() {
+        return requestCount.get();
+    }
+
+    /**
+     * Number of requests answered with an injected error
+     */
+    public long getInjectedErrorCount() {
+        return injectedErrorCount.get();
+    }
+
+    /**
+     * Drop all client connections, the server keeps accepting new ones
+     */
+    public void dropConnections() {
+        for (Socket socket : sockets) {
+            closeQuietly(socket);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        serverSocket.close();
+        dropConnections();
+    }
+
+    /**
+     * Read one request and write its reply
+     *
+     * @return false if the request is a quit request and the connection should be closed
+     * @throws java.io.EOFException if the client closes the connection
+     */
+    protected abstract boolean serveRequest(InputStream in, OutputStream out, boolean injectError) throws IOException;
+
+    private void acceptLoop() {
+        while (!closed) {
+            try {
+                Socket socket = serverSocket.accept();
+                socket.setTcpNoDelay(true);
+                sockets.add(socket);
+                Thread worker = new Thread(() -> serve(socket), "stub-" + socket.getPort());
+                worker.setDaemon(true);
+                worker.start();
+            } catch (IOException e) {
+                //server socket is closed
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        Random random = ThreadLocalRandom.current();
+        try (InputStream in = new BufferedInputStream(socket.getInputStream());
+             OutputStream out = new BufferedOutputStream(socket.getOutputStream())) {
+            boolean newBatch = true;
+            while (!closed) {
+                //Wait for the first byte of a request so latency is not injected while the client is idle
+                in.mark(1);
+                if (in.read() < 0) {
+                    return;
+                }
+                in.reset();
+
+                FaultProfile profile = faultProfile;
+                if (newBatch) {
+                    sleep(profile.roundTripNanos(random));
+                }
+                sleep(profile.serviceNanos(random));
+                if (profile.shouldDisconnect(random)) {
+                    return;
+                }
+                boolean injectError = profile.shouldFail(random);
+                if (injectError) {
+                    injectedErrorCount.incrementAndGet();
+                }
+                requestCount.incrementAndGet();
+                if (!serveRequest(in, out, injectError)) {
+                    out.flush();
+                    return;
+                }
+                newBatch = in.available() == 0;
+                if (newBatch) {
+                    out.flush();
+                }
+            }
+        } catch (IOException e) {
+            //connection is closed
+        } finally {
+            sockets.remove(socket);
+            closeQuietly(socket);
+        }
+    }
+
+    private static void sleep(long nanos) {
+        long deadline = System.nanoTime() + nanos;
+        long remaining = nanos;
+        while (remaining > 0) {
+            LockSupport.parkNanos(remaining);
+            remaining = deadline - System.nanoTime();
+        }
+    }
+
+    private static void closeQuietly(Socket socket) {
+        try {
+            socket.close();
+        } catch (IOException e) {
+            //ignore
+        }
+    }
+}
@@ -0,0 +1,257 @@
+package com.unity.cache.simulator;
+
+import com.unity.cache.AbstractTest;
+import com.unity.cache.CacheKey;
+import com.unity.cache.Deadline;
+import com.unity.cache.DistributedCache;
+import com.unity.cache.connector.MemcacheConnector;
+import com.unity.cache.connector.RedisConnector;
+import com.unity.cache.connector.RespConnector;
+import com.unity.cache.connector.ScanPage;
+import com.unity.cache.exceptions.DeadlineExceededException;
+import com.unity.cache.node.Node;
+import com.unity.cache.node.NodeType;
+import org.junit.jupiter.api.Test;
+
+import java.io.Serializable;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Test cases for {@link RespStubServer} and {@link MemcacheStubServer}
+ * <p>
+ * Test cases of the stub servers are divided into 3 parts:
+ * 1. Test the real connectors talk to the stub servers over loopback
+ * 2. Test injected latency, which makes pipelining gains measurable
+ * 3. Test injected failures
+ * 4. Test the connectors abandon requests at their deadline
+ * 5. Test the cluster-wide scan pages through the servers
+ * 6. Test counters are incremented by the servers
+ * </p>
+ */
+class StubServerTest extends AbstractTest {
+
+    @Test
+    void testRedisConnector_givenRespStub_getPutRemove() throws Exception {
+        try (RespStubServer server = new RespStubServer();
+             RedisConnector connector = new RedisConnector(server.getHost(), server.getPort())) {
+            connector.putToCache("key", "value");
+            connector.putToCache(CacheKey.of("bytes"), new byte[]{1, 2});
+            assertThat(connector.getFromCache("key")).contains("value");
+            assertThat((byte[]) connector.getFromCache(CacheKey.of("bytes")).get()).containsExactly(1, 2);
+            assertThat(connector.getAllFromCache()).hasSize(2);
+            assertThat(connector.getUsedMemoryBytes()).isPositive();
+            connector.removeFromCache("key");
+            assertThat(connector.getFromCache("key")).isNotPresent();
+            connector.evictCache();
+            assertThat(server.size()).isZero();
+        }
+    }
+
+    @Test
+    void testMemcacheConnector_givenMemcacheStub_getPutRemove() throws Exception {
+        try (MemcacheStubServer server = new MemcacheStubServer()) {
+            MemcacheConnector connector = new MemcacheConnector(server.getHost(), server.getPort());
+            try {
+                connector.putToCache("key", "value");
+                connector.putToCache(CacheKey.of(1), 42);
+                assertThat(connector.getFromCache("key")).contains("value");
+                assertThat(connector.getFromCache(1)).contains(42);
+                List<CacheKey> keys = new ArrayList<>();
+                keys.add(CacheKey.of("key"));
+                keys.add(CacheKey.of("missing"));
+                assertThat(connector.multiGetFromCache(keys)).hasSize(1);
+                assertThat(connector.getUsedMemoryBytes()).isPositive();
+                connector.removeFromCache("key");
+                assertThat(connector.getFromCache("key")).isNotPresent();
+            } finally {
+                connector.close();
+            }
+        }
+    }
+
+    @Test
+    void testLatency_givenRoundTripLatency_pipeliningPaysItOnce() throws Exception {
+        try (RespStubServer server = new RespStubServer();
+             RespConnector connector = new RespConnector(server.getHost(), server.getPort(), 1, 5000)) {
+            List<CacheKey> keys = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                keys.add(CacheKey.of(i));
+                connector.putToCache(keys.get(i), "value" + i);
+            }
+            server.setFaultProfile(FaultProfile.builder().roundTrip(LatencyDistribution.fixed(Duration.ofMillis(10))).build());
+
+            long start = System.nanoTime();
+            for (CacheKey key : keys) {
+                connector.getFromCache(key);
+            }
+            long sequentialMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+            start = System.nanoTime();
+            assertThat(connector.multiGetFromCache(keys)).hasSize(20);
+            long pipelinedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+            assertThat(sequentialMillis).isGreaterThanOrEqualTo(200);
+            assertThat(pipelinedMillis).isLessThan(sequentialMillis / 4);
+        }
+    }
+
+    @Test
+    void testFailure_givenErrorProbability_errorsSurface() throws Exception {
+        try (RespStubServer server = new RespStubServer();
+             RespConnector connector = new RespConnector(server.getHost(), server.getPort())) {
+            server.setFaultProfile(FaultProfile.builder().errorProbability(1).build());
+            assertThatThrownBy(() -> connector.getFromCache("key")).hasMessageContaining("injected failure");
+            assertThat(server.getInjectedErrorCount()).isEqualTo(1);
+
+            server.setFaultProfile(FaultProfile.NONE);
+            assertThat(connector.getFromCache("key")).isNotPresent();
+        }
+    }
+
+    @Test
+    void testFailure_givenStall_timeout() throws Exception {
+        try (RespStubServer server = new RespStubServer();
+             RespConnector connector = new RespConnector(server.getHost(), server.getPort(), 1, 100)) {
+            server.setFaultProfile(FaultProfile.builder().stallProbability(1).stall(Duration.ofMillis(500)).build());
+            assertThatThrownBy(() -> connector.getFromCache("key")).hasMessageContaining("No reply");
+        }
+    }
+
+    @Test
+    void testDeadline_givenSlowRespStub_respConnectorGivesUpAtDeadline() throws Exception {
+        try (RespStubServer server = new RespStubServer();
+             RespConnector connector = new RespConnector(server.getHost(), server.getPort(), 1, 5000)) {
+            connector.putToCache(CacheKey.of("key"), "value");
+            assertDeadlineEnforced(server, deadline -> connector.getFromCache(CacheKey.of("key"), deadline));
+            assertThat(connector.getFromCache(CacheKey.of("key"), Deadline.after(5, TimeUnit.SECONDS))).contains("value");
+        }
+    }
+
+    @Test
+    void testDeadline_givenSlowRespStub_redisConnectorGivesUpAtDeadline() throws Exception {
+        try (RespStubServer server = new RespStubServer();
+             RedisConnector connector = new RedisConnector(server.getHost(), server.getPort())) {
+            connector.putToCache(CacheKey.of("key"), "value");
+            assertDeadlineEnforced(server, deadline -> connector.getFromCache(CacheKey.of("key"), deadline));
+            //The timed out connection is dropped, the next request gets a working one
+            assertThat(connector.getFromCache(CacheKey.of("key"), Deadline.after(5, TimeUnit.SECONDS))).contains("value");
+        }
+    }
+
+    @Test
+    void testDeadline_givenSlowMemcacheStub_memcacheConnectorGivesUpAtDeadline() throws Exception {
+        try (MemcacheStubServer server = new MemcacheStubServer()) {
+            MemcacheConnector connector = new MemcacheConnector(server.getHost(), server.getPort());
+            try {
+                connector.putToCache(CacheKey.of("key"), "value");
+                assertThat(connector.getFromCache(CacheKey.of("key"))).contains("value");
+                List<CacheKey> keys = new ArrayList<>();
+                keys.add(CacheKey.of("key"));
+                assertDeadlineEnforced(server, deadline -> connector.multiGetFromCache(keys, deadline));
+                assertThat(connector.getFromCache(CacheKey.of("key"), Deadline.after(5, TimeUnit.SECONDS))).contains("value");
+            } finally {
+                connector.close();
+            }
+        }
+    }
+
+    @Test
+    void testScan_givenRespStubs_pagedAndFilteredByServer() throws Exception {
+        try (RespStubServer first = new RespStubServer();
+             RespStubServer second = new RespStubServer();
+             RespConnector firstConnector = new RespConnector(first.getHost(), first.getPort());
+             RedisConnector secondConnector = new RedisConnector(second.getHost(), second.getPort())) {
+            List<Node> nodes = new ArrayList<>();
+            nodes.add(new Node("first", first.getPort(), NodeType.REDIS));
+            nodes.add(new Node("second", second.getPort(), NodeType.REDIS));
+            nodes.get(0).setCache(firstConnector);
+            nodes.get(1).setCache(secondConnector);
+            //Fixed positions, the ids depend on the random ports and could leave the first node only a few keys
+            nodes.get(0).setHash(0.25);
+            nodes.get(1).setHash(0.75);
+            nodeManager.restore(nodes, 0);
+            DistributedCache cache = new DistributedCache(nodeManager);
+            for (int i = 0; i < 500; i++) {
+                cache.put("user:" + i, "value" + i);
+                cache.put("order:" + i, "value" + i);
+            }
+            cache.put("a*b", "glob");
+            cache.put("axb", "plain");
+
+            ScanPage page = firstConnector.scanPage(null, "user:", 50);
+            assertThat(page.isLast()).isFalse();
+            assertThat(page.getEntries()).hasSizeLessThanOrEqualTo(50)
+                    .allMatch(entry -> entry.getKey().toString().startsWith("user:"));
+
+            long requests = first.getRequestCount() + second.getRequestCount();
+            List<Serializable> users = cache.scan("user:", 50).parallel().map(Map.Entry::getKey).collect(Collectors.toList());
+            assertThat(users).hasSize(500).doesNotHaveDuplicates();
+            //Multiple pages are read from each node
+            assertThat(first.getRequestCount() + second.getRequestCount() - requests).isGreaterThan(4);
+            assertThat(cache.scan().count()).isEqualTo(1002);
+            //Glob characters of the prefix are matched literally
+            assertThat(cache.scan("a*").map(Map.Entry::getValue).collect(Collectors.toList())).containsExactly("glob");
+        }
+    }
+
+    /**
+     * A request with a passed deadline is not sent, a request to a slow server fails at its deadline
+     * The fault profile of the server is reset afterwards
+     */
+    private static void assertDeadlineEnforced(StubServer server, Consumer<Deadline> request) throws InterruptedException {
+        long requests = server.getRequestCount();
+        Deadline expired = Deadline.after(0, TimeUnit.MILLISECONDS);
+        assertThatThrownBy(() -> request.accept(expired)).isInstanceOf(DeadlineExceededException.class)
+                .hasMessageContaining("not sent");
+        assertThat(server.getRequestCount()).isEqualTo(requests);
+
+        server.setFaultProfile(FaultProfile.builder().roundTrip(LatencyDistribution.fixed(Duration.ofMillis(500))).build());
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> request.accept(Deadline.after(50, TimeUnit.MILLISECONDS))).isInstanceOf(DeadlineExceededException.class);
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isBetween(40L, 400L);
+        server.setFaultProfile(FaultProfile.NONE);
+        //Let the delayed reply of the abandoned request arrive
+        Thread.sleep(600);
+    }
+
+    @Test
+    void testLatency_givenDistributions_sampledInRange() {
+        java.util.Random random = new java.util.Random(1);
+        LatencyDistribution uniform = LatencyDistribution.uniform(Duration.ofMillis(1), Duration.ofMillis(2));
+        LatencyDistribution logNormal = LatencyDistribution.logNormal(Duration.ofMillis(1), 0.5);
+        for (int i = 0; i < 1000; i++) {
+            assertThat(uniform.sampleNanos(random)).isBetween(1_000_000L, 2_000_000L);
+            assertThat(logNormal.sampleNanos(random)).isPositive();
+        }
+        assertThat(LatencyDistribution.exponential(Duration.ofMillis(1)).sampleNanos(random)).isNotNegative();
+    }
+
+    @Test
+    void testIncrement_givenStubServers_countedByServer() throws Exception {
+        try (RespStubServer resp = new RespStubServer();
+             MemcacheStubServer memcache = new MemcacheStubServer();
+             RespConnector respConnector = new RespConnector(resp.getHost(), resp.getPort());
+             RedisConnector redisConnector = new RedisConnector(resp.getHost(), resp.getPort())) {
+            MemcacheConnector memcacheConnector = new MemcacheConnector(memcache.getHost(), memcache.getPort());
+            try {
+                CacheKey counter = CacheKey.of("counter");
+                assertThat(respConnector.incrementInCache(counter, 5)).isEqualTo(5);
+                assertThat(redisConnector.incrementInCache(counter, 2)).isEqualTo(7);
+                assertThat(respConnector.getFromCache(counter)).contains("7");
+                assertThat(memcacheConnector.incrementInCache(counter, 3)).isEqualTo(3);
+                assertThat(memcacheConnector.incrementInCache(counter, 4)).isEqualTo(7);
+            } finally {
+                memcacheConnector.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.unity.cache.slowlog;
+
+import com.unity.cache.AbstractTest;
+import com.unity.cache.CacheKey;
+import com.unity.cache.DistributedCache;
+import com.unity.cache.connector.DummyConnector;
+import com.unity.cache.connector.SlowOperationConnector;
+import com.unity.cache.node.Node;
+import com.unity.cache.node.NodeType;
+import org.junit.jupiter.api.Test;
+
+import javax.management.Attribute;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Test cases for {@link SlowOperationLog} and {@link SlowOperationConnector}
+ * <p>
+ * Test cases of the slow operation log are divided into 3 parts:
+ * 1. Test only the requests over the threshold are recorded, with their node, key hash and size
+ * 2. Test the ring buffer keeps the newest operations under concurrent writers
+ * 3. Test the log is readable and configurable through JMX
+ * 4. Test conditional and bulk requests are recorded too
+ * </p>
+ */
+class SlowOperationLogTest extends AbstractTest {
+
+    @Test
+    void testConnector_givenSlowAndFastRequests_onlySlowRecorded() throws Exception {
+        SlowOperationLog log = new SlowOperationLog(16, 20, TimeUnit.MILLISECONDS);
+        List<Node> nodes = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            Node node = new Node("slow" + i, 123, NodeType.REDIS);
+            node.setCache(new SlowOperationConnector(new DummyConnector() {
+                @Override
+                public Optional<Object> getFromCache(CacheKey key) {
+                    if ("slow".equals(key.getKey())) {
+                        sleep(30);
+                    }
+                    return super.getFromCache(key);
+                }
+            }, log, "slow" + i + ":123"));
+            nodes.add(node);
+        }
+        nodeManager.init(nodes, 0);
+        DistributedCache cache = new DistributedCache(nodeManager);
+        for (int i = 0; i < 100; i++) {
+            cache.put(i, "value" + i);
+            cache.get(i);
+        }
+        assertThat(log.getSlowOperations()).isEmpty();
+
+        cache.put("slow", new byte[12]);
+        cache.get("slow");
+        List<SlowOperation> operations = log.getSlowOperations();
+        assertThat(operations).hasSize(1);
+        SlowOperation operation = operations.get(0);
+        Node owner = nodeManager.nodeGet(CacheKey.of("slow"));
+        assertThat(operation.getNode()).isEqualTo(owner.getHostname() + ":123");
+        assertThat(operation.getType()).isEqualTo(SlowOperation.Type.GET);
+        assertThat(operation.getKeys()).isEqualTo(1);
+        assertThat(operation.getKeyHash()).isEqualTo(CacheKey.of("slow").getHash());
+        assertThat(operation.getPayloadBytes()).isEqualTo(12);
+        assertThat(operation.getDurationNanos()).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(20));
+        assertThat(operation.getTimestampMillis()).isBetween(System.currentTimeMillis() - 5000, System.currentTimeMillis());
+
+        //The size of a String value depends on its encoding, so it is not known
+        cache.put("slow", "twelve chars");
+        cache.get("slow");
+        assertThat(log.getSlowOperations().get(0).getPayloadBytes()).isEqualTo(-1);
+    }
+
+    @Test
+    void testConnector_givenSlowConditionalAndBulkRequests_recorded() {
+        SlowOperationLog log = new SlowOperationLog(16, 20, TimeUnit.MILLISECONDS);
+        SlowOperationConnector connector = new SlowOperationConnector(new DummyConnector() {
+            @Override
+            public boolean putIfAbsentToCache(CacheKey key, Object value) {
+                sleep(30);
+                return super.putIfAbsentToCache(key, value);
+            }
+
+            @Override
+            public void putAllIfAbsentToCache(Map<CacheKey, Object> entries) {
+                sleep(30);
+                entries.forEach(super::putIfAbsentToCache);
+            }
+
+            @Override
+            public boolean removeFromCacheIfPresent(CacheKey key) {
+                sleep(30);
+                return super.removeFromCacheIfPresent(key);
+            }
+
+            @Override
+            public void removeAllFromCache(Collection<CacheKey> keys) {
+                sleep(30);
+                keys.forEach(super::removeFromCacheIfPresent);
+            }
+        }, log, "node:123");
+        Map<CacheKey, Object> entries = new HashMap<>();
+        entries.put(CacheKey.of("a"), new byte[3]);
+        entries.put(CacheKey.of("b"), new byte[4]);
+
+        connector.putAllIfAbsentToCache(entries);
+        connector.removeAllFromCache(entries.keySet());
+        assertThat(connector.putIfAbsentToCache(CacheKey.of("c"), new byte[5])).isTrue();
+        assertThat(connector.removeFromCacheIfPresent(CacheKey.of("c"))).isTrue();
+
+        List<SlowOperation> operations = log.getSlowOperations();
+        assertThat(operations).extracting(SlowOperation::getType).containsExactlyInAnyOrder(SlowOperation.Type.PUT_ALL_IF_ABSENT,
+                SlowOperation.Type.REMOVE_ALL, SlowOperation.Type.PUT_IF_ABSENT, SlowOperation.Type.REMOVE_IF_PRESENT);
+        assertThat(operations).filteredOn(operation -> operation.getType() == SlowOperation.Type.PUT_ALL_IF_ABSENT)
+                .extracting(SlowOperation::getKeys).containsExactly(2);
+        assertThat(operations).filteredOn(operation -> operation.getType() == SlowOperation.Type.PUT_IF_ABSENT)
+                .extracting(SlowOperation::getPayloadBytes).containsExactly(5L);
+    }
+
+    @Test
+    void testRecord_givenMoreOperationsThanCapacity_newestKept() throws Exception {
+        SlowOperationLog log = new SlowOperationLog(5, 0, TimeUnit.MILLISECONDS);
+        assertThat(log.getCapacity()).isEqualTo(8);
+        for (int i = 0; i < 20; i++) {
+            log.record("node", SlowOperation.Type.PUT, 1, 0.5, i, 1000);
+        }
+        List<SlowOperation> operations = log.getSlowOperations();
+        assertThat(operations).hasSize(8);
+        for (int i = 0; i < 8; i++) {
+            assertThat(operations.get(i).getPayloadBytes()).isEqualTo(19 - i);
+        }
+
+        //Each slot holds one whole operation, whatever the interleaving of the writers
+        List<CompletableFuture<Void>> writers = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            long id = t;
+            writers.add(CompletableFuture.runAsync(() -> {
+                for (int i = 0; i < 10000; i++) {
+                    log.record("writer" + id, SlowOperation.Type.values()[(int) id % 6], (int) id, id, id, id);
+                }
+            }));
+        }
+        CompletableFuture.allOf(writers.toArray(new CompletableFuture[0])).join();
+        assertThat(log.getRecordedCount() + log.getDroppedCount()).isEqualTo(20 + 80000);
+        for (SlowOperation operation : log.getSlowOperations()) {
+            long id = operation.getDurationNanos();
+            assertThat(operation.getNode()).isEqualTo("writer" + id);
+            assertThat(operation.getType()).isEqualTo(SlowOperation.Type.values()[(int) id % 6]);
+            assertThat(operation.getKeyHash()).isEqualTo(id);
+            assertThat(operation.getPayloadBytes()).isEqualTo(id);
+        }
+
+        log.clear();
+        assertThat(log.getSlowOperations()).isEmpty();
+        assertThatThrownBy(() -> new SlowOperationLog(0, 1, TimeUnit.MILLISECONDS)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> log.setThresholdMicros(-1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void testMBean_givenRegisteredLog_operationsReadableAndThresholdSettable() throws Exception {
+        SlowOperationLog log = new SlowOperationLog(4, 10, TimeUnit.MILLISECONDS);
+        ObjectName name = log.registerMBean("test");
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            log.record("node", SlowOperation.Type.MULTI_GET, 50, -1, -1, 42);
+            CompositeData[] operations = (CompositeData[]) server.getAttribute(name, "SlowOperations");
+            assertThat(operations).hasSize(1);
+            assertThat(operations[0].get("type")).isEqualTo("MULTI_GET");
+            assertThat(operations[0].get("keys")).isEqualTo(50);
+            assertThat(operations[0].get("durationNanos")).isEqualTo(42L);
+
+            server.setAttribute(name, new Attribute("ThresholdMicros", 500L));
+            assertThat(log.isSlow(TimeUnit.MICROSECONDS.toNanos(499))).isFalse();
+            assertThat(log.isSlow(TimeUnit.MICROSECONDS.toNanos(500))).isTrue();
+            assertThatThrownBy(() -> log.registerMBean("test")).hasMessageContaining("test");
+        } finally {
+            log.unregisterMBean("test");
+        }
+        assertThat(ManagementFactory.getPlatformMBeanServer().isRegistered(name)).isFalse();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
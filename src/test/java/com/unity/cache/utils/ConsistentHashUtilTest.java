@@ -1,10 +1,15 @@
 package com.unity.cache.utils;
 
 import com.unity.cache.AbstractTest;
+import org.apache.commons.lang3.SerializationUtils;
 import org.junit.jupiter.api.Test;
 
+import java.io.Serializable;
+import java.math.BigInteger;
+import java.security.MessageDigest;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -15,6 +20,9 @@ import static org.assertj.core.api.Assertions.assertThat;
  * 1. Test binary search given no same input
  * 2. Test binary search given same input
  * 3. Test myHash
+ * 4. Test myHash of primitive keys is the same as the hash of the serialized boxed key
+ * 5. Test myHash of strings and parts of strings is the same as the hash of the serialized string
+ * 6. Test myHashDecimal is the same as the hash of the serialized decimal string
  * </p>
  */
 class ConsistentHashUtilTest extends AbstractTest {
@@ -72,4 +80,110 @@ class ConsistentHashUtilTest extends AbstractTest {
         hash = ConsistentHashUtil.myHash(createObject(Float.class));
         assertThat(hash).isLessThan(1).isPositive();
     }
+
+    @Test
+    void testMyHash_givenPrimitiveKeys_sameAsSerializedBoxedKeys() throws Exception {
+        long[] longs = {0, 1, -1, 42, Long.MIN_VALUE, Long.MAX_VALUE, Integer.MAX_VALUE + 1L};
+        for (long value : longs) {
+            assertThat(ConsistentHashUtil.myHash(value)).isEqualTo(serializedHash(value));
+        }
+        int[] ints = {0, 1, -1, 42, Integer.MIN_VALUE, Integer.MAX_VALUE};
+        for (int value : ints) {
+            assertThat(ConsistentHashUtil.myHash(value)).isEqualTo(serializedHash(value));
+        }
+        Random random = new Random(7);
+        for (int i = 0; i < 10000; i++) {
+            long longValue = random.nextLong();
+            assertThat(ConsistentHashUtil.myHash(longValue)).isEqualTo(serializedHash(longValue));
+            int intValue = random.nextInt();
+            assertThat(ConsistentHashUtil.myHash(intValue)).isEqualTo(serializedHash(intValue));
+        }
+    }
+
+    @Test
+    void testBinarySearch_givenArray_sameAsList() {
+        Random random = new Random(3);
+        double[] array = new double[50];
+        List<Double> list = new ArrayList<>();
+        for (int i = 0; i < array.length; i++) {
+            array[i] = random.nextDouble();
+        }
+        java.util.Arrays.sort(array);
+        for (double value : array) {
+            list.add(value);
+        }
+        for (int i = 0; i < 1000; i++) {
+            double hash = random.nextDouble();
+            assertThat(ConsistentHashUtil.binarySearch(array, hash)).isEqualTo(ConsistentHashUtil.binarySearch(list, hash));
+        }
+        assertThat(ConsistentHashUtil.binarySearch(array, array[7])).isEqualTo(7);
+    }
+
+    @Test
+    void testMyHash_givenStrings_sameAsSerializedStrings() throws Exception {
+        StringBuilder longString = new StringBuilder();
+        for (int i = 0; i < 40000; i++) {
+            longString.append("\u00e9");
+        }
+        String[] strings = {"", "key", "user:1", "\u0000", "\u007f\u0080\u07ff\u0800\uffff", "caf\u00e9 \u6771\u4eac",
+                "\ud83d\ude00", "\ud800", longString.toString(), longString.toString() + "\u6771"};
+        for (String value : strings) {
+            assertThat(ConsistentHashUtil.myHash(value)).isEqualTo(serializedHash(value));
+        }
+        Random random = new Random(5);
+        for (int i = 0; i < 2000; i++) {
+            char[] chars = new char[random.nextInt(300)];
+            for (int j = 0; j < chars.length; j++) {
+                chars[j] = (char) (random.nextBoolean() ? random.nextInt(128) : random.nextInt(Character.MAX_VALUE + 1));
+            }
+            String value = new String(chars);
+            assertThat(ConsistentHashUtil.myHash(value)).isEqualTo(serializedHash(value));
+            int begin = random.nextInt(chars.length + 1);
+            int end = begin + random.nextInt(chars.length - begin + 1);
+            assertThat(ConsistentHashUtil.myHash(value, begin, end)).isEqualTo(serializedHash(value.substring(begin, end)));
+        }
+    }
+
+    @Test
+    void testMyHashDecimal_givenNumbers_sameAsSerializedDecimalStrings() throws Exception {
+        long[] edges = {0, 1, -1, 9, 10, -10, 99, 100, Integer.MAX_VALUE, Integer.MIN_VALUE, Long.MAX_VALUE, Long.MIN_VALUE,
+                Long.MIN_VALUE + 1, 999_999_999_999_999_999L, 1_000_000_000_000_000_000L};
+        for (long value : edges) {
+            assertThat(ConsistentHashUtil.myHashDecimal(value)).isEqualTo(serializedHash(Long.toString(value)));
+        }
+        Random random = new Random(7);
+        for (int i = 0; i < 2000; i++) {
+            long value = random.nextLong() >> random.nextInt(64);
+            assertThat(ConsistentHashUtil.myHashDecimal(value)).isEqualTo(serializedHash(Long.toString(value)));
+        }
+    }
+
+    @Test
+    void testUnsignedToDouble_givenRandomBits_sameAsBigInteger() {
+        long[][] edges = {{0, 0}, {0, -1}, {0, Long.MAX_VALUE}, {1, 0}, {-1, -1}, {0x1FFFFFFFFFFFFFL, -1},
+                {0, 0x20000000000001L << 10}, {Long.MIN_VALUE, 0x400}, {Long.MIN_VALUE, 0}};
+        for (long[] edge : edges) {
+            assertThat(ConsistentHashUtil.unsignedToDouble(edge[0], edge[1])).isEqualTo(bigIntegerValue(edge[0], edge[1]));
+        }
+        Random random = new Random(11);
+        for (int i = 0; i < 100000; i++) {
+            long high = random.nextLong() >>> random.nextInt(64);
+            long low = random.nextLong();
+            assertThat(ConsistentHashUtil.unsignedToDouble(high, low)).isEqualTo(bigIntegerValue(high, low));
+        }
+    }
+
+    private static double serializedHash(Serializable key) throws Exception {
+        byte[] bytes = MessageDigest.getInstance("MD5").digest(SerializationUtils.serialize(key));
+        return new BigInteger(1, bytes).doubleValue() % 1000000 / 1000000.0;
+    }
+
+    private static double bigIntegerValue(long high, long low) {
+        byte[] bytes = new byte[16];
+        for (int i = 0; i < 8; i++) {
+            bytes[i] = (byte) (high >>> (56 - 8 * i));
+            bytes[i + 8] = (byte) (low >>> (56 - 8 * i));
+        }
+        return new BigInteger(1, bytes).doubleValue();
+    }
 }
@@ -0,0 +1,59 @@
+package com.unity.cache.workload;
+
+import java.util.Random;
+
+/**
+ * KeyDistribution picks which record an operation touches, as an index in [0, recordCount)
+ */
+@FunctionalInterface
+public interface KeyDistribution {
+
+    /**
+     * YCSB default skew, a few hundred keys take most of the traffic
+     */
+    double DEFAULT_ZIPFIAN_CONSTANT = 0.99;
+
+    long nextIndex(Random random);
+
+    static KeyDistribution uniform(long recordCount) {
+        if (recordCount <= 0) {
+            throw new IllegalArgumentException("Record count must be larger than 0");
+        }
+        return random -> (long) (random.nextDouble() * recordCount);
+    }
+
+    static KeyDistribution zipfian(long recordCount) {
+        return zipfian(recordCount, DEFAULT_ZIPFIAN_CONSTANT);
+    }
+
+    /**
+     * Zipfian distribution where index 0 is the most popular record, see {@link ZipfianDistribution}
+     *
+     * @param recordCount number of records
+     * @param theta       skew, 0 is uniform and values close to 1 are very skewed
+     */
+    static KeyDistribution zipfian(long recordCount, double theta) {
+        return new ZipfianDistribution(recordCount, theta);
+    }
+
+    /**
+     * Hotspot distribution, a fraction of the operations goes uniformly to a small hot set at the start of the key space
+     *
+     * @param recordCount    number of records
+     * @param hotSetFraction fraction of the records which are hot, e.g. 0.2
+     * @param hotOpFraction  fraction of the operations which touch the hot set, e.g. 0.8
+     */
+    static KeyDistribution hotspot(long recordCount, double hotSetFraction, double hotOpFraction) {
+        if (recordCount <= 0) {
+            throw new IllegalArgumentException("Record count must be larger than 0");
+        }
+        if (hotSetFraction <= 0 || hotSetFraction >= 1 || hotOpFraction < 0 || hotOpFraction > 1) {
+            throw new IllegalArgumentException("Hot set fraction must be in (0, 1) and hot operation fraction in [0, 1]");
+        }
+        long hotSet = Math.max(1, (long) (recordCount * hotSetFraction));
+        long coldSet = recordCount - hotSet;
+        return random -> random.nextDouble() < hotOpFraction || coldSet == 0
+                ? (long) (random.nextDouble() * hotSet)
+                : hotSet + (long) (random.nextDouble() * coldSet);
+    }
+}
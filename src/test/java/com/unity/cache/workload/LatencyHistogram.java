@@ -0,0 +1,93 @@
+package com.unity.cache.workload;
+
+/**
+ * LatencyHistogram records latencies in nanoseconds into log-linear buckets
+ * <p>
+ * Values below 128 are exact, larger values keep 64 sub-buckets per power of two (below 1.6% error).
+ * It is not thread safe: each worker records into its own histogram and they are merged at the end.
+ * </p>
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 6;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int EXACT_BUCKETS = SUB_BUCKETS * 2;
+    private static final int BUCKETS = EXACT_BUCKETS + (63 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final long[] counts = new long[BUCKETS];
+    private long count;
+    private long sum;
+    private long max;
+
+    static int bucketOf(long value) {
+        if (value < EXACT_BUCKETS) {
+            return (int) Math.max(0, value);
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return EXACT_BUCKETS + (shift - 1) * SUB_BUCKETS + (int) ((value >>> shift) - SUB_BUCKETS);
+    }
+
+    /**
+     * Largest value which falls in the bucket
+     */
+    static long highestValueOf(int bucket) {
+        if (bucket < EXACT_BUCKETS) {
+            return bucket;
+        }
+        int shift = (bucket - EXACT_BUCKETS) / SUB_BUCKETS + 1;
+        long subBucket = (bucket - EXACT_BUCKETS) % SUB_BUCKETS + SUB_BUCKETS;
+        return ((subBucket + 1) << shift) - 1;
+    }
+
+    public void record(long nanos) {
+        counts[bucketOf(nanos)]++;
+        count++;
+        sum += nanos;
+        max = Math.max(max, nanos);
+    }
+
+    public void merge(LatencyHistogram other) {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] += other.counts[i];
+        }
+        count += other.count;
+        sum += other.sum;
+        max = Math.max(max, other.max);
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getMaxNanos() {
+        return max;
+    }
+
+    public double getMeanNanos() {
+        return count == 0 ? 0 : (double) sum / count;
+    }
+
+    /**
+     * Get the latency at a percentile
+     *
+     * @param percentile percentile in [0, 100]
+     * @return latency in nanoseconds, 0 if nothing was recorded
+     */
+    public long getPercentileNanos(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("Percentile must be in [0, 100]");
+        }
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(highestValueOf(i), max);
+            }
+        }
+        return max;
+    }
+}
@@ -0,0 +1,10 @@
+package com.unity.cache.workload;
+
+/**
+ * Operations issued by the workload driver
+ */
+public enum Operation {
+    READ,
+    WRITE,
+    DELETE
+}
@@ -0,0 +1,44 @@
+package com.unity.cache.workload;
+
+import java.util.Random;
+
+/**
+ * ValueSizeDistribution samples the size in bytes of a written value
+ */
+@FunctionalInterface
+public interface ValueSizeDistribution {
+
+    int nextSize(Random random);
+
+    static ValueSizeDistribution fixed(int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Value size must be larger than 0");
+        }
+        return random -> size;
+    }
+
+    static ValueSizeDistribution uniform(int min, int max) {
+        if (min <= 0) {
+            throw new IllegalArgumentException("Value size must be larger than 0");
+        }
+        if (max < min) {
+            throw new IllegalArgumentException("Max value size must be equal or larger than min value size");
+        }
+        return random -> min + random.nextInt(max - min + 1);
+    }
+
+    /**
+     * Mostly small values with a long tail of large ones, as seen for serialized objects
+     *
+     * @param median median size in bytes
+     * @param sigma  shape of the tail
+     * @param max    sizes are capped to this
+     */
+    static ValueSizeDistribution logNormal(int median, double sigma, int max) {
+        if (median <= 0) {
+            throw new IllegalArgumentException("Value size must be larger than 0");
+        }
+        double mu = Math.log(median);
+        return random -> (int) Math.min(max, Math.max(1, Math.exp(mu + sigma * random.nextGaussian())));
+    }
+}
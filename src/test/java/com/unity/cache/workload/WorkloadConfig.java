@@ -0,0 +1,69 @@
+package com.unity.cache.workload;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * WorkloadConfig describes a YCSB-style workload
+ * <p>
+ * Proportions of reads, writes and deletes are normalized by their sum.
+ * When no key distribution is given, a zipfian distribution over the record count is used.
+ * </p>
+ */
+@Getter
+@Builder
+public class WorkloadConfig {
+
+    //Number of records, keys are KEY_PREFIX + index
+    @Builder.Default
+    private final long recordCount = 10_000;
+
+    //Number of operations of the run phase, split over the threads
+    @Builder.Default
+    private final long operationCount = 100_000;
+
+    @Builder.Default
+    private final double readProportion = 0.95;
+
+    @Builder.Default
+    private final double writeProportion = 0.05;
+
+    @Builder.Default
+    private final double deleteProportion = 0;
+
+    private final KeyDistribution keyDistribution;
+
+    @Builder.Default
+    private final ValueSizeDistribution valueSize = ValueSizeDistribution.fixed(100);
+
+    @Builder.Default
+    private final int threads = 8;
+
+    //Target operations per second of all threads, 0 or less means as fast as possible
+    @Builder.Default
+    private final double targetOpsPerSecond = 0;
+
+    //Whether to insert every record before the run phase
+    @Builder.Default
+    private final boolean load = true;
+
+    @Builder.Default
+    private final long seed = 42;
+
+    KeyDistribution resolveKeyDistribution() {
+        return keyDistribution != null ? keyDistribution : KeyDistribution.zipfian(recordCount);
+    }
+
+    void validate() {
+        if (recordCount <= 0 || operationCount < 0 || threads <= 0) {
+            throw new IllegalArgumentException("Record count and threads must be larger than 0, operation count can not be negative");
+        }
+        if (readProportion < 0 || writeProportion < 0 || deleteProportion < 0
+                || readProportion + writeProportion + deleteProportion <= 0) {
+            throw new IllegalArgumentException("Operation proportions can not be negative and at least one must be positive");
+        }
+        if (valueSize == null) {
+            throw new IllegalArgumentException("Value size distribution can not be null");
+        }
+    }
+}
@@ -0,0 +1,237 @@
+package com.unity.cache.workload;
+
+import com.unity.cache.CacheKey;
+import com.unity.cache.DistributedCache;
+import com.unity.cache.concurrent.CacheExecutors;
+import com.unity.cache.connector.DummyConnector;
+import com.unity.cache.exceptions.InternalException;
+import com.unity.cache.node.Node;
+import com.unity.cache.node.NodeManager;
+import com.unity.cache.node.NodeType;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * WorkloadDriver drives a {@link DistributedCache} with a YCSB-style workload and reports the result
+ * <p>
+ * The load phase inserts every record, the run phase issues the configured mix of operations from a number of threads.
+ * With a target throughput each thread follows a fixed schedule and latency is measured from the scheduled start,
+ * so a slow response also counts against the operations queued behind it (no coordinated omission).
+ * Topology is expected to be stable during a run, per-node load is counted by asking {@link NodeManager} for the owner of each key.
+ * Run the main method for a quick run against in-memory nodes, e.g. from the IDE after mvn test-compile
+ * </p>
+ */
+public class WorkloadDriver {
+
+    public static final String KEY_PREFIX = "user";
+
+    private final DistributedCache cache;
+    private final NodeManager nodeManager;
+    private final WorkloadConfig config;
+
+    public WorkloadDriver(DistributedCache cache, NodeManager nodeManager, WorkloadConfig config) {
+        if (cache == null || nodeManager == null || config == null) {
+            throw new IllegalArgumentException("Cache, node manager and config can not be null");
+        }
+        config.validate();
+        this.cache = cache;
+        this.nodeManager = nodeManager;
+        this.config = config;
+    }
+
+    public static void main(String[] args) throws IOException {
+        int nodes = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+        NodeManager nodeManager = NodeManager.getInstance();
+        nodeManager.init(inMemoryNodes(nodes), 0);
+        WorkloadConfig config = WorkloadConfig.builder()
+                .recordCount(100_000)
+                .operationCount(1_000_000)
+                .build();
+        WorkloadDriver driver = new WorkloadDriver(new DistributedCache(nodeManager), nodeManager, config);
+        driver.load();
+        System.out.print(driver.run());
+    }
+
+    /**
+     * Create nodes backed by in-memory connectors
+     *
+     * @param count number of nodes
+     * @return nodes, not yet added to a node manager
+     */
+    public static List<Node> inMemoryNodes(int count) throws IOException {
+        List<Node> nodes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Node node = new Node("memory" + i, 0, NodeType.REDIS);
+            node.setCache(new DummyConnector());
+            nodes.add(node);
+        }
+        return nodes;
+    }
+
+    public static CacheKey keyOf(long index) {
+        return CacheKey.of(KEY_PREFIX + index);
+    }
+
+    /**
+     * Insert every record, unless the config disables the load phase
+     */
+    public void load() {
+        if (!config.isLoad()) {
+            return;
+        }
+        Random random = new Random(config.getSeed());
+        for (long i = 0; i < config.getRecordCount(); i++) {
+            cache.put(keyOf(i), newValue(random));
+        }
+    }
+
+    /**
+     * Run the configured operations and wait for all threads
+     *
+     * @return report of the run
+     * @throws InternalException if a worker fails
+     */
+    public WorkloadReport run() {
+        List<Node> nodes = new ArrayList<>(nodeManager.getHashedNodeList());
+        Map<Node, Integer> nodeIndexes = new IdentityHashMap<>();
+        nodes.forEach(node -> nodeIndexes.put(node, nodeIndexes.size()));
+
+        int threads = config.getThreads();
+        long intervalNanos = config.getTargetOpsPerSecond() > 0
+                ? (long) (TimeUnit.SECONDS.toNanos(1) * threads / config.getTargetOpsPerSecond()) : 0;
+        ExecutorService executor = Executors.newFixedThreadPool(threads, CacheExecutors.daemonThreadFactory("workload-"));
+        List<Future<Worker>> futures = new ArrayList<>(threads);
+        long start = System.nanoTime();
+        try {
+            for (int i = 0; i < threads; i++) {
+                long operations = config.getOperationCount() / threads + (i < config.getOperationCount() % threads ? 1 : 0);
+                Worker worker = new Worker(config.getSeed() + i + 1, operations, nodeIndexes, start, intervalNanos);
+                futures.add(executor.submit(worker, worker));
+            }
+            List<Worker> workers = new ArrayList<>(threads);
+            for (Future<Worker> future : futures) {
+                workers.add(future.get());
+            }
+            return report(workers, nodes, System.nanoTime() - start);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InternalException("Workload interrupted");
+        } catch (ExecutionException e) {
+            throw new InternalException("Workload failed: " + e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private WorkloadReport report(List<Worker> workers, List<Node> nodes, long elapsedNanos) {
+        Map<Operation, LatencyHistogram> latencies = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            latencies.put(operation, new LatencyHistogram());
+        }
+        long[] nodeOperations = new long[nodes.size()];
+        long operations = 0;
+        long readHits = 0;
+        for (Worker worker : workers) {
+            worker.latencies.forEach((operation, histogram) -> latencies.get(operation).merge(histogram));
+            for (int i = 0; i < nodeOperations.length; i++) {
+                nodeOperations[i] += worker.nodeOperations[i];
+            }
+            operations += worker.operations;
+            readHits += worker.readHits;
+        }
+        Map<String, Long> operationsPerNode = new LinkedHashMap<>();
+        Map<String, Long> entriesPerNode = new LinkedHashMap<>();
+        for (int i = 0; i < nodes.size(); i++) {
+            Node node = nodes.get(i);
+            String name = node.getHostname() + ":" + node.getPort();
+            operationsPerNode.merge(name, nodeOperations[i], Long::sum);
+            entriesPerNode.merge(name, (long) node.getCache().getAllFromCache().size(), Long::sum);
+        }
+        return new WorkloadReport(operations, elapsedNanos, readHits, latencies, operationsPerNode, entriesPerNode);
+    }
+
+    private byte[] newValue(Random random) {
+        byte[] value = new byte[config.getValueSize().nextSize(random)];
+        random.nextBytes(value);
+        return value;
+    }
+
+    private class Worker implements Runnable {
+
+        private final Random random;
+        private final long operations;
+        private final Map<Node, Integer> nodeIndexes;
+        private final long start;
+        private final long intervalNanos;
+        private final KeyDistribution keys = config.resolveKeyDistribution();
+        private final Map<Operation, LatencyHistogram> latencies = new EnumMap<>(Operation.class);
+        private final long[] nodeOperations;
+        private long readHits;
+
+        private Worker(long seed, long operations, Map<Node, Integer> nodeIndexes, long start, long intervalNanos) {
+            this.random = new Random(seed);
+            this.operations = operations;
+            this.nodeIndexes = nodeIndexes;
+            this.start = start;
+            this.intervalNanos = intervalNanos;
+            this.nodeOperations = new long[nodeIndexes.size()];
+            for (Operation operation : Operation.values()) {
+                latencies.put(operation, new LatencyHistogram());
+            }
+        }
+
+        @Override
+        public void run() {
+            double total = config.getReadProportion() + config.getWriteProportion() + config.getDeleteProportion();
+            double readBound = config.getReadProportion() / total;
+            double writeBound = readBound + config.getWriteProportion() / total;
+            for (long i = 0; i < operations; i++) {
+                double choice = random.nextDouble();
+                Operation operation = choice < readBound ? Operation.READ : choice < writeBound ? Operation.WRITE : Operation.DELETE;
+                CacheKey key = keyOf(keys.nextIndex(random));
+                byte[] value = operation == Operation.WRITE ? newValue(random) : null;
+                Integer nodeIndex = nodeIndexes.get(nodeManager.nodeGet(key));
+                if (nodeIndex != null) {
+                    nodeOperations[nodeIndex]++;
+                }
+
+                long scheduled = intervalNanos > 0 ? start + i * intervalNanos : System.nanoTime();
+                waitUntil(scheduled);
+                switch (operation) {
+                    case READ:
+                        if (cache.get(key).isPresent()) {
+                            readHits++;
+                        }
+                        break;
+                    case WRITE:
+                        cache.put(key, value);
+                        break;
+                    default:
+                        cache.remove(key);
+                }
+                latencies.get(operation).record(System.nanoTime() - scheduled);
+            }
+        }
+
+        private void waitUntil(long nanoTime) {
+            long remaining = nanoTime - System.nanoTime();
+            while (remaining > 0) {
+                LockSupport.parkNanos(remaining);
+                remaining = nanoTime - System.nanoTime();
+            }
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.unity.cache.workload;
+
+import com.unity.cache.AbstractTest;
+import com.unity.cache.DistributedCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Test cases for {@link WorkloadDriver}
+ * <p>
+ * Test cases of the workload harness are divided into 3 parts:
+ * 1. Test key distributions
+ * 2. Test the latency histogram
+ * 3. Test workload runs against in-memory nodes
+ * </p>
+ */
+class WorkloadDriverTest extends AbstractTest {
+
+    private static final int SAMPLES = 100_000;
+
+    private DistributedCache distributedCache;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        nodeManager.init(WorkloadDriver.inMemoryNodes(4), 0);
+        distributedCache = new DistributedCache(nodeManager);
+    }
+
+    @Test
+    void testKeyDistribution_givenZipfian_skewedToLowIndexes() {
+        long[] counts = sample(KeyDistribution.zipfian(10_000), 10_000);
+        long top100 = 0;
+        for (int i = 0; i < 100; i++) {
+            top100 += counts[i];
+        }
+        //1% of the keys take about half of the operations with theta 0.99
+        assertThat((double) top100 / SAMPLES).isGreaterThan(0.4);
+        assertThat(counts[0]).isGreaterThan(counts[10]).isGreaterThan(counts[1000]);
+    }
+
+    @Test
+    void testKeyDistribution_givenUniformAndHotspot_expectedShares() {
+        long[] uniform = sample(KeyDistribution.uniform(10), 10);
+        for (long count : uniform) {
+            assertThat((double) count / SAMPLES).isCloseTo(0.1, within(0.01));
+        }
+
+        long[] hotspot = sample(KeyDistribution.hotspot(100, 0.2, 0.8), 100);
+        long hot = 0;
+        for (int i = 0; i < 20; i++) {
+            hot += hotspot[i];
+        }
+        assertThat((double) hot / SAMPLES).isCloseTo(0.8, within(0.01));
+        assertThatThrownBy(() -> KeyDistribution.hotspot(100, 1, 0.5)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void testLatencyHistogram_givenKnownValues_percentilesWithinPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long i = 1; i <= 10_000; i++) {
+            histogram.record(i * 1000);
+        }
+        assertThat(histogram.getCount()).isEqualTo(10_000);
+        assertThat(histogram.getMaxNanos()).isEqualTo(10_000_000);
+        assertThat((double) histogram.getPercentileNanos(50)).isCloseTo(5_000_000, within(5_000_000 * 0.02));
+        assertThat((double) histogram.getPercentileNanos(99)).isCloseTo(9_900_000, within(9_900_000 * 0.02));
+        assertThat(histogram.getPercentileNanos(100)).isEqualTo(10_000_000);
+
+        for (long value = 0; value < 1 << 20; value += 7) {
+            int bucket = LatencyHistogram.bucketOf(value);
+            assertThat(LatencyHistogram.highestValueOf(bucket)).isGreaterThanOrEqualTo(value);
+            assertThat(LatencyHistogram.bucketOf(LatencyHistogram.highestValueOf(bucket))).isEqualTo(bucket);
+        }
+    }
+
+    @Test
+    void testWorkload_givenMix_allOperationsReported() {
+        WorkloadConfig config = WorkloadConfig.builder()
+                .recordCount(1000)
+                .operationCount(20_000)
+                .readProportion(0.5)
+                .writeProportion(0.4)
+                .deleteProportion(0.1)
+                .valueSize(ValueSizeDistribution.uniform(10, 1000))
+                .threads(4)
+                .build();
+        WorkloadDriver driver = new WorkloadDriver(distributedCache, nodeManager, config);
+        driver.load();
+        WorkloadReport report = driver.run();
+
+        assertThat(report.getOperations()).isEqualTo(20_000);
+        assertThat(report.getLatencies().get(Operation.READ).getCount()).isCloseTo(10_000, within(500L));
+        assertThat(report.getLatencies().get(Operation.DELETE).getCount()).isCloseTo(2_000, within(300L));
+        assertThat(report.getReadHitRatio()).isBetween(0.5, 1.0);
+        assertThat(report.getOperationsPerNode()).hasSize(4);
+        assertThat(report.getOperationsPerNode().values().stream().mapToLong(Long::longValue).sum()).isEqualTo(20_000);
+        assertThat(report.getEntriesPerNode().values().stream().mapToLong(Long::longValue).sum()).isLessThanOrEqualTo(1000);
+        assertThat(report.getLoadImbalance()).isGreaterThanOrEqualTo(1);
+        assertThat(report.toString()).contains("READ", "p99", "memory0:0");
+    }
+
+    @Test
+    void testWorkload_givenTargetThroughput_paced() {
+        WorkloadConfig config = WorkloadConfig.builder()
+                .recordCount(100)
+                .operationCount(1000)
+                .readProportion(1)
+                .writeProportion(0)
+                .threads(2)
+                .targetOpsPerSecond(2000)
+                .build();
+        WorkloadReport report = new WorkloadDriver(distributedCache, nodeManager, config).run();
+
+        assertThat(TimeUnit.NANOSECONDS.toMillis(report.getElapsedNanos())).isGreaterThanOrEqualTo(450);
+        assertThat(report.getThroughput()).isLessThan(2200);
+        assertThat(report.getReadHitRatio()).isZero();
+    }
+
+    private static long[] sample(KeyDistribution distribution, int recordCount) {
+        Random random = new Random(1);
+        long[] counts = new long[recordCount];
+        for (int i = 0; i < SAMPLES; i++) {
+            counts[(int) distribution.nextIndex(random)]++;
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,68 @@
+package com.unity.cache.workload;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * WorkloadReport is the result of a workload run: throughput, latency percentiles per operation and load per node
+ */
+@Getter
+@AllArgsConstructor
+public class WorkloadReport {
+
+    private final long operations;
+    private final long elapsedNanos;
+    private final long readHits;
+    private final Map<Operation, LatencyHistogram> latencies;
+
+    //Operations routed to each node by NodeManager, keyed by hostname:port in ring order
+    private final Map<String, Long> operationsPerNode;
+
+    //Entries held by each node at the end of the run
+    private final Map<String, Long> entriesPerNode;
+
+    public double getThroughput() {
+        return elapsedNanos == 0 ? 0 : operations * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+    }
+
+    public double getReadHitRatio() {
+        long reads = latencies.get(Operation.READ).getCount();
+        return reads == 0 ? 0 : (double) readHits / reads;
+    }
+
+    /**
+     * Ratio of the busiest node's operations to the mean, 1 is perfectly balanced
+     */
+    public double getLoadImbalance() {
+        long max = operationsPerNode.values().stream().mapToLong(Long::longValue).max().orElse(0);
+        double mean = operationsPerNode.values().stream().mapToLong(Long::longValue).average().orElse(0);
+        return mean == 0 ? 0 : max / mean;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("operations=%d elapsed=%dms throughput=%.0f ops/s readHitRatio=%.3f%n",
+                operations, TimeUnit.NANOSECONDS.toMillis(elapsedNanos), getThroughput(), getReadHitRatio()));
+        latencies.forEach((operation, histogram) -> {
+            if (histogram.getCount() > 0) {
+                sb.append(String.format("%-6s count=%d mean=%.1fus p50=%.1fus p95=%.1fus p99=%.1fus p99.9=%.1fus max=%.1fus%n",
+                        operation, histogram.getCount(), histogram.getMeanNanos() / 1000,
+                        micros(histogram.getPercentileNanos(50)), micros(histogram.getPercentileNanos(95)),
+                        micros(histogram.getPercentileNanos(99)), micros(histogram.getPercentileNanos(99.9)),
+                        micros(histogram.getMaxNanos())));
+            }
+        });
+        sb.append(String.format("load imbalance (max/mean)=%.2f%n", getLoadImbalance()));
+        operationsPerNode.forEach((node, ops) -> sb.append(String.format("  %s operations=%d entries=%d%n",
+                node, ops, entriesPerNode.getOrDefault(node, 0L))));
+        return sb.toString();
+    }
+
+    private static double micros(long nanos) {
+        return nanos / 1000.0;
+    }
+}
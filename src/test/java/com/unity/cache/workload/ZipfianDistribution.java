@@ -0,0 +1,63 @@
+package com.unity.cache.workload;
+
+import java.util.Random;
+
+/**
+ * Zipfian generator of Gray et al. "Quickly Generating Billion-Record Synthetic Databases", as used by YCSB
+ * <p>
+ * The normalization constant zeta(n, theta) is computed once in O(n), every sample is then O(1).
+ * The popular records are the low indexes; as keys are hashed onto the ring, they still spread over the nodes.
+ * </p>
+ */
+class ZipfianDistribution implements KeyDistribution {
+
+    private final long items;
+    private final double theta;
+    private final double alpha;
+    private final double zetaN;
+    private final double eta;
+    private final double halfPowTheta;
+
+    ZipfianDistribution(long items, double theta) {
+        if (items <= 0) {
+            throw new IllegalArgumentException("Record count must be larger than 0");
+        }
+        if (theta <= 0 || theta >= 1) {
+            throw new IllegalArgumentException("Zipfian constant must be in (0, 1)");
+        }
+        this.items = items;
+        this.theta = theta;
+        this.alpha = 1 / (1 - theta);
+        this.zetaN = zeta(items, theta);
+        this.halfPowTheta = 1 + Math.pow(0.5, theta);
+        double zeta2 = zeta(2, theta);
+        this.eta = (1 - Math.pow(2.0 / items, 1 - theta)) / (1 - zeta2 / zetaN);
+    }
+
+    private static double zeta(long n, double theta) {
+        double sum = 0;
+        for (long i = 1; i <= n; i++) {
+            sum += 1 / Math.pow(i, theta);
+        }
+        return sum;
+    }
+
+    @Override
+    public long nextIndex(Random random) {
+        double u = random.nextDouble();
+        double uz = u * zetaN;
+        if (uz < 1) {
+            return 0;
+        }
+        if (uz < halfPowTheta) {
+            return Math.min(1, items - 1);
+        }
+        long index = (long) (items * Math.pow(eta * u - eta + 1, alpha));
+        return Math.min(index, items - 1);
+    }
+
+    @Override
+    public String toString() {
+        return "zipfian(" + items + ", " + theta + ")";
+    }
+}